@@ -0,0 +1,263 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api;
+
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+import com.opsmatters.newrelic.api.httpclient.BaseHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreakerConfig;
+import com.opsmatters.newrelic.api.httpclient.ConcurrencyLimitConfig;
+import com.opsmatters.newrelic.api.httpclient.ConnectionPoolConfig;
+import com.opsmatters.newrelic.api.httpclient.HedgingPolicy;
+import com.opsmatters.newrelic.api.httpclient.RateLimitConfig;
+import com.opsmatters.newrelic.api.httpclient.ResponseCacheConfig;
+import com.opsmatters.newrelic.api.httpclient.RetryPolicy;
+import com.opsmatters.newrelic.api.httpclient.TimeoutConfig;
+
+/**
+ * Base class for the builders of the New Relic clients, containing the options shared by all the clients.
+ * 
+ * @param <T> The type of the client
+ * @param <B> The type of the builder
+ * @author Gerald Curley (opsmatters)
+ */
+public abstract class BaseClientBuilder<T extends NewRelicClient, B extends BaseClientBuilder<T,B>>
+{
+    private ConnectionPoolConfig connectionPool;
+    private ConnectorProvider connectorProvider;
+    private RetryPolicy retryPolicy;
+    private TimeoutConfig timeouts = new TimeoutConfig();
+    private RateLimitConfig rateLimit;
+    private ConcurrencyLimitConfig concurrencyLimit;
+    private boolean coalesceRequests = false;
+    private ResponseCacheConfig responseCache;
+    private boolean conditionalRequests = false;
+    private boolean leakDetection = false;
+    private CircuitBreakerConfig circuitBreaker;
+    private HedgingPolicy hedgingPolicy;
+    private boolean warmUp = false;
+
+    /**
+     * Sets the configuration of the pooled keep-alive connector used by the client.
+     * <P>
+     * If not set, the client uses a default connector without connection pooling.
+     * @param connectionPool The connection pool configuration
+     * @return This object
+     */
+    public B connectionPool(ConnectionPoolConfig connectionPool)
+    {
+        this.connectionPool = connectionPool;
+        return self();
+    }
+
+    /**
+     * Sets the provider of the connector used by the client, which takes precedence over the connection pool.
+     * <P>
+     * For example, an {@code Http2ConnectorProvider}
+     * sends the requests over HTTP/2 on Java 11 or later.
+     * @param connectorProvider The connector provider
+     * @return This object
+     */
+    public B connectorProvider(ConnectorProvider connectorProvider)
+    {
+        this.connectorProvider = connectorProvider;
+        return self();
+    }
+
+    /**
+     * Sets the policy used to retry failed requests.
+     * <P>
+     * If not set, failed requests are not retried.
+     * @param retryPolicy The policy used to retry failed requests
+     * @return This object
+     */
+    public B retryPolicy(RetryPolicy retryPolicy)
+    {
+        this.retryPolicy = retryPolicy;
+        return self();
+    }
+
+    /**
+     * Sets the default timeouts of the calls made by the client.
+     * <P>
+     * If not set, calls have a connect timeout of 10 seconds and a read timeout of 60 seconds.
+     * @param timeouts The timeout configuration
+     * @return This object
+     */
+    public B timeouts(TimeoutConfig timeouts)
+    {
+        this.timeouts = timeouts;
+        return self();
+    }
+
+    /**
+     * Sets the client-side limit on the rate of requests made with the key.
+     * <P>
+     * The limit is shared with all the other clients that use the same key with the same host.
+     * If not set, the rate of requests is not limited.
+     * @param rateLimit The rate limit configuration
+     * @return This object
+     */
+    public B rateLimit(RateLimitConfig rateLimit)
+    {
+        this.rateLimit = rateLimit;
+        return self();
+    }
+
+    /**
+     * Sets the adaptive limit on the number of concurrent requests made by the client.
+     * <P>
+     * If not set, the number of concurrent requests is not limited.
+     * @param concurrencyLimit The concurrency limit configuration
+     * @return This object
+     */
+    public B concurrencyLimit(ConcurrencyLimitConfig concurrencyLimit)
+    {
+        this.concurrencyLimit = concurrencyLimit;
+        return self();
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if identical GET requests made concurrently should share a single request and its result.
+     * <P>
+     * By default requests are not coalesced.
+     * @param coalesceRequests <CODE>true</CODE> if identical concurrent GET requests should be coalesced
+     * @return This object
+     */
+    public B coalesceRequests(boolean coalesceRequests)
+    {
+        this.coalesceRequests = coalesceRequests;
+        return self();
+    }
+
+    /**
+     * Sets the configuration of the cache of decoded responses to GET requests.
+     * <P>
+     * If not set, responses are not cached.
+     * @param responseCache The response cache configuration
+     * @return This object
+     */
+    public B responseCache(ResponseCacheConfig responseCache)
+    {
+        this.responseCache = responseCache;
+        return self();
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if GET requests should be made conditional using the validators of the previous response.
+     * <P>
+     * By default requests are not conditional.
+     * @param conditionalRequests <CODE>true</CODE> if GET requests should be made conditional
+     * @return This object
+     */
+    public B conditionalRequests(boolean conditionalRequests)
+    {
+        this.conditionalRequests = conditionalRequests;
+        return self();
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if responses that are not closed should be detected and reported.
+     * <P>
+     * This should only be used for debugging. By default leak detection is disabled.
+     * @param leakDetection <CODE>true</CODE> if responses that are not closed should be detected
+     * @return This object
+     */
+    public B leakDetection(boolean leakDetection)
+    {
+        this.leakDetection = leakDetection;
+        return self();
+    }
+
+    /**
+     * Sets the configuration of the circuit breakers used for each host and endpoint family.
+     * <P>
+     * By default circuit breakers are not used.
+     * @param circuitBreaker The circuit breaker configuration
+     * @return This object
+     */
+    public B circuitBreaker(CircuitBreakerConfig circuitBreaker)
+    {
+        this.circuitBreaker = circuitBreaker;
+        return self();
+    }
+
+    /**
+     * Sets the policy used to hedge GET requests that are slow to respond.
+     * <P>
+     * By default requests are not hedged.
+     * @param hedgingPolicy The hedging policy
+     * @return This object
+     */
+    public B hedgingPolicy(HedgingPolicy hedgingPolicy)
+    {
+        this.hedgingPolicy = hedgingPolicy;
+        return self();
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if the type adapters for the model classes should be created when the client is initialized.
+     * <P>
+     * By default the adapters are created the first time each model class is used.
+     * @param warmUp <CODE>true</CODE> if the type adapters should be created when the client is initialized
+     * @return This object
+     */
+    public B warmUp(boolean warmUp)
+    {
+        this.warmUp = warmUp;
+        return self();
+    }
+
+    /**
+     * Returns the configured client instance.
+     * @return The client instance
+     */
+    public abstract T build();
+
+    /**
+     * Applies the options of this builder to the given client and its HTTP client provider.
+     * @param api The client to configure
+     * @param provider The HTTP client provider of the client
+     * @return The configured client
+     */
+    protected T configure(T api, BaseHttpClientProvider provider)
+    {
+        provider.setConnectionPool(connectionPool);
+        provider.setConnectorProvider(connectorProvider);
+        api.setRetryPolicy(retryPolicy);
+        api.setTimeouts(timeouts);
+        api.setRateLimit(rateLimit);
+        api.setConcurrencyLimit(concurrencyLimit);
+        api.setCoalesceRequests(coalesceRequests);
+        api.setResponseCache(responseCache);
+        api.setConditionalRequests(conditionalRequests);
+        api.setLeakDetection(leakDetection);
+        api.setCircuitBreaker(circuitBreaker);
+        api.setHedgingPolicy(hedgingPolicy);
+        api.setWarmUp(warmUp);
+        return api;
+    }
+
+    /**
+     * Returns this builder as its own type.
+     * @return This object
+     */
+    @SuppressWarnings("unchecked")
+    protected B self()
+    {
+        return (B)this;
+    }
+}
@@ -362,11 +362,11 @@ public class NewRelicApi extends NewRelicClient
     /**
      * Builder to make NewRelicApi construction easier.
      */
-    public static class Builder
+    public static class Builder extends BaseClientBuilder<NewRelicApi,Builder>
     {
         private String hostname = DEFAULT_HOST;
         private int port = DEFAULT_PORT;
-        private HttpClientProvider provider = new ApiKeyHttpClientProvider("");
+        private ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("");
 
         /**
          * Default constructor.
@@ -419,7 +419,7 @@ public class NewRelicApi extends NewRelicClient
          */
         public NewRelicApi build()
         {
-            return new NewRelicApi(hostname, port, provider);
+            return configure(new NewRelicApi(hostname, port, provider), provider);
         }
     }
 }
\ No newline at end of file
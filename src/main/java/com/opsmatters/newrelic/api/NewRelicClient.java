@@ -16,10 +16,40 @@
 
 package com.opsmatters.newrelic.api;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import javax.ws.rs.client.Client;
 import com.opsmatters.newrelic.api.services.HttpContext;
+import com.opsmatters.newrelic.api.services.RequestCoalescer;
+import com.opsmatters.newrelic.api.services.RequestHedger;
+import com.opsmatters.newrelic.api.services.ResponseCache;
+import com.opsmatters.newrelic.api.services.ValidatorCache;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreaker;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreakerConfig;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreakerListener;
+import com.opsmatters.newrelic.api.httpclient.ConcurrencyLimitConfig;
+import com.opsmatters.newrelic.api.httpclient.ConcurrencyLimiter;
+import com.opsmatters.newrelic.api.httpclient.Deadline;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.HedgingPolicy;
 import com.opsmatters.newrelic.api.httpclient.HttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.RateLimitConfig;
+import com.opsmatters.newrelic.api.httpclient.ResponseCacheConfig;
+import com.opsmatters.newrelic.api.httpclient.RateLimiter;
+import com.opsmatters.newrelic.api.httpclient.RetryListener;
+import com.opsmatters.newrelic.api.httpclient.RetryPolicy;
+import com.opsmatters.newrelic.api.httpclient.TimeoutConfig;
+import com.opsmatters.newrelic.api.httpclient.filters.ResponseLeakDetector;
+import com.opsmatters.newrelic.api.util.ExecutionMode;
 
 /**
  * Client used to invoke New Relic operations using the REST API.
@@ -35,11 +65,32 @@ public abstract class NewRelicClient
      */
     public static final int DEFAULT_PORT = 443;
 
+    /**
+     * The default maximum number of concurrent calls made by a bulk operation.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 50;
+
     private String hostname = "";
     private int port = DEFAULT_PORT;
     protected HttpContext httpContext;
     protected HttpClientProvider provider;
     private boolean handleErrors = true;
+    private Executor executor;
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM_THREADS;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private RetryPolicy retryPolicy;
+    private RetryListener retryListener;
+    private TimeoutConfig timeouts = new TimeoutConfig();
+    private RateLimitConfig rateLimit;
+    private ConcurrencyLimitConfig concurrencyLimit;
+    private boolean coalesceRequests = false;
+    private ResponseCacheConfig responseCache;
+    private boolean conditionalRequests = false;
+    private boolean leakDetection = false;
+    private CircuitBreakerConfig circuitBreaker;
+    private CircuitBreakerListener circuitBreakerListener;
+    private HedgingPolicy hedgingPolicy;
+    private boolean warmUp = false;
     
     /**
      * Default constructor.
@@ -72,6 +123,21 @@ public abstract class NewRelicClient
         httpContext = new HttpContext(client, protocol, hostname, port);
         httpContext.setUriPrefix(getUriPrefix());
         httpContext.setThrowExceptions(handleErrors);
+        httpContext.setExecutor(executor);
+        httpContext.setRetryPolicy(retryPolicy);
+        httpContext.setRetryListener(retryListener);
+        httpContext.setTimeouts(timeouts);
+        httpContext.setRateLimiter(getRateLimiter(rateLimit));
+        httpContext.setConcurrencyLimiter(getConcurrencyLimiter(concurrencyLimit));
+        httpContext.setCoalesceRequests(coalesceRequests);
+        httpContext.setResponseCache(responseCache != null ? new ResponseCache(responseCache) : null);
+        httpContext.setConditionalRequests(conditionalRequests);
+        httpContext.setLeakDetection(leakDetection);
+        httpContext.setCircuitBreaker(circuitBreaker);
+        httpContext.setCircuitBreakerListener(circuitBreakerListener);
+        httpContext.setHedgingPolicy(hedgingPolicy);
+        if(warmUp)
+            GsonRegistry.warmUp();
         String className = getClass().getName();
         logger.fine(className.substring(className.lastIndexOf(".")+1)+" initialized");
         return this;
@@ -133,6 +199,578 @@ public abstract class NewRelicClient
         return handleErrors;
     }
 
+    /**
+     * Sets the executor used to run the asynchronous operations of the services.
+     * <P>
+     * Defaults to a shared pool of {@link HttpContext#DEFAULT_THREADS} daemon threads.
+     * Each asynchronous operation holds a thread of the executor until it completes,
+     * so an executor with more threads is needed to have more operations in flight at once.
+     * @param executor The executor used to run asynchronous operations
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+        if(httpContext != null)
+            httpContext.setExecutor(executor);
+    }
+
+    /**
+     * Returns the executor used to run the asynchronous operations of the services.
+     * @return The executor used to run asynchronous operations, or <CODE>null</CODE> if the default is used
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Sets the policy used to retry failed requests.
+     * <P>
+     * Defaults to a policy that never retries requests.
+     * @param retryPolicy The policy used to retry failed requests
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy)
+    {
+        this.retryPolicy = retryPolicy;
+        if(httpContext != null)
+            httpContext.setRetryPolicy(retryPolicy);
+    }
+
+    /**
+     * Returns the policy used to retry failed requests.
+     * @return The policy used to retry failed requests, or <CODE>null</CODE> if the default is used
+     */
+    public RetryPolicy getRetryPolicy()
+    {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the listener notified of the attempts made to execute each request.
+     * @param retryListener The listener notified of the attempts made to execute each request
+     */
+    public void setRetryListener(RetryListener retryListener)
+    {
+        this.retryListener = retryListener;
+        if(httpContext != null)
+            httpContext.setRetryListener(retryListener);
+    }
+
+    /**
+     * Returns the listener notified of the attempts made to execute each request.
+     * @return The listener notified of the attempts made to execute each request, or <CODE>null</CODE> if there is none
+     */
+    public RetryListener getRetryListener()
+    {
+        return retryListener;
+    }
+
+    /**
+     * Sets the default timeouts of the calls made by the client.
+     * <P>
+     * The default is a connect timeout of 10 seconds and a read timeout of 60 seconds, with no call timeout.
+     * @param timeouts The timeout configuration, or <CODE>null</CODE> to use the timeouts of the HTTP client
+     */
+    public void setTimeouts(TimeoutConfig timeouts)
+    {
+        this.timeouts = timeouts;
+        if(httpContext != null)
+            httpContext.setTimeouts(timeouts);
+    }
+
+    /**
+     * Returns the default timeouts of the calls made by the client.
+     * @return The timeout configuration, or <CODE>null</CODE> if the timeouts of the HTTP client are used
+     */
+    public TimeoutConfig getTimeouts()
+    {
+        return timeouts;
+    }
+
+    /**
+     * Sets the client-side limit on the rate of requests made with the key of the client.
+     * <P>
+     * The limit is shared with all the other clients that use the same key with the same host.
+     * By default the rate of requests is not limited.
+     * @param rateLimit The rate limit configuration, or <CODE>null</CODE> if the rate should not be limited
+     */
+    public void setRateLimit(RateLimitConfig rateLimit)
+    {
+        this.rateLimit = rateLimit;
+        if(httpContext != null)
+            httpContext.setRateLimiter(getRateLimiter(rateLimit));
+    }
+
+    /**
+     * Returns the client-side limit on the rate of requests made with the key of the client.
+     * @return The rate limit configuration, or <CODE>null</CODE> if the rate is not limited
+     */
+    public RateLimitConfig getRateLimit()
+    {
+        return rateLimit;
+    }
+
+    /**
+     * Returns the limiter used to restrict the rate of requests, which includes the wait time statistics.
+     * @return The limiter used to restrict the rate of requests, or <CODE>null</CODE> if the rate is not limited
+     */
+    public RateLimiter getRateLimiter()
+    {
+        checkInitialize();
+        return httpContext.getRateLimiter();
+    }
+
+    /**
+     * Returns the limiter shared by the clients that use the key of this client with the same host.
+     * @param rateLimit The rate limit configuration
+     * @return The limiter for the key and host, or <CODE>null</CODE> if the rate is not limited
+     */
+    private RateLimiter getRateLimiter(RateLimitConfig rateLimit)
+    {
+        if(rateLimit == null)
+            return null;
+        return RateLimiter.getInstance(provider.getKeyId(), hostname, port, rateLimit);
+    }
+
+    /**
+     * Sets the adaptive limit on the number of concurrent requests made by the client.
+     * <P>
+     * By default the number of concurrent requests is not limited.
+     * @param concurrencyLimit The concurrency limit configuration, or <CODE>null</CODE> if the number of concurrent requests should not be limited
+     */
+    public void setConcurrencyLimit(ConcurrencyLimitConfig concurrencyLimit)
+    {
+        this.concurrencyLimit = concurrencyLimit;
+        if(httpContext != null)
+            httpContext.setConcurrencyLimiter(getConcurrencyLimiter(concurrencyLimit));
+    }
+
+    /**
+     * Returns the adaptive limit on the number of concurrent requests made by the client.
+     * @return The concurrency limit configuration, or <CODE>null</CODE> if the number of concurrent requests is not limited
+     */
+    public ConcurrencyLimitConfig getConcurrencyLimit()
+    {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Returns the limiter used to restrict the number of concurrent requests, which includes the current limit and queue length.
+     * @return The limiter used to restrict the number of concurrent requests, or <CODE>null</CODE> if the number is not limited
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter()
+    {
+        checkInitialize();
+        return httpContext.getConcurrencyLimiter();
+    }
+
+    /**
+     * Returns a new limiter for the number of concurrent requests made by the client.
+     * @param concurrencyLimit The concurrency limit configuration
+     * @return The limiter for the number of concurrent requests, or <CODE>null</CODE> if the number is not limited
+     */
+    private ConcurrencyLimiter getConcurrencyLimiter(ConcurrencyLimitConfig concurrencyLimit)
+    {
+        if(concurrencyLimit == null)
+            return null;
+        return new ConcurrencyLimiter(concurrencyLimit);
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if identical GET requests made concurrently should share a single request and its result.
+     * <P>
+     * Because the result is shared, it should not be modified by the callers.
+     * By default requests are not coalesced.
+     * @param b <CODE>true</CODE> if identical concurrent GET requests should be coalesced
+     */
+    public void setCoalesceRequests(boolean b)
+    {
+        coalesceRequests = b;
+        if(httpContext != null)
+            httpContext.setCoalesceRequests(b);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if identical GET requests made concurrently should share a single request and its result.
+     * @return <CODE>true</CODE> if identical concurrent GET requests should be coalesced
+     */
+    public boolean coalesceRequests()
+    {
+        return coalesceRequests;
+    }
+
+    /**
+     * Returns the object used to coalesce identical concurrent GET requests, which includes the coalesced request counts.
+     * @return The object used to coalesce identical concurrent GET requests, or <CODE>null</CODE> if requests are not coalesced
+     */
+    public RequestCoalescer getRequestCoalescer()
+    {
+        checkInitialize();
+        return httpContext.getRequestCoalescer();
+    }
+
+    /**
+     * Sets the configuration of the cache of decoded responses to GET requests.
+     * <P>
+     * Because the cached responses are shared, they should not be modified by the callers.
+     * By default responses are not cached.
+     * @param responseCache The response cache configuration, or <CODE>null</CODE> if responses should not be cached
+     */
+    public void setResponseCache(ResponseCacheConfig responseCache)
+    {
+        this.responseCache = responseCache;
+        if(httpContext != null)
+            httpContext.setResponseCache(responseCache != null ? new ResponseCache(responseCache) : null);
+    }
+
+    /**
+     * Returns the cache of decoded responses to GET requests, which includes the hit and miss counts.
+     * @return The cache of decoded responses, or <CODE>null</CODE> if responses are not cached
+     */
+    public ResponseCache getResponseCache()
+    {
+        checkInitialize();
+        return httpContext.getResponseCache();
+    }
+
+    /**
+     * Executes the given operation without using the response cache for the requests it makes,
+     * including any asynchronous operations, bulk operations and pagination started by the operation.
+     * <P>
+     * For example, to retrieve the latest version of an application:
+     * <PRE>
+     * Optional&lt;Application&gt; application = api.uncached(() -&gt; api.applications().show(id));
+     * </PRE>
+     * @param <T> The type parameter used for the result
+     * @param operation The operation to execute
+     * @return The result of the operation
+     */
+    public <T> T uncached(Supplier<T> operation)
+    {
+        return ResponseCache.bypass(operation);
+    }
+
+    /**
+     * Executes the given operation with a deadline for the calls it makes, including any retries,
+     * asynchronous operations, bulk operations and pagination started by the operation.
+     * <P>
+     * For example, to retrieve the metric data for an application within 5 seconds:
+     * <PRE>
+     * Optional&lt;MetricData&gt; data = api.withDeadline(5000L, () -&gt; api.applications().metricData(applicationId, params));
+     * </PRE>
+     * @param <T> The type parameter used for the result
+     * @param timeout The time in milliseconds until the deadline
+     * @param operation The operation to execute
+     * @return The result of the operation
+     * @throws com.opsmatters.newrelic.api.exceptions.DeadlineExceededException if the deadline passes before the calls complete
+     */
+    public <T> T withDeadline(long timeout, Supplier<T> operation)
+    {
+        return Deadline.after(timeout).run(operation);
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if GET requests should be made conditional using the "ETag" and "Last-Modified" 
+     * validators of the previous response.
+     * <P>
+     * If the server replies that the response has not been modified, the decoded response of the previous request 
+     * is returned, so it should not be modified by the callers. By default requests are not conditional.
+     * @param b <CODE>true</CODE> if GET requests should be made conditional
+     */
+    public void setConditionalRequests(boolean b)
+    {
+        conditionalRequests = b;
+        if(httpContext != null)
+            httpContext.setConditionalRequests(b);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if GET requests should be made conditional using the validators of the previous response.
+     * @return <CODE>true</CODE> if GET requests should be made conditional
+     */
+    public boolean conditionalRequests()
+    {
+        return conditionalRequests;
+    }
+
+    /**
+     * Returns the validators of the previous responses to GET requests, which includes the count of unmodified responses.
+     * @return The validators of the previous responses, or <CODE>null</CODE> if requests are not conditional
+     */
+    public ValidatorCache getValidatorCache()
+    {
+        checkInitialize();
+        return httpContext.getValidatorCache();
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if responses that are not closed should be detected and reported with the stack 
+     * of the call that made the request.
+     * <P>
+     * Capturing the stack for each request is expensive, so this should only be used for debugging. 
+     * By default leak detection is disabled.
+     * @param b <CODE>true</CODE> if responses that are not closed should be detected
+     */
+    public void setLeakDetection(boolean b)
+    {
+        leakDetection = b;
+        if(httpContext != null)
+            httpContext.setLeakDetection(b);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if responses that are not closed should be detected and reported.
+     * @return <CODE>true</CODE> if responses that are not closed should be detected
+     */
+    public boolean leakDetection()
+    {
+        return leakDetection;
+    }
+
+    /**
+     * Returns the detector of responses that are not closed, which includes the counts of open and leaked responses.
+     * @return The detector of responses that are not closed, or <CODE>null</CODE> if leak detection is disabled
+     */
+    public ResponseLeakDetector getLeakDetector()
+    {
+        checkInitialize();
+        return httpContext.getLeakDetector();
+    }
+
+    /**
+     * Sets the configuration of the circuit breakers used for each host and endpoint family.
+     * <P>
+     * While the circuit for an endpoint family is open, calls to it fail fast with a 
+     * {@link com.opsmatters.newrelic.api.exceptions.CircuitBreakerOpenException CircuitBreakerOpenException}.
+     * By default circuit breakers are not used.
+     * @param circuitBreaker The circuit breaker configuration, or <CODE>null</CODE> if circuit breakers should not be used
+     */
+    public void setCircuitBreaker(CircuitBreakerConfig circuitBreaker)
+    {
+        this.circuitBreaker = circuitBreaker;
+        if(httpContext != null)
+            httpContext.setCircuitBreaker(circuitBreaker);
+    }
+
+    /**
+     * Returns the configuration of the circuit breakers used for each host and endpoint family.
+     * @return The circuit breaker configuration, or <CODE>null</CODE> if circuit breakers are not used
+     */
+    public CircuitBreakerConfig getCircuitBreaker()
+    {
+        return circuitBreaker;
+    }
+
+    /**
+     * Sets the listener notified when the state of a circuit breaker changes.
+     * @param circuitBreakerListener The listener notified when the state of a circuit breaker changes
+     */
+    public void setCircuitBreakerListener(CircuitBreakerListener circuitBreakerListener)
+    {
+        this.circuitBreakerListener = circuitBreakerListener;
+        if(httpContext != null)
+            httpContext.setCircuitBreakerListener(circuitBreakerListener);
+    }
+
+    /**
+     * Returns the listener notified when the state of a circuit breaker changes.
+     * @return The listener notified when the state of a circuit breaker changes, or <CODE>null</CODE> if there is none
+     */
+    public CircuitBreakerListener getCircuitBreakerListener()
+    {
+        return circuitBreakerListener;
+    }
+
+    /**
+     * Returns the circuit breakers for each host and endpoint family that has been called, including their current state.
+     * @return The circuit breakers, keyed by name
+     */
+    public Map<String,CircuitBreaker> getCircuitBreakers()
+    {
+        checkInitialize();
+        return httpContext.getCircuitBreakers();
+    }
+
+    /**
+     * Sets the policy used to hedge GET requests that are slow to respond.
+     * <P>
+     * If there is no response to a GET request within the hedging delay, a second identical request is sent
+     * and the first of the two to respond is used. The second request counts against the rate limit.
+     * By default requests are not hedged.
+     * @param hedgingPolicy The hedging policy, or <CODE>null</CODE> if requests should not be hedged
+     */
+    public void setHedgingPolicy(HedgingPolicy hedgingPolicy)
+    {
+        this.hedgingPolicy = hedgingPolicy;
+        if(httpContext != null)
+            httpContext.setHedgingPolicy(hedgingPolicy);
+    }
+
+    /**
+     * Returns the policy used to hedge GET requests that are slow to respond.
+     * @return The hedging policy, or <CODE>null</CODE> if requests are not hedged
+     */
+    public HedgingPolicy getHedgingPolicy()
+    {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Returns the hedger of GET requests, which includes the counts of the hedged requests.
+     * @return The hedger of GET requests, or <CODE>null</CODE> if requests are not hedged
+     */
+    public RequestHedger getRequestHedger()
+    {
+        checkInitialize();
+        return httpContext.getRequestHedger();
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if the type adapters for the model classes should be created when the client is initialized.
+     * <P>
+     * This moves the cost of creating the adapters out of the first requests, 
+     * but creates the adapters for all the model classes, including those the application never uses.
+     * The adapters are shared by all clients, so they are only created once.
+     * By default the adapters are created the first time each model class is used.
+     * @param b <CODE>true</CODE> if the type adapters should be created when the client is initialized
+     */
+    public void setWarmUp(boolean b)
+    {
+        warmUp = b;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the type adapters for the model classes should be created when the client is initialized.
+     * @return <CODE>true</CODE> if the type adapters should be created when the client is initialized
+     */
+    public boolean warmUp()
+    {
+        return warmUp;
+    }
+
+    /**
+     * Sets the kind of threads used to run bulk operations.
+     * <P>
+     * The default is to use the platform threads of the client executor.
+     * @param executionMode The kind of threads used to run bulk operations
+     */
+    public void setExecutionMode(ExecutionMode executionMode)
+    {
+        this.executionMode = executionMode;
+    }
+
+    /**
+     * Returns the kind of threads used to run bulk operations.
+     * @return The kind of threads used to run bulk operations
+     */
+    public ExecutionMode getExecutionMode()
+    {
+        return executionMode;
+    }
+
+    /**
+     * Sets the maximum number of concurrent calls made by a bulk operation.
+     * <P>
+     * The default is 50.
+     * @param maxConcurrency The maximum number of concurrent calls
+     */
+    public void setMaxConcurrency(int maxConcurrency)
+    {
+        if(maxConcurrency < 1)
+            throw new IllegalArgumentException("maxConcurrency < 1");
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Returns the maximum number of concurrent calls made by a bulk operation.
+     * @return The maximum number of concurrent calls
+     */
+    public int getMaxConcurrency()
+    {
+        return maxConcurrency;
+    }
+
+    /**
+     * Executes the given operation for each of the inputs concurrently, 
+     * using the current execution mode and limited to the maximum concurrency.
+     * <P>
+     * The operations are executed inside the current deadline, if there is one.
+     * If an operation fails, no more operations are started, the operations still running are cancelled,
+     * and the failure of the first operation to fail is thrown.
+     * <P>
+     * For example, to retrieve a set of applications:
+     * <PRE>
+     * List&lt;Optional&lt;Application&gt;&gt; applications = api.bulk(ids, id -&gt; api.applications().show(id));
+     * </PRE>
+     * @param <T> The type parameter used for the inputs
+     * @param <R> The type parameter used for the results
+     * @param inputs The inputs to execute the operation for
+     * @param operation The operation to execute for each input
+     * @return The results of the operation, in the same order as the inputs
+     */
+    public <T, R> List<R> bulk(Collection<T> inputs, Function<T, R> operation)
+    {
+        checkInitialize();
+        Executor executor = executionMode.getExecutor(httpContext.getExecutor());
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<CompletableFuture<R>> futures = new ArrayList<CompletableFuture<R>>(inputs.size());
+        CompletableFuture<R> failed = new CompletableFuture<R>();
+        boolean completed = false;
+
+        try
+        {
+            for(T input : inputs)
+            {
+                permits.acquireUninterruptibly();
+
+                // Stop submitting operations once one has failed
+                if(failed.isDone())
+                {
+                    permits.release();
+                    break;
+                }
+
+                CompletableFuture<R> future = Deadline.supplyAsync(() -> operation.apply(input), executor);
+                future.whenComplete((result, e) ->
+                {
+                    // Record the failure before releasing the permit, so that it is seen by the next submission
+                    if(e != null)
+                        failed.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    permits.release();
+                });
+                futures.add(future);
+            }
+
+            // Wait for all the operations to complete, or for the first to fail
+            CompletableFuture.anyOf(failed, CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))).join();
+            if(failed.isCompletedExceptionally())
+                failed.join();
+
+            List<R> results = new ArrayList<R>(futures.size());
+            for(CompletableFuture<R> future : futures)
+                results.add(future.join());
+            completed = true;
+            return results;
+        }
+        catch(CompletionException e)
+        {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            if(e.getCause() instanceof Error)
+                throw (Error)e.getCause();
+            throw e;
+        }
+        finally
+        {
+            // Cancel the operations still running, which cancels their calls
+            if(!completed)
+            {
+                for(CompletableFuture<R> future : futures)
+                    future.cancel(true);
+            }
+        }
+    }
+
     /**
      * Returns the uri prefix for resources used by the client.
      * <P>
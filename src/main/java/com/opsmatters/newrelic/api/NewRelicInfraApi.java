@@ -87,11 +87,11 @@ public class NewRelicInfraApi extends NewRelicClient
     /**
      * Builder to make NewRelicInfraApi construction easier.
      */
-    public static class Builder
+    public static class Builder extends BaseClientBuilder<NewRelicInfraApi,Builder>
     {
         private String hostname = DEFAULT_HOST;
         private int port = DEFAULT_PORT;
-        private HttpClientProvider provider = new ApiKeyHttpClientProvider("");
+        private ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("");
 
         /**
          * Default constructor.
@@ -144,7 +144,7 @@ public class NewRelicInfraApi extends NewRelicClient
          */
         public NewRelicInfraApi build()
         {
-            return new NewRelicInfraApi(hostname, port, provider);
+            return configure(new NewRelicInfraApi(hostname, port, provider), provider);
         }
     }
 }
\ No newline at end of file
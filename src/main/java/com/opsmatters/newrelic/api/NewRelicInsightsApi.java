@@ -87,11 +87,11 @@ public class NewRelicInsightsApi extends NewRelicClient
     /**
      * Builder to make NewRelicInsightsApi construction easier.
      */
-    public static class Builder
+    public static class Builder extends BaseClientBuilder<NewRelicInsightsApi,Builder>
     {
         private String hostname = DEFAULT_HOST;
         private int port = DEFAULT_PORT;
-        private HttpClientProvider provider = new QueryKeyHttpClientProvider("");
+        private QueryKeyHttpClientProvider provider = new QueryKeyHttpClientProvider("");
 
         /**
          * Default constructor.
@@ -144,7 +144,7 @@ public class NewRelicInsightsApi extends NewRelicClient
          */
         public NewRelicInsightsApi build()
         {
-            return new NewRelicInsightsApi(hostname, port, provider);
+            return configure(new NewRelicInsightsApi(hostname, port, provider), provider);
         }
     }
 }
\ No newline at end of file
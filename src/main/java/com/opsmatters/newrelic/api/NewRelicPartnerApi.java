@@ -121,11 +121,11 @@ public class NewRelicPartnerApi extends NewRelicClient
     /**
      * Builder to make NewRelicPartnerApi construction easier.
      */
-    public static class Builder
+    public static class Builder extends BaseClientBuilder<NewRelicPartnerApi,Builder>
     {
         private String hostname = DEFAULT_HOST;
         private int port = DEFAULT_PORT;
-        private HttpClientProvider provider = new ApiKeyHttpClientProvider("");
+        private ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("");
 
         /**
          * Default constructor.
@@ -178,7 +178,7 @@ public class NewRelicPartnerApi extends NewRelicClient
          */
         public NewRelicPartnerApi build()
         {
-            return new NewRelicPartnerApi(hostname, port, provider);
+            return configure(new NewRelicPartnerApi(hostname, port, provider), provider);
         }
     }
 }
\ No newline at end of file
@@ -99,11 +99,11 @@ public class NewRelicPluginsApi extends NewRelicClient
     /**
      * Builder to make NewRelicPluginsApi construction easier.
      */
-    public static class Builder
+    public static class Builder extends BaseClientBuilder<NewRelicPluginsApi,Builder>
     {
         private String hostname = DEFAULT_HOST;
         private int port = DEFAULT_PORT;
-        private HttpClientProvider provider = new LicenseKeyHttpClientProvider("");
+        private LicenseKeyHttpClientProvider provider = new LicenseKeyHttpClientProvider("");
 
         /**
          * Default constructor.
@@ -156,7 +156,7 @@ public class NewRelicPluginsApi extends NewRelicClient
          */
         public NewRelicPluginsApi build()
         {
-            return new NewRelicPluginsApi(hostname, port, provider);
+            return configure(new NewRelicPluginsApi(hostname, port, provider), provider);
         }
     }
 }
\ No newline at end of file
@@ -110,11 +110,11 @@ public class NewRelicSyntheticsApi extends NewRelicClient
     /**
      * Builder to make NewRelicSyntheticsApi construction easier.
      */
-    public static class Builder
+    public static class Builder extends BaseClientBuilder<NewRelicSyntheticsApi,Builder>
     {
         private String hostname = DEFAULT_HOST;
         private int port = DEFAULT_PORT;
-        private HttpClientProvider provider = new ApiKeyHttpClientProvider("");
+        private ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("");
 
         /**
          * Default constructor.
@@ -167,7 +167,7 @@ public class NewRelicSyntheticsApi extends NewRelicClient
          */
         public NewRelicSyntheticsApi build()
         {
-            return new NewRelicSyntheticsApi(hostname, port, provider);
+            return configure(new NewRelicSyntheticsApi(hostname, port, provider), provider);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.exceptions;
+
+import com.opsmatters.newrelic.api.httpclient.CircuitBreaker;
+
+/**
+ * Exception thrown when a call is rejected because the circuit breaker for its host and endpoint family is open.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class CircuitBreakerOpenException extends RuntimeException
+{
+    private String name;
+    private CircuitBreaker.State state;
+    private long retryAfter;
+
+    /**
+     * Constructor that takes the name and state of the circuit breaker, and the time until calls are allowed.
+     * @param name The name of the circuit breaker
+     * @param state The state of the circuit breaker
+     * @param retryAfter The time in milliseconds until trial calls are allowed, or 0 if the trial calls are in progress
+     */
+    public CircuitBreakerOpenException(String name, CircuitBreaker.State state, long retryAfter)
+    {
+        super("Circuit breaker "+name+" is "+state
+            +(retryAfter > 0L ? ", retry after "+retryAfter+"ms" : ", trial calls in progress"));
+
+        this.name = name;
+        this.state = state;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the name of the circuit breaker, which includes the host and endpoint family.
+     * @return The name of the circuit breaker
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the state of the circuit breaker when the call was rejected.
+     * @return The state of the circuit breaker
+     */
+    public CircuitBreaker.State getState()
+    {
+        return state;
+    }
+
+    /**
+     * Returns the time in milliseconds until trial calls are allowed.
+     * @return The time until trial calls are allowed, or 0 if the trial calls are in progress
+     */
+    public long getRetryAfter()
+    {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.exceptions;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Exception thrown when a call does not complete before its deadline or call timeout.
+ * <P>
+ * This is a {@link ProcessingException}, like the connect and read timeouts of a single attempt.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class DeadlineExceededException extends ProcessingException
+{
+    private long timeout;
+
+    /**
+     * Constructor that takes the timeout that was exceeded.
+     * @param timeout The timeout that was exceeded, in milliseconds
+     */
+    public DeadlineExceededException(long timeout)
+    {
+        this(timeout, null);
+    }
+
+    /**
+     * Constructor that takes the timeout that was exceeded and the failure it caused.
+     * @param timeout The timeout that was exceeded, in milliseconds
+     * @param cause The failure of the last attempt, or <CODE>null</CODE>
+     */
+    public DeadlineExceededException(long timeout, Throwable cause)
+    {
+        super("Deadline of "+timeout+"ms exceeded", cause);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the timeout that was exceeded.
+     * @return The timeout that was exceeded, in milliseconds
+     */
+    public long getTimeout()
+    {
+        return timeout;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestFilter;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.HttpUrlConnectorProvider;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+import org.glassfish.jersey.logging.LoggingFeature;
+import com.google.common.hash.Hashing;
+
+/**
+ * Base class for HTTP client providers that attach a key used for authentication.
+ * <P>
+ * By default the client uses the JDK HttpURLConnection connector. 
+ * If a connection pool has been configured, the client uses a pooled keep-alive connector instead,
+ * and if a connector provider has been configured, the client uses the connector it provides,
+ * eg. an {@code Http2ConnectorProvider} for HTTP/2 on Java 11 or later.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public abstract class BaseHttpClientProvider implements HttpClientProvider
+{
+    private static final Logger logger = Logger.getLogger(BaseHttpClientProvider.class.getName());
+
+    /**
+     * The classes of the optional jersey-apache-connector dependency and the Apache HttpClient library it uses.
+     */
+    private static final String[] POOLED_CONNECTOR_CLASSES = new String[]
+    {
+        "org.glassfish.jersey.apache.connector.ApacheConnectorProvider",
+        "org.apache.http.impl.conn.PoolingHttpClientConnectionManager"
+    };
+
+    private ConnectionPoolConfig connectionPool;
+    private ConnectorProvider connectorProvider;
+
+    /**
+     * Returns an opaque id for the given key, which is a hash of the key.
+     * @param key The key used for authentication
+     * @return The id of the key, or <CODE>null</CODE> if the key is <CODE>null</CODE>
+     */
+    protected static String getKeyId(String key)
+    {
+        if(key == null)
+            return null;
+        return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString().substring(0, 16);
+    }
+
+    /**
+     * Sets the configuration of the connection pool used by the client.
+     * @param connectionPool The connection pool configuration, or <CODE>null</CODE> to use the default connector
+     */
+    public void setConnectionPool(ConnectionPoolConfig connectionPool)
+    {
+        this.connectionPool = connectionPool;
+    }
+
+    /**
+     * Returns the configuration of the connection pool used by the client.
+     * @return The connection pool configuration, or <CODE>null</CODE> if the default connector is used
+     */
+    public ConnectionPoolConfig getConnectionPool()
+    {
+        return connectionPool;
+    }
+
+    /**
+     * Sets the provider of the connector used by the client, which takes precedence over the connection pool.
+     * @param connectorProvider The connector provider, or <CODE>null</CODE> to use the default connector
+     */
+    public void setConnectorProvider(ConnectorProvider connectorProvider)
+    {
+        this.connectorProvider = connectorProvider;
+    }
+
+    /**
+     * Returns the provider of the connector used by the client.
+     * @return The connector provider, or <CODE>null</CODE> if the default connector is used
+     */
+    public ConnectorProvider getConnectorProvider()
+    {
+        return connectorProvider;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the provider should use https.
+     * @return <CODE>true</CODE> if the provider should use https
+     */
+    @Override
+    public boolean useSsl()
+    {
+        return true;
+    }
+
+    /**
+     * Returns the HTTP client.
+     * @return The HTTP client
+     * @throws IllegalStateException if a connection pool has been configured and the jersey-apache-connector dependency is missing
+     */
+    @Override
+    public Client getClient()
+    {
+        ClientConfig config = new ClientConfig();
+        config.register(GsonMessageBodyHandler.class);   
+        if(connectorProvider != null)
+            config.connectorProvider(connectorProvider);
+        else if(connectionPool != null)
+        {
+            checkPooledConnector();
+            PooledConnector.configure(config, connectionPool);
+        }
+        Client client = ClientBuilder.newClient(config);
+        if(connectorProvider == null && connectionPool == null)
+            client.property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true); // To support PATCH method
+        client.register(getFilter());
+        if(logger.isLoggable(Level.FINE))
+            client.register(new LoggingFeature(logger, Level.FINE, LoggingFeature.Verbosity.PAYLOAD_TEXT, 8192));
+        return client;
+    }
+
+    /**
+     * Returns the filter used to attach the key to each request.
+     * @return The filter used to attach the key to each request
+     */
+    protected abstract ClientRequestFilter getFilter();
+
+    /**
+     * Checks that the optional dependencies of the pooled keep-alive connector are available.
+     * @throws IllegalStateException if the jersey-apache-connector dependency is missing
+     */
+    private void checkPooledConnector()
+    {
+        for(String className : POOLED_CONNECTOR_CLASSES)
+        {
+            try
+            {
+                Class.forName(className, false, BaseHttpClientProvider.class.getClassLoader());
+            }
+            catch(ClassNotFoundException | LinkageError e)
+            {
+                throw new IllegalStateException("Connection pooling requires the optional dependency "
+                    +"org.glassfish.jersey.connectors:jersey-apache-connector, class not found: "+className, e);
+            }
+        }
+    }
+}
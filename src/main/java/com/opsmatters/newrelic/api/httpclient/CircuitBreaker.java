@@ -0,0 +1,392 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import com.opsmatters.newrelic.api.exceptions.CircuitBreakerOpenException;
+
+/**
+ * Stops calls being made to a host and endpoint family that is failing, so that callers fail fast
+ * instead of waiting on the failing calls.
+ * <P>
+ * While the circuit is closed, the outcomes of the most recent calls are recorded and the circuit opens
+ * when the rate of failed or slow calls reaches its threshold. While the circuit is open, calls are rejected
+ * with a {@link CircuitBreakerOpenException}. Once the open duration has passed, the circuit is half-open
+ * and a number of trial calls are allowed: the circuit closes if they all succeed, or opens again if any of them fails.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class CircuitBreaker
+{
+    private static final Logger logger = Logger.getLogger(CircuitBreaker.class.getName());
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    /**
+     * The states of the circuit.
+     */
+    public enum State
+    {
+        CLOSED,
+        OPEN,
+        HALF_OPEN;
+    }
+
+    private String name;
+    private CircuitBreakerConfig config;
+    private CircuitBreakerListener listener;
+    private State state = State.CLOSED;
+    private long generation;
+    private byte[] outcomes;
+    private int position;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int trialCalls;
+    private int trialSuccesses;
+    private long rejectedCalls;
+    private ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructor that takes a name and the circuit breaker configuration.
+     * @param name The name of the circuit breaker, eg. "api.newrelic.com:443/v2/applications"
+     * @param config The circuit breaker configuration
+     */
+    public CircuitBreaker(String name, CircuitBreakerConfig config)
+    {
+        this.name = name;
+        this.config = config;
+        this.outcomes = new byte[config.getWindowSize()];
+    }
+
+    /**
+     * Returns the name of the circuit breaker.
+     * @return The name of the circuit breaker
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the configuration of the circuit breaker.
+     * @return The configuration of the circuit breaker
+     */
+    public CircuitBreakerConfig getConfig()
+    {
+        return config;
+    }
+
+    /**
+     * Sets the listener notified when the state of the circuit changes.
+     * @param listener The listener notified when the state of the circuit changes
+     */
+    public void setListener(CircuitBreakerListener listener)
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the listener notified when the state of the circuit changes.
+     * @return The listener notified when the state of the circuit changes, or <CODE>null</CODE> if there is none
+     */
+    public CircuitBreakerListener getListener()
+    {
+        return listener;
+    }
+
+    /**
+     * Checks that a call is permitted, moving the circuit to half-open if the open duration has passed.
+     * @return The permit for the call, to be passed to {@link #release(long, long, boolean)} or {@link #cancel(long)}
+     * @throws CircuitBreakerOpenException if the call is not permitted
+     */
+    public long acquire()
+    {
+        State previous = null;
+        lock.lock();
+        try
+        {
+            if(state == State.OPEN)
+            {
+                long remaining = config.getOpenDuration()-TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-openedAt);
+                if(remaining > 0L)
+                {
+                    ++rejectedCalls;
+                    throw new CircuitBreakerOpenException(name, state, remaining);
+                }
+                previous = transition(State.HALF_OPEN);
+            }
+
+            if(state == State.HALF_OPEN)
+            {
+                if(trialCalls >= config.getHalfOpenCalls())
+                {
+                    ++rejectedCalls;
+                    throw new CircuitBreakerOpenException(name, state, 0L);
+                }
+                ++trialCalls;
+            }
+
+            return generation;
+        }
+        finally
+        {
+            lock.unlock();
+            if(previous != null)
+                notify(previous, State.HALF_OPEN);
+        }
+    }
+
+    /**
+     * Records the outcome of a completed call and changes the state of the circuit if necessary.
+     * <P>
+     * Calls that were permitted before the last change of state are ignored.
+     * @param permit The permit for the call, as returned by {@link #acquire()}
+     * @param latency The time taken by the call in milliseconds
+     * @param failed <CODE>true</CODE> if the call failed
+     */
+    public void release(long permit, long latency, boolean failed)
+    {
+        boolean slow = latency > config.getSlowCallDuration();
+        State previous = null;
+        State current = null;
+
+        lock.lock();
+        try
+        {
+            if(permit != generation)
+                return;
+
+            if(state == State.CLOSED)
+            {
+                record(failed, slow);
+                if(calls >= config.getMinimumCalls()
+                    && (getRate(failures) >= config.getFailureRateThreshold()
+                        || getRate(slowCalls) >= config.getSlowCallRateThreshold()))
+                {
+                    previous = transition(State.OPEN);
+                }
+            }
+            else if(state == State.HALF_OPEN)
+            {
+                if(failed || slow)
+                    previous = transition(State.OPEN);
+                else if(++trialSuccesses >= config.getHalfOpenCalls())
+                    previous = transition(State.CLOSED);
+            }
+
+            current = state;
+        }
+        finally
+        {
+            lock.unlock();
+            if(previous != null)
+                notify(previous, current);
+        }
+    }
+
+    /**
+     * Releases the permit of a call that was not made, eg. because it was throttled or cancelled
+     * before the request was sent, without recording an outcome.
+     * <P>
+     * A trial call that was not made can be replaced by another call while the circuit is half-open.
+     * @param permit The permit for the call, as returned by {@link #acquire()}
+     */
+    public void cancel(long permit)
+    {
+        lock.lock();
+        try
+        {
+            if(permit == generation && state == State.HALF_OPEN && trialCalls > 0)
+                --trialCalls;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of a call in the window of the most recent calls.
+     * @param failed <CODE>true</CODE> if the call failed
+     * @param slow <CODE>true</CODE> if the call was slow
+     */
+    private void record(boolean failed, boolean slow)
+    {
+        if(calls == outcomes.length)
+        {
+            byte oldest = outcomes[position];
+            if((oldest & FAILED) != 0)
+                --failures;
+            if((oldest & SLOW) != 0)
+                --slowCalls;
+        }
+        else
+        {
+            ++calls;
+        }
+
+        outcomes[position] = (byte)((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        if(failed)
+            ++failures;
+        if(slow)
+            ++slowCalls;
+        position = (position+1)%outcomes.length;
+    }
+
+    /**
+     * Changes the state of the circuit, which invalidates the permits of the calls in flight.
+     * @param to The new state of the circuit
+     * @return The previous state of the circuit
+     */
+    private State transition(State to)
+    {
+        State from = state;
+        state = to;
+        ++generation;
+
+        if(to == State.OPEN)
+        {
+            openedAt = System.nanoTime();
+            logger.warning("Circuit breaker "+name+" opened: failureRate="+getRate(failures)
+                +", slowCallRate="+getRate(slowCalls));
+        }
+        else if(to == State.HALF_OPEN)
+        {
+            trialCalls = 0;
+            trialSuccesses = 0;
+            logger.info("Circuit breaker "+name+" half-open");
+        }
+        else
+        {
+            calls = failures = slowCalls = position = 0;
+            logger.info("Circuit breaker "+name+" closed");
+        }
+
+        return from;
+    }
+
+    /**
+     * Notifies the listener of a change of state.
+     * @param previous The previous state of the circuit
+     * @param current The new state of the circuit
+     */
+    private void notify(State previous, State current)
+    {
+        CircuitBreakerListener listener = this.listener;
+        if(listener != null)
+            listener.onStateChange(this, previous, current);
+    }
+
+    /**
+     * Returns the given number of calls as a rate of the calls in the window.
+     * @param count The number of calls
+     * @return The rate of the calls in the window
+     */
+    private double getRate(int count)
+    {
+        return calls > 0 ? (double)count/calls : 0.0d;
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     * <P>
+     * A circuit that is open remains so until the next call after the open duration has passed.
+     * @return The current state of the circuit
+     */
+    public State getState()
+    {
+        lock.lock();
+        try
+        {
+            return state;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the rate of failed calls in the window of the most recent calls.
+     * @return The rate of failed calls
+     */
+    public double getFailureRate()
+    {
+        lock.lock();
+        try
+        {
+            return getRate(failures);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the rate of slow calls in the window of the most recent calls.
+     * @return The rate of slow calls
+     */
+    public double getSlowCallRate()
+    {
+        lock.lock();
+        try
+        {
+            return getRate(slowCalls);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls that were rejected because the circuit was open.
+     * @return The number of calls that were rejected
+     */
+    public long getRejectedCalls()
+    {
+        lock.lock();
+        try
+        {
+            return rejectedCalls;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "CircuitBreaker [name="+name
+            +", state="+getState()
+            +", failureRate="+getFailureRate()
+            +", slowCallRate="+getSlowCallRate()
+            +", rejectedCalls="+getRejectedCalls()
+            +"]";
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+/**
+ * Represents the configuration of the circuit breakers used for each host and endpoint family.
+ * <P>
+ * A circuit opens when, over the most recent calls, the rate of failed calls or the rate of slow calls
+ * reaches its threshold. A call has failed if it received a 5xx status or no response at all.
+ * Once the open duration has passed, a number of trial calls are allowed through to decide
+ * whether the circuit should close again. Times are in milliseconds.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class CircuitBreakerConfig
+{
+    /**
+     * The default rate of failed calls at which the circuit opens.
+     */
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5d;
+
+    /**
+     * The default rate of slow calls at which the circuit opens.
+     */
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1.0d;
+
+    /**
+     * The default time above which a call is considered slow.
+     */
+    public static final long DEFAULT_SLOW_CALL_DURATION = 10000L;
+
+    /**
+     * The default number of the most recent calls used to calculate the rates.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+
+    /**
+     * The default minimum number of calls before the rates are calculated.
+     */
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+    /**
+     * The default time the circuit stays open before allowing trial calls.
+     */
+    public static final long DEFAULT_OPEN_DURATION = 30000L;
+
+    /**
+     * The default number of trial calls allowed while the circuit is half-open.
+     */
+    public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+    private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+    private long slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+    private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+    private long openDuration = DEFAULT_OPEN_DURATION;
+    private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+
+    /**
+     * Default constructor.
+     */
+    public CircuitBreakerConfig()
+    {
+    }
+
+    /**
+     * Sets the rate of failed calls at which the circuit opens.
+     * @param failureRateThreshold The rate of failed calls, between 0 and 1
+     */
+    public void setFailureRateThreshold(double failureRateThreshold)
+    {
+        if(failureRateThreshold <= 0.0d || failureRateThreshold > 1.0d)
+            throw new IllegalArgumentException("failureRateThreshold must be between 0 and 1");
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    /**
+     * Returns the rate of failed calls at which the circuit opens.
+     * @return The rate of failed calls
+     */
+    public double getFailureRateThreshold()
+    {
+        return failureRateThreshold;
+    }
+
+    /**
+     * Sets the rate of slow calls at which the circuit opens.
+     * @param slowCallRateThreshold The rate of slow calls, between 0 and 1
+     */
+    public void setSlowCallRateThreshold(double slowCallRateThreshold)
+    {
+        if(slowCallRateThreshold <= 0.0d || slowCallRateThreshold > 1.0d)
+            throw new IllegalArgumentException("slowCallRateThreshold must be between 0 and 1");
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    /**
+     * Returns the rate of slow calls at which the circuit opens.
+     * @return The rate of slow calls
+     */
+    public double getSlowCallRateThreshold()
+    {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * Sets the time above which a call is considered slow.
+     * @param slowCallDuration The time above which a call is considered slow
+     */
+    public void setSlowCallDuration(long slowCallDuration)
+    {
+        if(slowCallDuration < 1L)
+            throw new IllegalArgumentException("slowCallDuration < 1");
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    /**
+     * Returns the time above which a call is considered slow.
+     * @return The time above which a call is considered slow
+     */
+    public long getSlowCallDuration()
+    {
+        return slowCallDuration;
+    }
+
+    /**
+     * Sets the number of the most recent calls used to calculate the rates.
+     * @param windowSize The number of the most recent calls
+     */
+    public void setWindowSize(int windowSize)
+    {
+        if(windowSize < 1)
+            throw new IllegalArgumentException("windowSize < 1");
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Returns the number of the most recent calls used to calculate the rates.
+     * @return The number of the most recent calls
+     */
+    public int getWindowSize()
+    {
+        return windowSize;
+    }
+
+    /**
+     * Sets the minimum number of calls before the rates are calculated.
+     * @param minimumCalls The minimum number of calls
+     */
+    public void setMinimumCalls(int minimumCalls)
+    {
+        if(minimumCalls < 1)
+            throw new IllegalArgumentException("minimumCalls < 1");
+        this.minimumCalls = minimumCalls;
+    }
+
+    /**
+     * Returns the minimum number of calls before the rates are calculated.
+     * @return The minimum number of calls
+     */
+    public int getMinimumCalls()
+    {
+        return minimumCalls;
+    }
+
+    /**
+     * Sets the time the circuit stays open before allowing trial calls.
+     * @param openDuration The time the circuit stays open
+     */
+    public void setOpenDuration(long openDuration)
+    {
+        if(openDuration < 0L)
+            throw new IllegalArgumentException("openDuration < 0");
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Returns the time the circuit stays open before allowing trial calls.
+     * @return The time the circuit stays open
+     */
+    public long getOpenDuration()
+    {
+        return openDuration;
+    }
+
+    /**
+     * Sets the number of trial calls allowed while the circuit is half-open.
+     * @param halfOpenCalls The number of trial calls
+     */
+    public void setHalfOpenCalls(int halfOpenCalls)
+    {
+        if(halfOpenCalls < 1)
+            throw new IllegalArgumentException("halfOpenCalls < 1");
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * Returns the number of trial calls allowed while the circuit is half-open.
+     * @return The number of trial calls
+     */
+    public int getHalfOpenCalls()
+    {
+        return halfOpenCalls;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "CircuitBreakerConfig [failureRateThreshold="+failureRateThreshold
+            +", slowCallRateThreshold="+slowCallRateThreshold
+            +", slowCallDuration="+slowCallDuration
+            +", windowSize="+windowSize
+            +", minimumCalls="+minimumCalls
+            +", openDuration="+openDuration
+            +", halfOpenCalls="+halfOpenCalls
+            +"]";
+    }
+
+    /**
+     * Returns a builder for the circuit breaker configuration.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make circuit breaker configuration easier.
+     */
+    public static class Builder
+    {
+        private CircuitBreakerConfig config = new CircuitBreakerConfig();
+
+        /**
+         * Default constructor.
+         */
+        Builder()
+        {
+        }
+
+        /**
+         * Sets the rate of failed calls at which the circuit opens.
+         * @param failureRateThreshold The rate of failed calls, between 0 and 1
+         * @return This object
+         */
+        public Builder failureRateThreshold(double failureRateThreshold)
+        {
+            config.setFailureRateThreshold(failureRateThreshold);
+            return this;
+        }
+
+        /**
+         * Sets the rate of slow calls at which the circuit opens.
+         * @param slowCallRateThreshold The rate of slow calls, between 0 and 1
+         * @return This object
+         */
+        public Builder slowCallRateThreshold(double slowCallRateThreshold)
+        {
+            config.setSlowCallRateThreshold(slowCallRateThreshold);
+            return this;
+        }
+
+        /**
+         * Sets the time above which a call is considered slow.
+         * @param slowCallDuration The time above which a call is considered slow
+         * @return This object
+         */
+        public Builder slowCallDuration(long slowCallDuration)
+        {
+            config.setSlowCallDuration(slowCallDuration);
+            return this;
+        }
+
+        /**
+         * Sets the number of the most recent calls used to calculate the rates.
+         * @param windowSize The number of the most recent calls
+         * @return This object
+         */
+        public Builder windowSize(int windowSize)
+        {
+            config.setWindowSize(windowSize);
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of calls before the rates are calculated.
+         * @param minimumCalls The minimum number of calls
+         * @return This object
+         */
+        public Builder minimumCalls(int minimumCalls)
+        {
+            config.setMinimumCalls(minimumCalls);
+            return this;
+        }
+
+        /**
+         * Sets the time the circuit stays open before allowing trial calls.
+         * @param openDuration The time the circuit stays open
+         * @return This object
+         */
+        public Builder openDuration(long openDuration)
+        {
+            config.setOpenDuration(openDuration);
+            return this;
+        }
+
+        /**
+         * Sets the number of trial calls allowed while the circuit is half-open.
+         * @param halfOpenCalls The number of trial calls
+         * @return This object
+         */
+        public Builder halfOpenCalls(int halfOpenCalls)
+        {
+            config.setHalfOpenCalls(halfOpenCalls);
+            return this;
+        }
+
+        /**
+         * Returns the configured circuit breaker configuration.
+         * @return The circuit breaker configuration
+         */
+        public CircuitBreakerConfig build()
+        {
+            return config;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+/**
+ * Interface for receiving notification of the changes of state of the circuit breakers.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public interface CircuitBreakerListener
+{
+    /**
+     * Called when the state of a circuit breaker has changed.
+     * @param breaker The circuit breaker, which includes the host and endpoint family in its name
+     * @param previous The previous state of the circuit
+     * @param state The new state of the circuit
+     */
+    void onStateChange(CircuitBreaker breaker, CircuitBreaker.State previous, CircuitBreaker.State state);
+}
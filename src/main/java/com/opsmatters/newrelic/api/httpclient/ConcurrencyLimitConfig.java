@@ -0,0 +1,269 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+/**
+ * Represents the configuration of the adaptive limit on the number of concurrent requests made by a client.
+ * <P>
+ * The limit is increased by one for each round of requests completed without throttling or a rise in latency,
+ * and multiplied by the backoff ratio when a request is throttled or its latency exceeds
+ * the lowest latency seen multiplied by the latency tolerance.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ConcurrencyLimitConfig
+{
+    /**
+     * The default initial number of concurrent requests.
+     */
+    public static final int DEFAULT_INITIAL_LIMIT = 10;
+
+    /**
+     * The default minimum number of concurrent requests.
+     */
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    /**
+     * The default maximum number of concurrent requests.
+     */
+    public static final int DEFAULT_MAX_LIMIT = 200;
+
+    /**
+     * The default ratio applied to the limit when a request is throttled or its latency rises.
+     */
+    public static final double DEFAULT_BACKOFF_RATIO = 0.75d;
+
+    /**
+     * The default multiple of the lowest latency seen above which the latency is considered to have risen.
+     */
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2.0d;
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+
+    /**
+     * Default constructor.
+     */
+    public ConcurrencyLimitConfig()
+    {
+    }
+
+    /**
+     * Sets the initial number of concurrent requests.
+     * @param initialLimit The initial number of concurrent requests
+     */
+    public void setInitialLimit(int initialLimit)
+    {
+        if(initialLimit < 1)
+            throw new IllegalArgumentException("initialLimit < 1");
+        this.initialLimit = initialLimit;
+    }
+
+    /**
+     * Returns the initial number of concurrent requests.
+     * @return The initial number of concurrent requests
+     */
+    public int getInitialLimit()
+    {
+        return initialLimit;
+    }
+
+    /**
+     * Sets the minimum number of concurrent requests.
+     * @param minLimit The minimum number of concurrent requests
+     */
+    public void setMinLimit(int minLimit)
+    {
+        if(minLimit < 1)
+            throw new IllegalArgumentException("minLimit < 1");
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Returns the minimum number of concurrent requests.
+     * @return The minimum number of concurrent requests
+     */
+    public int getMinLimit()
+    {
+        return minLimit;
+    }
+
+    /**
+     * Sets the maximum number of concurrent requests.
+     * @param maxLimit The maximum number of concurrent requests
+     */
+    public void setMaxLimit(int maxLimit)
+    {
+        if(maxLimit < 1)
+            throw new IllegalArgumentException("maxLimit < 1");
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Returns the maximum number of concurrent requests.
+     * @return The maximum number of concurrent requests
+     */
+    public int getMaxLimit()
+    {
+        return maxLimit;
+    }
+
+    /**
+     * Sets the ratio applied to the limit when a request is throttled or its latency rises.
+     * @param backoffRatio The ratio applied to the limit, between 0 and 1
+     */
+    public void setBackoffRatio(double backoffRatio)
+    {
+        if(backoffRatio <= 0.0d || backoffRatio >= 1.0d)
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Returns the ratio applied to the limit when a request is throttled or its latency rises.
+     * @return The ratio applied to the limit
+     */
+    public double getBackoffRatio()
+    {
+        return backoffRatio;
+    }
+
+    /**
+     * Sets the multiple of the lowest latency seen above which the latency is considered to have risen.
+     * @param latencyTolerance The multiple of the lowest latency seen
+     */
+    public void setLatencyTolerance(double latencyTolerance)
+    {
+        if(latencyTolerance < 1.0d)
+            throw new IllegalArgumentException("latencyTolerance < 1");
+        this.latencyTolerance = latencyTolerance;
+    }
+
+    /**
+     * Returns the multiple of the lowest latency seen above which the latency is considered to have risen.
+     * @return The multiple of the lowest latency seen
+     */
+    public double getLatencyTolerance()
+    {
+        return latencyTolerance;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "ConcurrencyLimitConfig [initialLimit="+initialLimit
+            +", minLimit="+minLimit
+            +", maxLimit="+maxLimit
+            +", backoffRatio="+backoffRatio
+            +", latencyTolerance="+latencyTolerance
+            +"]";
+    }
+
+    /**
+     * Returns a builder for the concurrency limit configuration.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make concurrency limit configuration easier.
+     */
+    public static class Builder
+    {
+        private ConcurrencyLimitConfig config = new ConcurrencyLimitConfig();
+
+        /**
+         * Default constructor.
+         */
+        Builder()
+        {
+        }
+
+        /**
+         * Sets the initial number of concurrent requests.
+         * @param initialLimit The initial number of concurrent requests
+         * @return This object
+         */
+        public Builder initialLimit(int initialLimit)
+        {
+            config.setInitialLimit(initialLimit);
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of concurrent requests.
+         * @param minLimit The minimum number of concurrent requests
+         * @return This object
+         */
+        public Builder minLimit(int minLimit)
+        {
+            config.setMinLimit(minLimit);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent requests.
+         * @param maxLimit The maximum number of concurrent requests
+         * @return This object
+         */
+        public Builder maxLimit(int maxLimit)
+        {
+            config.setMaxLimit(maxLimit);
+            return this;
+        }
+
+        /**
+         * Sets the ratio applied to the limit when a request is throttled or its latency rises.
+         * @param backoffRatio The ratio applied to the limit, between 0 and 1
+         * @return This object
+         */
+        public Builder backoffRatio(double backoffRatio)
+        {
+            config.setBackoffRatio(backoffRatio);
+            return this;
+        }
+
+        /**
+         * Sets the multiple of the lowest latency seen above which the latency is considered to have risen.
+         * @param latencyTolerance The multiple of the lowest latency seen
+         * @return This object
+         */
+        public Builder latencyTolerance(double latencyTolerance)
+        {
+            config.setLatencyTolerance(latencyTolerance);
+            return this;
+        }
+
+        /**
+         * Returns the configured concurrency limit configuration.
+         * @return The concurrency limit configuration
+         */
+        public ConcurrencyLimitConfig build()
+        {
+            return config;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent requests using an additive increase/multiplicative decrease (AIMD) algorithm.
+ * <P>
+ * While requests complete without throttling and their latency stays close to the lowest latency seen,
+ * the limit grows by one for each round of requests. When a request is throttled with a 429 or 503 status,
+ * fails without a response, or its latency rises above the tolerance, the limit is multiplied by the backoff ratio.
+ * Only one decrease is made for the requests that were already in flight when the limit was last reduced.
+ * <P>
+ * Requests over the limit wait in arrival order until a request completes.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ConcurrencyLimiter
+{
+    /**
+     * The weight given to a higher latency when updating the lowest latency seen, so that it can drift upwards slowly.
+     */
+    private static final double LATENCY_DRIFT = 0.01d;
+
+    private ConcurrencyLimitConfig config;
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private double minLatency = Double.MAX_VALUE;
+    private long lastDecrease;
+    private ReentrantLock lock = new ReentrantLock(true);
+    private Condition available = lock.newCondition();
+
+    /**
+     * Constructor that takes the concurrency limit configuration.
+     * @param config The concurrency limit configuration
+     */
+    public ConcurrencyLimiter(ConcurrencyLimitConfig config)
+    {
+        this.config = config;
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), config.getInitialLimit()));
+        this.lastDecrease = System.nanoTime();
+    }
+
+    /**
+     * Waits until the number of requests in flight is below the limit, then adds a request.
+     * @return The time the request was started, from {@link System#nanoTime()}, to be passed to {@link #release(long, int)}
+     */
+    public long acquire()
+    {
+        lock.lock();
+        try
+        {
+            ++waiting;
+            try
+            {
+                while(inFlight >= (int)limit)
+                    available.awaitUninterruptibly();
+            }
+            finally
+            {
+                --waiting;
+            }
+            ++inFlight;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Waits until the number of requests in flight is below the limit, then adds a request,
+     * giving up if the request cannot be added within the given time.
+     * @param timeout The maximum time to wait
+     * @param unit The units of the timeout
+     * @return The time the request was started, from {@link System#nanoTime()}, to be passed to {@link #release(long, int)}
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws TimeoutException if the request could not be added within the given time
+     */
+    public long acquire(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException
+    {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try
+        {
+            ++waiting;
+            try
+            {
+                while(inFlight >= (int)limit)
+                {
+                    if(nanos <= 0L)
+                        throw new TimeoutException("no capacity within "+unit.toMillis(timeout)+"ms: limit="+(int)limit);
+                    nanos = available.awaitNanos(nanos);
+                }
+            }
+            finally
+            {
+                --waiting;
+            }
+            ++inFlight;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Removes a completed request and adjusts the limit using its status and latency.
+     * @param started The time the request was started, as returned by {@link #acquire()}
+     * @param status The HTTP status of the response, or 0 if the request failed without a response
+     */
+    public void release(long started, int status)
+    {
+        long now = System.nanoTime();
+        double latency = (double)(now-started);
+
+        lock.lock();
+        try
+        {
+            boolean saturated = inFlight >= (int)limit/2;
+            --inFlight;
+
+            boolean throttled = status == 0 || status == 429 || status == 503;
+            if(!throttled)
+            {
+                if(latency < minLatency)
+                    minLatency = latency;
+                else
+                    minLatency += (latency-minLatency)*LATENCY_DRIFT;
+            }
+
+            if(throttled || latency > minLatency*config.getLatencyTolerance())
+            {
+                // Only back off once for the requests that overlapped the last decrease
+                if(started - lastDecrease > 0L)
+                {
+                    limit = Math.max(config.getMinLimit(), limit*config.getBackoffRatio());
+                    lastDecrease = now;
+                }
+            }
+            else if(saturated)
+            {
+                limit = Math.min(config.getMaxLimit(), limit+1.0d/limit);
+            }
+
+            available.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current limit on the number of concurrent requests.
+     * @return The current limit on the number of concurrent requests
+     */
+    public int getLimit()
+    {
+        lock.lock();
+        try
+        {
+            return (int)limit;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     * @return The number of requests in flight
+     */
+    public int getInFlight()
+    {
+        lock.lock();
+        try
+        {
+            return inFlight;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests waiting for the number of requests in flight to fall below the limit.
+     * @return The number of requests waiting
+     */
+    public int getQueueLength()
+    {
+        lock.lock();
+        try
+        {
+            return waiting;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the lowest latency seen in milliseconds, which is used as the baseline for detecting a rise in latency.
+     * @return The lowest latency seen in milliseconds, or -1 if no request has completed
+     */
+    public double getMinLatency()
+    {
+        lock.lock();
+        try
+        {
+            return minLatency != Double.MAX_VALUE ? minLatency/1000000.0d : -1.0d;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the configuration of the limiter.
+     * @return The configuration of the limiter
+     */
+    public ConcurrencyLimitConfig getConfig()
+    {
+        return config;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "ConcurrencyLimiter [limit="+getLimit()
+            +", inFlight="+getInFlight()
+            +", waiting="+getQueueLength()
+            +", minLatency="+getMinLatency()
+            +"]";
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.opsmatters.newrelic.api.httpclient;
+
+/**
+ * Represents the configuration of a pooled keep-alive connector for the HTTP client.  
+ * <P>
+ * Timeouts and intervals are in milliseconds. A timeout of 0 means no timeout.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public class ConnectionPoolConfig
+{
+    /**
+     * The default maximum number of connections in the pool.
+     */
+    public static final int DEFAULT_MAX_TOTAL = 200;
+
+    /**
+     * The default maximum number of connections per host.
+     */
+    public static final int DEFAULT_MAX_PER_HOST = 20;
+
+    /**
+     * The default time after which idle connections are evicted.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 30000L;
+
+    /**
+     * The default time of inactivity after which a connection is revalidated before reuse.
+     */
+    public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+
+    private int maxTotal = DEFAULT_MAX_TOTAL;
+    private int maxPerHost = DEFAULT_MAX_PER_HOST;
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private int validateAfterInactivity = DEFAULT_VALIDATE_AFTER_INACTIVITY;
+    private int connectTimeout = 0;
+    private int readTimeout = 0;
+    private boolean keepAlive = true;
+    private boolean reuseAddress = true;
+
+    /**
+     * Default constructor.
+     */
+    public ConnectionPoolConfig()
+    {
+    }
+
+    /**
+     * Sets the maximum number of connections in the pool.
+     * @param maxTotal The maximum number of connections in the pool
+     */
+    public void setMaxTotal(int maxTotal)
+    {
+        this.maxTotal = maxTotal;
+    }
+
+    /**
+     * Returns the maximum number of connections in the pool.
+     * @return The maximum number of connections in the pool
+     */
+    public int getMaxTotal()
+    {
+        return maxTotal;
+    }
+
+    /**
+     * Sets the maximum number of connections per host.
+     * @param maxPerHost The maximum number of connections per host
+     */
+    public void setMaxPerHost(int maxPerHost)
+    {
+        this.maxPerHost = maxPerHost;
+    }
+
+    /**
+     * Returns the maximum number of connections per host.
+     * @return The maximum number of connections per host
+     */
+    public int getMaxPerHost()
+    {
+        return maxPerHost;
+    }
+
+    /**
+     * Sets the time after which idle connections are evicted from the pool.
+     * @param idleTimeout The time after which idle connections are evicted, or 0 to disable eviction
+     */
+    public void setIdleTimeout(long idleTimeout)
+    {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Returns the time after which idle connections are evicted from the pool.
+     * @return The time after which idle connections are evicted, or 0 if eviction is disabled
+     */
+    public long getIdleTimeout()
+    {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the time of inactivity after which a pooled connection is revalidated before it is reused.
+     * @param validateAfterInactivity The time of inactivity after which a connection is revalidated
+     */
+    public void setValidateAfterInactivity(int validateAfterInactivity)
+    {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    /**
+     * Returns the time of inactivity after which a pooled connection is revalidated before it is reused.
+     * @return The time of inactivity after which a connection is revalidated
+     */
+    public int getValidateAfterInactivity()
+    {
+        return validateAfterInactivity;
+    }
+
+    /**
+     * Sets the connect timeout.
+     * @param connectTimeout The connect timeout
+     */
+    public void setConnectTimeout(int connectTimeout)
+    {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Returns the connect timeout.
+     * @return The connect timeout
+     */
+    public int getConnectTimeout()
+    {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the read timeout.
+     * @param readTimeout The read timeout
+     */
+    public void setReadTimeout(int readTimeout)
+    {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Returns the read timeout.
+     * @return The read timeout
+     */
+    public int getReadTimeout()
+    {
+        return readTimeout;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if TCP keep-alive should be enabled on pooled sockets.
+     * @param keepAlive <CODE>true</CODE> if TCP keep-alive should be enabled
+     */
+    public void setKeepAlive(boolean keepAlive)
+    {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if TCP keep-alive should be enabled on pooled sockets.
+     * @return <CODE>true</CODE> if TCP keep-alive should be enabled
+     */
+    public boolean getKeepAlive()
+    {
+        return keepAlive;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if local socket addresses should be reused.
+     * @param reuseAddress <CODE>true</CODE> if local socket addresses should be reused
+     */
+    public void setReuseAddress(boolean reuseAddress)
+    {
+        this.reuseAddress = reuseAddress;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if local socket addresses should be reused.
+     * @return <CODE>true</CODE> if local socket addresses should be reused
+     */
+    public boolean getReuseAddress()
+    {
+        return reuseAddress;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "ConnectionPoolConfig [maxTotal="+maxTotal
+            +", maxPerHost="+maxPerHost
+            +", idleTimeout="+idleTimeout
+            +", validateAfterInactivity="+validateAfterInactivity
+            +", connectTimeout="+connectTimeout
+            +", readTimeout="+readTimeout
+            +", keepAlive="+keepAlive
+            +", reuseAddress="+reuseAddress
+            +"]";
+    }
+
+    /**
+     * Returns a builder for the connection pool configuration.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make connection pool configuration easier.
+     */
+    public static class Builder
+    {
+        private ConnectionPoolConfig config = new ConnectionPoolConfig();
+
+        /**
+         * Default constructor.
+         */
+        Builder()
+        {
+        }
+
+        /**
+         * Sets the maximum number of connections in the pool.
+         * @param maxTotal The maximum number of connections in the pool
+         * @return This object
+         */
+        public Builder maxTotal(int maxTotal)
+        {
+            config.setMaxTotal(maxTotal);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections per host.
+         * @param maxPerHost The maximum number of connections per host
+         * @return This object
+         */
+        public Builder maxPerHost(int maxPerHost)
+        {
+            config.setMaxPerHost(maxPerHost);
+            return this;
+        }
+
+        /**
+         * Sets the time after which idle connections are evicted from the pool.
+         * @param idleTimeout The time after which idle connections are evicted, or 0 to disable eviction
+         * @return This object
+         */
+        public Builder idleTimeout(long idleTimeout)
+        {
+            config.setIdleTimeout(idleTimeout);
+            return this;
+        }
+
+        /**
+         * Sets the time of inactivity after which a pooled connection is revalidated before it is reused.
+         * @param validateAfterInactivity The time of inactivity after which a connection is revalidated
+         * @return This object
+         */
+        public Builder validateAfterInactivity(int validateAfterInactivity)
+        {
+            config.setValidateAfterInactivity(validateAfterInactivity);
+            return this;
+        }
+
+        /**
+         * Sets the connect timeout.
+         * @param connectTimeout The connect timeout
+         * @return This object
+         */
+        public Builder connectTimeout(int connectTimeout)
+        {
+            config.setConnectTimeout(connectTimeout);
+            return this;
+        }
+
+        /**
+         * Sets the read timeout.
+         * @param readTimeout The read timeout
+         * @return This object
+         */
+        public Builder readTimeout(int readTimeout)
+        {
+            config.setReadTimeout(readTimeout);
+            return this;
+        }
+
+        /**
+         * Set to <CODE>true</CODE> if TCP keep-alive should be enabled on pooled sockets.
+         * @param keepAlive <CODE>true</CODE> if TCP keep-alive should be enabled
+         * @return This object
+         */
+        public Builder keepAlive(boolean keepAlive)
+        {
+            config.setKeepAlive(keepAlive);
+            return this;
+        }
+
+        /**
+         * Set to <CODE>true</CODE> if local socket addresses should be reused.
+         * @param reuseAddress <CODE>true</CODE> if local socket addresses should be reused
+         * @return This object
+         */
+        public Builder reuseAddress(boolean reuseAddress)
+        {
+            config.setReuseAddress(reuseAddress);
+            return this;
+        }
+
+        /**
+         * Returns the configured connection pool configuration.
+         * @return The connection pool configuration
+         */
+        public ConnectionPoolConfig build()
+        {
+            return config;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.opsmatters.newrelic.api.exceptions.DeadlineExceededException;
+
+/**
+ * Represents the time by which the calls made by an operation must complete, and allows them to be cancelled.
+ * <P>
+ * The calls made on the current thread inside {@link #run(Supplier)} are bounded by the deadline:
+ * the connect and read timeouts of each attempt are reduced to the time remaining, no retry is made
+ * that would end after the deadline, and a response that is still being read when the deadline passes
+ * is closed, which aborts its connection. Once the deadline has passed the calls throw a
+ * {@link DeadlineExceededException}, and once it has been cancelled they throw a {@link CancellationException}.
+ * <P>
+ * The deadline is passed on to the asynchronous operations, bulk operations and pagination started inside it.
+ * A deadline started inside another cannot end after it.
+ * <P>
+ * The deadline also carries whether the calls made inside it should bypass the response cache,
+ * so that the bypass reaches the calls made on other threads.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class Deadline
+{
+    private static final Logger logger = Logger.getLogger(Deadline.class.getName());
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>();
+
+    /**
+     * The timer used to close the responses still being read when a deadline passes, shared by all deadlines.
+     */
+    private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1,
+        new ThreadFactoryBuilder().setNameFormat("newrelic-api-deadline-%d").setDaemon(true).build());
+
+    static
+    {
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    private Deadline parent;
+    private long timeout;
+    private long expires;
+    private volatile boolean cancelled = false;
+    private boolean uncached = false;
+    private Set<AutoCloseable> inFlight = ConcurrentHashMap.newKeySet();
+    private ScheduledFuture<?> timer;
+
+    /**
+     * Constructor that takes the enclosing deadline and a timeout.
+     * @param parent The enclosing deadline, or <CODE>null</CODE> if there is none
+     * @param timeout The time in milliseconds until the deadline, or 0 if only the enclosing deadline applies
+     */
+    private Deadline(Deadline parent, long timeout)
+    {
+        this.parent = parent;
+        if(timeout > 0L)
+        {
+            this.timeout = timeout;
+            this.expires = System.nanoTime()+TimeUnit.MILLISECONDS.toNanos(timeout);
+        }
+
+        // Cannot end after the enclosing deadline
+        if(parent != null && parent.timeout > 0L && (this.timeout == 0L || parent.expires-this.expires < 0L))
+        {
+            this.timeout = parent.timeout;
+            this.expires = parent.expires;
+        }
+    }
+
+    /**
+     * Returns a deadline the given time from now, within the current deadline if there is one.
+     * @param timeout The time in milliseconds until the deadline
+     * @return The deadline
+     */
+    public static Deadline after(long timeout)
+    {
+        if(timeout < 1L)
+            throw new IllegalArgumentException("timeout < 1");
+        return new Deadline(current(), timeout);
+    }
+
+    /**
+     * Returns a deadline with no time limit of its own, within the current deadline if there is one,
+     * for calls that should not use the response cache.
+     * @return The deadline
+     */
+    public static Deadline uncached()
+    {
+        Deadline ret = new Deadline(current(), 0L);
+        ret.uncached = true;
+        return ret;
+    }
+
+    /**
+     * Returns the deadline of the operation running on the current thread.
+     * @return The current deadline, or <CODE>null</CODE> if there is none
+     */
+    public static Deadline current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the timeout of the deadline.
+     * @return The time in milliseconds from the start of the deadline, or 0 if there is no time limit
+     */
+    public long getTimeout()
+    {
+        return timeout;
+    }
+
+    /**
+     * Returns the time remaining until the deadline.
+     * @return The time remaining in milliseconds, or {@link Long#MAX_VALUE} if there is no time limit
+     */
+    public long getRemaining()
+    {
+        if(timeout == 0L)
+            return Long.MAX_VALUE;
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(expires-System.nanoTime()));
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the deadline has passed.
+     * @return <CODE>true</CODE> if the deadline has passed
+     */
+    public boolean isExpired()
+    {
+        return timeout > 0L && expires-System.nanoTime() <= 0L;
+    }
+
+    /**
+     * Cancels the calls made inside the deadline, closing the responses that are still being read.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        abort();
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the deadline, or the deadline enclosing it, has been cancelled.
+     * @return <CODE>true</CODE> if the deadline has been cancelled
+     */
+    public boolean isCancelled()
+    {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the calls made inside the deadline, or the deadline enclosing it,
+     * should not use the response cache.
+     * @return <CODE>true</CODE> if the calls should not use the response cache
+     */
+    public boolean isUncached()
+    {
+        return uncached || (parent != null && parent.isUncached());
+    }
+
+    /**
+     * Checks that the deadline has not been cancelled and has not passed.
+     * @throws CancellationException if the deadline has been cancelled
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check()
+    {
+        check(null);
+    }
+
+    /**
+     * Checks that the deadline has not been cancelled and has not passed.
+     * @param cause The failure to attach to the exception, or <CODE>null</CODE>
+     * @throws CancellationException if the deadline has been cancelled
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check(Throwable cause)
+    {
+        if(isCancelled())
+        {
+            CancellationException e = new CancellationException("Call cancelled");
+            if(cause != null)
+                e.initCause(cause);
+            throw e;
+        }
+
+        if(isExpired())
+            throw new DeadlineExceededException(timeout, cause);
+    }
+
+    /**
+     * Executes the given operation with this as the deadline of the calls it makes on the current thread.
+     * @param <T> The type parameter used for the result
+     * @param operation The operation to execute
+     * @return The result of the operation
+     * @throws CancellationException if the deadline has been cancelled
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public <T> T run(Supplier<T> operation)
+    {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try
+        {
+            check();
+            return operation.get();
+        }
+        finally
+        {
+            if(previous != null)
+                CURRENT.set(previous);
+            else
+                CURRENT.remove();
+        }
+    }
+
+    /**
+     * Executes the given operation inside the given deadline, if there is one.
+     * @param <T> The type parameter used for the result
+     * @param deadline The deadline, or <CODE>null</CODE> if there is none
+     * @param operation The operation to execute
+     * @return The result of the operation
+     */
+    public static <T> T within(Deadline deadline, Supplier<T> operation)
+    {
+        return deadline != null ? deadline.run(operation) : operation.get();
+    }
+
+    /**
+     * Executes the given operation asynchronously inside the current deadline.
+     * <P>
+     * Cancelling the returned future cancels the calls made by the operation.
+     * @param <T> The type parameter used for the result
+     * @param operation The operation to execute
+     * @param executor The executor used to run the operation
+     * @return The future for the result of the operation
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> operation, Executor executor)
+    {
+        Deadline deadline = new Deadline(current(), 0L);
+        CompletableFuture<T> ret = CompletableFuture.supplyAsync(() -> deadline.run(operation), executor);
+        ret.whenComplete((result, e) ->
+        {
+            if(ret.isCancelled())
+                deadline.cancel();
+        });
+        return ret;
+    }
+
+    /**
+     * Executes the given operation asynchronously inside the current deadline.
+     * <P>
+     * Cancelling the returned future cancels the calls made by the operation.
+     * @param operation The operation to execute
+     * @param executor The executor used to run the operation
+     * @return The future that completes when the operation has been executed
+     */
+    public static CompletableFuture<Void> runAsync(Runnable operation, Executor executor)
+    {
+        return supplyAsync(() ->
+        {
+            operation.run();
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Registers a response that is being read, so that it is closed if the deadline passes or is cancelled.
+     * <P>
+     * The response is also registered with the enclosing deadlines.
+     * @param response The response being read
+     */
+    public void register(AutoCloseable response)
+    {
+        for(Deadline deadline = this; deadline != null; deadline = deadline.parent)
+            deadline.track(response);
+    }
+
+    /**
+     * Unregisters a response once it has been read and closed.
+     * @param response The response that has been read
+     */
+    public void unregister(AutoCloseable response)
+    {
+        for(Deadline deadline = this; deadline != null; deadline = deadline.parent)
+            deadline.untrack(response);
+    }
+
+    /**
+     * Tracks a response that is being read.
+     * @param response The response being read
+     */
+    private void track(AutoCloseable response)
+    {
+        inFlight.add(response);
+        if(cancelled || isExpired())
+            abort();
+        else if(timeout > 0L)
+            schedule();
+    }
+
+    /**
+     * Stops tracking a response that has been read, and cancels the timer if no responses are being read.
+     * @param response The response that has been read
+     */
+    private void untrack(AutoCloseable response)
+    {
+        if(inFlight.remove(response) && inFlight.isEmpty())
+            cancelTimer();
+    }
+
+    /**
+     * Schedules the responses being read to be closed when the deadline passes.
+     */
+    private synchronized void schedule()
+    {
+        if(timer == null)
+            timer = TIMER.schedule(() -> abort(), expires-System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Closes the responses that are still being read.
+     */
+    private void abort()
+    {
+        Iterator<AutoCloseable> it = inFlight.iterator();
+        while(it.hasNext())
+        {
+            AutoCloseable response = it.next();
+            it.remove();
+            try
+            {
+                response.close();
+            }
+            catch(Exception e)
+            {
+                logger.log(Level.FINE, "Unable to close response", e);
+            }
+        }
+    }
+
+    /**
+     * Cancels the timer used to close the responses being read when the deadline passes.
+     */
+    private synchronized void cancelTimer()
+    {
+        if(timer != null && inFlight.isEmpty())
+        {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "Deadline [timeout="+timeout
+            +", remaining="+getRemaining()
+            +", cancelled="+isCancelled()
+            +"]";
+    }
+}
@@ -17,14 +17,16 @@
 package com.opsmatters.newrelic.api.httpclient;
 
 import java.io.InputStreamReader;
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
-import java.util.Collection;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import javax.ws.rs.Produces;
@@ -35,113 +37,8 @@ import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.Provider;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
-import com.opsmatters.newrelic.api.model.ErrorResponse;
-import com.opsmatters.newrelic.api.model.alerts.AlertIncident;
-import com.opsmatters.newrelic.api.model.alerts.AlertViolation;
-import com.opsmatters.newrelic.api.model.alerts.AlertEvent;
-import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicy;
-import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicyChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.AlertChannel;
-import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.NrqlAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.ExternalServiceAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.PluginsAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.SyntheticsAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.InfraAlertCondition;
-import com.opsmatters.newrelic.api.model.applications.Application;
-import com.opsmatters.newrelic.api.model.applications.ApplicationHost;
-import com.opsmatters.newrelic.api.model.applications.ApplicationInstance;
-import com.opsmatters.newrelic.api.model.applications.BrowserApplication;
-import com.opsmatters.newrelic.api.model.applications.MobileApplication;
-import com.opsmatters.newrelic.api.model.transactions.KeyTransaction;
-import com.opsmatters.newrelic.api.model.plugins.Plugin;
-import com.opsmatters.newrelic.api.model.plugins.PluginComponent;
-import com.opsmatters.newrelic.api.model.servers.Server;
-import com.opsmatters.newrelic.api.model.metrics.Metric;
-import com.opsmatters.newrelic.api.model.metrics.MetricData;
-import com.opsmatters.newrelic.api.model.deployments.Deployment;
-import com.opsmatters.newrelic.api.model.labels.Label;
-import com.opsmatters.newrelic.api.model.accounts.PartnerAccount;
-import com.opsmatters.newrelic.api.model.accounts.PartnerUser;
-import com.opsmatters.newrelic.api.model.accounts.PartnerSubscription;
-import com.opsmatters.newrelic.api.model.accounts.ProductSubscription;
-import com.opsmatters.newrelic.api.model.accounts.User;
-import com.opsmatters.newrelic.api.model.accounts.UsageData;
-import com.opsmatters.newrelic.api.model.synthetics.Monitor;
-import com.opsmatters.newrelic.api.model.insights.Dashboard;
-import com.opsmatters.newrelic.api.httpclient.serializers.alerts.policies.AlertPolicySerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.alerts.channels.AlertChannelSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.AlertConditionSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.NrqlAlertConditionSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.ExternalServiceAlertConditionSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.PluginsAlertConditionSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.SyntheticsAlertConditionSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.InfraAlertConditionSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.applications.ApplicationSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.applications.BrowserApplicationSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.servers.ServerSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.deployments.DeploymentSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.labels.LabelSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.insights.DashboardSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.accounts.PartnerUserSerializer;
-import com.opsmatters.newrelic.api.httpclient.serializers.accounts.ProductSubscriptionsSerializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.ErrorResponseDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.AlertIncidentsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.AlertViolationsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.AlertEventsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.policies.AlertPolicyDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.policies.AlertPoliciesDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.policies.AlertPolicyChannelDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.channels.AlertChannelsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.AlertConditionDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.AlertConditionsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.NrqlAlertConditionDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.NrqlAlertConditionsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.ExternalServiceAlertConditionDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.ExternalServiceAlertConditionsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.PluginsAlertConditionDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.PluginsAlertConditionsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.SyntheticsAlertConditionDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.SyntheticsAlertConditionsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.InfraAlertConditionDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.InfraAlertConditionsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationHostDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationHostsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationInstanceDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationInstancesDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.BrowserApplicationDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.BrowserApplicationsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.MobileApplicationDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.applications.MobileApplicationsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.transactions.KeyTransactionDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.transactions.KeyTransactionsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.plugins.PluginDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.plugins.PluginsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.plugins.PluginComponentDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.plugins.PluginComponentsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.servers.ServerDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.servers.ServersDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.metrics.MetricsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.metrics.MetricDataDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.deployments.DeploymentDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.deployments.DeploymentsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.labels.LabelDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.labels.LabelsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.PartnerAccountsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.UserDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.UsersDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.PartnerUsersDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.PartnerSubscriptionsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.UsageDataDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.synthetics.MonitorDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.synthetics.MonitorsDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.insights.DashboardDeserializer;
-import com.opsmatters.newrelic.api.httpclient.deserializers.insights.DashboardsDeserializer;
+import com.google.gson.stream.JsonReader;
 
 /**
  * Provides GSON support for serializing and deserializing objects.
@@ -155,124 +52,28 @@ public final class GsonMessageBodyHandler implements MessageBodyWriter<Object>,
     private static final Logger logger = Logger.getLogger(GsonMessageBodyHandler.class.getName());
     private static final String CHARSET = "UTF-8";
 
-    private static final Type ALERT_POLICIES_TYPE = new TypeToken<Collection<AlertPolicy>>(){}.getType();
-    private static final Type ALERT_CHANNELS_TYPE = new TypeToken<Collection<AlertChannel>>(){}.getType();
-    private static final Type ALERT_CONDITIONS_TYPE = new TypeToken<Collection<AlertCondition>>(){}.getType();
-    private static final Type NRQL_ALERT_CONDITIONS_TYPE = new TypeToken<Collection<NrqlAlertCondition>>(){}.getType();
-    private static final Type EXTERNAL_SERVICE_ALERT_CONDITIONS_TYPE = new TypeToken<Collection<ExternalServiceAlertCondition>>(){}.getType();
-    private static final Type PLUGINS_ALERT_CONDITIONS_TYPE = new TypeToken<Collection<PluginsAlertCondition>>(){}.getType();
-    private static final Type SYNTHETICS_ALERT_CONDITIONS_TYPE = new TypeToken<Collection<SyntheticsAlertCondition>>(){}.getType();
-    private static final Type INFRA_ALERT_CONDITIONS_TYPE = new TypeToken<Collection<InfraAlertCondition>>(){}.getType();
-    private static final Type ALERT_INCIDENTS_TYPE = new TypeToken<Collection<AlertIncident>>(){}.getType();
-    private static final Type ALERT_VIOLATIONS_TYPE = new TypeToken<Collection<AlertViolation>>(){}.getType();
-    private static final Type ALERT_EVENTS_TYPE = new TypeToken<Collection<AlertEvent>>(){}.getType();
-    private static final Type APPLICATIONS_TYPE = new TypeToken<Collection<Application>>(){}.getType();
-    private static final Type APPLICATION_HOSTS_TYPE = new TypeToken<Collection<ApplicationHost>>(){}.getType();
-    private static final Type APPLICATION_INSTANCES_TYPE = new TypeToken<Collection<ApplicationInstance>>(){}.getType();
-    private static final Type BROWSER_APPLICATIONS_TYPE = new TypeToken<Collection<BrowserApplication>>(){}.getType();
-    private static final Type MOBILE_APPLICATIONS_TYPE = new TypeToken<Collection<MobileApplication>>(){}.getType();
-    private static final Type KEY_TRANSACTIONS_TYPE = new TypeToken<Collection<KeyTransaction>>(){}.getType();
-    private static final Type PLUGINS_TYPE = new TypeToken<Collection<Plugin>>(){}.getType();
-    private static final Type PLUGIN_COMPONENTS_TYPE = new TypeToken<Collection<PluginComponent>>(){}.getType();
-    private static final Type SERVERS_TYPE = new TypeToken<Collection<Server>>(){}.getType();
-    private static final Type METRICS_TYPE = new TypeToken<Collection<Metric>>(){}.getType();
-    private static final Type DEPLOYMENTS_TYPE = new TypeToken<Collection<Deployment>>(){}.getType();
-    private static final Type LABELS_TYPE = new TypeToken<Collection<Label>>(){}.getType();
-    private static final Type USERS_TYPE = new TypeToken<Collection<User>>(){}.getType();
-    private static final Type PARTNER_ACCOUNTS_TYPE = new TypeToken<Collection<PartnerAccount>>(){}.getType();
-    private static final Type PARTNER_USERS_TYPE = new TypeToken<Collection<PartnerUser>>(){}.getType();
-    private static final Type PARTNER_SUBSCRIPTIONS_TYPE = new TypeToken<Collection<PartnerSubscription>>(){}.getType();
-    private static final Type PRODUCT_SUBSCRIPTIONS_TYPE = new TypeToken<Collection<ProductSubscription>>(){}.getType();
-    private static final Type MONITORS_TYPE = new TypeToken<Collection<Monitor>>(){}.getType();
-    private static final Type DASHBOARDS_TYPE = new TypeToken<Collection<Dashboard>>(){}.getType();
-
-    private Gson gson;
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024*1024;
 
     /**
-     * Returns the Gson object with all custom deserializers.
-     * @return The Gson object
+     * The buffers used to serialize outgoing entities, reused by each thread.
      */
-    private Gson getGson()
+    private static final ThreadLocal<EntityBuffer> BUFFER = new ThreadLocal<EntityBuffer>()
     {
-        if (gson == null)
+        @Override
+        protected EntityBuffer initialValue()
         {
-            GsonBuilder builder = new GsonBuilder();
-
-            builder.registerTypeAdapter(ErrorResponse.class, new ErrorResponseDeserializer());
-            builder.registerTypeAdapter(AlertPolicy.class, new AlertPolicySerializer());
-            builder.registerTypeAdapter(AlertPolicy.class, new AlertPolicyDeserializer());
-            builder.registerTypeAdapter(ALERT_POLICIES_TYPE, new AlertPoliciesDeserializer());
-            builder.registerTypeHierarchyAdapter(AlertChannel.class, new AlertChannelSerializer());
-            builder.registerTypeAdapter(ALERT_CHANNELS_TYPE, new AlertChannelsDeserializer());
-            builder.registerTypeAdapter(AlertPolicyChannel.class, new AlertPolicyChannelDeserializer());
-            builder.registerTypeHierarchyAdapter(AlertCondition.class, new AlertConditionSerializer());
-            builder.registerTypeAdapter(AlertCondition.class, new AlertConditionDeserializer());
-            builder.registerTypeAdapter(ALERT_CONDITIONS_TYPE, new AlertConditionsDeserializer());
-            builder.registerTypeAdapter(NrqlAlertCondition.class, new NrqlAlertConditionSerializer());
-            builder.registerTypeAdapter(NrqlAlertCondition.class, new NrqlAlertConditionDeserializer());
-            builder.registerTypeAdapter(NRQL_ALERT_CONDITIONS_TYPE, new NrqlAlertConditionsDeserializer());
-            builder.registerTypeHierarchyAdapter(ExternalServiceAlertCondition.class, new ExternalServiceAlertConditionSerializer());
-            builder.registerTypeAdapter(ExternalServiceAlertCondition.class, new ExternalServiceAlertConditionDeserializer());
-            builder.registerTypeAdapter(EXTERNAL_SERVICE_ALERT_CONDITIONS_TYPE, new ExternalServiceAlertConditionsDeserializer());
-            builder.registerTypeHierarchyAdapter(PluginsAlertCondition.class, new PluginsAlertConditionSerializer());
-            builder.registerTypeAdapter(PluginsAlertCondition.class, new PluginsAlertConditionDeserializer());
-            builder.registerTypeAdapter(PLUGINS_ALERT_CONDITIONS_TYPE, new PluginsAlertConditionsDeserializer());
-            builder.registerTypeHierarchyAdapter(SyntheticsAlertCondition.class, new SyntheticsAlertConditionSerializer());
-            builder.registerTypeAdapter(SyntheticsAlertCondition.class, new SyntheticsAlertConditionDeserializer());
-            builder.registerTypeAdapter(SYNTHETICS_ALERT_CONDITIONS_TYPE, new SyntheticsAlertConditionsDeserializer());
-            builder.registerTypeHierarchyAdapter(InfraAlertCondition.class, new InfraAlertConditionSerializer());
-            builder.registerTypeAdapter(InfraAlertCondition.class, new InfraAlertConditionDeserializer());
-            builder.registerTypeAdapter(INFRA_ALERT_CONDITIONS_TYPE, new InfraAlertConditionsDeserializer());
-            builder.registerTypeAdapter(ALERT_INCIDENTS_TYPE, new AlertIncidentsDeserializer());
-            builder.registerTypeAdapter(ALERT_VIOLATIONS_TYPE, new AlertViolationsDeserializer());
-            builder.registerTypeAdapter(ALERT_EVENTS_TYPE, new AlertEventsDeserializer());
-            builder.registerTypeAdapter(Application.class, new ApplicationSerializer());
-            builder.registerTypeAdapter(Application.class, new ApplicationDeserializer());
-            builder.registerTypeAdapter(APPLICATIONS_TYPE, new ApplicationsDeserializer());
-            builder.registerTypeAdapter(ApplicationHost.class, new ApplicationHostDeserializer());
-            builder.registerTypeAdapter(APPLICATION_HOSTS_TYPE, new ApplicationHostsDeserializer());
-            builder.registerTypeAdapter(ApplicationInstance.class, new ApplicationInstanceDeserializer());
-            builder.registerTypeAdapter(APPLICATION_INSTANCES_TYPE, new ApplicationInstancesDeserializer());
-            builder.registerTypeAdapter(BrowserApplication.class, new BrowserApplicationSerializer());
-            builder.registerTypeAdapter(BrowserApplication.class, new BrowserApplicationDeserializer());
-            builder.registerTypeAdapter(BROWSER_APPLICATIONS_TYPE, new BrowserApplicationsDeserializer());
-            builder.registerTypeAdapter(MobileApplication.class, new MobileApplicationDeserializer());
-            builder.registerTypeAdapter(MOBILE_APPLICATIONS_TYPE, new MobileApplicationsDeserializer());
-            builder.registerTypeAdapter(KeyTransaction.class, new KeyTransactionDeserializer());
-            builder.registerTypeAdapter(KEY_TRANSACTIONS_TYPE, new KeyTransactionsDeserializer());
-            builder.registerTypeAdapter(Plugin.class, new PluginDeserializer());
-            builder.registerTypeAdapter(PLUGINS_TYPE, new PluginsDeserializer());
-            builder.registerTypeAdapter(PluginComponent.class, new PluginComponentDeserializer());
-            builder.registerTypeAdapter(PLUGIN_COMPONENTS_TYPE, new PluginComponentsDeserializer());
-            builder.registerTypeAdapter(Server.class, new ServerSerializer());
-            builder.registerTypeAdapter(Server.class, new ServerDeserializer());
-            builder.registerTypeAdapter(SERVERS_TYPE, new ServersDeserializer());
-            builder.registerTypeAdapter(METRICS_TYPE, new MetricsDeserializer());
-            builder.registerTypeAdapter(MetricData.class, new MetricDataDeserializer());
-            builder.registerTypeAdapter(Deployment.class, new DeploymentSerializer());
-            builder.registerTypeAdapter(Deployment.class, new DeploymentDeserializer());
-            builder.registerTypeAdapter(DEPLOYMENTS_TYPE, new DeploymentsDeserializer());
-            builder.registerTypeAdapter(Label.class, new LabelSerializer());
-            builder.registerTypeAdapter(Label.class, new LabelDeserializer());
-            builder.registerTypeAdapter(LABELS_TYPE, new LabelsDeserializer());
-            builder.registerTypeAdapter(User.class, new UserDeserializer());
-            builder.registerTypeAdapter(USERS_TYPE, new UsersDeserializer());
-            builder.registerTypeAdapter(UsageData.class, new UsageDataDeserializer());
-            builder.registerTypeAdapter(PARTNER_ACCOUNTS_TYPE, new PartnerAccountsDeserializer());
-            builder.registerTypeAdapter(PartnerUser.class, new PartnerUserSerializer());
-            builder.registerTypeAdapter(PARTNER_USERS_TYPE, new PartnerUsersDeserializer());
-            builder.registerTypeAdapter(PARTNER_SUBSCRIPTIONS_TYPE, new PartnerSubscriptionsDeserializer());
-            builder.registerTypeAdapter(PRODUCT_SUBSCRIPTIONS_TYPE, new ProductSubscriptionsSerializer());
-            builder.registerTypeAdapter(Monitor.class, new MonitorDeserializer());
-            builder.registerTypeAdapter(MONITORS_TYPE, new MonitorsDeserializer());
-            builder.registerTypeAdapter(Dashboard.class, new DashboardSerializer());
-            builder.registerTypeAdapter(Dashboard.class, new DashboardDeserializer());
-            builder.registerTypeAdapter(DASHBOARDS_TYPE, new DashboardsDeserializer());
-
-            gson = builder.create();
+            return new EntityBuffer(INITIAL_BUFFER_SIZE);
         }
+    };
 
-        return gson;
+    /**
+     * Returns the shared Gson object with all custom serializers and deserializers.
+     * @return The Gson object
+     */
+    private Gson getGson()
+    {
+        return GsonRegistry.getGson();
     }
 
     /**
@@ -314,6 +115,9 @@ public final class GsonMessageBodyHandler implements MessageBodyWriter<Object>,
     
     /**
      * Write a type to a HTTP message.
+     * <P>
+     * The object is serialized once into a reusable per-thread buffer, which is then copied to the entity stream.
+     * The buffer is only converted to a string for logging if FINE logging is enabled.
      * @param object The instance to write
      * @param type The class of instance that is to be written
      * @param genericType The type of instance to be written
@@ -327,26 +131,33 @@ public final class GsonMessageBodyHandler implements MessageBodyWriter<Object>,
         MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
         throws IOException, WebApplicationException
     {
-        OutputStreamWriter outputStreamWriter = null;
+        EntityBuffer buffer = BUFFER.get();
         
         try
         {    
-            outputStreamWriter = new OutputStreamWriter(entityStream, CHARSET);   
+            buffer.reset();
+            Writer writer = new OutputStreamWriter(buffer, CHARSET);
             Type jsonType = getAppropriateType(type, genericType);
-            String json = getGson().toJson(object, jsonType);
+            getGson().toJson(object, jsonType, writer);
+            writer.flush();
             if(logger.isLoggable(Level.FINE))
-                logger.fine("Outgoing JSON Entity: "+json);
-            getGson().toJson(object, jsonType, outputStreamWriter);
+                logger.fine("Outgoing JSON Entity: "+buffer.toString(CHARSET));
+            buffer.writeTo(entityStream);
         }
         finally
         {    
-            if(outputStreamWriter != null)
-                outputStreamWriter.close();
+            // Don't keep hold of buffers that have grown too large
+            if(buffer.capacity() > MAX_POOLED_BUFFER_SIZE)
+                BUFFER.remove();
+            entityStream.close();
         }
     }
 
     /**
      * Read a type from the InputStream.
+     * <P>
+     * The entity is parsed directly from the stream. 
+     * If FINE logging is enabled, a copy of the entity is also kept so that it can be logged.
      * @param type The type that is to be read from the entity stream
      * @param genericType The type of instance to be produced
      * @param annotations An array of the annotations on the declaration of the artifact that will be initialized with the produced instance
@@ -360,32 +171,60 @@ public final class GsonMessageBodyHandler implements MessageBodyWriter<Object>,
         MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream inputStream)
         throws IOException, WebApplicationException
     {
-        String json = null;
         Object result = null;
-        InputStreamReader inputStreamReader = null;
-        
+        ByteArrayOutputStream copy = null;
+        JsonReader jsonReader = null;
+
         try
         {
-            inputStreamReader = new InputStreamReader(inputStream, CHARSET);   
-            Type jsonType = getAppropriateType(type, genericType);
-            json = getStringFromInputStream(inputStream);
             if(logger.isLoggable(Level.FINE))
-                logger.fine("Incoming JSON Entity: "+json);
-            result = getGson().fromJson(json, jsonType);
+            {
+                copy = new ByteArrayOutputStream();
+                inputStream = new TeeInputStream(inputStream, copy);
+            }
+
+            jsonReader = new JsonReader(new InputStreamReader(inputStream, CHARSET));
+            Type jsonType = getAppropriateType(type, genericType);
+            result = getGson().fromJson(jsonReader, jsonType);
+
+            drain(jsonReader);
+            if(copy != null)
+                logger.fine("Incoming JSON Entity: "+copy.toString(CHARSET));
         }
         catch(JsonSyntaxException e)
         {
-            logger.severe("Error in Incoming JSON Entity: "+json);
+            if(copy != null)
+                logger.severe("Error in Incoming JSON Entity: "+copy.toString(CHARSET));
+            else
+                logger.severe("Error in Incoming JSON Entity: "+e.getMessage());
         }
         finally
         {
-            if(inputStreamReader != null)
-                inputStreamReader.close();
+            if(jsonReader != null)
+                jsonReader.close();
         }
         
         return result;
     }
     
+    /**
+     * Reads up to the end of the stream, otherwise a pooled connection is closed instead of being reused.
+     * @param jsonReader The reader positioned after the document
+     * @throws IOException if the stream cannot be read
+     */
+    private void drain(JsonReader jsonReader) throws IOException
+    {
+        try
+        {
+            jsonReader.setLenient(true);
+            jsonReader.peek();
+        }
+        catch(EOFException e)
+        {
+            // The entity was empty, which is decoded as null
+        }
+    }
+
     /**
      * Returns the type of the given class.
      * @param type The class to get the type for
@@ -398,42 +237,63 @@ public final class GsonMessageBodyHandler implements MessageBodyWriter<Object>,
     }
 
     /**
-     * Extracts the string from the given input stream.
-     * @param is The input stream
-     * @return The string extracted
+     * Input stream that copies the bytes read from the stream to an output stream.
      */
-    private static String getStringFromInputStream(InputStream is)
+    private static class TeeInputStream extends FilterInputStream
     {
-        BufferedReader br = null;
-        StringBuilder sb = new StringBuilder();
+        private OutputStream copy;
 
-        String line;
-        try
+        /**
+         * Constructor that takes the input stream and the output stream to copy to.
+         * @param in The input stream
+         * @param copy The output stream to copy the bytes read to
+         */
+        TeeInputStream(InputStream in, OutputStream copy)
         {
-            br = new BufferedReader(new InputStreamReader(is));
-            while((line = br.readLine()) != null)
-            {
-                sb.append(line);
-            }
+            super(in);
+            this.copy = copy;
+        }
 
+        @Override
+        public int read() throws IOException
+        {
+            int b = super.read();
+            if(b != -1)
+                copy.write(b);
+            return b;
         }
-        catch(IOException e)
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
         {
-            logger.severe("Unable to get string from stream: "+e.getClass().getName()+": "+e.getMessage());
+            int n = super.read(b, off, len);
+            if(n > 0)
+                copy.write(b, off, n);
+            return n;
         }
-        finally
+    }
+
+    /**
+     * Byte buffer that can be reset and reused for each outgoing entity.
+     */
+    private static class EntityBuffer extends ByteArrayOutputStream
+    {
+        /**
+         * Constructor that takes the initial size of the buffer.
+         * @param size The initial size of the buffer
+         */
+        EntityBuffer(int size)
         {
-            try
-            {
-                if(br != null)
-                    br.close();
-            }
-            catch(IOException e)
-            {
-            }
+            super(size);
         }
 
-        return sb.toString();
+        /**
+         * Returns the current capacity of the buffer.
+         * @return The current capacity of the buffer
+         */
+        int capacity()
+        {
+            return buf.length;
+        }
     }
-
 }
\ No newline at end of file
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.opsmatters.newrelic.api.model.ErrorResponse;
+import com.opsmatters.newrelic.api.model.ErrorDetail;
+import com.opsmatters.newrelic.api.model.ErrorDetails;
+import com.opsmatters.newrelic.api.model.ErrorMessages;
+import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicy;
+import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicyChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.AlertChannel;
+import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.NrqlAlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.ExternalServiceAlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.PluginsAlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.SyntheticsAlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.InfraAlertCondition;
+import com.opsmatters.newrelic.api.model.applications.Application;
+import com.opsmatters.newrelic.api.model.applications.ApplicationHost;
+import com.opsmatters.newrelic.api.model.applications.ApplicationInstance;
+import com.opsmatters.newrelic.api.model.applications.BrowserApplication;
+import com.opsmatters.newrelic.api.model.applications.MobileApplication;
+import com.opsmatters.newrelic.api.model.transactions.KeyTransaction;
+import com.opsmatters.newrelic.api.model.plugins.Plugin;
+import com.opsmatters.newrelic.api.model.plugins.PluginComponent;
+import com.opsmatters.newrelic.api.model.servers.Server;
+import com.opsmatters.newrelic.api.model.metrics.MetricData;
+import com.opsmatters.newrelic.api.model.deployments.Deployment;
+import com.opsmatters.newrelic.api.model.labels.Label;
+import com.opsmatters.newrelic.api.model.accounts.PartnerUser;
+import com.opsmatters.newrelic.api.model.accounts.ProductSubscription;
+import com.opsmatters.newrelic.api.model.accounts.User;
+import com.opsmatters.newrelic.api.model.accounts.UsageData;
+import com.opsmatters.newrelic.api.model.insights.Dashboard;
+import com.opsmatters.newrelic.api.httpclient.serializers.alerts.policies.AlertPolicySerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.alerts.channels.AlertChannelSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.AlertConditionSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.NrqlAlertConditionSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.ExternalServiceAlertConditionSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.PluginsAlertConditionSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.SyntheticsAlertConditionSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions.InfraAlertConditionSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.applications.ApplicationSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.applications.BrowserApplicationSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.servers.ServerSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.deployments.DeploymentSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.labels.LabelSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.insights.DashboardSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.accounts.PartnerUserSerializer;
+import com.opsmatters.newrelic.api.httpclient.serializers.accounts.ProductSubscriptionsSerializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.ErrorResponseDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.AlertIncidentsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.AlertViolationsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.AlertEventsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.policies.AlertPolicyDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.policies.AlertPoliciesDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.policies.AlertPolicyChannelDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.channels.AlertChannelDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.channels.AlertChannelsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.AlertConditionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.AlertConditionsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.NrqlAlertConditionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.NrqlAlertConditionsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.ExternalServiceAlertConditionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.ExternalServiceAlertConditionsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.PluginsAlertConditionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.PluginsAlertConditionsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.SyntheticsAlertConditionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.SyntheticsAlertConditionsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.InfraAlertConditionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions.InfraAlertConditionsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationHostDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationHostsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationInstanceDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.ApplicationInstancesDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.BrowserApplicationDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.BrowserApplicationsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.MobileApplicationDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.applications.MobileApplicationsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.transactions.KeyTransactionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.transactions.KeyTransactionsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.plugins.PluginDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.plugins.PluginsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.plugins.PluginComponentDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.plugins.PluginComponentsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.servers.ServerDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.servers.ServersDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.metrics.MetricsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.metrics.MetricDataDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.deployments.DeploymentDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.deployments.DeploymentsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.labels.LabelDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.labels.LabelsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.PartnerAccountsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.UserDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.UsersDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.PartnerUsersDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.PartnerSubscriptionsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.accounts.UsageDataDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.synthetics.MonitorDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.synthetics.MonitorsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.insights.DashboardDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.insights.DashboardsDeserializer;
+import com.opsmatters.newrelic.api.httpclient.deserializers.insights.widgets.WidgetDeserializer;
+
+/**
+ * Registry of the Gson instances shared by all clients, serializers and deserializers.
+ * <P>
+ * The instances are built once when the class is loaded and are immutable and thread-safe,
+ * so the type adapters created by Gson are cached and reused across all requests.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public final class GsonRegistry
+{
+    /**
+     * The Gson instance without any custom adapters, used by the serializers and deserializers to bind the model classes.
+     * <P>
+     * Must be created before the custom adapters, as they refer to it when they are loaded.
+     */
+    private static final Gson DEFAULT_GSON = new Gson();
+
+    private static final Type PRODUCT_SUBSCRIPTIONS_TYPE = new TypeToken<Collection<ProductSubscription>>(){}.getType();
+
+    /**
+     * The model classes that are not the elements of any of the collections, or subtypes selected by a polymorphic deserializer.
+     */
+    private static final Class<?>[] WARM_UP_TYPES = new Class<?>[]
+    {
+        ErrorDetail.class,
+        ErrorDetails.class,
+        ErrorMessages.class,
+        AlertPolicyChannel.class,
+        MetricData.class,
+        UsageData.class
+    };
+
+    /**
+     * The deserializers for the collection types, which can also be used to iterate over the elements as they are read.
+     * <P>
+     * Must be created before the custom adapters are registered.
+     */
+    private static final Map<Type,CollectionDeserializer<?>> COLLECTIONS = new HashMap<Type,CollectionDeserializer<?>>();
+
+    /**
+     * The Gson instance with all the custom serializers and deserializers registered.
+     */
+    private static final Gson GSON = createGson();
+
+    /**
+     * Set once the type adapters for the model classes have been created ahead of the first request.
+     */
+    private static final AtomicBoolean WARMED_UP = new AtomicBoolean(false);
+
+    /**
+     * Private constructor.
+     */
+    private GsonRegistry()
+    {
+    }
+
+    /**
+     * Returns the shared Gson instance without any custom adapters.
+     * @return The shared Gson instance without any custom adapters
+     */
+    public static Gson getDefaultGson()
+    {
+        return DEFAULT_GSON;
+    }
+
+    /**
+     * Returns the shared Gson instance with all the custom serializers and deserializers registered.
+     * @return The shared Gson instance with all the custom serializers and deserializers registered
+     */
+    public static Gson getGson()
+    {
+        return GSON;
+    }
+
+    /**
+     * Returns the deserializer registered for the given collection type.
+     * @param type The collection type, eg. <CODE>Collection&lt;Application&gt;</CODE>
+     * @return The deserializer for the collection type, or <CODE>null</CODE> if there is no deserializer registered for the type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CollectionDeserializer<T> getCollectionDeserializer(Type type)
+    {
+        return (CollectionDeserializer<T>)COLLECTIONS.get(type);
+    }
+
+    /**
+     * Creates the type adapters for the model classes ahead of the first request.
+     * <P>
+     * The adapters for the model classes are created by reflection the first time each class is bound,
+     * which adds to the latency of the first requests made by an application. Calling this method
+     * at startup moves that cost out of the request path, at the cost of creating the adapters for model classes
+     * the application may never use. It is optional and is not called by the clients unless the
+     * warm-up is enabled, eg. with <CODE>NewRelicApi.builder().warmUp(true)</CODE>.
+     * Only the first call has any effect.
+     */
+    public static void warmUp()
+    {
+        if(!WARMED_UP.compareAndSet(false, true))
+            return;
+
+        for(CollectionDeserializer<?> deserializer : COLLECTIONS.values())
+        {
+            GSON.getAdapter(TypeToken.get(deserializer.getType()));
+            DEFAULT_GSON.getAdapter(deserializer.getElementClass());
+        }
+
+        for(Class<?> type : WARM_UP_TYPES)
+            DEFAULT_GSON.getAdapter(type);
+
+        new AlertChannelDeserializer().warmUp();
+        new AlertConditionDeserializer().warmUp();
+        new ExternalServiceAlertConditionDeserializer().warmUp();
+        new InfraAlertConditionDeserializer().warmUp();
+        new MonitorDeserializer().warmUp();
+        new WidgetDeserializer().warmUp();
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the type adapters for the model classes have been created ahead of the first request.
+     * @return <CODE>true</CODE> if {@link #warmUp()} has been called
+     */
+    public static boolean isWarmedUp()
+    {
+        return WARMED_UP.get();
+    }
+
+    /**
+     * Creates the Gson instance with all the custom serializers and deserializers registered.
+     * @return The Gson instance
+     */
+    private static Gson createGson()
+    {
+        GsonBuilder builder = new GsonBuilder();
+
+        builder.registerTypeAdapter(ErrorResponse.class, new ErrorResponseDeserializer());
+        builder.registerTypeAdapter(AlertPolicy.class, new AlertPolicySerializer());
+        builder.registerTypeAdapter(AlertPolicy.class, new AlertPolicyDeserializer());
+        registerCollection(builder, new AlertPoliciesDeserializer());
+        builder.registerTypeHierarchyAdapter(AlertChannel.class, new AlertChannelSerializer());
+        registerCollection(builder, new AlertChannelsDeserializer());
+        builder.registerTypeAdapter(AlertPolicyChannel.class, new AlertPolicyChannelDeserializer());
+        builder.registerTypeHierarchyAdapter(AlertCondition.class, new AlertConditionSerializer());
+        builder.registerTypeAdapterFactory(new AlertConditionDeserializer());
+        registerCollection(builder, new AlertConditionsDeserializer());
+        builder.registerTypeAdapter(NrqlAlertCondition.class, new NrqlAlertConditionSerializer());
+        builder.registerTypeAdapter(NrqlAlertCondition.class, new NrqlAlertConditionDeserializer());
+        registerCollection(builder, new NrqlAlertConditionsDeserializer());
+        builder.registerTypeHierarchyAdapter(ExternalServiceAlertCondition.class, new ExternalServiceAlertConditionSerializer());
+        builder.registerTypeAdapterFactory(new ExternalServiceAlertConditionDeserializer());
+        registerCollection(builder, new ExternalServiceAlertConditionsDeserializer());
+        builder.registerTypeHierarchyAdapter(PluginsAlertCondition.class, new PluginsAlertConditionSerializer());
+        builder.registerTypeAdapter(PluginsAlertCondition.class, new PluginsAlertConditionDeserializer());
+        registerCollection(builder, new PluginsAlertConditionsDeserializer());
+        builder.registerTypeHierarchyAdapter(SyntheticsAlertCondition.class, new SyntheticsAlertConditionSerializer());
+        builder.registerTypeAdapter(SyntheticsAlertCondition.class, new SyntheticsAlertConditionDeserializer());
+        registerCollection(builder, new SyntheticsAlertConditionsDeserializer());
+        builder.registerTypeHierarchyAdapter(InfraAlertCondition.class, new InfraAlertConditionSerializer());
+        builder.registerTypeAdapterFactory(new InfraAlertConditionDeserializer());
+        registerCollection(builder, new InfraAlertConditionsDeserializer());
+        registerCollection(builder, new AlertIncidentsDeserializer());
+        registerCollection(builder, new AlertViolationsDeserializer());
+        registerCollection(builder, new AlertEventsDeserializer());
+        builder.registerTypeAdapter(Application.class, new ApplicationSerializer());
+        builder.registerTypeAdapter(Application.class, new ApplicationDeserializer());
+        registerCollection(builder, new ApplicationsDeserializer());
+        builder.registerTypeAdapter(ApplicationHost.class, new ApplicationHostDeserializer());
+        registerCollection(builder, new ApplicationHostsDeserializer());
+        builder.registerTypeAdapter(ApplicationInstance.class, new ApplicationInstanceDeserializer());
+        registerCollection(builder, new ApplicationInstancesDeserializer());
+        builder.registerTypeAdapter(BrowserApplication.class, new BrowserApplicationSerializer());
+        builder.registerTypeAdapter(BrowserApplication.class, new BrowserApplicationDeserializer());
+        registerCollection(builder, new BrowserApplicationsDeserializer());
+        builder.registerTypeAdapter(MobileApplication.class, new MobileApplicationDeserializer());
+        registerCollection(builder, new MobileApplicationsDeserializer());
+        builder.registerTypeAdapter(KeyTransaction.class, new KeyTransactionDeserializer());
+        registerCollection(builder, new KeyTransactionsDeserializer());
+        builder.registerTypeAdapter(Plugin.class, new PluginDeserializer());
+        registerCollection(builder, new PluginsDeserializer());
+        builder.registerTypeAdapter(PluginComponent.class, new PluginComponentDeserializer());
+        registerCollection(builder, new PluginComponentsDeserializer());
+        builder.registerTypeAdapter(Server.class, new ServerSerializer());
+        builder.registerTypeAdapter(Server.class, new ServerDeserializer());
+        registerCollection(builder, new ServersDeserializer());
+        registerCollection(builder, new MetricsDeserializer());
+        builder.registerTypeAdapter(MetricData.class, new MetricDataDeserializer());
+        builder.registerTypeAdapter(Deployment.class, new DeploymentSerializer());
+        builder.registerTypeAdapter(Deployment.class, new DeploymentDeserializer());
+        registerCollection(builder, new DeploymentsDeserializer());
+        builder.registerTypeAdapter(Label.class, new LabelSerializer());
+        builder.registerTypeAdapter(Label.class, new LabelDeserializer());
+        registerCollection(builder, new LabelsDeserializer());
+        builder.registerTypeAdapter(User.class, new UserDeserializer());
+        registerCollection(builder, new UsersDeserializer());
+        builder.registerTypeAdapter(UsageData.class, new UsageDataDeserializer());
+        registerCollection(builder, new PartnerAccountsDeserializer());
+        builder.registerTypeAdapter(PartnerUser.class, new PartnerUserSerializer());
+        registerCollection(builder, new PartnerUsersDeserializer());
+        registerCollection(builder, new PartnerSubscriptionsDeserializer());
+        builder.registerTypeAdapter(PRODUCT_SUBSCRIPTIONS_TYPE, new ProductSubscriptionsSerializer());
+        builder.registerTypeAdapterFactory(new MonitorDeserializer());
+        registerCollection(builder, new MonitorsDeserializer());
+        builder.registerTypeAdapter(Dashboard.class, new DashboardSerializer());
+        builder.registerTypeAdapter(Dashboard.class, new DashboardDeserializer());
+        registerCollection(builder, new DashboardsDeserializer());
+
+        return builder.create();
+    }
+
+    /**
+     * Registers the given collection deserializer with the builder.
+     * @param builder The builder to register the deserializer with
+     * @param deserializer The collection deserializer to register
+     */
+    private static void registerCollection(GsonBuilder builder, CollectionDeserializer<?> deserializer)
+    {
+        COLLECTIONS.put(deserializer.getType(), deserializer);
+        builder.registerTypeAdapterFactory(deserializer);
+    }
+}
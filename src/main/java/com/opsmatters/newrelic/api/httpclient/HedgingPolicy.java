@@ -0,0 +1,325 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Represents the policy used to hedge GET requests that are slow to respond.
+ * <P>
+ * If there is no response to a GET request within the hedging delay, a second identical request is sent
+ * and the first of the two to respond is used. The hedging delay for each endpoint is the given percentile
+ * of its recent latencies, or the initial delay until enough latencies have been recorded.
+ * <P>
+ * Only the GET requests for paths starting with one of the configured prefixes are hedged, eg. "/v2/alerts_incidents",
+ * or all GET requests if no prefixes are configured. Times are in milliseconds.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class HedgingPolicy
+{
+    /**
+     * The default percentile of the recent latencies used as the hedging delay.
+     */
+    public static final double DEFAULT_PERCENTILE = 0.95d;
+
+    /**
+     * The default hedging delay used until enough latencies have been recorded.
+     */
+    public static final long DEFAULT_INITIAL_DELAY = 1000L;
+
+    /**
+     * The default shortest hedging delay.
+     */
+    public static final long DEFAULT_MIN_DELAY = 50L;
+
+    /**
+     * The default number of the most recent latencies kept for each endpoint.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    /**
+     * The default minimum number of latencies before the percentile is used.
+     */
+    public static final int DEFAULT_MINIMUM_SAMPLES = 20;
+
+    private double percentile = DEFAULT_PERCENTILE;
+    private long initialDelay = DEFAULT_INITIAL_DELAY;
+    private long minDelay = DEFAULT_MIN_DELAY;
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+    private int minimumSamples = DEFAULT_MINIMUM_SAMPLES;
+    private Set<String> paths = new LinkedHashSet<String>();
+
+    /**
+     * Default constructor.
+     */
+    public HedgingPolicy()
+    {
+    }
+
+    /**
+     * Sets the percentile of the recent latencies used as the hedging delay.
+     * @param percentile The percentile of the recent latencies, between 0 and 1
+     */
+    public void setPercentile(double percentile)
+    {
+        if(percentile <= 0.0d || percentile >= 1.0d)
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        this.percentile = percentile;
+    }
+
+    /**
+     * Returns the percentile of the recent latencies used as the hedging delay.
+     * @return The percentile of the recent latencies
+     */
+    public double getPercentile()
+    {
+        return percentile;
+    }
+
+    /**
+     * Sets the hedging delay used until enough latencies have been recorded.
+     * @param initialDelay The hedging delay used until enough latencies have been recorded
+     */
+    public void setInitialDelay(long initialDelay)
+    {
+        if(initialDelay < 1L)
+            throw new IllegalArgumentException("initialDelay < 1");
+        this.initialDelay = initialDelay;
+    }
+
+    /**
+     * Returns the hedging delay used until enough latencies have been recorded.
+     * @return The hedging delay used until enough latencies have been recorded
+     */
+    public long getInitialDelay()
+    {
+        return initialDelay;
+    }
+
+    /**
+     * Sets the shortest hedging delay, which stops an endpoint that is usually fast from being hedged too often.
+     * @param minDelay The shortest hedging delay
+     */
+    public void setMinDelay(long minDelay)
+    {
+        if(minDelay < 1L)
+            throw new IllegalArgumentException("minDelay < 1");
+        this.minDelay = minDelay;
+    }
+
+    /**
+     * Returns the shortest hedging delay.
+     * @return The shortest hedging delay
+     */
+    public long getMinDelay()
+    {
+        return minDelay;
+    }
+
+    /**
+     * Sets the number of the most recent latencies kept for each endpoint.
+     * @param windowSize The number of the most recent latencies
+     */
+    public void setWindowSize(int windowSize)
+    {
+        if(windowSize < 1)
+            throw new IllegalArgumentException("windowSize < 1");
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Returns the number of the most recent latencies kept for each endpoint.
+     * @return The number of the most recent latencies
+     */
+    public int getWindowSize()
+    {
+        return windowSize;
+    }
+
+    /**
+     * Sets the minimum number of latencies before the percentile is used.
+     * @param minimumSamples The minimum number of latencies
+     */
+    public void setMinimumSamples(int minimumSamples)
+    {
+        if(minimumSamples < 1)
+            throw new IllegalArgumentException("minimumSamples < 1");
+        this.minimumSamples = minimumSamples;
+    }
+
+    /**
+     * Returns the minimum number of latencies before the percentile is used.
+     * @return The minimum number of latencies
+     */
+    public int getMinimumSamples()
+    {
+        return minimumSamples;
+    }
+
+    /**
+     * Sets the path prefixes of the GET requests that are hedged.
+     * @param paths The path prefixes of the requests, or an empty collection if all GET requests are hedged
+     */
+    public void setPaths(Collection<String> paths)
+    {
+        this.paths = new LinkedHashSet<String>(paths);
+    }
+
+    /**
+     * Returns the path prefixes of the GET requests that are hedged.
+     * @return The path prefixes of the requests, or an empty set if all GET requests are hedged
+     */
+    public Set<String> getPaths()
+    {
+        return paths;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if GET requests for the given path are hedged.
+     * @param path The path of the request
+     * @return <CODE>true</CODE> if GET requests for the path are hedged
+     */
+    public boolean isHedged(String path)
+    {
+        if(paths.isEmpty())
+            return true;
+        for(String prefix : paths)
+        {
+            if(path.startsWith(prefix))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "HedgingPolicy [percentile="+percentile
+            +", initialDelay="+initialDelay
+            +", minDelay="+minDelay
+            +", windowSize="+windowSize
+            +", minimumSamples="+minimumSamples
+            +", paths="+paths
+            +"]";
+    }
+
+    /**
+     * Returns a builder for the hedging policy.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make hedging policy construction easier.
+     */
+    public static class Builder
+    {
+        private HedgingPolicy policy = new HedgingPolicy();
+
+        /**
+         * Default constructor.
+         */
+        Builder()
+        {
+        }
+
+        /**
+         * Sets the percentile of the recent latencies used as the hedging delay.
+         * @param percentile The percentile of the recent latencies, between 0 and 1
+         * @return This object
+         */
+        public Builder percentile(double percentile)
+        {
+            policy.setPercentile(percentile);
+            return this;
+        }
+
+        /**
+         * Sets the hedging delay used until enough latencies have been recorded.
+         * @param initialDelay The hedging delay used until enough latencies have been recorded
+         * @return This object
+         */
+        public Builder initialDelay(long initialDelay)
+        {
+            policy.setInitialDelay(initialDelay);
+            return this;
+        }
+
+        /**
+         * Sets the shortest hedging delay.
+         * @param minDelay The shortest hedging delay
+         * @return This object
+         */
+        public Builder minDelay(long minDelay)
+        {
+            policy.setMinDelay(minDelay);
+            return this;
+        }
+
+        /**
+         * Sets the number of the most recent latencies kept for each endpoint.
+         * @param windowSize The number of the most recent latencies
+         * @return This object
+         */
+        public Builder windowSize(int windowSize)
+        {
+            policy.setWindowSize(windowSize);
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of latencies before the percentile is used.
+         * @param minimumSamples The minimum number of latencies
+         * @return This object
+         */
+        public Builder minimumSamples(int minimumSamples)
+        {
+            policy.setMinimumSamples(minimumSamples);
+            return this;
+        }
+
+        /**
+         * Sets the path prefixes of the GET requests that are hedged.
+         * @param paths The path prefixes of the requests, eg. "/v2/alerts_incidents"
+         * @return This object
+         */
+        public Builder paths(String... paths)
+        {
+            policy.setPaths(Arrays.asList(paths));
+            return this;
+        }
+
+        /**
+         * Returns the configured hedging policy.
+         * @return The hedging policy
+         */
+        public HedgingPolicy build()
+        {
+            return policy;
+        }
+    }
+}
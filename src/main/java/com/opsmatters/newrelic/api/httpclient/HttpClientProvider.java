@@ -36,4 +36,16 @@ public interface HttpClientProvider
      * @return the http client
      */
     public Client getClient();
+
+    /**
+     * Returns an opaque id for the key used to authenticate the requests,
+     * which identifies the clients that share a rate limit without revealing the key.
+     * <P>
+     * The default implementation returns <CODE>null</CODE>, in which case the rate limit is not shared.
+     * @return the id of the key used to authenticate the requests, or <CODE>null</CODE> if there is none
+     */
+    default String getKeyId()
+    {
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientLifecycleListener;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+
+/**
+ * Configures a client to use the pooled keep-alive connector.
+ * <P>
+ * The connector is kept in a separate class so that the Apache HttpClient classes are only loaded
+ * if a connection pool has been configured, which allows the jersey-apache-connector dependency
+ * to be left out by applications that do not use connection pooling.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+class PooledConnector
+{
+    private static final Logger logger = Logger.getLogger(PooledConnector.class.getName());
+
+    /**
+     * Private constructor as the class only has static methods.
+     */
+    private PooledConnector()
+    {
+    }
+
+    /**
+     * Configures the client to use a pooled keep-alive connector.
+     * @param config The client configuration
+     * @param pool The connection pool configuration
+     */
+    static void configure(ClientConfig config, ConnectionPoolConfig pool)
+    {
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager();
+        manager.setMaxTotal(pool.getMaxTotal());
+        manager.setDefaultMaxPerRoute(pool.getMaxPerHost());
+        manager.setValidateAfterInactivity(pool.getValidateAfterInactivity());
+        manager.setDefaultSocketConfig(SocketConfig.custom()
+            .setSoKeepAlive(pool.getKeepAlive())
+            .setSoReuseAddress(pool.getReuseAddress())
+            .setTcpNoDelay(true)
+            .build());
+
+        config.connectorProvider(new ApacheConnectorProvider());
+        config.property(ApacheClientProperties.CONNECTION_MANAGER, manager);
+        config.property(ClientProperties.CONNECT_TIMEOUT, pool.getConnectTimeout());
+        config.property(ClientProperties.READ_TIMEOUT, pool.getReadTimeout());
+        config.property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED);
+
+        // Evict idle connections for as long as the client is open
+        if(pool.getIdleTimeout() > 0L)
+        {
+            final IdleConnectionEvictor evictor = new IdleConnectionEvictor(manager,
+                pool.getIdleTimeout(), TimeUnit.MILLISECONDS, pool.getIdleTimeout(), TimeUnit.MILLISECONDS);
+            config.register(new ClientLifecycleListener()
+            {
+                @Override
+                public void onInit()
+                {
+                    evictor.start();
+                }
+
+                @Override
+                public void onClose()
+                {
+                    evictor.shutdown();
+                }
+            });
+        }
+
+        if(logger.isLoggable(Level.FINE))
+            logger.fine("Using pooled connector: "+pool);
+    }
+}
@@ -16,14 +16,7 @@
 
 package com.opsmatters.newrelic.api.httpclient;
 
-import java.util.logging.Level;
-import java.util.logging.Logger;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.core.Configuration;
-import org.glassfish.jersey.client.ClientConfig;
-import org.glassfish.jersey.client.HttpUrlConnectorProvider;
-import org.glassfish.jersey.logging.LoggingFeature;
+import javax.ws.rs.client.ClientRequestFilter;
 import com.opsmatters.newrelic.api.httpclient.filters.QueryKeyFilter;
 
 /**
@@ -31,10 +24,8 @@ import com.opsmatters.newrelic.api.httpclient.filters.QueryKeyFilter;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class QueryKeyHttpClientProvider implements HttpClientProvider
+public class QueryKeyHttpClientProvider extends BaseHttpClientProvider
 {
-    private static final Logger logger = Logger.getLogger(QueryKeyHttpClientProvider.class.getName());
-
     private String queryKey;
     
     /**
@@ -47,29 +38,22 @@ public class QueryKeyHttpClientProvider implements HttpClientProvider
     }
 
     /**
-     * Returns <CODE>true</CODE> if the provider should use https.
-     * @return <CODE>true</CODE> if the provider should use https
+     * Returns an opaque id for the Query key used for authentication.
+     * @return The id of the Query key used for authentication
      */
     @Override
-    public boolean useSsl()
+    public String getKeyId()
     {
-        return true;
+        return getKeyId(queryKey);
     }
 
     /**
-     * Returns the HTTP client.
-     * @return The HTTP client
+     * Returns the filter used to attach the key to each request.
+     * @return The filter used to attach the key to each request
      */
     @Override
-    public Client getClient()
+    protected ClientRequestFilter getFilter()
     {
-        ClientConfig config = new ClientConfig();
-        config.register(GsonMessageBodyHandler.class);   
-        Client client = ClientBuilder.newClient(config);
-        client.property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true); // To support PATCH method
-        client.register(new QueryKeyFilter(this.queryKey));
-        if(logger.isLoggable(Level.FINE))
-            client.register(new LoggingFeature(logger, Level.FINE, LoggingFeature.Verbosity.PAYLOAD_TEXT, 8192));
-        return client;
+        return new QueryKeyFilter(this.queryKey);
     }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+/**
+ * Represents the configuration of the client-side rate limit applied to the requests made with a key.
+ * <P>
+ * The limit is enforced by a token bucket that is refilled at the given rate
+ * and holds at most the given burst of requests.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RateLimitConfig
+{
+    /**
+     * The default number of requests per second.
+     */
+    public static final double DEFAULT_RATE = 10.0d;
+
+    /**
+     * The default maximum number of requests that can be made at once after a quiet period.
+     */
+    public static final int DEFAULT_BURST = 10;
+
+    private double rate = DEFAULT_RATE;
+    private int burst = DEFAULT_BURST;
+
+    /**
+     * Default constructor.
+     */
+    public RateLimitConfig()
+    {
+    }
+
+    /**
+     * Sets the number of requests per second.
+     * @param rate The number of requests per second
+     */
+    public void setRate(double rate)
+    {
+        if(rate <= 0.0d)
+            throw new IllegalArgumentException("rate <= 0");
+        this.rate = rate;
+    }
+
+    /**
+     * Returns the number of requests per second.
+     * @return The number of requests per second
+     */
+    public double getRate()
+    {
+        return rate;
+    }
+
+    /**
+     * Sets the maximum number of requests that can be made at once after a quiet period.
+     * @param burst The maximum number of requests that can be made at once
+     */
+    public void setBurst(int burst)
+    {
+        if(burst < 1)
+            throw new IllegalArgumentException("burst < 1");
+        this.burst = burst;
+    }
+
+    /**
+     * Returns the maximum number of requests that can be made at once after a quiet period.
+     * @return The maximum number of requests that can be made at once
+     */
+    public int getBurst()
+    {
+        return burst;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "RateLimitConfig [rate="+rate
+            +", burst="+burst
+            +"]";
+    }
+
+    /**
+     * Returns a builder for the rate limit configuration.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make rate limit configuration easier.
+     */
+    public static class Builder
+    {
+        private RateLimitConfig config = new RateLimitConfig();
+
+        /**
+         * Default constructor.
+         */
+        Builder()
+        {
+        }
+
+        /**
+         * Sets the number of requests per second.
+         * @param rate The number of requests per second
+         * @return This object
+         */
+        public Builder rate(double rate)
+        {
+            config.setRate(rate);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests that can be made at once after a quiet period.
+         * @param burst The maximum number of requests that can be made at once
+         * @return This object
+         */
+        public Builder burst(int burst)
+        {
+            config.setBurst(burst);
+            return this;
+        }
+
+        /**
+         * Returns the configured rate limit configuration.
+         * @return The rate limit configuration
+         */
+        public RateLimitConfig build()
+        {
+            return config;
+        }
+    }
+}
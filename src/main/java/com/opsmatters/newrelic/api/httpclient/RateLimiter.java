@@ -0,0 +1,351 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the rate of the requests made with a key to a host using a token bucket.
+ * <P>
+ * Each request takes a token from the bucket, which is refilled at the configured rate up to the burst size.
+ * If the bucket is empty the request reserves the next token to be added and waits until it is due,
+ * so waiting requests are released in the order they arrived.
+ * <P>
+ * A single limiter is shared by all the clients that use the same key with the same host,
+ * which must all use the same rate limit configuration.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RateLimiter
+{
+    private static final ConcurrentMap<String,RateLimiter> LIMITERS = new ConcurrentHashMap<String,RateLimiter>();
+
+    private String name;
+    private double rate;
+    private double burst;
+    private double tokens;
+    private long refilled;
+    private ReentrantLock lock = new ReentrantLock(true);
+
+    private AtomicLong requests = new AtomicLong();
+    private AtomicLong delayed = new AtomicLong();
+    private AtomicLong totalWaitTime = new AtomicLong();
+    private AtomicLong maxWaitTime = new AtomicLong();
+    private AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * Constructor that takes a name and the rate limit configuration.
+     * @param name The name of the limiter
+     * @param config The rate limit configuration
+     */
+    public RateLimiter(String name, RateLimitConfig config)
+    {
+        this.name = name;
+        this.rate = config.getRate();
+        this.burst = config.getBurst();
+        this.tokens = this.burst;
+        this.refilled = System.nanoTime();
+    }
+
+    /**
+     * Returns the limiter shared by all the clients that use the given key with the given host.
+     * <P>
+     * The limiter is created with the given configuration when it is first requested,
+     * after which the existing limiter is returned. The limiters are held by the id of the key
+     * rather than the key itself, and a limiter that is not shared is returned if there is no id.
+     * @param keyId The opaque id of the key used to authenticate the requests, or <CODE>null</CODE>
+     * @param hostname The hostname of the server
+     * @param port The port of the server
+     * @param config The rate limit configuration
+     * @return The limiter for the key and host
+     * @throws IllegalArgumentException if the configuration differs from that of the existing limiter for the key and host
+     */
+    public static RateLimiter getInstance(String keyId, String hostname, int port, RateLimitConfig config)
+    {
+        String host = hostname+":"+port;
+        if(keyId == null)
+            return new RateLimiter(host, config);
+
+        RateLimiter ret = LIMITERS.computeIfAbsent(keyId+"@"+host, k -> new RateLimiter(host, config));
+        if(ret.getRate() != config.getRate() || ret.getBurst() != config.getBurst())
+            throw new IllegalArgumentException("rate limit for key and host "+host
+                +" already configured with rate="+ret.getRate()+", burst="+ret.getBurst()
+                +": rate="+config.getRate()+", burst="+config.getBurst());
+        return ret;
+    }
+
+    /**
+     * Returns the name of the limiter.
+     * @return The name of the limiter
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the number of requests per second.
+     * @return The number of requests per second
+     */
+    public double getRate()
+    {
+        return rate;
+    }
+
+    /**
+     * Returns the maximum number of requests that can be made at once after a quiet period.
+     * @return The maximum number of requests that can be made at once
+     */
+    public int getBurst()
+    {
+        return (int)burst;
+    }
+
+    /**
+     * Takes a token from the bucket, waiting until one is available.
+     * <P>
+     * If the thread is interrupted while waiting, the interrupt status is restored and the token is used immediately.
+     * @return The time waited in milliseconds
+     */
+    public long acquire()
+    {
+        long wait = reserve(Long.MAX_VALUE);
+        if(wait <= 0L)
+            return 0L;
+
+        try
+        {
+            sleep(wait);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        return update(wait);
+    }
+
+    /**
+     * Takes a token from the bucket, waiting until one is available,
+     * giving up if a token will not be available within the given time.
+     * <P>
+     * If the limiter gives up or the thread is interrupted while waiting, the token is returned to the bucket.
+     * @param timeout The maximum time to wait in milliseconds
+     * @return The time waited in milliseconds
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws TimeoutException if a token will not be available within the given time
+     */
+    public long acquire(long timeout) throws InterruptedException, TimeoutException
+    {
+        long wait = reserve(TimeUnit.MILLISECONDS.toNanos(timeout));
+        if(wait < 0L)
+            throw new TimeoutException("no token within "+timeout+"ms: "+name);
+        if(wait == 0L)
+            return 0L;
+
+        try
+        {
+            sleep(wait);
+        }
+        catch(InterruptedException e)
+        {
+            refund();
+            throw e;
+        }
+        return update(wait);
+    }
+
+    /**
+     * Takes a token from the bucket, or the next token to be added if the bucket is empty.
+     * @param timeout The maximum time to wait for the token in nanoseconds
+     * @return The time to wait for the token in nanoseconds, or -1 if the wait would be longer than the timeout
+     */
+    private long reserve(long timeout)
+    {
+        long wait;
+        lock.lock();
+        try
+        {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens+(now-refilled)*rate/TimeUnit.SECONDS.toNanos(1L));
+            refilled = now;
+            wait = tokens < 1.0d ? (long)((1.0d-tokens)*TimeUnit.SECONDS.toNanos(1L)/rate) : 0L;
+            if(wait > timeout)
+                return -1L;
+            tokens -= 1.0d;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        requests.incrementAndGet();
+        return wait;
+    }
+
+    /**
+     * Returns a token that was reserved but not used to the bucket.
+     */
+    private void refund()
+    {
+        lock.lock();
+        try
+        {
+            tokens = Math.min(burst, tokens+1.0d);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the given time, keeping count of the requests waiting.
+     * @param wait The time to wait in nanoseconds
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    private void sleep(long wait) throws InterruptedException
+    {
+        delayed.incrementAndGet();
+        waiting.incrementAndGet();
+        try
+        {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        finally
+        {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Adds the given wait to the statistics.
+     * @param wait The time waited in nanoseconds
+     * @return The time waited in milliseconds
+     */
+    private long update(long wait)
+    {
+        long waitTime = TimeUnit.NANOSECONDS.toMillis(wait);
+        totalWaitTime.addAndGet(waitTime);
+        long max = maxWaitTime.get();
+        while(waitTime > max && !maxWaitTime.compareAndSet(max, waitTime))
+            max = maxWaitTime.get();
+        return waitTime;
+    }
+
+    /**
+     * Takes a token from the bucket only if one is available without waiting.
+     * @return <CODE>true</CODE> if a token was taken
+     */
+    public boolean tryAcquire()
+    {
+        lock.lock();
+        try
+        {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens+(now-refilled)*rate/TimeUnit.SECONDS.toNanos(1L));
+            refilled = now;
+            if(tokens < 1.0d)
+                return false;
+            tokens -= 1.0d;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        requests.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Returns the number of requests that have passed through the limiter.
+     * @return The number of requests that have passed through the limiter
+     */
+    public long getRequests()
+    {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of requests that had to wait for a token.
+     * @return The number of requests that had to wait for a token
+     */
+    public long getDelayedRequests()
+    {
+        return delayed.get();
+    }
+
+    /**
+     * Returns the total time in milliseconds that requests have waited for a token.
+     * @return The total time that requests have waited for a token
+     */
+    public long getTotalWaitTime()
+    {
+        return totalWaitTime.get();
+    }
+
+    /**
+     * Returns the longest time in milliseconds that a request has waited for a token.
+     * @return The longest time that a request has waited for a token
+     */
+    public long getMaxWaitTime()
+    {
+        return maxWaitTime.get();
+    }
+
+    /**
+     * Returns the average time in milliseconds that requests have waited for a token.
+     * @return The average time that requests have waited for a token
+     */
+    public double getAverageWaitTime()
+    {
+        long count = requests.get();
+        return count > 0L ? (double)totalWaitTime.get()/count : 0.0d;
+    }
+
+    /**
+     * Returns the number of requests currently waiting for a token.
+     * @return The number of requests currently waiting for a token
+     */
+    public int getQueueLength()
+    {
+        return waiting.get();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "RateLimiter [name="+name
+            +", rate="+rate
+            +", burst="+getBurst()
+            +", requests="+requests
+            +", delayed="+delayed
+            +", totalWaitTime="+totalWaitTime
+            +", maxWaitTime="+maxWaitTime
+            +", waiting="+waiting
+            +"]";
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents the configuration of the cache of decoded responses to GET requests.
+ * <P>
+ * The time-to-live of a response is taken from the longest configured path prefix that matches its path,
+ * eg. "/v2/applications", or the default time-to-live if there is no match. A time-to-live of 0 means the
+ * responses are not cached. The weight of a response is the number of entities it contains.
+ * Times are in milliseconds.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ResponseCacheConfig
+{
+    /**
+     * The default maximum total weight of the cached responses.
+     */
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 10000L;
+
+    /**
+     * The default time-to-live of a cached response.
+     */
+    public static final long DEFAULT_TTL = 60000L;
+
+    private long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+    private long defaultTtl = DEFAULT_TTL;
+    private Map<String,Long> ttls = new LinkedHashMap<String,Long>();
+
+    /**
+     * Default constructor.
+     */
+    public ResponseCacheConfig()
+    {
+    }
+
+    /**
+     * Sets the maximum total weight of the cached responses, after which the least recently used are evicted.
+     * @param maximumWeight The maximum total weight of the cached responses
+     */
+    public void setMaximumWeight(long maximumWeight)
+    {
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * Returns the maximum total weight of the cached responses.
+     * @return The maximum total weight of the cached responses
+     */
+    public long getMaximumWeight()
+    {
+        return maximumWeight;
+    }
+
+    /**
+     * Sets the time-to-live of the responses with no configured path prefix.
+     * @param defaultTtl The time-to-live of the responses, or 0 if they should not be cached
+     */
+    public void setDefaultTtl(long defaultTtl)
+    {
+        this.defaultTtl = defaultTtl;
+    }
+
+    /**
+     * Returns the time-to-live of the responses with no configured path prefix.
+     * @return The time-to-live of the responses, or 0 if they are not cached
+     */
+    public long getDefaultTtl()
+    {
+        return defaultTtl;
+    }
+
+    /**
+     * Sets the time-to-live of the responses for paths starting with the given prefix.
+     * @param prefix The path prefix of the resource, eg. "/v2/applications"
+     * @param ttl The time-to-live of the responses, or 0 if they should not be cached
+     */
+    public void setTtl(String prefix, long ttl)
+    {
+        ttls.put(prefix, ttl);
+    }
+
+    /**
+     * Returns the time-to-live of the responses for each configured path prefix.
+     * @return The time-to-live of the responses for each configured path prefix
+     */
+    public Map<String,Long> getTtls()
+    {
+        return ttls;
+    }
+
+    /**
+     * Returns the time-to-live of the responses for the given path.
+     * @param path The path of the request
+     * @return The time-to-live of the responses, or 0 if they should not be cached
+     */
+    public long getTtl(String path)
+    {
+        long ret = defaultTtl;
+        int length = -1;
+        for(Map.Entry<String,Long> entry : ttls.entrySet())
+        {
+            String prefix = entry.getKey();
+            if(path.startsWith(prefix) && prefix.length() > length)
+            {
+                ret = entry.getValue();
+                length = prefix.length();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the longest time-to-live of any response.
+     * @return The longest time-to-live of any response
+     */
+    public long getMaxTtl()
+    {
+        long ret = defaultTtl;
+        for(long ttl : ttls.values())
+            ret = Math.max(ret, ttl);
+        return ret;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "ResponseCacheConfig [maximumWeight="+maximumWeight
+            +", defaultTtl="+defaultTtl
+            +", ttls="+ttls
+            +"]";
+    }
+
+    /**
+     * Returns a builder for the response cache configuration.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make response cache configuration easier.
+     */
+    public static class Builder
+    {
+        private ResponseCacheConfig config = new ResponseCacheConfig();
+
+        /**
+         * Default constructor.
+         */
+        Builder()
+        {
+        }
+
+        /**
+         * Sets the maximum total weight of the cached responses, after which the least recently used are evicted.
+         * @param maximumWeight The maximum total weight of the cached responses
+         * @return This object
+         */
+        public Builder maximumWeight(long maximumWeight)
+        {
+            config.setMaximumWeight(maximumWeight);
+            return this;
+        }
+
+        /**
+         * Sets the time-to-live of the responses with no configured path prefix.
+         * @param defaultTtl The time-to-live of the responses, or 0 if they should not be cached
+         * @return This object
+         */
+        public Builder defaultTtl(long defaultTtl)
+        {
+            config.setDefaultTtl(defaultTtl);
+            return this;
+        }
+
+        /**
+         * Sets the time-to-live of the responses for paths starting with the given prefix.
+         * @param prefix The path prefix of the resource, eg. "/v2/applications"
+         * @param ttl The time-to-live of the responses, or 0 if they should not be cached
+         * @return This object
+         */
+        public Builder ttl(String prefix, long ttl)
+        {
+            config.setTtl(prefix, ttl);
+            return this;
+        }
+
+        /**
+         * Returns the configured response cache configuration.
+         * @return The response cache configuration
+         */
+        public ResponseCacheConfig build()
+        {
+            return config;
+        }
+    }
+}
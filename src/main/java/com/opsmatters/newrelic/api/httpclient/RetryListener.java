@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.net.URI;
+
+/**
+ * Interface for receiving notification of the attempts made to execute HTTP requests.
+ * <P>
+ * Times are in milliseconds.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public interface RetryListener
+{
+    /**
+     * Called when an attempt has failed and the request is about to be retried.
+     * @param method The HTTP method of the request
+     * @param uri The URI of the request
+     * @param attempt The number of the attempt that failed, starting at 1
+     * @param status The HTTP status of the response, or 0 if the attempt failed without a response
+     * @param error The error that caused the attempt to fail without a response, or <CODE>null</CODE> if there was a response
+     * @param latency The time taken by the attempt
+     * @param delay The delay before the next attempt
+     */
+    void onRetry(String method, URI uri, int attempt, int status, Throwable error, long latency, long delay);
+
+    /**
+     * Called when the request has completed, either successfully or after the last attempt.
+     * @param method The HTTP method of the request
+     * @param uri The URI of the request
+     * @param attempts The number of attempts made
+     * @param status The HTTP status of the final response, or 0 if the last attempt failed without a response
+     * @param latency The total time taken by all the attempts, including the delays between them
+     */
+    void onComplete(String method, URI uri, int attempts, int status, long latency);
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents the policy used to retry failed HTTP requests.
+ * <P>
+ * A request is retried if it fails with one of the retryable status codes or a connection error,
+ * up to the maximum number of attempts. The delay before each retry is chosen at random
+ * between zero and an exponentially increasing backoff ("full jitter"),
+ * unless the response includes a "Retry-After" header, in which case that delay is used instead.
+ * <P>
+ * By default only idempotent methods are retried. Times are in milliseconds.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RetryPolicy
+{
+    /**
+     * The default maximum number of attempts, including the first.
+     */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /**
+     * The default backoff before the first retry.
+     */
+    public static final long DEFAULT_INITIAL_BACKOFF = 500L;
+
+    /**
+     * The default maximum backoff before a retry.
+     */
+    public static final long DEFAULT_MAX_BACKOFF = 30000L;
+
+    /**
+     * The default multiplier applied to the backoff after each attempt.
+     */
+    public static final double DEFAULT_MULTIPLIER = 2.0d;
+
+    /**
+     * The default longest "Retry-After" delay that will be waited for.
+     */
+    public static final long DEFAULT_MAX_RETRY_AFTER = 60000L;
+
+    /**
+     * The HTTP methods that are retried by default.
+     */
+    public static final Collection<String> IDEMPOTENT_METHODS = Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+
+    /**
+     * The status codes that are retried by default.
+     */
+    public static final Collection<Integer> DEFAULT_STATUSES = Arrays.asList(429, 502, 503, 504);
+
+    /**
+     * A policy that never retries requests.
+     */
+    public static final RetryPolicy NONE = builder().maxAttempts(1).build();
+
+    private static final String RETRY_AFTER_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+    private long maxBackoff = DEFAULT_MAX_BACKOFF;
+    private double multiplier = DEFAULT_MULTIPLIER;
+    private long maxRetryAfter = DEFAULT_MAX_RETRY_AFTER;
+    private boolean retryAfter = true;
+    private boolean retryConnectionErrors = true;
+    private Set<String> methods = new HashSet<String>(IDEMPOTENT_METHODS);
+    private Set<Integer> statuses = new HashSet<Integer>(DEFAULT_STATUSES);
+
+    /**
+     * Default constructor.
+     */
+    public RetryPolicy()
+    {
+    }
+
+    /**
+     * Sets the maximum number of attempts, including the first.
+     * @param maxAttempts The maximum number of attempts
+     */
+    public void setMaxAttempts(int maxAttempts)
+    {
+        if(maxAttempts < 1)
+            throw new IllegalArgumentException("maxAttempts < 1");
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Returns the maximum number of attempts, including the first.
+     * @return The maximum number of attempts
+     */
+    public int getMaxAttempts()
+    {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the backoff before the first retry.
+     * @param initialBackoff The backoff before the first retry
+     */
+    public void setInitialBackoff(long initialBackoff)
+    {
+        this.initialBackoff = initialBackoff;
+    }
+
+    /**
+     * Returns the backoff before the first retry.
+     * @return The backoff before the first retry
+     */
+    public long getInitialBackoff()
+    {
+        return initialBackoff;
+    }
+
+    /**
+     * Sets the maximum backoff before a retry.
+     * @param maxBackoff The maximum backoff before a retry
+     */
+    public void setMaxBackoff(long maxBackoff)
+    {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Returns the maximum backoff before a retry.
+     * @return The maximum backoff before a retry
+     */
+    public long getMaxBackoff()
+    {
+        return maxBackoff;
+    }
+
+    /**
+     * Sets the multiplier applied to the backoff after each attempt.
+     * @param multiplier The multiplier applied to the backoff after each attempt
+     */
+    public void setMultiplier(double multiplier)
+    {
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Returns the multiplier applied to the backoff after each attempt.
+     * @return The multiplier applied to the backoff after each attempt
+     */
+    public double getMultiplier()
+    {
+        return multiplier;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if the delay given by a "Retry-After" header should be used instead of the backoff.
+     * @param retryAfter <CODE>true</CODE> if the "Retry-After" header should be used
+     */
+    public void setRetryAfter(boolean retryAfter)
+    {
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the delay given by a "Retry-After" header should be used instead of the backoff.
+     * @return <CODE>true</CODE> if the "Retry-After" header should be used
+     */
+    public boolean getRetryAfter()
+    {
+        return retryAfter;
+    }
+
+    /**
+     * Sets the longest "Retry-After" delay that will be waited for.
+     * <P>
+     * A request is not retried if the server asks for a longer delay.
+     * @param maxRetryAfter The longest "Retry-After" delay that will be waited for
+     */
+    public void setMaxRetryAfter(long maxRetryAfter)
+    {
+        this.maxRetryAfter = maxRetryAfter;
+    }
+
+    /**
+     * Returns the longest "Retry-After" delay that will be waited for.
+     * @return The longest "Retry-After" delay that will be waited for
+     */
+    public long getMaxRetryAfter()
+    {
+        return maxRetryAfter;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if requests that fail without a response should be retried.
+     * @param retryConnectionErrors <CODE>true</CODE> if requests that fail without a response should be retried
+     */
+    public void setRetryConnectionErrors(boolean retryConnectionErrors)
+    {
+        this.retryConnectionErrors = retryConnectionErrors;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if requests that fail without a response should be retried.
+     * @return <CODE>true</CODE> if requests that fail without a response should be retried
+     */
+    public boolean getRetryConnectionErrors()
+    {
+        return retryConnectionErrors;
+    }
+
+    /**
+     * Sets the HTTP methods that are retried.
+     * <P>
+     * The default is the idempotent methods: GET, HEAD, OPTIONS, PUT and DELETE.
+     * @param methods The HTTP methods that are retried
+     */
+    public void setMethods(Collection<String> methods)
+    {
+        this.methods = new HashSet<String>(methods);
+    }
+
+    /**
+     * Returns the HTTP methods that are retried.
+     * @return The HTTP methods that are retried
+     */
+    public Set<String> getMethods()
+    {
+        return methods;
+    }
+
+    /**
+     * Sets the HTTP status codes that are retried.
+     * <P>
+     * The default is 429, 502, 503 and 504.
+     * @param statuses The HTTP status codes that are retried
+     */
+    public void setStatuses(Collection<Integer> statuses)
+    {
+        this.statuses = new HashSet<Integer>(statuses);
+    }
+
+    /**
+     * Returns the HTTP status codes that are retried.
+     * @return The HTTP status codes that are retried
+     */
+    public Set<Integer> getStatuses()
+    {
+        return statuses;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if requests with the given HTTP method can be retried.
+     * @param method The HTTP method of the request
+     * @return <CODE>true</CODE> if requests with the given HTTP method can be retried
+     */
+    public boolean isRetryable(String method)
+    {
+        return maxAttempts > 1 && methods.contains(method);
+    }
+
+    /**
+     * Returns the delay before the given request should be retried.
+     * @param method The HTTP method of the request
+     * @param attempt The number of attempts made so far, starting at 1
+     * @param status The HTTP status of the response, or 0 if the request failed without a response
+     * @param retryAfterHeader The value of the "Retry-After" header of the response, or <CODE>null</CODE> if there is none
+     * @return The delay before the request should be retried, or -1 if it should not be retried
+     */
+    public long getDelay(String method, int attempt, int status, String retryAfterHeader)
+    {
+        if(attempt >= maxAttempts || !methods.contains(method))
+            return -1L;
+
+        if(status == 0 ? !retryConnectionErrors : !statuses.contains(status))
+            return -1L;
+
+        if(retryAfter && retryAfterHeader != null)
+        {
+            long delay = parseRetryAfter(retryAfterHeader);
+            if(delay > maxRetryAfter)
+                return -1L;
+            if(delay >= 0L)
+                return delay;
+        }
+
+        return getBackoff(attempt);
+    }
+
+    /**
+     * Returns a random backoff between zero and the exponential backoff for the given attempt.
+     * @param attempt The number of attempts made so far, starting at 1
+     * @return The backoff before the next attempt
+     */
+    public long getBackoff(int attempt)
+    {
+        double backoff = initialBackoff*Math.pow(multiplier, attempt-1);
+        long max = (long)Math.min(backoff, (double)maxBackoff);
+        return max > 0L ? ThreadLocalRandom.current().nextLong(max+1L) : 0L;
+    }
+
+    /**
+     * Returns the delay given by a "Retry-After" header, which is either a number of seconds or a date.
+     * @param value The value of the "Retry-After" header
+     * @return The delay given by the header, or -1 if the header could not be parsed
+     */
+    public static long parseRetryAfter(String value)
+    {
+        value = value.trim();
+
+        try
+        {
+            return Math.max(Long.parseLong(value)*1000L, 0L);
+        }
+        catch(NumberFormatException e)
+        {
+            // Not a number of seconds, so try a date
+        }
+
+        try
+        {
+            SimpleDateFormat format = new SimpleDateFormat(RETRY_AFTER_FORMAT, Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            Date date = format.parse(value);
+            return Math.max(date.getTime()-System.currentTimeMillis(), 0L);
+        }
+        catch(ParseException e)
+        {
+            return -1L;
+        }
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "RetryPolicy [maxAttempts="+maxAttempts
+            +", initialBackoff="+initialBackoff
+            +", maxBackoff="+maxBackoff
+            +", multiplier="+multiplier
+            +", retryAfter="+retryAfter
+            +", maxRetryAfter="+maxRetryAfter
+            +", retryConnectionErrors="+retryConnectionErrors
+            +", methods="+methods
+            +", statuses="+statuses
+            +"]";
+    }
+
+    /**
+     * Returns a builder for the retry policy.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make retry policy configuration easier.
+     */
+    public static class Builder
+    {
+        private RetryPolicy policy = new RetryPolicy();
+
+        /**
+         * Default constructor.
+         */
+        Builder()
+        {
+        }
+
+        /**
+         * Sets the maximum number of attempts, including the first.
+         * @param maxAttempts The maximum number of attempts
+         * @return This object
+         */
+        public Builder maxAttempts(int maxAttempts)
+        {
+            policy.setMaxAttempts(maxAttempts);
+            return this;
+        }
+
+        /**
+         * Sets the backoff before the first retry.
+         * @param initialBackoff The backoff before the first retry
+         * @return This object
+         */
+        public Builder initialBackoff(long initialBackoff)
+        {
+            policy.setInitialBackoff(initialBackoff);
+            return this;
+        }
+
+        /**
+         * Sets the maximum backoff before a retry.
+         * @param maxBackoff The maximum backoff before a retry
+         * @return This object
+         */
+        public Builder maxBackoff(long maxBackoff)
+        {
+            policy.setMaxBackoff(maxBackoff);
+            return this;
+        }
+
+        /**
+         * Sets the multiplier applied to the backoff after each attempt.
+         * @param multiplier The multiplier applied to the backoff after each attempt
+         * @return This object
+         */
+        public Builder multiplier(double multiplier)
+        {
+            policy.setMultiplier(multiplier);
+            return this;
+        }
+
+        /**
+         * Set to <CODE>true</CODE> if the delay given by a "Retry-After" header should be used instead of the backoff.
+         * @param retryAfter <CODE>true</CODE> if the "Retry-After" header should be used
+         * @return This object
+         */
+        public Builder retryAfter(boolean retryAfter)
+        {
+            policy.setRetryAfter(retryAfter);
+            return this;
+        }
+
+        /**
+         * Sets the longest "Retry-After" delay that will be waited for.
+         * @param maxRetryAfter The longest "Retry-After" delay that will be waited for
+         * @return This object
+         */
+        public Builder maxRetryAfter(long maxRetryAfter)
+        {
+            policy.setMaxRetryAfter(maxRetryAfter);
+            return this;
+        }
+
+        /**
+         * Set to <CODE>true</CODE> if requests that fail without a response should be retried.
+         * @param retryConnectionErrors <CODE>true</CODE> if requests that fail without a response should be retried
+         * @return This object
+         */
+        public Builder retryConnectionErrors(boolean retryConnectionErrors)
+        {
+            policy.setRetryConnectionErrors(retryConnectionErrors);
+            return this;
+        }
+
+        /**
+         * Sets the HTTP methods that are retried.
+         * @param methods The HTTP methods that are retried
+         * @return This object
+         */
+        public Builder methods(String... methods)
+        {
+            policy.setMethods(Arrays.asList(methods));
+            return this;
+        }
+
+        /**
+         * Sets the HTTP status codes that are retried.
+         * @param statuses The HTTP status codes that are retried
+         * @return This object
+         */
+        public Builder statuses(Integer... statuses)
+        {
+            policy.setStatuses(Arrays.asList(statuses));
+            return this;
+        }
+
+        /**
+         * Returns the configured retry policy.
+         * @return The retry policy
+         */
+        public RetryPolicy build()
+        {
+            return policy;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+/**
+ * Represents the default timeouts of the calls made by a client.
+ * <P>
+ * The connect and read timeouts apply to each attempt of a request, where the read timeout is the longest wait
+ * for the first byte of the response, or between bytes. The call timeout is the longest time until a response
+ * is received, including any retries and the waits for the rate and concurrency limits. The timeouts are
+ * reduced to the time remaining if the call is made inside a {@link Deadline}, and take precedence over the
+ * timeouts of the connection pool configuration.
+ * <P>
+ * Times are in milliseconds. A timeout of 0 means no timeout.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class TimeoutConfig
+{
+    /**
+     * The default connect timeout.
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+
+    /**
+     * The default read timeout.
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 60000;
+
+    /**
+     * The default call timeout.
+     */
+    public static final long DEFAULT_CALL_TIMEOUT = 0L;
+
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+    private long callTimeout = DEFAULT_CALL_TIMEOUT;
+
+    /**
+     * Default constructor.
+     */
+    public TimeoutConfig()
+    {
+    }
+
+    /**
+     * Sets the connect timeout of each attempt.
+     * @param connectTimeout The connect timeout, or 0 for no timeout
+     */
+    public void setConnectTimeout(int connectTimeout)
+    {
+        if(connectTimeout < 0)
+            throw new IllegalArgumentException("connectTimeout < 0");
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Returns the connect timeout of each attempt.
+     * @return The connect timeout, or 0 for no timeout
+     */
+    public int getConnectTimeout()
+    {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the read timeout of each attempt.
+     * @param readTimeout The read timeout, or 0 for no timeout
+     */
+    public void setReadTimeout(int readTimeout)
+    {
+        if(readTimeout < 0)
+            throw new IllegalArgumentException("readTimeout < 0");
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Returns the read timeout of each attempt.
+     * @return The read timeout, or 0 for no timeout
+     */
+    public int getReadTimeout()
+    {
+        return readTimeout;
+    }
+
+    /**
+     * Sets the longest time until a response is received, including any retries.
+     * @param callTimeout The call timeout, or 0 for no timeout
+     */
+    public void setCallTimeout(long callTimeout)
+    {
+        if(callTimeout < 0L)
+            throw new IllegalArgumentException("callTimeout < 0");
+        this.callTimeout = callTimeout;
+    }
+
+    /**
+     * Returns the longest time until a response is received, including any retries.
+     * @return The call timeout, or 0 for no timeout
+     */
+    public long getCallTimeout()
+    {
+        return callTimeout;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "TimeoutConfig [connectTimeout="+connectTimeout
+            +", readTimeout="+readTimeout
+            +", callTimeout="+callTimeout
+            +"]";
+    }
+
+    /**
+     * Returns a builder for the timeout configuration.
+     * @return The builder instance.
+     */
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    /**
+     * Builder to make timeout configuration easier.
+     */
+    public static class Builder
+    {
+        private TimeoutConfig config = new TimeoutConfig();
+
+        /**
+         * Default constructor.
+         */
+        Builder()
+        {
+        }
+
+        /**
+         * Sets the connect timeout of each attempt.
+         * @param connectTimeout The connect timeout, or 0 for no timeout
+         * @return This object
+         */
+        public Builder connectTimeout(int connectTimeout)
+        {
+            config.setConnectTimeout(connectTimeout);
+            return this;
+        }
+
+        /**
+         * Sets the read timeout of each attempt.
+         * @param readTimeout The read timeout, or 0 for no timeout
+         * @return This object
+         */
+        public Builder readTimeout(int readTimeout)
+        {
+            config.setReadTimeout(readTimeout);
+            return this;
+        }
+
+        /**
+         * Sets the longest time until a response is received, including any retries.
+         * @param callTimeout The call timeout, or 0 for no timeout
+         * @return This object
+         */
+        public Builder callTimeout(long callTimeout)
+        {
+            config.setCallTimeout(callTimeout);
+            return this;
+        }
+
+        /**
+         * Returns the configured timeout configuration.
+         * @return The timeout configuration
+         */
+        public TimeoutConfig build()
+        {
+            return config;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient.deserializers;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+
+/**
+ * Base class for the streaming deserializers of collections wrapped in an envelope, eg. <CODE>{"applications": [...]}</CODE>.
+ * <P>
+ * The envelope is unwrapped and each element bound as it is read from the stream, without building a tree of the response.
+ * Serialization of the collection is passed through to the default adapter.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public abstract class CollectionDeserializer<E> implements TypeAdapterFactory
+{
+    private String name;
+    private Class<E> elementClass;
+    private TypeToken<?> type;
+
+    /**
+     * Constructor that takes the name of the envelope attribute and the class of the elements.
+     * @param name The name of the attribute containing the array of elements
+     * @param elementClass The class of the elements in the collection
+     */
+    protected CollectionDeserializer(String name, Class<E> elementClass)
+    {
+        this.name = name;
+        this.elementClass = elementClass;
+        this.type = TypeToken.getParameterized(Collection.class, elementClass);
+    }
+
+    /**
+     * Returns the name of the attribute containing the array of elements.
+     * @return The name of the attribute containing the array of elements
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the class of the elements in the collection.
+     * @return The class of the elements in the collection
+     */
+    public Class<E> getElementClass()
+    {
+        return elementClass;
+    }
+
+    /**
+     * Returns the collection type handled by this deserializer.
+     * @return The collection type handled by this deserializer
+     */
+    public Type getType()
+    {
+        return type.getType();
+    }
+
+    /**
+     * Returns an adapter for the given type if it is the collection type handled by this deserializer.
+     * @param gson The Gson instance requesting the adapter
+     * @param type The type of the adapter requested
+     * @return The adapter for the collection, or <CODE>null</CODE> if the type is not handled by this deserializer
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)
+    {
+        if(!this.type.equals(type))
+            return null;
+        return (TypeAdapter<T>)new Adapter((TypeAdapter<Collection<E>>)gson.getDelegateAdapter(this, type));
+    }
+
+    /**
+     * Reads a single element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element, or <CODE>null</CODE> if the element should be omitted from the collection
+     * @throws IOException if the element cannot be read
+     */
+    protected abstract E readElement(JsonReader reader) throws IOException;
+
+    /**
+     * Returns an iterator that reads the elements of the collection from the stream one at a time.
+     * <P>
+     * Closing the iterator closes the reader.
+     * @param reader The reader positioned at the start of the envelope
+     * @return The iterator over the elements of the collection
+     * @throws IOException if the envelope cannot be read
+     */
+    public CloseableIterator<E> iterator(JsonReader reader) throws IOException
+    {
+        return new ElementIterator(reader);
+    }
+
+    /**
+     * Iterator that reads the elements of the collection from the stream as they are requested.
+     */
+    private class ElementIterator implements CloseableIterator<E>
+    {
+        private JsonReader reader;
+        private E next;
+        private boolean finished = false;
+        private boolean closed = false;
+
+        /**
+         * Constructor that takes the reader and positions it at the first element of the array in the envelope.
+         * @param reader The reader positioned at the start of the envelope
+         * @throws IOException if the envelope cannot be read
+         */
+        ElementIterator(JsonReader reader) throws IOException
+        {
+            this.reader = reader;
+
+            try
+            {
+                finished = true;
+                if(reader.peek() == JsonToken.BEGIN_OBJECT)
+                {
+                    reader.beginObject();
+                    while(finished && reader.hasNext())
+                    {
+                        if(reader.nextName().equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY)
+                        {
+                            reader.beginArray();
+                            finished = false;
+                        }
+                        else
+                        {
+                            reader.skipValue();
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                if(finished)
+                    close();
+            }
+        }
+
+        /**
+         * Returns <CODE>true</CODE> if there is another element in the collection.
+         * <P>
+         * The iterator is closed when the end of the array is reached.
+         * @return <CODE>true</CODE> if there is another element in the collection
+         */
+        @Override
+        public boolean hasNext()
+        {
+            try
+            {
+                while(next == null && !finished)
+                {
+                    if(reader.hasNext())
+                    {
+                        next = readElement(reader);
+                    }
+                    else
+                    {
+                        finished = true;
+                        readToEnd();
+                        close();
+                    }
+                }
+            }
+            catch(MalformedJsonException e)
+            {
+                close();
+                throw new JsonSyntaxException(e);
+            }
+            catch(IOException e)
+            {
+                close();
+                throw new JsonIOException(e);
+            }
+            catch(RuntimeException e)
+            {
+                close();
+                throw e;
+            }
+
+            return next != null;
+        }
+
+        /**
+         * Returns the next element in the collection.
+         * @return The next element in the collection
+         */
+        @Override
+        public E next()
+        {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            E ret = next;
+            next = null;
+            return ret;
+        }
+
+        /**
+         * Reads the rest of the envelope after the end of the array, up to the end of the stream,
+         * otherwise a pooled connection is closed instead of being reused.
+         * @throws IOException if the envelope cannot be read
+         */
+        private void readToEnd() throws IOException
+        {
+            reader.endArray();
+            while(reader.hasNext())
+            {
+                reader.nextName();
+                reader.skipValue();
+            }
+            reader.endObject();
+            reader.setLenient(true);
+            reader.peek();
+        }
+
+        /**
+         * Closes the reader.
+         */
+        @Override
+        public void close()
+        {
+            if(!closed)
+            {
+                closed = true;
+                finished = true;
+                try
+                {
+                    reader.close();
+                }
+                catch(IOException e)
+                {
+                    // Ignore errors closing the reader
+                }
+            }
+        }
+    }
+
+    /**
+     * Adapter that unwraps the envelope and reads the elements of the collection.
+     */
+    private class Adapter extends TypeAdapter<Collection<E>>
+    {
+        private TypeAdapter<Collection<E>> delegate;
+
+        /**
+         * Constructor that takes the adapter to use for serialization.
+         * @param delegate The adapter to use for serialization
+         */
+        Adapter(TypeAdapter<Collection<E>> delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Writes the given collection using the default adapter.
+         * @param writer The writer for the JSON stream
+         * @param values The collection to be written
+         * @throws IOException if the collection cannot be written
+         */
+        @Override
+        public void write(JsonWriter writer, Collection<E> values) throws IOException
+        {
+            delegate.write(writer, values);
+        }
+
+        /**
+         * Reads the collection from the array in the envelope.
+         * @param reader The reader for the JSON stream
+         * @return The elements of the collection
+         * @throws IOException if the collection cannot be read
+         */
+        @Override
+        public Collection<E> read(JsonReader reader) throws IOException
+        {
+            if(reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+
+            List<E> values = new ArrayList<E>();
+            reader.beginObject();
+            while(reader.hasNext())
+            {
+                if(reader.nextName().equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY)
+                {
+                    reader.beginArray();
+                    while(reader.hasNext())
+                    {
+                        E value = readElement(reader);
+                        if(value != null)
+                            values.add(value);
+                    }
+                    reader.endArray();
+                }
+                else
+                {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return values;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.opsmatters.newrelic.api.httpclient.deserializers;
 
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.ErrorResponse;
 import com.opsmatters.newrelic.api.model.ErrorDetail;
 import com.opsmatters.newrelic.api.model.ErrorDetails;
@@ -30,7 +31,7 @@ import com.opsmatters.newrelic.api.model.ErrorMessages;
  */
 public class ErrorResponseDeserializer implements JsonDeserializer<ErrorResponse>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
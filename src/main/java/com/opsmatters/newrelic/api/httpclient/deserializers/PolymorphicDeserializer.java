@@ -0,0 +1,478 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient.deserializers;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.internal.bind.JsonTreeReader;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+
+/**
+ * Base class for the streaming deserializers of objects whose class is selected by a discriminator attribute, eg. <CODE>"type"</CODE>.
+ * <P>
+ * Only the attributes that come before the discriminator are buffered. Once the subtype has been selected
+ * the buffered attributes are bound to it, and the rest of the object is bound directly from the stream,
+ * so an object whose discriminator comes first is bound without being buffered at all.
+ * Serialization of the base type is passed through to the default adapter.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public abstract class PolymorphicDeserializer<T> implements TypeAdapterFactory
+{
+    private Class<T> type;
+    private String envelope;
+    private String discriminator;
+    private JsonParser parser = new JsonParser();
+
+    /**
+     * The bindings of the subtypes, shared by all instances as each subtype is only selected by one deserializer.
+     */
+    private static final Map<Class<?>,Binding<?>> BINDINGS = new ConcurrentHashMap<Class<?>,Binding<?>>();
+
+    /**
+     * Constructor that takes the base type, the name of the envelope attribute and the name of the discriminator.
+     * @param type The base type of the objects
+     * @param envelope The name of the attribute wrapping the object, or <CODE>null</CODE> if the object is not wrapped
+     * @param discriminator The name of the attribute used to select the subtype
+     */
+    protected PolymorphicDeserializer(Class<T> type, String envelope, String discriminator)
+    {
+        this.type = type;
+        this.envelope = envelope;
+        this.discriminator = discriminator;
+    }
+
+    /**
+     * Returns the name of the attribute wrapping the object.
+     * @return The name of the attribute wrapping the object, or <CODE>null</CODE> if the object is not wrapped
+     */
+    public String getEnvelope()
+    {
+        return envelope;
+    }
+
+    /**
+     * Returns the name of the attribute used to select the subtype.
+     * @return The name of the attribute used to select the subtype
+     */
+    public String getDiscriminator()
+    {
+        return discriminator;
+    }
+
+    /**
+     * Returns the Gson instance used to bind the selected subtypes.
+     * @return The Gson instance used to bind the selected subtypes
+     */
+    protected Gson getGson()
+    {
+        return GsonRegistry.getDefaultGson();
+    }
+
+    /**
+     * Returns an adapter for the given type if it is the base type handled by this deserializer.
+     * @param gson The Gson instance requesting the adapter
+     * @param type The type of the adapter requested
+     * @return The adapter for the base type, or <CODE>null</CODE> if the type is not handled by this deserializer
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> TypeAdapter<X> create(Gson gson, TypeToken<X> type)
+    {
+        if(!this.type.equals(type.getRawType()))
+            return null;
+        return (TypeAdapter<X>)new Adapter((TypeAdapter<T>)gson.getDelegateAdapter(this, type));
+    }
+
+    /**
+     * Returns the subtype to bind for the given discriminator value.
+     * @param value The value of the discriminator attribute
+     * @return The subtype to bind, or <CODE>null</CODE> if the object should be skipped
+     */
+    protected abstract Class<? extends T> getType(String value);
+
+    /**
+     * Returns all the subtypes that can be selected by the discriminator.
+     * @return All the subtypes that can be selected by the discriminator
+     */
+    protected abstract List<Class<? extends T>> getTypes();
+
+    /**
+     * Creates the adapters for all the subtypes, so that they are not created when the first object is read.
+     * <P>
+     * Each subtype is also bound to the fields of its class and an instance created.
+     */
+    public void warmUp()
+    {
+        for(Class<? extends T> subtype : getTypes())
+        {
+            if(subtype != null)
+                getBinding(subtype).newInstance();
+        }
+    }
+
+    /**
+     * Reads an object from the stream, unwrapping the envelope if there is one.
+     * @param reader The reader positioned at the start of the object
+     * @return The object read, or <CODE>null</CODE> if the object has no recognised subtype
+     * @throws IOException if the object cannot be read
+     */
+    public T read(JsonReader reader) throws IOException
+    {
+        if(envelope == null)
+            return readObject(reader);
+
+        if(reader.peek() != JsonToken.BEGIN_OBJECT)
+        {
+            reader.skipValue();
+            return null;
+        }
+
+        T ret = null;
+        reader.beginObject();
+        while(reader.hasNext())
+        {
+            if(reader.nextName().equals(envelope))
+                ret = readObject(reader);
+            else
+                reader.skipValue();
+        }
+        reader.endObject();
+        return ret;
+    }
+
+    /**
+     * Reads an object from the stream, using the value of the discriminator to select the class to bind to.
+     * @param reader The reader positioned at the start of the object
+     * @return The object read, or <CODE>null</CODE> if the object has no recognised subtype
+     * @throws IOException if the object cannot be read
+     */
+    private T readObject(JsonReader reader) throws IOException
+    {
+        if(reader.peek() != JsonToken.BEGIN_OBJECT)
+        {
+            reader.skipValue();
+            return null;
+        }
+
+        // Buffer the attributes until the discriminator is found
+        JsonObject buffered = null;
+        String value = null;
+        reader.beginObject();
+        while(value == null && reader.hasNext())
+        {
+            String name = reader.nextName();
+            if(name.equals(discriminator) && reader.peek() == JsonToken.STRING)
+            {
+                value = reader.nextString();
+            }
+            else
+            {
+                if(buffered == null)
+                    buffered = new JsonObject();
+                buffered.add(name, parser.parse(reader));
+            }
+        }
+        Class<? extends T> subtype = value != null ? getType(value) : null;
+
+        // Skip the rest of the object if there is no subtype to bind to
+        if(subtype == null)
+        {
+            while(reader.hasNext())
+            {
+                reader.nextName();
+                reader.skipValue();
+            }
+            reader.endObject();
+            return null;
+        }
+
+        // Replay the buffered attributes, then continue with the rest of the object in the stream
+        Binding<? extends T> binding = getBinding(subtype);
+        T ret = binding.newInstance();
+        binding.set(discriminator, value, ret);
+        if(buffered != null)
+        {
+            JsonTreeReader prefix = new JsonTreeReader(buffered);
+            prefix.beginObject();
+            binding.read(prefix, ret);
+            prefix.endObject();
+        }
+        binding.read(reader, ret);
+        reader.endObject();
+        return ret;
+    }
+
+    /**
+     * Returns the binding of the attributes to the fields of the given subtype, creating it the first time it is used.
+     * @param subtype The subtype to bind
+     * @return The binding for the subtype
+     */
+    @SuppressWarnings("unchecked")
+    private <X> Binding<X> getBinding(Class<X> subtype)
+    {
+        Binding<?> ret = BINDINGS.get(subtype);
+        if(ret == null)
+        {
+            ret = new Binding<X>(subtype, getGson());
+            Binding<?> existing = BINDINGS.putIfAbsent(subtype, ret);
+            if(existing != null)
+                ret = existing;
+        }
+        return (Binding<X>)ret;
+    }
+
+    /**
+     * Binds the attributes of an object to the fields of a subtype, following the same rules as the default adapter.
+     * <P>
+     * The fields of the subtype and its superclasses are named by their serialized names,
+     * and static and transient fields are excluded.
+     */
+    private static class Binding<X>
+    {
+        private Constructor<X> constructor;
+        private Map<String,BoundField> fields = new HashMap<String,BoundField>();
+
+        /**
+         * Constructor that takes the subtype to bind and the Gson instance used to read the values of its fields.
+         * @param subtype The subtype to bind
+         * @param gson The Gson instance used to read the values of the fields
+         */
+        Binding(Class<X> subtype, Gson gson)
+        {
+            try
+            {
+                constructor = subtype.getDeclaredConstructor();
+                constructor.setAccessible(true);
+            }
+            catch(NoSuchMethodException e)
+            {
+                throw new JsonIOException("No default constructor for "+subtype.getName(), e);
+            }
+
+            com.google.common.reflect.TypeToken<X> token = com.google.common.reflect.TypeToken.of(subtype);
+            for(Class<?> c = subtype; c != null && c != Object.class; c = c.getSuperclass())
+            {
+                for(Field field : c.getDeclaredFields())
+                {
+                    int modifiers = field.getModifiers();
+                    if(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic())
+                        continue;
+
+                    field.setAccessible(true);
+                    Type type = token.resolveType(field.getGenericType()).getType();
+                    BoundField bound = new BoundField(field, gson.getAdapter(TypeToken.get(type)));
+                    SerializedName name = field.getAnnotation(SerializedName.class);
+                    if(name == null)
+                    {
+                        add(field.getName(), bound);
+                    }
+                    else
+                    {
+                        add(name.value(), bound);
+                        for(String alternate : name.alternate())
+                            add(alternate, bound);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds the field with the given name, unless it is hidden by a field of a subclass.
+         * @param name The serialized name of the field
+         * @param field The field to bind to
+         */
+        private void add(String name, BoundField field)
+        {
+            if(!fields.containsKey(name))
+                fields.put(name, field);
+        }
+
+        /**
+         * Returns a new instance of the subtype.
+         * @return The new instance
+         */
+        X newInstance()
+        {
+            try
+            {
+                return constructor.newInstance();
+            }
+            catch(ReflectiveOperationException e)
+            {
+                throw new JsonIOException("Unable to create "+constructor.getDeclaringClass().getName(), e);
+            }
+        }
+
+        /**
+         * Sets the field with the given name to the given string value.
+         * @param name The serialized name of the field
+         * @param value The value of the field
+         * @param obj The instance to set the field of
+         */
+        void set(String name, String value, Object obj)
+        {
+            BoundField field = fields.get(name);
+            if(field != null)
+                field.set(value, obj);
+        }
+
+        /**
+         * Reads the remaining attributes of the current object into the fields of the given instance.
+         * @param reader The reader positioned within the object
+         * @param obj The instance to set the fields of
+         * @throws IOException if the attributes cannot be read
+         */
+        void read(JsonReader reader, Object obj) throws IOException
+        {
+            while(reader.hasNext())
+            {
+                BoundField field = fields.get(reader.nextName());
+                if(field != null)
+                    field.read(reader, obj);
+                else
+                    reader.skipValue();
+            }
+        }
+    }
+
+    /**
+     * A field of a subtype with the adapter used to read its value.
+     */
+    private static class BoundField
+    {
+        private Field field;
+        private TypeAdapter<?> adapter;
+
+        /**
+         * Constructor that takes the field and the adapter for its type.
+         * @param field The field to bind to
+         * @param adapter The adapter used to read the value of the field
+         */
+        BoundField(Field field, TypeAdapter<?> adapter)
+        {
+            this.field = field;
+            this.adapter = adapter;
+        }
+
+        /**
+         * Reads the value of the field.
+         * @param reader The reader positioned at the value
+         * @param obj The instance to set the field of
+         * @throws IOException if the value cannot be read
+         */
+        void read(JsonReader reader, Object obj) throws IOException
+        {
+            assign(adapter.read(reader), obj);
+        }
+
+        /**
+         * Sets the field from the given string value, which is converted by the adapter unless the field is a string.
+         * @param value The value of the field
+         * @param obj The instance to set the field of
+         */
+        void set(String value, Object obj)
+        {
+            assign(field.getType() == String.class ? value : adapter.fromJsonTree(new JsonPrimitive(value)), obj);
+        }
+
+        /**
+         * Sets the value of the field, leaving primitive fields unchanged if the value is null.
+         * @param value The value of the field
+         * @param obj The instance to set the field of
+         */
+        private void assign(Object value, Object obj)
+        {
+            if(value == null && field.getType().isPrimitive())
+                return;
+
+            try
+            {
+                field.set(obj, value);
+            }
+            catch(IllegalAccessException e)
+            {
+                throw new JsonIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Adapter that reads objects using the discriminator to select the subtype.
+     */
+    private class Adapter extends TypeAdapter<T>
+    {
+        private TypeAdapter<T> delegate;
+
+        /**
+         * Constructor that takes the adapter to use for serialization.
+         * @param delegate The adapter to use for serialization
+         */
+        Adapter(TypeAdapter<T> delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Writes the given object using the default adapter.
+         * @param writer The writer for the JSON stream
+         * @param value The object to be written
+         * @throws IOException if the object cannot be written
+         */
+        @Override
+        public void write(JsonWriter writer, T value) throws IOException
+        {
+            delegate.write(writer, value);
+        }
+
+        /**
+         * Reads the object using the discriminator to select the subtype.
+         * @param reader The reader for the JSON stream
+         * @return The object read
+         * @throws IOException if the object cannot be read
+         */
+        @Override
+        public T read(JsonReader reader) throws IOException
+        {
+            if(reader.peek() == JsonToken.NULL)
+            {
+                reader.nextNull();
+                return null;
+            }
+            return PolymorphicDeserializer.this.read(reader);
+        }
+    }
+}
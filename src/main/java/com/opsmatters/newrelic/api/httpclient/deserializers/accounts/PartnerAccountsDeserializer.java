@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.accounts;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.accounts.PartnerAccount;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.accounts.PartnerAccount;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class PartnerAccountsDeserializer implements JsonDeserializer<Collection<PartnerAccount>>
+public class PartnerAccountsDeserializer extends CollectionDeserializer<PartnerAccount>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<PartnerAccount> adapter = GsonRegistry.getDefaultGson().getAdapter(PartnerAccount.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The accounts 
+     * Default constructor.
+     */
+    public PartnerAccountsDeserializer()
+    {
+        super("accounts", PartnerAccount.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<PartnerAccount> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected PartnerAccount readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray accounts = obj.getAsJsonArray("accounts");
-        List<PartnerAccount> values = new ArrayList<PartnerAccount>();
-        if(accounts != null && accounts.isJsonArray())
-        {
-            for(JsonElement account : accounts)
-                values.add(gson.fromJson(account, PartnerAccount.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
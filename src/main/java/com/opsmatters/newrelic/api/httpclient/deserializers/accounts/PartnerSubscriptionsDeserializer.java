@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.accounts;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.accounts.PartnerSubscription;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.accounts.PartnerSubscription;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class PartnerSubscriptionsDeserializer implements JsonDeserializer<Collection<PartnerSubscription>>
+public class PartnerSubscriptionsDeserializer extends CollectionDeserializer<PartnerSubscription>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<PartnerSubscription> adapter = GsonRegistry.getDefaultGson().getAdapter(PartnerSubscription.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The subscriptions 
+     * Default constructor.
+     */
+    public PartnerSubscriptionsDeserializer()
+    {
+        super("subscriptions", PartnerSubscription.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<PartnerSubscription> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected PartnerSubscription readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray subscriptions = obj.getAsJsonArray("subscriptions");
-        List<PartnerSubscription> values = new ArrayList<PartnerSubscription>();
-        if(subscriptions != null && subscriptions.isJsonArray())
-        {
-            for(JsonElement subscription : subscriptions)
-                values.add(gson.fromJson(subscription, PartnerSubscription.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
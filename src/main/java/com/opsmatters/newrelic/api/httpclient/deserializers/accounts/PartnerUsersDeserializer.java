@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.accounts;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.accounts.PartnerUser;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.accounts.PartnerUser;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class PartnerUsersDeserializer implements JsonDeserializer<Collection<PartnerUser>>
+public class PartnerUsersDeserializer extends CollectionDeserializer<PartnerUser>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<PartnerUser> adapter = GsonRegistry.getDefaultGson().getAdapter(PartnerUser.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The users 
+     * Default constructor.
+     */
+    public PartnerUsersDeserializer()
+    {
+        super("users", PartnerUser.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<PartnerUser> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected PartnerUser readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray users = obj.getAsJsonArray("users");
-        List<PartnerUser> values = new ArrayList<PartnerUser>();
-        if(users != null && users.isJsonArray())
-        {
-            for(JsonElement user : users)
-                values.add(gson.fromJson(user, PartnerUser.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
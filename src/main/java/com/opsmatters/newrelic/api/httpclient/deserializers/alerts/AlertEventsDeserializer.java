@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.AlertEvent;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.alerts.AlertEvent;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class AlertEventsDeserializer implements JsonDeserializer<Collection<AlertEvent>>
+public class AlertEventsDeserializer extends CollectionDeserializer<AlertEvent>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<AlertEvent> adapter = GsonRegistry.getDefaultGson().getAdapter(AlertEvent.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert events 
+     * Default constructor.
+     */
+    public AlertEventsDeserializer()
+    {
+        super("recent_events", AlertEvent.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<AlertEvent> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected AlertEvent readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray events = obj.getAsJsonArray("recent_events");
-        List<AlertEvent> values = new ArrayList<AlertEvent>();
-        if(events != null && events.isJsonArray())
-        {
-            for(JsonElement event : events)
-                values.add(gson.fromJson(event, AlertEvent.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.AlertIncident;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.alerts.AlertIncident;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class AlertIncidentsDeserializer implements JsonDeserializer<Collection<AlertIncident>>
+public class AlertIncidentsDeserializer extends CollectionDeserializer<AlertIncident>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<AlertIncident> adapter = GsonRegistry.getDefaultGson().getAdapter(AlertIncident.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert incidents 
+     * Default constructor.
+     */
+    public AlertIncidentsDeserializer()
+    {
+        super("incidents", AlertIncident.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<AlertIncident> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected AlertIncident readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray incidents = obj.getAsJsonArray("incidents");
-        List<AlertIncident> values = new ArrayList<AlertIncident>();
-        if(incidents != null && incidents.isJsonArray())
-        {
-            for(JsonElement incident : incidents)
-                values.add(gson.fromJson(incident, AlertIncident.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
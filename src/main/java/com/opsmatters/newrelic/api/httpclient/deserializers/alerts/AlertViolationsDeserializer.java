@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.AlertViolation;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.alerts.AlertViolation;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class AlertViolationsDeserializer implements JsonDeserializer<Collection<AlertViolation>>
+public class AlertViolationsDeserializer extends CollectionDeserializer<AlertViolation>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<AlertViolation> adapter = GsonRegistry.getDefaultGson().getAdapter(AlertViolation.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert violations 
+     * Default constructor.
+     */
+    public AlertViolationsDeserializer()
+    {
+        super("violations", AlertViolation.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<AlertViolation> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected AlertViolation readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray violations = obj.getAsJsonArray("violations");
-        List<AlertViolation> values = new ArrayList<AlertViolation>();
-        if(violations != null && violations.isJsonArray())
-        {
-            for(JsonElement violation : violations)
-                values.add(gson.fromJson(violation, AlertViolation.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.channels;
+
+import java.util.List;
+import java.util.ArrayList;
+import com.opsmatters.newrelic.api.httpclient.deserializers.PolymorphicDeserializer;
+import com.opsmatters.newrelic.api.model.alerts.channels.AlertChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.ChannelType;
+import com.opsmatters.newrelic.api.model.alerts.channels.UserChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.EmailChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.SlackChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.HipChatChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.OpsGenieChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.VictorOpsChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.PagerDutyChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.CampfireChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.xMattersChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.WebhookChannel;
+
+/**
+ * Deserializer class for alert channels.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public class AlertChannelDeserializer extends PolymorphicDeserializer<AlertChannel>
+{
+    /**
+     * Default constructor.
+     */
+    public AlertChannelDeserializer()
+    {
+        super(AlertChannel.class, null, "type");
+    }
+
+    /**
+     * Returns the subtype to bind for the given <CODE>"type"</CODE> attribute.
+     * @param value The value of the <CODE>"type"</CODE> attribute
+     * @return The subtype to bind
+     */
+    @Override
+    protected Class<? extends AlertChannel> getType(String value)
+    {
+        switch(ChannelType.fromValue(value))
+        {
+            case USER:
+                return UserChannel.class;
+            case EMAIL:
+                return EmailChannel.class;
+            case SLACK:
+                return SlackChannel.class;
+            case HIPCHAT:
+                return HipChatChannel.class;
+            case OPSGENIE:
+                return OpsGenieChannel.class;
+            case VICTOROPS:
+                return VictorOpsChannel.class;
+            case PAGERDUTY:
+                return PagerDutyChannel.class;
+            case CAMPFIRE:
+                return CampfireChannel.class;
+            case XMATTERS:
+                return xMattersChannel.class;
+            case WEBHOOK:
+                return WebhookChannel.class;
+        }
+        return null;
+    }
+
+    /**
+     * Returns all the subtypes that can be selected by the <CODE>"type"</CODE> attribute.
+     * @return All the subtypes that can be selected by the <CODE>"type"</CODE> attribute
+     */
+    @Override
+    protected List<Class<? extends AlertChannel>> getTypes()
+    {
+        List<Class<? extends AlertChannel>> ret = new ArrayList<Class<? extends AlertChannel>>();
+        for(ChannelType type : ChannelType.values())
+            ret.add(getType(type.value()));
+        return ret;
+    }
+}
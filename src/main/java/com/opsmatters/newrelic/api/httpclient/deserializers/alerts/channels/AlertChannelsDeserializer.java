@@ -16,93 +16,37 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.channels;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.channels.AlertChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.ChannelType;
-import com.opsmatters.newrelic.api.model.alerts.channels.UserChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.EmailChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.SlackChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.HipChatChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.OpsGenieChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.VictorOpsChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.PagerDutyChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.CampfireChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.xMattersChannel;
-import com.opsmatters.newrelic.api.model.alerts.channels.WebhookChannel;
 
 /**
  * Deserializer class for alert channels.
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class AlertChannelsDeserializer implements JsonDeserializer<Collection<AlertChannel>>
+public class AlertChannelsDeserializer extends CollectionDeserializer<AlertChannel>
 {
-    private static Gson gson = new Gson();
+    private static AlertChannelDeserializer channel = new AlertChannelDeserializer();
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert channels 
+     * Default constructor.
+     */
+    public AlertChannelsDeserializer()
+    {
+        super("channels", AlertChannel.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream, using the type attribute to select the class to bind.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read, or <CODE>null</CODE> if the element has no type
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<AlertChannel> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected AlertChannel readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray channels = obj.getAsJsonArray("channels");
-        List<AlertChannel> values = new ArrayList<AlertChannel>();
-        if(channels != null && channels.isJsonArray())
-        {
-            for(JsonElement channel : channels)
-            {
-                if(channel.isJsonObject())
-                {
-                    JsonElement channelType = channel.getAsJsonObject().get("type");
-                    if(channelType != null)
-                    {
-                        switch(ChannelType.fromValue(channelType.getAsString()))
-                        {
-                            case USER:
-                                values.add(gson.fromJson(channel, UserChannel.class));
-                                break;
-                            case EMAIL:
-                                values.add(gson.fromJson(channel, EmailChannel.class));
-                                break;
-                            case SLACK:
-                                values.add(gson.fromJson(channel, SlackChannel.class));
-                                break;
-                            case HIPCHAT:
-                                values.add(gson.fromJson(channel, HipChatChannel.class));
-                                break;
-                            case OPSGENIE:
-                                values.add(gson.fromJson(channel, OpsGenieChannel.class));
-                                break;
-                            case VICTOROPS:
-                                values.add(gson.fromJson(channel, VictorOpsChannel.class));
-                                break;
-                            case PAGERDUTY:
-                                values.add(gson.fromJson(channel, PagerDutyChannel.class));
-                                break;
-                            case CAMPFIRE:
-                                values.add(gson.fromJson(channel, CampfireChannel.class));
-                                break;
-                            case XMATTERS:
-                                values.add(gson.fromJson(channel, xMattersChannel.class));
-                                break;
-                            case WEBHOOK:
-                                values.add(gson.fromJson(channel, WebhookChannel.class));
-                                break;
-                        }
-                    }
-                }
-            }
-        }
-        return values;
+        return channel.read(reader);
     }
 }
@@ -16,8 +16,9 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions;
 
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.util.List;
+import java.util.ArrayList;
+import com.opsmatters.newrelic.api.httpclient.deserializers.PolymorphicDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
 import com.opsmatters.newrelic.api.model.alerts.conditions.ApmAppAlertCondition;
 import com.opsmatters.newrelic.api.model.alerts.conditions.ApmKeyTransactionAlertCondition;
@@ -31,45 +32,61 @@ import com.opsmatters.newrelic.api.model.alerts.conditions.MobileAlertCondition;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class AlertConditionDeserializer implements JsonDeserializer<AlertCondition>
+public class AlertConditionDeserializer extends PolymorphicDeserializer<AlertCondition>
 {
-    private static Gson gson = new Gson();
+    /**
+     * Default constructor, for a condition wrapped in a <CODE>"condition"</CODE> attribute.
+     */
+    public AlertConditionDeserializer()
+    {
+        this("condition");
+    }
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert condition 
+     * Constructor that takes the name of the attribute wrapping the condition.
+     * @param envelope The name of the attribute wrapping the condition, or <CODE>null</CODE> if the condition is not wrapped
+     */
+    public AlertConditionDeserializer(String envelope)
+    {
+        super(AlertCondition.class, envelope, "type");
+    }
+
+    /**
+     * Returns the subtype to bind for the given <CODE>"type"</CODE> attribute.
+     * @param value The value of the <CODE>"type"</CODE> attribute
+     * @return The subtype to bind
      */
     @Override
-    public AlertCondition deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Class<? extends AlertCondition> getType(String value)
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonElement condition = obj.get("condition");
-        if(condition != null && condition.isJsonObject())
+        switch(AlertCondition.ConditionType.fromValue(value))
         {
-            JsonElement conditionType = condition.getAsJsonObject().get("type");
-            if(conditionType != null)
-            {
-                switch(AlertCondition.ConditionType.fromValue(conditionType.getAsString()))
-                {
-                    case APM_APP:
-                        return gson.fromJson(condition, ApmAppAlertCondition.class);
-                    case APM_KEY_TRANSACTION:
-                        return gson.fromJson(condition, ApmKeyTransactionAlertCondition.class);
-                    case APM_JVM:
-                        return gson.fromJson(condition, ApmJvmAlertCondition.class);
-                    case SERVERS:
-                        return gson.fromJson(condition, ServersAlertCondition.class);
-                    case BROWSER:
-                        return gson.fromJson(condition, BrowserAlertCondition.class);
-                    case MOBILE:
-                        return gson.fromJson(condition, MobileAlertCondition.class);
-                }
-            }
+            case APM_APP:
+                return ApmAppAlertCondition.class;
+            case APM_KEY_TRANSACTION:
+                return ApmKeyTransactionAlertCondition.class;
+            case APM_JVM:
+                return ApmJvmAlertCondition.class;
+            case SERVERS:
+                return ServersAlertCondition.class;
+            case BROWSER:
+                return BrowserAlertCondition.class;
+            case MOBILE:
+                return MobileAlertCondition.class;
         }
         return null;
     }
+
+    /**
+     * Returns all the subtypes that can be selected by the <CODE>"type"</CODE> attribute.
+     * @return All the subtypes that can be selected by the <CODE>"type"</CODE> attribute
+     */
+    @Override
+    protected List<Class<? extends AlertCondition>> getTypes()
+    {
+        List<Class<? extends AlertCondition>> ret = new ArrayList<Class<? extends AlertCondition>>();
+        for(AlertCondition.ConditionType type : AlertCondition.ConditionType.values())
+            ret.add(getType(type.value()));
+        return ret;
+    }
 }
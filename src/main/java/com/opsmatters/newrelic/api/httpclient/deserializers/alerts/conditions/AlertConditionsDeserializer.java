@@ -16,76 +16,37 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.ApmAppAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.ApmKeyTransactionAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.ApmJvmAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.ServersAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.BrowserAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.MobileAlertCondition;
 
 /**
  * Deserializer class for APM alert conditions.
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class AlertConditionsDeserializer implements JsonDeserializer<Collection<AlertCondition>>
+public class AlertConditionsDeserializer extends CollectionDeserializer<AlertCondition>
 {
-    private static Gson gson = new Gson();
+    private static AlertConditionDeserializer condition = new AlertConditionDeserializer(null);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert conditions 
+     * Default constructor.
+     */
+    public AlertConditionsDeserializer()
+    {
+        super("conditions", AlertCondition.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream, using the type attribute to select the class to bind.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read, or <CODE>null</CODE> if the element has no type
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<AlertCondition> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected AlertCondition readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray conditions = obj.getAsJsonArray("conditions");
-        List<AlertCondition> values = new ArrayList<AlertCondition>();
-        if(conditions != null && conditions.isJsonArray())
-        {
-            for(JsonElement condition : conditions)
-            {
-                if(condition.isJsonObject())
-                {
-                    JsonElement conditionType = condition.getAsJsonObject().get("type");
-                    if(conditionType != null)
-                    {
-                        switch(AlertCondition.ConditionType.fromValue(conditionType.getAsString()))
-                        {
-                            case APM_APP:
-                                values.add(gson.fromJson(condition, ApmAppAlertCondition.class));
-                                break;
-                            case APM_KEY_TRANSACTION:
-                                values.add(gson.fromJson(condition, ApmKeyTransactionAlertCondition.class));
-                                break;
-                            case APM_JVM:
-                                values.add(gson.fromJson(condition, ApmJvmAlertCondition.class));
-                                break;
-                            case SERVERS:
-                                values.add(gson.fromJson(condition, ServersAlertCondition.class));
-                                break;
-                            case BROWSER:
-                                values.add(gson.fromJson(condition, BrowserAlertCondition.class));
-                                break;
-                            case MOBILE:
-                                values.add(gson.fromJson(condition, MobileAlertCondition.class));
-                                break;
-                        }
-                    }
-                }
-            }
-        }
-        return values;
+        return condition.read(reader);
     }
 }
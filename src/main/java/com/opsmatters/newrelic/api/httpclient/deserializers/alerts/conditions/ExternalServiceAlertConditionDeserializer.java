@@ -16,8 +16,9 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions;
 
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.util.List;
+import java.util.ArrayList;
+import com.opsmatters.newrelic.api.httpclient.deserializers.PolymorphicDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.conditions.ExternalServiceAlertCondition;
 import com.opsmatters.newrelic.api.model.alerts.conditions.ApmExternalServiceAlertCondition;
 import com.opsmatters.newrelic.api.model.alerts.conditions.MobileExternalServiceAlertCondition;
@@ -27,37 +28,53 @@ import com.opsmatters.newrelic.api.model.alerts.conditions.MobileExternalService
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class ExternalServiceAlertConditionDeserializer implements JsonDeserializer<ExternalServiceAlertCondition>
+public class ExternalServiceAlertConditionDeserializer extends PolymorphicDeserializer<ExternalServiceAlertCondition>
 {
-    private static Gson gson = new Gson();
+    /**
+     * Default constructor, for a condition wrapped in a <CODE>"external_service_condition"</CODE> attribute.
+     */
+    public ExternalServiceAlertConditionDeserializer()
+    {
+        this("external_service_condition");
+    }
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert condition 
+     * Constructor that takes the name of the attribute wrapping the condition.
+     * @param envelope The name of the attribute wrapping the condition, or <CODE>null</CODE> if the condition is not wrapped
+     */
+    public ExternalServiceAlertConditionDeserializer(String envelope)
+    {
+        super(ExternalServiceAlertCondition.class, envelope, "type");
+    }
+
+    /**
+     * Returns the subtype to bind for the given <CODE>"type"</CODE> attribute.
+     * @param value The value of the <CODE>"type"</CODE> attribute
+     * @return The subtype to bind
      */
     @Override
-    public ExternalServiceAlertCondition deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Class<? extends ExternalServiceAlertCondition> getType(String value)
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonElement condition = obj.get("external_service_condition");
-        if(condition != null && condition.isJsonObject())
+        switch(ExternalServiceAlertCondition.ConditionType.fromValue(value))
         {
-            JsonElement conditionType = condition.getAsJsonObject().get("type");
-            if(conditionType != null)
-            {
-                switch(ExternalServiceAlertCondition.ConditionType.fromValue(conditionType.getAsString()))
-                {
-                    case APM:
-                        return gson.fromJson(condition, ApmExternalServiceAlertCondition.class);
-                    case MOBILE:
-                        return gson.fromJson(condition, MobileExternalServiceAlertCondition.class);
-                }
-            }
+            case APM:
+                return ApmExternalServiceAlertCondition.class;
+            case MOBILE:
+                return MobileExternalServiceAlertCondition.class;
         }
         return null;
     }
+
+    /**
+     * Returns all the subtypes that can be selected by the <CODE>"type"</CODE> attribute.
+     * @return All the subtypes that can be selected by the <CODE>"type"</CODE> attribute
+     */
+    @Override
+    protected List<Class<? extends ExternalServiceAlertCondition>> getTypes()
+    {
+        List<Class<? extends ExternalServiceAlertCondition>> ret = new ArrayList<Class<? extends ExternalServiceAlertCondition>>();
+        for(ExternalServiceAlertCondition.ConditionType type : ExternalServiceAlertCondition.ConditionType.values())
+            ret.add(getType(type.value()));
+        return ret;
+    }
 }
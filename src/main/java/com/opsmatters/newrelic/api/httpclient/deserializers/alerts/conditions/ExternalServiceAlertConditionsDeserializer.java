@@ -16,60 +16,37 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.conditions.ExternalServiceAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.ApmExternalServiceAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.MobileExternalServiceAlertCondition;
 
 /**
  * Deserializer class for external service alert conditions.
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class ExternalServiceAlertConditionsDeserializer implements JsonDeserializer<Collection<ExternalServiceAlertCondition>>
+public class ExternalServiceAlertConditionsDeserializer extends CollectionDeserializer<ExternalServiceAlertCondition>
 {
-    private static Gson gson = new Gson();
+    private static ExternalServiceAlertConditionDeserializer condition = new ExternalServiceAlertConditionDeserializer(null);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert conditions 
+     * Default constructor.
+     */
+    public ExternalServiceAlertConditionsDeserializer()
+    {
+        super("external_service_conditions", ExternalServiceAlertCondition.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream, using the type attribute to select the class to bind.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read, or <CODE>null</CODE> if the element has no type
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<ExternalServiceAlertCondition> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected ExternalServiceAlertCondition readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray conditions = obj.getAsJsonArray("external_service_conditions");
-        List<ExternalServiceAlertCondition> values = new ArrayList<ExternalServiceAlertCondition>();
-        if(conditions != null && conditions.isJsonArray())
-        {
-            for(JsonElement condition : conditions)
-            {
-                if(condition.isJsonObject())
-                {
-                    JsonElement conditionType = condition.getAsJsonObject().get("type");
-                    if(conditionType != null)
-                    {
-                        switch(ExternalServiceAlertCondition.ConditionType.fromValue(conditionType.getAsString()))
-                        {
-                            case APM:
-                                values.add(gson.fromJson(condition, ApmExternalServiceAlertCondition.class));
-                                break;
-                            case MOBILE:
-                                values.add(gson.fromJson(condition, MobileExternalServiceAlertCondition.class));
-                                break;
-                        }
-                    }
-                }
-            }
-        }
-        return values;
+        return condition.read(reader);
     }
 }
@@ -16,8 +16,9 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions;
 
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.util.List;
+import java.util.ArrayList;
+import com.opsmatters.newrelic.api.httpclient.deserializers.PolymorphicDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.conditions.InfraAlertCondition;
 import com.opsmatters.newrelic.api.model.alerts.conditions.InfraMetricAlertCondition;
 import com.opsmatters.newrelic.api.model.alerts.conditions.InfraHostNotReportingAlertCondition;
@@ -28,39 +29,55 @@ import com.opsmatters.newrelic.api.model.alerts.conditions.InfraProcessRunningAl
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class InfraAlertConditionDeserializer implements JsonDeserializer<InfraAlertCondition>
+public class InfraAlertConditionDeserializer extends PolymorphicDeserializer<InfraAlertCondition>
 {
-    private static Gson gson = new Gson();
+    /**
+     * Default constructor, for a condition wrapped in a <CODE>"data"</CODE> attribute.
+     */
+    public InfraAlertConditionDeserializer()
+    {
+        this("data");
+    }
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert condition 
+     * Constructor that takes the name of the attribute wrapping the condition.
+     * @param envelope The name of the attribute wrapping the condition, or <CODE>null</CODE> if the condition is not wrapped
+     */
+    public InfraAlertConditionDeserializer(String envelope)
+    {
+        super(InfraAlertCondition.class, envelope, "type");
+    }
+
+    /**
+     * Returns the subtype to bind for the given <CODE>"type"</CODE> attribute.
+     * @param value The value of the <CODE>"type"</CODE> attribute
+     * @return The subtype to bind
      */
     @Override
-    public InfraAlertCondition deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Class<? extends InfraAlertCondition> getType(String value)
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonElement condition = obj.get("data");
-        if(condition != null && condition.isJsonObject())
+        switch(InfraAlertCondition.ConditionType.fromValue(value))
         {
-            JsonElement conditionType = condition.getAsJsonObject().get("type");
-            if(conditionType != null)
-            {
-                switch(InfraAlertCondition.ConditionType.fromValue(conditionType.getAsString()))
-                {
-                    case METRIC:
-                        return gson.fromJson(condition, InfraMetricAlertCondition.class);
-                    case HOST_NOT_REPORTING:
-                        return gson.fromJson(condition, InfraHostNotReportingAlertCondition.class);
-                    case PROCESS_RUNNING:
-                        return gson.fromJson(condition, InfraProcessRunningAlertCondition.class);
-                }
-            }
+            case METRIC:
+                return InfraMetricAlertCondition.class;
+            case HOST_NOT_REPORTING:
+                return InfraHostNotReportingAlertCondition.class;
+            case PROCESS_RUNNING:
+                return InfraProcessRunningAlertCondition.class;
         }
         return null;
     }
+
+    /**
+     * Returns all the subtypes that can be selected by the <CODE>"type"</CODE> attribute.
+     * @return All the subtypes that can be selected by the <CODE>"type"</CODE> attribute
+     */
+    @Override
+    protected List<Class<? extends InfraAlertCondition>> getTypes()
+    {
+        List<Class<? extends InfraAlertCondition>> ret = new ArrayList<Class<? extends InfraAlertCondition>>();
+        for(InfraAlertCondition.ConditionType type : InfraAlertCondition.ConditionType.values())
+            ret.add(getType(type.value()));
+        return ret;
+    }
 }
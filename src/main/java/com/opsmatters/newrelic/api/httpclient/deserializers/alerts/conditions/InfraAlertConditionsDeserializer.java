@@ -16,64 +16,37 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.conditions.InfraAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.InfraMetricAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.InfraHostNotReportingAlertCondition;
-import com.opsmatters.newrelic.api.model.alerts.conditions.InfraProcessRunningAlertCondition;
 
 /**
  * Deserializer class for infrastructure alert conditions.
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class InfraAlertConditionsDeserializer implements JsonDeserializer<Collection<InfraAlertCondition>>
+public class InfraAlertConditionsDeserializer extends CollectionDeserializer<InfraAlertCondition>
 {
-    private static Gson gson = new Gson();
+    private static InfraAlertConditionDeserializer condition = new InfraAlertConditionDeserializer(null);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert conditions 
+     * Default constructor.
+     */
+    public InfraAlertConditionsDeserializer()
+    {
+        super("data", InfraAlertCondition.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream, using the type attribute to select the class to bind.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read, or <CODE>null</CODE> if the element has no type
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<InfraAlertCondition> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected InfraAlertCondition readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray conditions = obj.getAsJsonArray("data");
-        List<InfraAlertCondition> values = new ArrayList<InfraAlertCondition>();
-        if(conditions != null && conditions.isJsonArray())
-        {
-            for(JsonElement condition : conditions)
-            {
-                if(condition.isJsonObject())
-                {
-                    JsonElement conditionType = condition.getAsJsonObject().get("type");
-                    if(conditionType != null)
-                    {
-                        switch(InfraAlertCondition.ConditionType.fromValue(conditionType.getAsString()))
-                        {
-                            case METRIC:
-                                values.add(gson.fromJson(condition, InfraMetricAlertCondition.class));
-                                break;
-                            case HOST_NOT_REPORTING:
-                                values.add(gson.fromJson(condition, InfraHostNotReportingAlertCondition.class));
-                                break;
-                            case PROCESS_RUNNING:
-                                values.add(gson.fromJson(condition, InfraProcessRunningAlertCondition.class));
-                                break;
-                        }
-                    }
-                }
-            }
-        }
-        return values;
+        return condition.read(reader);
     }
 }
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.conditions;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.conditions.PluginsAlertCondition;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.alerts.conditions.PluginsAlertCondition
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class PluginsAlertConditionsDeserializer implements JsonDeserializer<Collection<PluginsAlertCondition>>
+public class PluginsAlertConditionsDeserializer extends CollectionDeserializer<PluginsAlertCondition>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<PluginsAlertCondition> adapter = GsonRegistry.getDefaultGson().getAdapter(PluginsAlertCondition.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert conditions 
+     * Default constructor.
+     */
+    public PluginsAlertConditionsDeserializer()
+    {
+        super("plugins_conditions", PluginsAlertCondition.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<PluginsAlertCondition> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected PluginsAlertCondition readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray conditions = obj.getAsJsonArray("plugins_conditions");
-        List<PluginsAlertCondition> values = new ArrayList<PluginsAlertCondition>();
-        if(conditions != null && conditions.isJsonArray())
-        {
-            for(JsonElement condition : conditions)
-                values.add(gson.fromJson(condition, PluginsAlertCondition.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
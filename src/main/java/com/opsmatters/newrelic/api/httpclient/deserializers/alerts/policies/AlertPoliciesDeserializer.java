@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.policies;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicy;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicy;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class AlertPoliciesDeserializer implements JsonDeserializer<Collection<AlertPolicy>>
+public class AlertPoliciesDeserializer extends CollectionDeserializer<AlertPolicy>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<AlertPolicy> adapter = GsonRegistry.getDefaultGson().getAdapter(AlertPolicy.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The alert policies 
+     * Default constructor.
+     */
+    public AlertPoliciesDeserializer()
+    {
+        super("policies", AlertPolicy.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<AlertPolicy> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected AlertPolicy readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray policies = obj.getAsJsonArray("policies");
-        List<AlertPolicy> values = new ArrayList<AlertPolicy>();
-        if(policies != null && policies.isJsonArray())
-        {
-            for(JsonElement policy : policies)
-                values.add(gson.fromJson(policy, AlertPolicy.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
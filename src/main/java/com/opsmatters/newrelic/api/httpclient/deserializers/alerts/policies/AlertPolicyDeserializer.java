@@ -18,6 +18,7 @@ package com.opsmatters.newrelic.api.httpclient.deserializers.alerts.policies;
 
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicy;
 
 /**
@@ -27,7 +28,7 @@ import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicy;
  */
 public class AlertPolicyDeserializer implements JsonDeserializer<AlertPolicy>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
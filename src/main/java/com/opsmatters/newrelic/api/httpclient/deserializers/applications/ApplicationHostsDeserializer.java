@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.applications;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.applications.ApplicationHost;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.applications.ApplicationHost;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class ApplicationHostsDeserializer implements JsonDeserializer<Collection<ApplicationHost>>
+public class ApplicationHostsDeserializer extends CollectionDeserializer<ApplicationHost>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<ApplicationHost> adapter = GsonRegistry.getDefaultGson().getAdapter(ApplicationHost.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The application hosts 
+     * Default constructor.
+     */
+    public ApplicationHostsDeserializer()
+    {
+        super("application_hosts", ApplicationHost.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<ApplicationHost> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected ApplicationHost readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray applicationHosts = obj.getAsJsonArray("application_hosts");
-        List<ApplicationHost> values = new ArrayList<ApplicationHost>();
-        if(applicationHosts != null && applicationHosts.isJsonArray())
-        {
-            for(JsonElement applicationHost : applicationHosts)
-                values.add(gson.fromJson(applicationHost, ApplicationHost.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.applications;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.applications.ApplicationInstance;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.applications.ApplicationInstance;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class ApplicationInstancesDeserializer implements JsonDeserializer<Collection<ApplicationInstance>>
+public class ApplicationInstancesDeserializer extends CollectionDeserializer<ApplicationInstance>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<ApplicationInstance> adapter = GsonRegistry.getDefaultGson().getAdapter(ApplicationInstance.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The application instances 
+     * Default constructor.
+     */
+    public ApplicationInstancesDeserializer()
+    {
+        super("application_instances", ApplicationInstance.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<ApplicationInstance> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected ApplicationInstance readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray applicationInstances = obj.getAsJsonArray("application_instances");
-        List<ApplicationInstance> values = new ArrayList<ApplicationInstance>();
-        if(applicationInstances != null && applicationInstances.isJsonArray())
-        {
-            for(JsonElement applicationInstance : applicationInstances)
-                values.add(gson.fromJson(applicationInstance, ApplicationInstance.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.applications;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.applications.Application;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.applications.Application;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class ApplicationsDeserializer implements JsonDeserializer<Collection<Application>>
+public class ApplicationsDeserializer extends CollectionDeserializer<Application>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<Application> adapter = GsonRegistry.getDefaultGson().getAdapter(Application.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The applications 
+     * Default constructor.
+     */
+    public ApplicationsDeserializer()
+    {
+        super("applications", Application.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<Application> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Application readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray applications = obj.getAsJsonArray("applications");
-        List<Application> values = new ArrayList<Application>();
-        if(applications != null && applications.isJsonArray())
-        {
-            for(JsonElement application : applications)
-                values.add(gson.fromJson(application, Application.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
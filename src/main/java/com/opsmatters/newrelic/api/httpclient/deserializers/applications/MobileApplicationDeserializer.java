@@ -18,6 +18,7 @@ package com.opsmatters.newrelic.api.httpclient.deserializers.applications;
 
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.applications.MobileApplication;
 
 /**
@@ -27,7 +28,7 @@ import com.opsmatters.newrelic.api.model.applications.MobileApplication;
  */
 public class MobileApplicationDeserializer implements JsonDeserializer<MobileApplication>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
@@ -18,6 +18,7 @@ package com.opsmatters.newrelic.api.httpclient.deserializers.deployments;
 
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.deployments.Deployment;
 
 /**
@@ -27,7 +28,7 @@ import com.opsmatters.newrelic.api.model.deployments.Deployment;
  */
 public class DeploymentDeserializer implements JsonDeserializer<Deployment>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
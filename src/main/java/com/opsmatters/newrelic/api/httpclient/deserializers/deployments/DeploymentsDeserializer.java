@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.deployments;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.deployments.Deployment;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.deployments.Deployment;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class DeploymentsDeserializer implements JsonDeserializer<Collection<Deployment>>
+public class DeploymentsDeserializer extends CollectionDeserializer<Deployment>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<Deployment> adapter = GsonRegistry.getDefaultGson().getAdapter(Deployment.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The deployments 
+     * Default constructor.
+     */
+    public DeploymentsDeserializer()
+    {
+        super("deployments", Deployment.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<Deployment> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Deployment readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray deployments = obj.getAsJsonArray("deployments");
-        List<Deployment> values = new ArrayList<Deployment>();
-        if(deployments != null && deployments.isJsonArray())
-        {
-            for(JsonElement deployment : deployments)
-                values.add(gson.fromJson(deployment, Deployment.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
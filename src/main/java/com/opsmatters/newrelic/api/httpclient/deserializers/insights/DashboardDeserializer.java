@@ -19,7 +19,6 @@ package com.opsmatters.newrelic.api.httpclient.deserializers.insights;
 import java.lang.reflect.Type;
 import com.google.gson.*;
 import com.opsmatters.newrelic.api.model.insights.Dashboard;
-import com.opsmatters.newrelic.api.model.insights.widgets.Widget;
 import com.opsmatters.newrelic.api.httpclient.deserializers.insights.widgets.WidgetDeserializer;
 
 /**
@@ -30,7 +29,7 @@ import com.opsmatters.newrelic.api.httpclient.deserializers.insights.widgets.Wid
 public class DashboardDeserializer implements JsonDeserializer<Dashboard>
 {
     private static Gson gson =  new GsonBuilder()
-        .registerTypeAdapter(Widget.class, new WidgetDeserializer())
+        .registerTypeAdapterFactory(new WidgetDeserializer())
         .create();
 
     /**
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.insights;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.insights.Dashboard;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.insights.Dashboard;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class DashboardsDeserializer implements JsonDeserializer<Collection<Dashboard>>
+public class DashboardsDeserializer extends CollectionDeserializer<Dashboard>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<Dashboard> adapter = GsonRegistry.getDefaultGson().getAdapter(Dashboard.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The dashboards 
+     * Default constructor.
+     */
+    public DashboardsDeserializer()
+    {
+        super("dashboards", Dashboard.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<Dashboard> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Dashboard readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray dashboards = obj.getAsJsonArray("dashboards");
-        List<Dashboard> values = new ArrayList<Dashboard>();
-        if(dashboards != null && dashboards.isJsonArray())
-        {
-            for(JsonElement dashboard : dashboards)
-                values.add(gson.fromJson(dashboard, Dashboard.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
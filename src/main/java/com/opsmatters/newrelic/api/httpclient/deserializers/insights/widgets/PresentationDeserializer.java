@@ -18,6 +18,7 @@ package com.opsmatters.newrelic.api.httpclient.deserializers.insights.widgets;
 
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.insights.widgets.Presentation;
 import com.opsmatters.newrelic.api.model.insights.widgets.ThresholdPresentation;
 import com.opsmatters.newrelic.api.model.insights.widgets.DrilldownPresentation;
@@ -30,7 +31,7 @@ import com.opsmatters.newrelic.api.model.insights.widgets.TrafficLightPresentati
  */
 public class PresentationDeserializer implements JsonDeserializer<Presentation>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
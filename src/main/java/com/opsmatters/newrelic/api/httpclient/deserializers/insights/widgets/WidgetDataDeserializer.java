@@ -18,6 +18,7 @@ package com.opsmatters.newrelic.api.httpclient.deserializers.insights.widgets;
 
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.insights.widgets.WidgetData;
 import com.opsmatters.newrelic.api.model.insights.widgets.EventsData;
 import com.opsmatters.newrelic.api.model.insights.widgets.MetricsData;
@@ -31,7 +32,7 @@ import com.opsmatters.newrelic.api.model.insights.widgets.InventoryData;
  */
 public class WidgetDataDeserializer implements JsonDeserializer<WidgetData>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
@@ -16,8 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.insights.widgets;
 
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.util.List;
+import java.util.ArrayList;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.opsmatters.newrelic.api.httpclient.deserializers.PolymorphicDeserializer;
 import com.opsmatters.newrelic.api.model.insights.widgets.Widget;
 import com.opsmatters.newrelic.api.model.insights.widgets.EventChart;
 import com.opsmatters.newrelic.api.model.insights.widgets.BreakdownMetricChart;
@@ -37,7 +40,7 @@ import com.opsmatters.newrelic.api.httpclient.deserializers.insights.widgets.Pre
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class WidgetDeserializer implements JsonDeserializer<Widget>
+public class WidgetDeserializer extends PolymorphicDeserializer<Widget>
 {
     private static Gson gson =  new GsonBuilder()
         .registerTypeAdapter(WidgetData.class, new WidgetDataDeserializer())
@@ -45,37 +48,66 @@ public class WidgetDeserializer implements JsonDeserializer<Widget>
         .create();
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The widget
+     * Default constructor.
+     */
+    public WidgetDeserializer()
+    {
+        super(Widget.class, null, "visualization");
+    }
+
+    /**
+     * Returns the Gson instance used to bind the widgets, including the widget data and presentation.
+     * @return The Gson instance used to bind the widgets
      */
     @Override
-    public Widget deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Gson getGson()
     {
-        JsonObject obj = element.getAsJsonObject();
-        String visualization = obj.get("visualization").getAsString();
-        if(visualization != null)
-        {
-            if(EventChart.Visualization.contains(visualization))
-                return gson.fromJson(obj, EventChart.class);
-            else if(BreakdownMetricChart.Visualization.contains(visualization))
-                return gson.fromJson(obj, BreakdownMetricChart.class);
-            else if(FacetChart.Visualization.contains(visualization))
-                return gson.fromJson(obj, FacetChart.class);
-            else if(InventoryChart.Visualization.contains(visualization))
-                return gson.fromJson(obj, InventoryChart.class);
-            else if(Markdown.Visualization.contains(visualization))
-                return gson.fromJson(obj, Markdown.class);
-            else if(MetricLineChart.Visualization.contains(visualization))
-                return gson.fromJson(obj, MetricLineChart.class);
-            else if(ThresholdEventChart.Visualization.contains(visualization))
-                return gson.fromJson(obj, ThresholdEventChart.class);
-            else if(TrafficLightChart.Visualization.contains(visualization))
-                return gson.fromJson(obj, TrafficLightChart.class);
-        }
+        return gson;
+    }
+
+    /**
+     * Returns the subtype to bind for the given <CODE>"visualization"</CODE> attribute.
+     * @param visualization The value of the <CODE>"visualization"</CODE> attribute
+     * @return The subtype to bind
+     */
+    @Override
+    protected Class<? extends Widget> getType(String visualization)
+    {
+        if(EventChart.Visualization.contains(visualization))
+            return EventChart.class;
+        else if(BreakdownMetricChart.Visualization.contains(visualization))
+            return BreakdownMetricChart.class;
+        else if(FacetChart.Visualization.contains(visualization))
+            return FacetChart.class;
+        else if(InventoryChart.Visualization.contains(visualization))
+            return InventoryChart.class;
+        else if(Markdown.Visualization.contains(visualization))
+            return Markdown.class;
+        else if(MetricLineChart.Visualization.contains(visualization))
+            return MetricLineChart.class;
+        else if(ThresholdEventChart.Visualization.contains(visualization))
+            return ThresholdEventChart.class;
+        else if(TrafficLightChart.Visualization.contains(visualization))
+            return TrafficLightChart.class;
         return null;
     }
+
+    /**
+     * Returns all the subtypes that can be selected by the <CODE>"visualization"</CODE> attribute.
+     * @return All the subtypes that can be selected by the <CODE>"visualization"</CODE> attribute
+     */
+    @Override
+    protected List<Class<? extends Widget>> getTypes()
+    {
+        List<Class<? extends Widget>> ret = new ArrayList<Class<? extends Widget>>();
+        ret.add(EventChart.class);
+        ret.add(BreakdownMetricChart.class);
+        ret.add(FacetChart.class);
+        ret.add(InventoryChart.class);
+        ret.add(Markdown.class);
+        ret.add(MetricLineChart.class);
+        ret.add(ThresholdEventChart.class);
+        ret.add(TrafficLightChart.class);
+        return ret;
+    }
 }
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.labels;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.labels.Label;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.labels.Label;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class LabelsDeserializer implements JsonDeserializer<Collection<Label>>
+public class LabelsDeserializer extends CollectionDeserializer<Label>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<Label> adapter = GsonRegistry.getDefaultGson().getAdapter(Label.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The labels 
+     * Default constructor.
+     */
+    public LabelsDeserializer()
+    {
+        super("labels", Label.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<Label> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Label readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray labels = obj.getAsJsonArray("labels");
-        List<Label> values = new ArrayList<Label>();
-        if(labels != null && labels.isJsonArray())
-        {
-            for(JsonElement label : labels)
-                values.add(gson.fromJson(label, Label.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.ArrayList;
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.metrics.MetricData;
 
 /**
@@ -30,7 +31,7 @@ import com.opsmatters.newrelic.api.model.metrics.MetricData;
  */
 public class MetricDataDeserializer implements JsonDeserializer<MetricData>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.metrics;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.metrics.Metric;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.metrics.Metric;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class MetricsDeserializer implements JsonDeserializer<Collection<Metric>>
+public class MetricsDeserializer extends CollectionDeserializer<Metric>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<Metric> adapter = GsonRegistry.getDefaultGson().getAdapter(Metric.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The metrics 
+     * Default constructor.
+     */
+    public MetricsDeserializer()
+    {
+        super("metrics", Metric.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<Metric> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Metric readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray metrics = obj.getAsJsonArray("metrics");
-        List<Metric> values = new ArrayList<Metric>();
-        if(metrics != null && metrics.isJsonArray())
-        {
-            for(JsonElement metric : metrics)
-                values.add(gson.fromJson(metric, Metric.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.plugins;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.plugins.PluginComponent;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.plugins.PluginComponent;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class PluginComponentsDeserializer implements JsonDeserializer<Collection<PluginComponent>>
+public class PluginComponentsDeserializer extends CollectionDeserializer<PluginComponent>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<PluginComponent> adapter = GsonRegistry.getDefaultGson().getAdapter(PluginComponent.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The plugin components 
+     * Default constructor.
+     */
+    public PluginComponentsDeserializer()
+    {
+        super("components", PluginComponent.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<PluginComponent> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected PluginComponent readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray components = obj.getAsJsonArray("components");
-        List<PluginComponent> values = new ArrayList<PluginComponent>();
-        if(components != null && components.isJsonArray())
-        {
-            for(JsonElement component : components)
-                values.add(gson.fromJson(component, PluginComponent.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.plugins;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.plugins.Plugin;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.plugins.Plugin;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class PluginsDeserializer implements JsonDeserializer<Collection<Plugin>>
+public class PluginsDeserializer extends CollectionDeserializer<Plugin>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<Plugin> adapter = GsonRegistry.getDefaultGson().getAdapter(Plugin.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The plugins 
+     * Default constructor.
+     */
+    public PluginsDeserializer()
+    {
+        super("plugins", Plugin.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<Plugin> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Plugin readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray plugins = obj.getAsJsonArray("plugins");
-        List<Plugin> values = new ArrayList<Plugin>();
-        if(plugins != null && plugins.isJsonArray())
-        {
-            for(JsonElement plugin : plugins)
-                values.add(gson.fromJson(plugin, Plugin.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.servers;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.servers.Server;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.servers.Server;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class ServersDeserializer implements JsonDeserializer<Collection<Server>>
+public class ServersDeserializer extends CollectionDeserializer<Server>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<Server> adapter = GsonRegistry.getDefaultGson().getAdapter(Server.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The servers 
+     * Default constructor.
+     */
+    public ServersDeserializer()
+    {
+        super("servers", Server.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<Server> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Server readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray servers = obj.getAsJsonArray("servers");
-        List<Server> values = new ArrayList<Server>();
-        if(servers != null && servers.isJsonArray())
-        {
-            for(JsonElement server : servers)
-                values.add(gson.fromJson(server, Server.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
@@ -16,8 +16,9 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.synthetics;
 
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.util.List;
+import java.util.ArrayList;
+import com.opsmatters.newrelic.api.httpclient.deserializers.PolymorphicDeserializer;
 import com.opsmatters.newrelic.api.model.synthetics.Monitor;
 import com.opsmatters.newrelic.api.model.synthetics.SimpleMonitor;
 import com.opsmatters.newrelic.api.model.synthetics.BrowserMonitor;
@@ -29,37 +30,48 @@ import com.opsmatters.newrelic.api.model.synthetics.ScriptApiMonitor;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class MonitorDeserializer implements JsonDeserializer<Monitor>
+public class MonitorDeserializer extends PolymorphicDeserializer<Monitor>
 {
-    private static Gson gson = new Gson();
+    /**
+     * Default constructor.
+     */
+    public MonitorDeserializer()
+    {
+        super(Monitor.class, null, "type");
+    }
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The monitor 
+     * Returns the subtype to bind for the given <CODE>"type"</CODE> attribute.
+     * @param value The value of the <CODE>"type"</CODE> attribute
+     * @return The subtype to bind
      */
     @Override
-    public Monitor deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Class<? extends Monitor> getType(String value)
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonElement monitorType = obj.get("type");
-        if(monitorType != null)
+        switch(Monitor.MonitorType.valueOf(value))
         {
-            switch(Monitor.MonitorType.valueOf(monitorType.getAsString()))
-            {
-                case SIMPLE:
-                    return gson.fromJson(obj, SimpleMonitor.class);
-                case BROWSER:
-                    return gson.fromJson(obj, BrowserMonitor.class);
-                case SCRIPT_BROWSER:
-                    return gson.fromJson(obj, ScriptBrowserMonitor.class);
-                case SCRIPT_API:
-                    return gson.fromJson(obj, ScriptApiMonitor.class);
-            }
+            case SIMPLE:
+                return SimpleMonitor.class;
+            case BROWSER:
+                return BrowserMonitor.class;
+            case SCRIPT_BROWSER:
+                return ScriptBrowserMonitor.class;
+            case SCRIPT_API:
+                return ScriptApiMonitor.class;
         }
         return null;
     }
+
+    /**
+     * Returns all the subtypes that can be selected by the <CODE>"type"</CODE> attribute.
+     * @return All the subtypes that can be selected by the <CODE>"type"</CODE> attribute
+     */
+    @Override
+    protected List<Class<? extends Monitor>> getTypes()
+    {
+        List<Class<? extends Monitor>> ret = new ArrayList<Class<? extends Monitor>>();
+        for(Monitor.MonitorType type : Monitor.MonitorType.values())
+            ret.add(getType(type.name()));
+        return ret;
+    }
 }
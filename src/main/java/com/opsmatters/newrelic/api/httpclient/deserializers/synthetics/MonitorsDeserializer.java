@@ -16,68 +16,37 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.synthetics;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.synthetics.Monitor;
-import com.opsmatters.newrelic.api.model.synthetics.SimpleMonitor;
-import com.opsmatters.newrelic.api.model.synthetics.BrowserMonitor;
-import com.opsmatters.newrelic.api.model.synthetics.ScriptBrowserMonitor;
-import com.opsmatters.newrelic.api.model.synthetics.ScriptApiMonitor;
 
 /**
  * Deserializer class for Synthetics monitors.
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class MonitorsDeserializer implements JsonDeserializer<Collection<Monitor>>
+public class MonitorsDeserializer extends CollectionDeserializer<Monitor>
 {
-    private static Gson gson = new Gson();
+    private static MonitorDeserializer monitor = new MonitorDeserializer();
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The monitors 
+     * Default constructor.
+     */
+    public MonitorsDeserializer()
+    {
+        super("monitors", Monitor.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream, using the type attribute to select the class to bind.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read, or <CODE>null</CODE> if the element has no type
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<Monitor> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected Monitor readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray monitors = obj.getAsJsonArray("monitors");
-        List<Monitor> values = new ArrayList<Monitor>();
-        if(monitors != null && monitors.isJsonArray())
-        {
-            for(JsonElement monitor : monitors)
-            {
-                if(monitor.isJsonObject())
-                {
-                    JsonElement monitorType = monitor.getAsJsonObject().get("type");
-                    if(monitorType != null)
-                    {
-                        switch(Monitor.MonitorType.valueOf(monitorType.getAsString()))
-                        {
-                            case SIMPLE:
-                                values.add(gson.fromJson(monitor, SimpleMonitor.class));
-                                break;
-                            case BROWSER:
-                                values.add(gson.fromJson(monitor, BrowserMonitor.class));
-                                break;
-                            case SCRIPT_BROWSER:
-                                values.add(gson.fromJson(monitor, ScriptBrowserMonitor.class));
-                                break;
-                            case SCRIPT_API:
-                                values.add(gson.fromJson(monitor, ScriptApiMonitor.class));
-                                break;
-                        }
-                    }
-                }
-            }
-        }
-        return values;
+        return monitor.read(reader);
     }
 }
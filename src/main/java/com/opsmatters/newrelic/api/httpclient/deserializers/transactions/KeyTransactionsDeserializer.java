@@ -16,11 +16,11 @@
 
 package com.opsmatters.newrelic.api.httpclient.deserializers.transactions;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.ArrayList;
-import java.lang.reflect.Type;
-import com.google.gson.*;
+import java.io.IOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
 import com.opsmatters.newrelic.api.model.transactions.KeyTransaction;
 
 /**
@@ -28,29 +28,27 @@ import com.opsmatters.newrelic.api.model.transactions.KeyTransaction;
  * 
  * @author Gerald Curley (opsmatters)
  */
-public class KeyTransactionsDeserializer implements JsonDeserializer<Collection<KeyTransaction>>
+public class KeyTransactionsDeserializer extends CollectionDeserializer<KeyTransaction>
 {
-    private static Gson gson = new Gson();
+    private static TypeAdapter<KeyTransaction> adapter = GsonRegistry.getDefaultGson().getAdapter(KeyTransaction.class);
 
     /**
-     * Gson invokes this call-back method during deserialization when it encounters a field of the specified type.
-     * @param element The Json data being deserialized
-     * @param type The type of the Object to deserialize to 
-     * @param context The JSON deserialization context
-     * @return The key transactions 
+     * Default constructor.
+     */
+    public KeyTransactionsDeserializer()
+    {
+        super("key_transactions", KeyTransaction.class);
+    }
+
+    /**
+     * Reads an element of the collection from the stream.
+     * @param reader The reader positioned at the start of the element
+     * @return The element read
+     * @throws IOException if the element cannot be read
      */
     @Override
-    public Collection<KeyTransaction> deserialize(JsonElement element, Type type, JsonDeserializationContext context)
-        throws JsonParseException
+    protected KeyTransaction readElement(JsonReader reader) throws IOException
     {
-        JsonObject obj = element.getAsJsonObject();
-        JsonArray kts = obj.getAsJsonArray("key_transactions");
-        List<KeyTransaction> values = new ArrayList<KeyTransaction>();
-        if(kts != null && kts.isJsonArray())
-        {
-            for(JsonElement kt : kts)
-                values.add(gson.fromJson(kt, KeyTransaction.class));
-        }
-        return values;
+        return adapter.read(reader);
     }
 }
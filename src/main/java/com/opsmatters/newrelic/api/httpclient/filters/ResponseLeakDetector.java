@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient.filters;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+
+/**
+ * Filter to detect responses whose entity is never closed, which holds on to the connection.
+ * <P>
+ * The entity stream of each response is tracked along with the stack of the call that made the request.
+ * A response that is garbage collected without its entity being closed is reported as a leak,
+ * and the responses that are still open can be reported at any time using {@link #report()}.
+ * <P>
+ * Capturing the stack for each response is expensive, so the detector is intended for debugging.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ResponseLeakDetector implements ClientResponseFilter
+{
+    private static final Logger logger = Logger.getLogger(ResponseLeakDetector.class.getName());
+
+    private ReferenceQueue<InputStream> queue = new ReferenceQueue<InputStream>();
+    private Set<Tracker> open = ConcurrentHashMap.newKeySet();
+    private AtomicLong responses = new AtomicLong();
+    private AtomicLong leaks = new AtomicLong();
+    private volatile boolean enabled = true;
+
+    /**
+     * Tracks the entity stream of the client response.
+     * @param request The client request
+     * @param response The client response
+     */
+    @Override
+    public void filter(ClientRequestContext request, ClientResponseContext response) throws IOException
+    {
+        poll();
+        if(!enabled || !response.hasEntity())
+            return;
+        TrackedInputStream in = new TrackedInputStream(response.getEntityStream());
+        in.tracker = new Tracker(in, queue, request.getMethod()+" "+request.getUri()+" => "+response.getStatus());
+        open.add(in.tracker);
+        responses.incrementAndGet();
+        response.setEntityStream(in);
+    }
+
+    /**
+     * Reports any responses that have been garbage collected without being closed.
+     * @return The number of leaked responses found
+     */
+    public int poll()
+    {
+        int ret = 0;
+        Reference<? extends InputStream> ref;
+        while((ref = queue.poll()) != null)
+        {
+            Tracker tracker = (Tracker)ref;
+            if(open.remove(tracker))
+            {
+                leaks.incrementAndGet();
+                logger.log(Level.SEVERE, "Response was not closed: "+tracker.description, tracker.allocation);
+                ++ret;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Logs the responses that are still open, with the stack of the call that made each request.
+     * @return The number of responses that are still open
+     */
+    public int report()
+    {
+        poll();
+        int ret = 0;
+        for(Tracker tracker : open)
+        {
+            logger.log(Level.WARNING, "Response is still open: "+tracker.description, tracker.allocation);
+            ++ret;
+        }
+        return ret;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if the responses should be tracked.
+     * @param enabled <CODE>true</CODE> if the responses should be tracked
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the responses are being tracked.
+     * @return <CODE>true</CODE> if the responses are being tracked
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Returns the number of responses that have been tracked.
+     * @return The number of responses that have been tracked
+     */
+    public long getResponseCount()
+    {
+        return responses.get();
+    }
+
+    /**
+     * Returns the number of tracked responses that are still open.
+     * @return The number of tracked responses that are still open
+     */
+    public int getOpenCount()
+    {
+        return open.size();
+    }
+
+    /**
+     * Returns the number of responses that were garbage collected without being closed.
+     * @return The number of responses that were not closed
+     */
+    public long getLeakCount()
+    {
+        poll();
+        return leaks.get();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "ResponseLeakDetector [enabled="+enabled
+            +", responses="+responses
+            +", open="+getOpenCount()
+            +", leaks="+leaks
+            +"]";
+    }
+
+    /**
+     * The entity stream of a tracked response.
+     */
+    private class TrackedInputStream extends FilterInputStream
+    {
+        private Tracker tracker;
+
+        /**
+         * Constructor that takes the entity stream.
+         * @param in The entity stream of the response
+         */
+        TrackedInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+        /**
+         * Closes the entity stream and stops tracking the response.
+         */
+        @Override
+        public void close() throws IOException
+        {
+            open.remove(tracker);
+            super.close();
+        }
+    }
+
+    /**
+     * The request and allocation stack of a tracked response, which is queued once its entity stream is unreachable.
+     */
+    private static class Tracker extends PhantomReference<InputStream>
+    {
+        private String description;
+        private Throwable allocation;
+
+        /**
+         * Constructor that takes the entity stream, the queue and a description of the request.
+         * @param in The entity stream of the response
+         * @param queue The queue to add the tracker to once the stream is unreachable
+         * @param description A description of the request
+         */
+        Tracker(InputStream in, ReferenceQueue<InputStream> queue, String description)
+        {
+            super(in, queue);
+            this.description = description;
+            this.allocation = new Throwable("Response allocated");
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.opsmatters.newrelic.api.httpclient.serializers.accounts;
 import java.util.Collection;
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.accounts.ProductSubscription;
 
 /**
@@ -28,7 +29,7 @@ import com.opsmatters.newrelic.api.model.accounts.ProductSubscription;
  */
 public class ProductSubscriptionsSerializer implements JsonSerializer<Collection<ProductSubscription>>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during serialization when it encounters a field of the specified type.
@@ -18,6 +18,7 @@ package com.opsmatters.newrelic.api.httpclient.serializers.alerts.conditions;
 
 import java.lang.reflect.Type;
 import com.google.gson.*;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
 import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
 
 /**
@@ -27,7 +28,7 @@ import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
  */
 public class AlertConditionSerializer implements JsonSerializer<AlertCondition>
 {
-    private static Gson gson = new Gson();
+    private static Gson gson = GsonRegistry.getDefaultGson();
 
     /**
      * Gson invokes this call-back method during serialization when it encounters a field of the specified type.
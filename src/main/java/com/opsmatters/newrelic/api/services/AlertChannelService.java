@@ -21,11 +21,14 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.google.common.collect.Maps;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.alerts.channels.AlertChannel;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for alert channels.
@@ -34,6 +37,8 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class AlertChannelService extends BaseFluent
 {
+    private static final UriTemplate CHANNEL_PATH = new UriTemplate("/v2/alerts_channels/{channelId}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -54,6 +59,40 @@ public class AlertChannelService extends BaseFluent
         return HTTP.GET("/v2/alerts_channels.json", null, queryParams, ALERT_CHANNELS).get();
     }
 
+    /**
+     * Asynchronously returns the set of alert channels.
+     * @param queryParams The query parameters
+     * @return The future for the set of alert channels
+     */
+    public CompletableFuture<Collection<AlertChannel>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of alert channels, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of alert channels, across all pages
+     */
+    public PagedIterable<AlertChannel> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<AlertChannel>(HTTP, "/v2/alerts_channels.json", null, queryParams, ALERT_CHANNELS);
+    }
+
+    /**
+     * Returns an iterator over the set of alert channels, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of alert channels, across all pages
+     */
+    public CloseableIterator<AlertChannel> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of alert channels.
      * @return The set of alert channels
@@ -64,6 +103,15 @@ public class AlertChannelService extends BaseFluent
         return list(queryParams);
     }
 
+    /**
+     * Asynchronously returns the set of alert channels.
+     * @return The future for the set of alert channels
+     */
+    public CompletableFuture<Collection<AlertChannel>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of alert channels with the given name.
      * @param name The name of the alert channels to return
@@ -81,6 +129,16 @@ public class AlertChannelService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of alert channels with the given name.
+     * @param name The name of the alert channels to return
+     * @return The future for the set of alert channels
+     */
+    public CompletableFuture<Collection<AlertChannel>> listAsync(String name)
+    {
+        return async(() -> list(name));
+    }
+
     /**
      * Returns the set of alert channels with the given name and type.
      * @param name The name of the alert channels to return
@@ -102,6 +160,17 @@ public class AlertChannelService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of alert channels with the given name and type.
+     * @param name The name of the alert channels to return
+     * @param type The type of the alert channels to return
+     * @return The future for the set of alert channels
+     */
+    public CompletableFuture<Collection<AlertChannel>> listAsync(String name, String type)
+    {
+        return async(() -> list(name, type));
+    }
+
     /**
      * Returns the set of alert channels for the given policy id.
      * @param policyId The id of the policy for the alert channels
@@ -123,6 +192,16 @@ public class AlertChannelService extends BaseFluent
         return map.values();
     }
 
+    /**
+     * Asynchronously returns the set of alert channels for the given policy id.
+     * @param policyId The id of the policy for the alert channels
+     * @return The future for the set of alert channels
+     */
+    public CompletableFuture<Collection<AlertChannel>> listAsync(long policyId)
+    {
+        return async(() -> list(policyId));
+    }
+
     /**
      * Returns the alert channel with the given id.
      * <P>
@@ -142,6 +221,18 @@ public class AlertChannelService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the alert channel with the given id.
+     * <P>
+     * This is needed because the API does not contain an operation to get a channel using the id directly.
+     * @param channelId The id of the alert channel to return
+     * @return The future for the alert channel
+     */
+    public CompletableFuture<Optional<AlertChannel>> showAsync(long channelId)
+    {
+        return async(() -> show(channelId));
+    }
+
     /**
      * Creates the given alert channel.
      * @param channel The alert channel to create
@@ -152,6 +243,16 @@ public class AlertChannelService extends BaseFluent
         return Optional.of(HTTP.POST("/v2/alerts_channels.json", channel, ALERT_CHANNELS).get().iterator().next());
     }
 
+    /**
+     * Asynchronously creates the given alert channel.
+     * @param channel The alert channel to create
+     * @return The future for the alert channel that was created
+     */
+    public CompletableFuture<Optional<AlertChannel>> createAsync(AlertChannel channel)
+    {
+        return async(() -> create(channel));
+    }
+
     /**
      * Deletes the alert channel with the given id.
      * @param channelId The id of the alert channel to delete
@@ -159,10 +260,20 @@ public class AlertChannelService extends BaseFluent
      */
     public AlertChannelService delete(long channelId)
     {
-        HTTP.DELETE(String.format("/v2/alerts_channels/%d.json", channelId));
+        HTTP.DELETE(CHANNEL_PATH.expand(channelId));
         return this;
     }
 
+    /**
+     * Asynchronously deletes the alert channel with the given id.
+     * @param channelId The id of the alert channel to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long channelId)
+    {
+        return async(() -> { delete(channelId); });
+    }
+
     /**
      * Returns a builder for the alert channel filters.
      * @return The builder instance.
@@ -17,11 +17,13 @@
 package com.opsmatters.newrelic.api.services;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.Entity;
 import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for alert entity conditions.
@@ -30,6 +32,8 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class AlertEntityConditionService extends BaseFluent
 {
+    private static final UriTemplate ENTITY_CONDITIONS_PATH = new UriTemplate("/v2/alerts_entity_conditions/{entityId}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -50,7 +54,18 @@ public class AlertEntityConditionService extends BaseFluent
     {
         QueryParameterList queryParams = new QueryParameterList();
         queryParams.add("entity_type", entityType);
-        return HTTP.GET(String.format("/v2/alerts_entity_conditions/%d.json", entityId), null, queryParams, ALERT_CONDITIONS).get();
+        return HTTP.GET(ENTITY_CONDITIONS_PATH.expand(entityId), null, queryParams, ALERT_CONDITIONS).get();
+    }
+
+    /**
+     * Asynchronously returns the alert conditions for the given entity id.
+     * @param entityId The id of the entity
+     * @param entityType The type of the entity
+     * @return The future for the alert conditions for the entity
+     */
+    public CompletableFuture<Collection<AlertCondition>> listAsync(long entityId, String entityType)
+    {
+        return async(() -> list(entityId, entityType));
     }
 
     /**
@@ -63,6 +78,16 @@ public class AlertEntityConditionService extends BaseFluent
         return list(entity.getId(), entity.getType());
     }
 
+    /**
+     * Asynchronously returns the alert conditions for the given entity.
+     * @param entity The entity to look up
+     * @return The future for the alert conditions for the entity
+     */
+    public CompletableFuture<Collection<AlertCondition>> listAsync(Entity entity)
+    {
+        return async(() -> list(entity));
+    }
+
     /**
      * Adds the given entity to the alert condition with the given id.
      * @param entityId The id of the entity to add
@@ -75,7 +100,19 @@ public class AlertEntityConditionService extends BaseFluent
         QueryParameterList queryParams = new QueryParameterList();
         queryParams.add("entity_type", entityType);
         queryParams.add("condition_id", conditionId);
-        return HTTP.PUT(String.format("/v2/alerts_entity_conditions/%d.json", entityId), null, null, queryParams, ALERT_CONDITION);
+        return HTTP.PUT(ENTITY_CONDITIONS_PATH.expand(entityId), null, null, queryParams, ALERT_CONDITION);
+    }
+
+    /**
+     * Asynchronously adds the given entity to the alert condition with the given id.
+     * @param entityId The id of the entity to add
+     * @param entityType The type of the entity to add
+     * @param conditionId The id of the alert condition to add the entity to
+     * @return The future for the alert condition that was updated
+     */
+    public CompletableFuture<Optional<AlertCondition>> addAsync(long entityId, String entityType, long conditionId)
+    {
+        return async(() -> add(entityId, entityType, conditionId));
     }
 
     /**
@@ -89,6 +126,17 @@ public class AlertEntityConditionService extends BaseFluent
         return add(entity.getId(), entity.getType(), conditionId);
     }
 
+    /**
+     * Asynchronously adds the given entity to the alert condition with the given id.
+     * @param entity The entity to add
+     * @param conditionId The id of the alert condition to add the entity to
+     * @return The future for the alert condition that was updated
+     */
+    public CompletableFuture<Optional<AlertCondition>> addAsync(Entity entity, long conditionId)
+    {
+        return async(() -> add(entity, conditionId));
+    }
+
     /**
      * Removes the given entity from the alert condition with the given id.
      * @param entityId The id of the entity to remove
@@ -101,10 +149,22 @@ public class AlertEntityConditionService extends BaseFluent
         QueryParameterList queryParams = new QueryParameterList();
         queryParams.add("entity_type", entityType);
         queryParams.add("condition_id", conditionId);
-        HTTP.DELETE(String.format("/v2/alerts_entity_conditions/%d.json", entityId), null, queryParams);       
+        HTTP.DELETE(ENTITY_CONDITIONS_PATH.expand(entityId), null, queryParams);       
         return this;
     }
 
+    /**
+     * Asynchronously removes the given entity from the alert condition with the given id.
+     * @param entityId The id of the entity to remove
+     * @param entityType The type of the entity to remove
+     * @param conditionId The id of the alert condition from which to delete the entity
+     * @return The future that completes when the entity has been removed
+     */
+    public CompletableFuture<Void> removeAsync(long entityId, String entityType, long conditionId)
+    {
+        return async(() -> { remove(entityId, entityType, conditionId); });
+    }
+
     /**
      * Removes the given entity from the alert condition with the given id.
      * @param entity The entity to remove
@@ -115,4 +175,15 @@ public class AlertEntityConditionService extends BaseFluent
     {
         return remove(entity.getId(), entity.getType(), conditionId);
     }
+
+    /**
+     * Asynchronously removes the given entity from the alert condition with the given id.
+     * @param entity The entity to remove
+     * @param conditionId The id of the alert condition from which to delete the entity
+     * @return The future that completes when the entity has been removed
+     */
+    public CompletableFuture<Void> removeAsync(Entity entity, long conditionId)
+    {
+        return async(() -> { remove(entity, conditionId); });
+    }
 }
@@ -18,11 +18,13 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.EntityType;
 import com.opsmatters.newrelic.api.model.accounts.Product;
 import com.opsmatters.newrelic.api.model.alerts.AlertEvent;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
 
 /**
  * The set of operations used for alert events.
@@ -51,6 +53,40 @@ public class AlertEventService extends BaseFluent
         return HTTP.GET("/v2/alerts_events.json", null, queryParams, ALERT_EVENTS).get();
     }
 
+    /**
+     * Asynchronously returns the set of alert events with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of alert events
+     */
+    public CompletableFuture<Collection<AlertEvent>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of alert events with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of alert events, across all pages
+     */
+    public PagedIterable<AlertEvent> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<AlertEvent>(HTTP, "/v2/alerts_events.json", null, queryParams, ALERT_EVENTS);
+    }
+
+    /**
+     * Returns an iterator over the set of alert events, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of alert events, across all pages
+     */
+    public CloseableIterator<AlertEvent> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of alert events.
      * @return The set of alert events
@@ -60,6 +96,15 @@ public class AlertEventService extends BaseFluent
         return list(null);
     }
 
+    /**
+     * Asynchronously returns the set of alert events.
+     * @return The future for the set of alert events
+     */
+    public CompletableFuture<Collection<AlertEvent>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns a builder for the event operation filters.
      * @return The builder instance.
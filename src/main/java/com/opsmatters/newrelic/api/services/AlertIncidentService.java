@@ -18,9 +18,11 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.alerts.AlertIncident;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
 
 /**
  * The set of operations used for alert incidents.
@@ -49,6 +51,40 @@ public class AlertIncidentService extends BaseFluent
         return HTTP.GET("/v2/alerts_incidents.json", null, queryParams, ALERT_INCIDENTS).get();
     }
 
+    /**
+     * Asynchronously returns the set of alert incidents with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of alert incidents
+     */
+    public CompletableFuture<Collection<AlertIncident>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of alert incidents with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of alert incidents, across all pages
+     */
+    public PagedIterable<AlertIncident> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<AlertIncident>(HTTP, "/v2/alerts_incidents.json", null, queryParams, ALERT_INCIDENTS);
+    }
+
+    /**
+     * Returns an iterator over the set of alert incidents, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of alert incidents, across all pages
+     */
+    public CloseableIterator<AlertIncident> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of alert incidents.
      * @param onlyOpen Filter by open incidents
@@ -59,6 +95,16 @@ public class AlertIncidentService extends BaseFluent
         return list(filters().onlyOpen(onlyOpen).build());
     }
 
+    /**
+     * Asynchronously returns the set of alert incidents.
+     * @param onlyOpen Filter by open incidents
+     * @return The future for the set of alert incidents
+     */
+    public CompletableFuture<Collection<AlertIncident>> listAsync(boolean onlyOpen)
+    {
+        return async(() -> list(onlyOpen));
+    }
+
     /**
      * Returns a builder for the alert incident filters.
      * @return The builder instance.
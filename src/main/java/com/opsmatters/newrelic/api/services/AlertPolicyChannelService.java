@@ -16,6 +16,7 @@
 
 package com.opsmatters.newrelic.api.services;
 
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicyChannel;
@@ -52,6 +53,17 @@ public class AlertPolicyChannelService extends BaseFluent
         return HTTP.PUT("/v2/alerts_policy_channels.json", null, null, queryParams, ALERT_POLICY_CHANNEL);
     }
 
+    /**
+     * Asynchronously adds the given alert channel to the alert policy with the given id.
+     * @param policyId The id of the alert policy to add the channel to
+     * @param channelId The id of the alert channel to add
+     * @return The future for the alert policy channel that was updated
+     */
+    public CompletableFuture<Optional<AlertPolicyChannel>> updateAsync(long policyId, long channelId)
+    {
+        return async(() -> update(policyId, channelId));
+    }
+
     /**
      * Deletes the given alert channel from the alert policy with the given id.
      * @param policyId The id of the alert policy from which to delete the channel
@@ -66,4 +78,15 @@ public class AlertPolicyChannelService extends BaseFluent
         HTTP.DELETE("/v2/alerts_policy_channels.json", null, queryParams);       
         return this;
     }
+
+    /**
+     * Asynchronously deletes the given alert channel from the alert policy with the given id.
+     * @param policyId The id of the alert policy from which to delete the channel
+     * @param channelId The id of the alert channel to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long policyId, long channelId)
+    {
+        return async(() -> { delete(policyId, channelId); });
+    }
 }
@@ -18,10 +18,13 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicy;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for alert policies.
@@ -30,6 +33,8 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class AlertPolicyService extends BaseFluent
 {
+    private static final UriTemplate POLICY_PATH = new UriTemplate("/v2/alerts_policies/{policyId}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -50,6 +55,40 @@ public class AlertPolicyService extends BaseFluent
         return HTTP.GET("/v2/alerts_policies.json", null, queryParams, ALERT_POLICIES).get();
     }
 
+    /**
+     * Asynchronously returns the set of alert policies.
+     * @param queryParams The query parameters
+     * @return The future for the set of alert policies
+     */
+    public CompletableFuture<Collection<AlertPolicy>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of alert policies, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of alert policies, across all pages
+     */
+    public PagedIterable<AlertPolicy> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<AlertPolicy>(HTTP, "/v2/alerts_policies.json", null, queryParams, ALERT_POLICIES);
+    }
+
+    /**
+     * Returns an iterator over the set of alert policies, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of alert policies, across all pages
+     */
+    public CloseableIterator<AlertPolicy> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of alert policies.
      * @return The set of alert policies
@@ -60,6 +99,15 @@ public class AlertPolicyService extends BaseFluent
         return list(queryParams);
     }
 
+    /**
+     * Asynchronously returns the set of alert policies.
+     * @return The future for the set of alert policies
+     */
+    public CompletableFuture<Collection<AlertPolicy>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of alert policies with the given name.
      * @param name The name of the alert policy to return
@@ -70,6 +118,16 @@ public class AlertPolicyService extends BaseFluent
         return list(filters().name(name).build());
     }
 
+    /**
+     * Asynchronously returns the set of alert policies with the given name.
+     * @param name The name of the alert policy to return
+     * @return The future for the set of alert policies
+     */
+    public CompletableFuture<Collection<AlertPolicy>> listAsync(String name)
+    {
+        return async(() -> list(name));
+    }
+
     /**
      * Returns the alert policy with the given name and id.
      * <P>
@@ -90,6 +148,19 @@ public class AlertPolicyService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the alert policy with the given name and id.
+     * <P>
+     * This is needed because the API does not contain an operation to get a policy using the id directly, only filtering using the name.
+     * @param name The name of the alert policy to return
+     * @param policyId The id of the alert policy to return
+     * @return The future for the alert policy
+     */
+    public CompletableFuture<Optional<AlertPolicy>> showAsync(String name, long policyId)
+    {
+        return async(() -> show(name, policyId));
+    }
+
     /**
      * Returns the alert policy with the given id.
      * <P>
@@ -101,6 +172,18 @@ public class AlertPolicyService extends BaseFluent
     {
         return show(null, policyId);
     }
+
+    /**
+     * Asynchronously returns the alert policy with the given id.
+     * <P>
+     * This is needed because the API does not contain an operation to get a policy using the id directly, only filtering using the name.
+     * @param policyId The id of the alert policy to return
+     * @return The future for the alert policy
+     */
+    public CompletableFuture<Optional<AlertPolicy>> showAsync(long policyId)
+    {
+        return async(() -> show(policyId));
+    }
     
     /**
      * Creates the given alert policy.
@@ -112,6 +195,16 @@ public class AlertPolicyService extends BaseFluent
         return HTTP.POST("/v2/alerts_policies.json", policy, ALERT_POLICY);
     }
 
+    /**
+     * Asynchronously creates the given alert policy.
+     * @param policy The alert policy to create
+     * @return The future for the alert policy that was created
+     */
+    public CompletableFuture<Optional<AlertPolicy>> createAsync(AlertPolicy policy)
+    {
+        return async(() -> create(policy));
+    }
+
     /**
      * Updates the given alert policy.
      * @param policy The alert policy to update
@@ -119,7 +212,17 @@ public class AlertPolicyService extends BaseFluent
      */
     public Optional<AlertPolicy> update(AlertPolicy policy)
     {
-        return HTTP.PUT(String.format("/v2/alerts_policies/%d.json", policy.getId()), policy, ALERT_POLICY);
+        return HTTP.PUT(POLICY_PATH.expand(policy.getId()), policy, ALERT_POLICY);
+    }
+
+    /**
+     * Asynchronously updates the given alert policy.
+     * @param policy The alert policy to update
+     * @return The future for the alert policy that was updated
+     */
+    public CompletableFuture<Optional<AlertPolicy>> updateAsync(AlertPolicy policy)
+    {
+        return async(() -> update(policy));
     }
 
     /**
@@ -129,10 +232,20 @@ public class AlertPolicyService extends BaseFluent
      */
     public AlertPolicyService delete(long policyId)
     {
-        HTTP.DELETE(String.format("/v2/alerts_policies/%d.json", policyId));       
+        HTTP.DELETE(POLICY_PATH.expand(policyId));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the alert policy with the given id.
+     * @param policyId The id of the alert policy to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long policyId)
+    {
+        return async(() -> { delete(policyId); });
+    }
+
     /**
      * Returns a builder for the alert policy filters.
      * @return The builder instance.
@@ -18,10 +18,12 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.alerts.AlertViolation;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
 import com.opsmatters.newrelic.api.util.Utils;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
 
 /**
  * The set of operations used for alert violations.
@@ -50,6 +52,40 @@ public class AlertViolationService extends BaseFluent
         return HTTP.GET("/v2/alerts_violations.json", null, queryParams, ALERT_VIOLATIONS).get();
     }
 
+    /**
+     * Asynchronously returns the set of alert violations with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of alert violations
+     */
+    public CompletableFuture<Collection<AlertViolation>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of alert violations with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of alert violations, across all pages
+     */
+    public PagedIterable<AlertViolation> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<AlertViolation>(HTTP, "/v2/alerts_violations.json", null, queryParams, ALERT_VIOLATIONS);
+    }
+
+    /**
+     * Returns an iterator over the set of alert violations, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of alert violations, across all pages
+     */
+    public CloseableIterator<AlertViolation> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of alert violations.
      * @param startDate Retrieves violations created after this date (in milliseconds)
@@ -62,6 +98,18 @@ public class AlertViolationService extends BaseFluent
         return list(filters().startDate(startDate).endDate(endDate).onlyOpen(onlyOpen).build());
     }
 
+    /**
+     * Asynchronously returns the set of alert violations.
+     * @param startDate Retrieves violations created after this date (in milliseconds)
+     * @param endDate Retrieves violations created before this date (in milliseconds)
+     * @param onlyOpen Filter by open violations
+     * @return The future for the set of alert violations
+     */
+    public CompletableFuture<Collection<AlertViolation>> listAsync(long startDate, long endDate, boolean onlyOpen)
+    {
+        return async(() -> list(startDate, endDate, onlyOpen));
+    }
+
     /**
      * Returns a builder for the alert violation filters.
      * @return The builder instance.
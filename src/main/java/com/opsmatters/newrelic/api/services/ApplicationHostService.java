@@ -18,12 +18,15 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.applications.ApplicationHost;
 import com.opsmatters.newrelic.api.model.metrics.Metric;
 import com.opsmatters.newrelic.api.model.metrics.MetricData;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for application hosts.
@@ -32,6 +35,11 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class ApplicationHostService extends BaseFluent
 {
+    private static final UriTemplate HOSTS_PATH = new UriTemplate("/v2/applications/{applicationId}/hosts.json");
+    private static final UriTemplate HOST_PATH = new UriTemplate("/v2/applications/{applicationId}/hosts/{hostId}.json");
+    private static final UriTemplate METRICS_PATH = new UriTemplate("/v2/applications/{applicationId}/hosts/{hostId}/metrics.json");
+    private static final UriTemplate METRIC_DATA_PATH = new UriTemplate("/v2/applications/{applicationId}/hosts/{hostId}/metrics/data.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -50,7 +58,44 @@ public class ApplicationHostService extends BaseFluent
      */
     public Collection<ApplicationHost> list(long applicationId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/applications/%d/hosts.json", applicationId), null, queryParams, APPLICATION_HOSTS).get();
+        return HTTP.GET(HOSTS_PATH.expand(applicationId), null, queryParams, APPLICATION_HOSTS).get();
+    }
+
+    /**
+     * Asynchronously returns the set of application hosts with the given query parameters.
+     * @param applicationId The application id
+     * @param queryParams The query parameters
+     * @return The future for the set of application hosts
+     */
+    public CompletableFuture<Collection<ApplicationHost>> listAsync(long applicationId, List<String> queryParams)
+    {
+        return async(() -> list(applicationId, queryParams));
+    }
+
+    /**
+     * Returns the set of application hosts with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param applicationId The application id
+     * @param queryParams The query parameters
+     * @return The set of application hosts, across all pages
+     */
+    public PagedIterable<ApplicationHost> listAll(long applicationId, List<String> queryParams)
+    {
+        return new PagedIterable<ApplicationHost>(HTTP, HOSTS_PATH.expand(applicationId), null, queryParams, APPLICATION_HOSTS);
+    }
+
+    /**
+     * Returns an iterator over the set of application hosts, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param applicationId The application id
+     * @param queryParams The query parameters
+     * @return The iterator over the set of application hosts, across all pages
+     */
+    public CloseableIterator<ApplicationHost> iterator(long applicationId, List<String> queryParams)
+    {
+        return listAll(applicationId, queryParams).closeableIterator();
     }
 
     /**
@@ -63,6 +108,16 @@ public class ApplicationHostService extends BaseFluent
         return list(applicationId, null);
     }
 
+    /**
+     * Asynchronously returns the set of application hosts.
+     * @param applicationId The application id
+     * @return The future for the set of application hosts
+     */
+    public CompletableFuture<Collection<ApplicationHost>> listAsync(long applicationId)
+    {
+        return async(() -> list(applicationId));
+    }
+
     /**
      * Returns the application host for the given id.
      * @param applicationId The application id
@@ -71,7 +126,18 @@ public class ApplicationHostService extends BaseFluent
      */
     public Optional<ApplicationHost> show(long applicationId, long hostId)
     {
-        return HTTP.GET(String.format("/v2/applications/%d/hosts/%d.json", applicationId, hostId), APPLICATION_HOST);
+        return HTTP.GET(HOST_PATH.expand(applicationId, hostId), APPLICATION_HOST);
+    }
+
+    /**
+     * Asynchronously returns the application host for the given id.
+     * @param applicationId The application id
+     * @param hostId The application host id
+     * @return The future for the application host
+     */
+    public CompletableFuture<Optional<ApplicationHost>> showAsync(long applicationId, long hostId)
+    {
+        return async(() -> show(applicationId, hostId));
     }
 
     /**
@@ -86,7 +152,7 @@ public class ApplicationHostService extends BaseFluent
         QueryParameterList queryParams = new QueryParameterList();
         if(name != null && name.length() > 0)
             queryParams.add("name", name);
-        return HTTP.GET(String.format("/v2/applications/%d/hosts/%d/metrics.json", applicationId, hostId), null, queryParams, METRICS).get();
+        return HTTP.GET(METRICS_PATH.expand(applicationId, hostId), null, queryParams, METRICS).get();
     }
 
     /**
@@ -109,7 +175,7 @@ public class ApplicationHostService extends BaseFluent
      */
     public Optional<MetricData> metricData(long applicationId, long hostId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/applications/%d/hosts/%d/metrics/data.json", applicationId, hostId), null, queryParams, METRIC_DATA);
+        return HTTP.GET(METRIC_DATA_PATH.expand(applicationId, hostId), null, queryParams, METRIC_DATA);
     }
 
     /**
@@ -18,12 +18,15 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.applications.ApplicationInstance;
 import com.opsmatters.newrelic.api.model.metrics.Metric;
 import com.opsmatters.newrelic.api.model.metrics.MetricData;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for application instances.
@@ -32,6 +35,11 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class ApplicationInstanceService extends BaseFluent
 {
+    private static final UriTemplate INSTANCES_PATH = new UriTemplate("/v2/applications/{applicationId}/instances.json");
+    private static final UriTemplate INSTANCE_PATH = new UriTemplate("/v2/applications/{applicationId}/instances/{instanceId}.json");
+    private static final UriTemplate METRICS_PATH = new UriTemplate("/v2/applications/{applicationId}/instances/{instanceId}/metrics.json");
+    private static final UriTemplate METRIC_DATA_PATH = new UriTemplate("/v2/applications/{applicationId}/instances/{instanceId}/metrics/data.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -50,7 +58,44 @@ public class ApplicationInstanceService extends BaseFluent
      */
     public Collection<ApplicationInstance> list(long applicationId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/applications/%d/instances.json", applicationId), null, queryParams, APPLICATION_INSTANCES).get();
+        return HTTP.GET(INSTANCES_PATH.expand(applicationId), null, queryParams, APPLICATION_INSTANCES).get();
+    }
+
+    /**
+     * Asynchronously returns the set of application instances with the given query parameters.
+     * @param applicationId The application id
+     * @param queryParams The query parameters
+     * @return The future for the set of application instances
+     */
+    public CompletableFuture<Collection<ApplicationInstance>> listAsync(long applicationId, List<String> queryParams)
+    {
+        return async(() -> list(applicationId, queryParams));
+    }
+
+    /**
+     * Returns the set of application instances with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param applicationId The application id
+     * @param queryParams The query parameters
+     * @return The set of application instances, across all pages
+     */
+    public PagedIterable<ApplicationInstance> listAll(long applicationId, List<String> queryParams)
+    {
+        return new PagedIterable<ApplicationInstance>(HTTP, INSTANCES_PATH.expand(applicationId), null, queryParams, APPLICATION_INSTANCES);
+    }
+
+    /**
+     * Returns an iterator over the set of application instances, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param applicationId The application id
+     * @param queryParams The query parameters
+     * @return The iterator over the set of application instances, across all pages
+     */
+    public CloseableIterator<ApplicationInstance> iterator(long applicationId, List<String> queryParams)
+    {
+        return listAll(applicationId, queryParams).closeableIterator();
     }
 
     /**
@@ -63,6 +108,16 @@ public class ApplicationInstanceService extends BaseFluent
         return list(applicationId, null);
     }
 
+    /**
+     * Asynchronously returns the set of application instances.
+     * @param applicationId The application id
+     * @return The future for the set of application instances
+     */
+    public CompletableFuture<Collection<ApplicationInstance>> listAsync(long applicationId)
+    {
+        return async(() -> list(applicationId));
+    }
+
     /**
      * Returns the application instance for the given id.
      * @param applicationId The application id
@@ -71,7 +126,18 @@ public class ApplicationInstanceService extends BaseFluent
      */
     public Optional<ApplicationInstance> show(long applicationId, long instanceId)
     {
-        return HTTP.GET(String.format("/v2/applications/%d/instances/%d.json", applicationId, instanceId), APPLICATION_INSTANCE);
+        return HTTP.GET(INSTANCE_PATH.expand(applicationId, instanceId), APPLICATION_INSTANCE);
+    }
+
+    /**
+     * Asynchronously returns the application instance for the given id.
+     * @param applicationId The application id
+     * @param instanceId The application instance id
+     * @return The future for the application instance
+     */
+    public CompletableFuture<Optional<ApplicationInstance>> showAsync(long applicationId, long instanceId)
+    {
+        return async(() -> show(applicationId, instanceId));
     }
 
     /**
@@ -86,7 +152,7 @@ public class ApplicationInstanceService extends BaseFluent
         QueryParameterList queryParams = new QueryParameterList();
         if(name != null && name.length() > 0)
             queryParams.add("name", name);
-        return HTTP.GET(String.format("/v2/applications/%d/instances/%d/metrics.json", applicationId, instanceId), null, queryParams, METRICS).get();
+        return HTTP.GET(METRICS_PATH.expand(applicationId, instanceId), null, queryParams, METRICS).get();
     }
 
     /**
@@ -109,7 +175,7 @@ public class ApplicationInstanceService extends BaseFluent
      */
     public Optional<MetricData> metricData(long applicationId, long instanceId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/applications/%d/instances/%d/metrics/data.json", applicationId, instanceId), null, queryParams, METRIC_DATA);
+        return HTTP.GET(METRIC_DATA_PATH.expand(applicationId, instanceId), null, queryParams, METRIC_DATA);
     }
 
     /**
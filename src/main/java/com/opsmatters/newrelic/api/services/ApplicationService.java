@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.google.common.collect.Maps;
 import com.opsmatters.newrelic.api.NewRelicClient;
@@ -27,6 +28,8 @@ import com.opsmatters.newrelic.api.model.applications.Application;
 import com.opsmatters.newrelic.api.model.metrics.Metric;
 import com.opsmatters.newrelic.api.model.metrics.MetricData;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for applications.
@@ -35,6 +38,10 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class ApplicationService extends BaseFluent
 {
+    private static final UriTemplate APPLICATION_PATH = new UriTemplate("/v2/applications/{applicationId}.json");
+    private static final UriTemplate METRICS_PATH = new UriTemplate("/v2/applications/{applicationId}/metrics.json");
+    private static final UriTemplate METRIC_DATA_PATH = new UriTemplate("/v2/applications/{applicationId}/metrics/data.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -55,6 +62,40 @@ public class ApplicationService extends BaseFluent
         return HTTP.GET("/v2/applications.json", null, queryParams, APPLICATIONS).get();
     }
 
+    /**
+     * Asynchronously returns the set of applications with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<Application>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of applications with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of applications, across all pages
+     */
+    public PagedIterable<Application> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<Application>(HTTP, "/v2/applications.json", null, queryParams, APPLICATIONS);
+    }
+
+    /**
+     * Returns an iterator over the set of applications, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of applications, across all pages
+     */
+    public CloseableIterator<Application> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of applications.
      * @return The set of applications
@@ -65,6 +106,15 @@ public class ApplicationService extends BaseFluent
         return list(queryParams);
     }
 
+    /**
+     * Asynchronously returns the set of applications.
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<Application>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of applications for the given name.
      * @param name The name of the applications
@@ -82,6 +132,16 @@ public class ApplicationService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of applications for the given name.
+     * @param name The name of the applications
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<Application>> listAsync(String name)
+    {
+        return async(() -> list(name));
+    }
+
     /**
      * Returns the application for the given application id.
      * @param applicationId The id for the application to return
@@ -89,7 +149,17 @@ public class ApplicationService extends BaseFluent
      */
     public Optional<Application> show(long applicationId)
     {
-        return HTTP.GET(String.format("/v2/applications/%d.json", applicationId), APPLICATION);
+        return HTTP.GET(APPLICATION_PATH.expand(applicationId), APPLICATION);
+    }
+
+    /**
+     * Asynchronously returns the application for the given application id.
+     * @param applicationId The id for the application to return
+     * @return The future for the application
+     */
+    public CompletableFuture<Optional<Application>> showAsync(long applicationId)
+    {
+        return async(() -> show(applicationId));
     }
 
     /**
@@ -99,7 +169,17 @@ public class ApplicationService extends BaseFluent
      */
     public Optional<Application> update(Application application)
     {
-        return HTTP.PUT(String.format("/v2/applications/%d.json", application.getId()), application, APPLICATION);
+        return HTTP.PUT(APPLICATION_PATH.expand(application.getId()), application, APPLICATION);
+    }
+
+    /**
+     * Asynchronously updates the given application.
+     * @param application The application to update
+     * @return The future for the application that was updated
+     */
+    public CompletableFuture<Optional<Application>> updateAsync(Application application)
+    {
+        return async(() -> update(application));
     }
 
     /**
@@ -109,10 +189,20 @@ public class ApplicationService extends BaseFluent
      */
     public ApplicationService delete(long applicationId)
     {
-        HTTP.DELETE(String.format("/v2/applications/%d.json", applicationId));       
+        HTTP.DELETE(APPLICATION_PATH.expand(applicationId));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the given application.
+     * @param applicationId The id of the application to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long applicationId)
+    {
+        return async(() -> { delete(applicationId); });
+    }
+
     /**
      * Returns the set of metrics for the given application.
      * @param applicationId The id of the application to return metrics for
@@ -124,7 +214,7 @@ public class ApplicationService extends BaseFluent
         QueryParameterList queryParams = new QueryParameterList();
         if(name != null && name.length() > 0)
             queryParams.add("name", name);
-        return HTTP.GET(String.format("/v2/applications/%d/metrics.json", applicationId), null, queryParams, METRICS).get();
+        return HTTP.GET(METRICS_PATH.expand(applicationId), null, queryParams, METRICS).get();
     }
 
     /**
@@ -145,7 +235,7 @@ public class ApplicationService extends BaseFluent
      */
     public Optional<MetricData> metricData(long applicationId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/applications/%d/metrics/data.json", applicationId), null, queryParams, METRIC_DATA);
+        return HTTP.GET(METRIC_DATA_PATH.expand(applicationId), null, queryParams, METRIC_DATA);
     }
 
     /**
@@ -19,9 +19,12 @@ package com.opsmatters.newrelic.api.services;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import javax.ws.rs.core.GenericType;
 import com.opsmatters.newrelic.api.NewRelicClient;
+import com.opsmatters.newrelic.api.httpclient.Deadline;
 import com.opsmatters.newrelic.api.model.alerts.AlertIncident;
 import com.opsmatters.newrelic.api.model.alerts.AlertViolation;
 import com.opsmatters.newrelic.api.model.alerts.AlertEvent;
@@ -188,6 +191,31 @@ public class BaseFluent
         return this.client;
     }
 
+    /**
+     * Executes the given call asynchronously using the executor of the HTTP context.
+     * <P>
+     * The call is made inside the current deadline, and cancelling the future cancels the call.
+     * @param <T> The type parameter used for the return object
+     * @param call The call to execute
+     * @return The future for the result of the call
+     */
+    protected <T> CompletableFuture<T> async(Supplier<T> call)
+    {
+        return Deadline.supplyAsync(call, HTTP.getExecutor());
+    }
+
+    /**
+     * Executes the given call that has no result asynchronously using the executor of the HTTP context.
+     * <P>
+     * The call is made inside the current deadline, and cancelling the future cancels the call.
+     * @param call The call to execute
+     * @return The future that completes when the call has been executed
+     */
+    protected CompletableFuture<Void> async(Runnable call)
+    {
+        return Deadline.runAsync(call, HTTP.getExecutor());
+    }
+
     /**
      * Encode special character in query string to the URL encoded representation.
      * @param str The input string
@@ -19,10 +19,12 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.Collection;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.applications.BrowserApplication;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
 
 /**
  * The set of operations used for Browser applications.
@@ -51,6 +53,40 @@ public class BrowserApplicationService extends BaseFluent
         return HTTP.GET("/v2/browser_applications.json", null, queryParams, BROWSER_APPLICATIONS).get();
     }
 
+    /**
+     * Asynchronously returns the set of Browser applications with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<BrowserApplication>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of Browser applications with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of applications, across all pages
+     */
+    public PagedIterable<BrowserApplication> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<BrowserApplication>(HTTP, "/v2/browser_applications.json", null, queryParams, BROWSER_APPLICATIONS);
+    }
+
+    /**
+     * Returns an iterator over the set of applications, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of applications, across all pages
+     */
+    public CloseableIterator<BrowserApplication> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of Browser applications.
      * @return The set of applications
@@ -62,6 +98,15 @@ public class BrowserApplicationService extends BaseFluent
 
     }
 
+    /**
+     * Asynchronously returns the set of Browser applications.
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<BrowserApplication>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of Browser applications for the given name.
      * @param name The name of the applications
@@ -79,6 +124,16 @@ public class BrowserApplicationService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of Browser applications for the given name.
+     * @param name The name of the applications
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<BrowserApplication>> listAsync(String name)
+    {
+        return async(() -> list(name));
+    }
+
     /**
      * Returns the Browser application for the given application id.
      * @param applicationId The id for the application to return
@@ -91,6 +146,16 @@ public class BrowserApplicationService extends BaseFluent
         return Optional.of(HTTP.GET("/v2/browser_applications.json", null, queryParams, BROWSER_APPLICATIONS).get().iterator().next());
     }
 
+    /**
+     * Asynchronously returns the Browser application for the given application id.
+     * @param applicationId The id for the application to return
+     * @return The future for the application
+     */
+    public CompletableFuture<Optional<BrowserApplication>> showAsync(long applicationId)
+    {
+        return async(() -> show(applicationId));
+    }
+
     /**
      * Creates the given Browser application.
      * @param application The application to create
@@ -101,6 +166,16 @@ public class BrowserApplicationService extends BaseFluent
         return HTTP.POST("/v2/browser_applications.json", application, BROWSER_APPLICATION);
     }
 
+    /**
+     * Asynchronously creates the given Browser application.
+     * @param application The application to create
+     * @return The future for the application that was created
+     */
+    public CompletableFuture<Optional<BrowserApplication>> createAsync(BrowserApplication application)
+    {
+        return async(() -> create(application));
+    }
+
     /**
      * Returns a builder for the Browser application filters.
      * @return The builder instance.
@@ -18,11 +18,14 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.insights.Dashboard;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
 import com.opsmatters.newrelic.api.util.Utils;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for dashboards.
@@ -31,6 +34,8 @@ import com.opsmatters.newrelic.api.util.Utils;
  */
 public class DashboardService extends BaseFluent
 {
+    private static final UriTemplate DASHBOARD_PATH = new UriTemplate("/v2/dashboards/{dashboardId}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -51,6 +56,40 @@ public class DashboardService extends BaseFluent
         return HTTP.GET("/v2/dashboards.json", null, queryParams, DASHBOARDS).get();
     }
 
+    /**
+     * Asynchronously returns the set of dashboards with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of dashboards
+     */
+    public CompletableFuture<Collection<Dashboard>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of dashboards with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of dashboards, across all pages
+     */
+    public PagedIterable<Dashboard> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<Dashboard>(HTTP, "/v2/dashboards.json", null, queryParams, DASHBOARDS);
+    }
+
+    /**
+     * Returns an iterator over the set of dashboards, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of dashboards, across all pages
+     */
+    public CloseableIterator<Dashboard> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of dashboards for the given title.
      * @param title The dashboard title
@@ -61,6 +100,16 @@ public class DashboardService extends BaseFluent
         return list(filters().title(title).build());
     }
 
+    /**
+     * Asynchronously returns the set of dashboards for the given title.
+     * @param title The dashboard title
+     * @return The future for the set of dashboards
+     */
+    public CompletableFuture<Collection<Dashboard>> listAsync(String title)
+    {
+        return async(() -> list(title));
+    }
+
     /**
      * Returns the set of dashboards.
      * @return The set of dashboards
@@ -71,6 +120,15 @@ public class DashboardService extends BaseFluent
         return list(queryParams);
     }
 
+    /**
+     * Asynchronously returns the set of dashboards.
+     * @return The future for the set of dashboards
+     */
+    public CompletableFuture<Collection<Dashboard>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the dashboard with the given id.
      * @param dashboardId The id of the dashboard to return
@@ -78,7 +136,17 @@ public class DashboardService extends BaseFluent
      */
     public Optional<Dashboard> show(long dashboardId)
     {
-        return HTTP.GET(String.format("/v2/dashboards/%d.json", dashboardId), DASHBOARD);
+        return HTTP.GET(DASHBOARD_PATH.expand(dashboardId), DASHBOARD);
+    }
+
+    /**
+     * Asynchronously returns the dashboard with the given id.
+     * @param dashboardId The id of the dashboard to return
+     * @return The future for the dashboard
+     */
+    public CompletableFuture<Optional<Dashboard>> showAsync(long dashboardId)
+    {
+        return async(() -> show(dashboardId));
     }
     
     /**
@@ -91,6 +159,16 @@ public class DashboardService extends BaseFluent
         return HTTP.POST("/v2/dashboards.json", dashboard, DASHBOARD);
     }
 
+    /**
+     * Asynchronously creates the given dashboard.
+     * @param dashboard The dashboard to create
+     * @return The future for the dashboard that was created
+     */
+    public CompletableFuture<Optional<Dashboard>> createAsync(Dashboard dashboard)
+    {
+        return async(() -> create(dashboard));
+    }
+
     /**
      * Updates the given dashboard.
      * @param dashboard The dashboard to update
@@ -98,7 +176,17 @@ public class DashboardService extends BaseFluent
      */
     public Optional<Dashboard> update(Dashboard dashboard)
     {
-        return HTTP.PUT(String.format("/v2/dashboards/%d.json", dashboard.getId()), dashboard, DASHBOARD);
+        return HTTP.PUT(DASHBOARD_PATH.expand(dashboard.getId()), dashboard, DASHBOARD);
+    }
+
+    /**
+     * Asynchronously updates the given dashboard.
+     * @param dashboard The dashboard to update
+     * @return The future for the dashboard that was updated
+     */
+    public CompletableFuture<Optional<Dashboard>> updateAsync(Dashboard dashboard)
+    {
+        return async(() -> update(dashboard));
     }
 
     /**
@@ -108,10 +196,20 @@ public class DashboardService extends BaseFluent
      */
     public DashboardService delete(long dashboardId)
     {
-        HTTP.DELETE(String.format("/v2/dashboards/%d.json", dashboardId));       
+        HTTP.DELETE(DASHBOARD_PATH.expand(dashboardId));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the dashboard with the given id.
+     * @param dashboardId The id of the dashboard to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long dashboardId)
+    {
+        return async(() -> { delete(dashboardId); });
+    }
+
     /**
      * Returns a builder for the dashboard filters.
      * @return The builder instance.
@@ -18,10 +18,13 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.deployments.Deployment;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for deployments.
@@ -30,6 +33,9 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class DeploymentService extends BaseFluent
 {
+    private static final UriTemplate DEPLOYMENTS_PATH = new UriTemplate("/v2/applications/{applicationId}/deployments.json");
+    private static final UriTemplate DEPLOYMENT_PATH = new UriTemplate("/v2/applications/{applicationId}/deployments/{deploymentId}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -48,7 +54,44 @@ public class DeploymentService extends BaseFluent
      */
     public Collection<Deployment> list(long applicationId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/applications/%d/deployments.json", applicationId), null, queryParams, DEPLOYMENTS).get();
+        return HTTP.GET(DEPLOYMENTS_PATH.expand(applicationId), null, queryParams, DEPLOYMENTS).get();
+    }
+
+    /**
+     * Asynchronously returns the set of deployments.
+     * @param applicationId The application id for the deployments
+     * @param queryParams The query parameters
+     * @return The future for the set of deployments
+     */
+    public CompletableFuture<Collection<Deployment>> listAsync(long applicationId, List<String> queryParams)
+    {
+        return async(() -> list(applicationId, queryParams));
+    }
+
+    /**
+     * Returns the set of deployments, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param applicationId The application id for the deployments
+     * @param queryParams The query parameters
+     * @return The set of deployments, across all pages
+     */
+    public PagedIterable<Deployment> listAll(long applicationId, List<String> queryParams)
+    {
+        return new PagedIterable<Deployment>(HTTP, DEPLOYMENTS_PATH.expand(applicationId), null, queryParams, DEPLOYMENTS);
+    }
+
+    /**
+     * Returns an iterator over the set of deployments, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param applicationId The application id for the deployments
+     * @param queryParams The query parameters
+     * @return The iterator over the set of deployments, across all pages
+     */
+    public CloseableIterator<Deployment> iterator(long applicationId, List<String> queryParams)
+    {
+        return listAll(applicationId, queryParams).closeableIterator();
     }
 
     /**
@@ -61,6 +104,16 @@ public class DeploymentService extends BaseFluent
         return list(applicationId, null);
     }
 
+    /**
+     * Asynchronously returns the set of deployments.
+     * @param applicationId The application id for the deployments
+     * @return The future for the set of deployments
+     */
+    public CompletableFuture<Collection<Deployment>> listAsync(long applicationId)
+    {
+        return async(() -> list(applicationId));
+    }
+
     /**
      * Returns the deployment with the given id.
      * <P>
@@ -80,6 +133,19 @@ public class DeploymentService extends BaseFluent
         }
         return ret;
     }
+
+    /**
+     * Asynchronously returns the deployment with the given id.
+     * <P>
+     * This is needed because the API does not contain an operation to get a deployment using the id directly.
+     * @param applicationId The application id for the deployments
+     * @param deploymentId The id of the deployment to return
+     * @return The future for the deployment
+     */
+    public CompletableFuture<Optional<Deployment>> showAsync(long applicationId, long deploymentId)
+    {
+        return async(() -> show(applicationId, deploymentId));
+    }
     
     /**
      * Creates the given deployment.
@@ -89,7 +155,18 @@ public class DeploymentService extends BaseFluent
      */
     public Optional<Deployment> create(long applicationId, Deployment deployment)
     {
-        return HTTP.POST(String.format("/v2/applications/%d/deployments.json", applicationId), deployment, DEPLOYMENT);
+        return HTTP.POST(DEPLOYMENTS_PATH.expand(applicationId), deployment, DEPLOYMENT);
+    }
+
+    /**
+     * Asynchronously creates the given deployment.
+     * @param applicationId The application id for the deployments
+     * @param deployment The deployment to create
+     * @return The future for the deployment that was created
+     */
+    public CompletableFuture<Optional<Deployment>> createAsync(long applicationId, Deployment deployment)
+    {
+        return async(() -> create(applicationId, deployment));
     }
 
     /**
@@ -100,10 +177,21 @@ public class DeploymentService extends BaseFluent
      */
     public DeploymentService delete(long applicationId, long deploymentId)
     {
-        HTTP.DELETE(String.format("/v2/applications/%d/deployments/%d.json", applicationId, deploymentId));       
+        HTTP.DELETE(DEPLOYMENT_PATH.expand(applicationId, deploymentId));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the deployment with the given id.
+     * @param applicationId The application id for the deployments
+     * @param deploymentId The id of the deployment to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long applicationId, long deploymentId)
+    {
+        return async(() -> { delete(applicationId, deploymentId); });
+    }
+
     /**
      * Returns a builder for the deployment filters.
      * @return The builder instance.
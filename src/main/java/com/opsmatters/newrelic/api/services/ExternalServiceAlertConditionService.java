@@ -19,10 +19,13 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.alerts.conditions.ExternalServiceAlertCondition;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for external service alert conditions.
@@ -31,6 +34,9 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class ExternalServiceAlertConditionService extends BaseFluent
 {
+    private static final UriTemplate CONDITION_PATH = new UriTemplate("/v2/alerts_external_service_conditions/{conditionId}.json");
+    private static final UriTemplate POLICY_CONDITIONS_PATH = new UriTemplate("/v2/alerts_external_service_conditions/policies/{policyId}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -51,6 +57,40 @@ public class ExternalServiceAlertConditionService extends BaseFluent
         return HTTP.GET("/v2/alerts_external_service_conditions.json", null, queryParams, EXTERNAL_SERVICE_ALERT_CONDITIONS).get();
     }
 
+    /**
+     * Asynchronously returns the set of alert conditions for the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of alert conditions
+     */
+    public CompletableFuture<Collection<ExternalServiceAlertCondition>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of alert conditions for the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of alert conditions, across all pages
+     */
+    public PagedIterable<ExternalServiceAlertCondition> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<ExternalServiceAlertCondition>(HTTP, "/v2/alerts_external_service_conditions.json", null, queryParams, EXTERNAL_SERVICE_ALERT_CONDITIONS);
+    }
+
+    /**
+     * Returns an iterator over the set of alert conditions, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of alert conditions, across all pages
+     */
+    public CloseableIterator<ExternalServiceAlertCondition> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of alert conditions for the given policy id.
      * @param policyId The id of the alert policy to return the conditions for
@@ -61,6 +101,16 @@ public class ExternalServiceAlertConditionService extends BaseFluent
         return list(filters().policyId(policyId).build());
     }
 
+    /**
+     * Asynchronously returns the set of alert conditions for the given policy id.
+     * @param policyId The id of the alert policy to return the conditions for
+     * @return The future for the set of alert conditions
+     */
+    public CompletableFuture<Collection<ExternalServiceAlertCondition>> listAsync(long policyId)
+    {
+        return async(() -> list(policyId));
+    }
+
     /**
      * Returns the set of alert conditions for the given policy id and name.
      * @param policyId The id of the alert policy to return the conditions for
@@ -79,6 +129,17 @@ public class ExternalServiceAlertConditionService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of alert conditions for the given policy id and name.
+     * @param policyId The id of the alert policy to return the conditions for
+     * @param name The name of the conditions
+     * @return The future for the set of alert conditions
+     */
+    public CompletableFuture<Collection<ExternalServiceAlertCondition>> listAsync(long policyId, String name)
+    {
+        return async(() -> list(policyId, name));
+    }
+
     /**
      * Returns the external service alert condition with the given id.
      * <P>
@@ -98,6 +159,19 @@ public class ExternalServiceAlertConditionService extends BaseFluent
         }
         return ret;
     }
+
+    /**
+     * Asynchronously returns the external service alert condition with the given id.
+     * <P>
+     * This is needed because the API does not contain an operation to get a condition using the id directly.
+     * @param policyId The id of the policy the condition belongs to
+     * @param conditionId The id of the external service alert condition to return
+     * @return The future for the alert condition
+     */
+    public CompletableFuture<Optional<ExternalServiceAlertCondition>> showAsync(long policyId, long conditionId)
+    {
+        return async(() -> show(policyId, conditionId));
+    }
    
     /**
      * Creates the given external service alert condition.
@@ -107,7 +181,18 @@ public class ExternalServiceAlertConditionService extends BaseFluent
      */
     public Optional<ExternalServiceAlertCondition> create(long policyId, ExternalServiceAlertCondition condition)
     {
-        return HTTP.POST(String.format("/v2/alerts_external_service_conditions/policies/%d.json", policyId), condition, EXTERNAL_SERVICE_ALERT_CONDITION);
+        return HTTP.POST(POLICY_CONDITIONS_PATH.expand(policyId), condition, EXTERNAL_SERVICE_ALERT_CONDITION);
+    }
+
+    /**
+     * Asynchronously creates the given external service alert condition.
+     * @param policyId The id of the policy to add the alert condition to
+     * @param condition The alert condition to create
+     * @return The future for the alert condition that was created
+     */
+    public CompletableFuture<Optional<ExternalServiceAlertCondition>> createAsync(long policyId, ExternalServiceAlertCondition condition)
+    {
+        return async(() -> create(policyId, condition));
     }
 
     /**
@@ -117,7 +202,17 @@ public class ExternalServiceAlertConditionService extends BaseFluent
      */
     public Optional<ExternalServiceAlertCondition> update(ExternalServiceAlertCondition condition)
     {
-        return HTTP.PUT(String.format("/v2/alerts_external_service_conditions/%d.json", condition.getId()), condition, EXTERNAL_SERVICE_ALERT_CONDITION);
+        return HTTP.PUT(CONDITION_PATH.expand(condition.getId()), condition, EXTERNAL_SERVICE_ALERT_CONDITION);
+    }
+
+    /**
+     * Asynchronously updates the given external service alert condition.
+     * @param condition The alert condition to update
+     * @return The future for the alert condition that was updated
+     */
+    public CompletableFuture<Optional<ExternalServiceAlertCondition>> updateAsync(ExternalServiceAlertCondition condition)
+    {
+        return async(() -> update(condition));
     }
 
     /**
@@ -127,10 +222,20 @@ public class ExternalServiceAlertConditionService extends BaseFluent
      */
     public ExternalServiceAlertConditionService delete(long conditionId)
     {
-        HTTP.DELETE(String.format("/v2/alerts_external_service_conditions/%d.json", conditionId));       
+        HTTP.DELETE(CONDITION_PATH.expand(conditionId));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the external service alert condition with the given id.
+     * @param conditionId The id of the alert condition to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long conditionId)
+    {
+        return async(() -> { delete(conditionId); });
+    }
+
     /**
      * Returns a builder for the external service alert condition filters.
      * @return The builder instance.
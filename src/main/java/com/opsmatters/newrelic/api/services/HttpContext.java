@@ -16,12 +16,31 @@
 
 package com.opsmatters.newrelic.api.services;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Map;
 import java.util.List;
+import java.util.Collection;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import javax.ws.rs.ProcessingException;
+import org.glassfish.jersey.client.ClientProperties;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.client.Invocation;
@@ -29,10 +48,29 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.MediaType;
-import com.google.gson.Gson;
+import javax.ws.rs.core.MultivaluedMap;
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonReader;
 import com.opsmatters.newrelic.api.model.ErrorResponse;
 import com.opsmatters.newrelic.api.exceptions.ErrorResponseException;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreaker;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreakerConfig;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreakerListener;
+import com.opsmatters.newrelic.api.httpclient.ConcurrencyLimiter;
+import com.opsmatters.newrelic.api.httpclient.Deadline;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.httpclient.HedgingPolicy;
+import com.opsmatters.newrelic.api.httpclient.RateLimiter;
+import com.opsmatters.newrelic.api.httpclient.RetryListener;
+import com.opsmatters.newrelic.api.httpclient.RetryPolicy;
+import com.opsmatters.newrelic.api.httpclient.TimeoutConfig;
+import com.opsmatters.newrelic.api.exceptions.DeadlineExceededException;
+import com.opsmatters.newrelic.api.httpclient.deserializers.CollectionDeserializer;
+import com.opsmatters.newrelic.api.httpclient.filters.ResponseLeakDetector;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.QueryParameterList;
 
 /**
  * Represents the set of HTTP operations to be used with the API calls.  
@@ -47,11 +85,46 @@ public class HttpContext
     private String protocol = "http";
     private String hostname;
     private int port;
-    private Gson gson = new Gson();
     private boolean throwExceptions = false;
     private String uriPrefix = "";
+    private String baseUrl;
+    private Executor executor = DEFAULT_EXECUTOR;
+    private RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private TimeoutConfig timeouts;
+    private RetryListener retryListener;
+    private RateLimiter rateLimiter;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private CircuitBreakerConfig circuitBreaker;
+    private CircuitBreakerListener circuitBreakerListener;
+    private ConcurrentMap<String,CircuitBreaker> circuitBreakers = new ConcurrentHashMap<String,CircuitBreaker>();
+    private RequestCoalescer coalescer;
+    private RequestHedger hedger;
+    private ResponseCache cache;
+    private ValidatorCache validators;
+    private ResponseLeakDetector leakDetector;
 
     private static final GenericType<ErrorResponse> ERROR = new GenericType<ErrorResponse>(){};
+
+    /**
+     * The default number of threads used to run asynchronous calls.
+     */
+    public static final int DEFAULT_THREADS = 64;
+
+    /**
+     * The default executor used to run asynchronous calls, shared by all contexts.
+     * <P>
+     * Each call holds a thread while it is in flight, so the pool is bounded and
+     * calls beyond {@link #DEFAULT_THREADS} wait in the queue until a thread is free.
+     */
+    private static final ExecutorService DEFAULT_EXECUTOR = newExecutor(DEFAULT_THREADS, "newrelic-api-%d");
+
+    /**
+     * The executor used to send hedged requests, shared by all contexts.
+     * <P>
+     * This is not bounded, so that a hedged request is never queued behind the calls it is hedging.
+     */
+    private static final ExecutorService HEDGING_EXECUTOR = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder().setNameFormat("newrelic-api-hedge-%d").setDaemon(true).build());
     
     /**
      * Constructor that takes a client, protocol, hostname and port.
@@ -75,7 +148,20 @@ public class HttpContext
      */
     String buildUrl(String relativePath)
     {
-        return String.format("%s://%s:%s%s%s", this.protocol, this.hostname, this.port, this.uriPrefix, relativePath);
+        String base = baseUrl;
+        if(base == null)
+            baseUrl = base = getHostUrl()+this.uriPrefix;
+        return base+relativePath;
+    }
+
+    /**
+     * Returns the URL of the server from the protocol://hostname:port.
+     * @return The URL of the server
+     */
+    private String getHostUrl()
+    {
+        return new StringBuilder(this.protocol).append("://").append(this.hostname)
+            .append(':').append(this.port).toString();
     }
     
     /**
@@ -99,6 +185,29 @@ public class HttpContext
         return uri;
     }
     
+    /**
+     * Build the URI for a link returned by the server, 
+     * using the path and query of the link with protocol://hostname:port.
+     * @param link The link returned by the server
+     * @return The URI to call
+     */
+    URI buildLinkUri(URI link)
+    {
+        URI uri = null;
+        String query = link.getRawQuery();
+
+        try
+        {
+            uri = new URI(getHostUrl()+link.getRawPath()+(query != null ? "?"+query : ""));
+        }
+        catch (URISyntaxException e)
+        {
+            logger.severe("Problem constructing URI: "+e.getClass().getName()+e.getMessage());
+        }
+
+        return uri;
+    }
+    
     /**
      * Execute a GET call against the partial URL and deserialize the results.
      * @param <T> The type parameter used for the return object
@@ -128,6 +237,90 @@ public class HttpContext
         return executeGetRequest(uri, headers, queryParams, returnType);
     }
     
+    /**
+     * Execute a GET call against the partial URL and return the first page of the results.
+     * @param <T> The type parameter used for the entities in the page
+     * @param partialUrl The partial URL to build
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The expected return type
+     * @return The page of results, including the response headers and links to the other pages
+     */
+    public <T> Page<T> getPage(String partialUrl, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<Collection<T>> returnType)
+    {
+        URI uri = buildUri(partialUrl);
+        return executeGetPageRequest(uri, headers, queryParams, returnType);
+    }
+
+    /**
+     * Execute a GET call against a link returned with a previous page and return the page of results.
+     * <P>
+     * The path and query of the link are used with the protocol, hostname and port of this context.
+     * @param <T> The type parameter used for the entities in the page
+     * @param link The link to the page
+     * @param headers A set of headers to add to the request
+     * @param returnType The expected return type
+     * @return The page of results, including the response headers and links to the other pages
+     */
+    public <T> Page<T> getPage(URI link, Map<String, Object> headers, GenericType<Collection<T>> returnType)
+    {
+        URI uri = buildLinkUri(link);
+        return executeGetPageRequest(uri, headers, null, returnType);
+    }
+
+    /**
+     * Execute a GET call against the partial URL and return an iterator that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator holds the connection open until the last entity has been read, 
+     * so it must be closed if the iteration is abandoned early.
+     * @param <T> The type parameter used for the entities
+     * @param partialUrl The partial URL to build
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The expected return type
+     * @return The iterator over the entities in the response
+     */
+    public <T> CloseableIterator<T> getIterator(String partialUrl, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<Collection<T>> returnType)
+    {
+        return getStreamedPage(partialUrl, headers, queryParams, returnType).iterator();
+    }
+
+    /**
+     * Execute a GET call against the partial URL and return the first page of the results, 
+     * with the entities read from the response as they are requested.
+     * @param <T> The type parameter used for the entities in the page
+     * @param partialUrl The partial URL to build
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The expected return type
+     * @return The page of results, including the response headers and links to the other pages
+     */
+    public <T> Page<T> getStreamedPage(String partialUrl, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<Collection<T>> returnType)
+    {
+        URI uri = buildUri(partialUrl);
+        return executeGetStreamedPageRequest(uri, headers, queryParams, returnType);
+    }
+
+    /**
+     * Execute a GET call against a link returned with a previous page and return the page of results,
+     * with the entities read from the response as they are requested.
+     * <P>
+     * The path and query of the link are used with the protocol, hostname and port of this context.
+     * @param <T> The type parameter used for the entities in the page
+     * @param link The link to the page
+     * @param headers A set of headers to add to the request
+     * @param returnType The expected return type
+     * @return The page of results, including the response headers and links to the other pages
+     */
+    public <T> Page<T> getStreamedPage(URI link, Map<String, Object> headers, GenericType<Collection<T>> returnType)
+    {
+        URI uri = buildLinkUri(link);
+        return executeGetStreamedPageRequest(uri, headers, null, returnType);
+    }
+
     /**
      * Execute a PUT call against the partial URL.
      * @param partialUrl The partial URL to build
@@ -318,6 +511,145 @@ public class HttpContext
         executeDeleteRequest(uri, headers, queryParams);
     }
     
+    /**
+     * Execute an asynchronous GET call against the partial URL and deserialize the results.
+     * @param <T> The type parameter used for the return object
+     * @param partialUrl The partial URL to build
+     * @param returnType The expected return type
+     * @return The future for the return type
+     */
+    public <T> CompletableFuture<Optional<T>> getAsync(String partialUrl, GenericType<T> returnType)
+    {
+        return Deadline.supplyAsync(() -> GET(partialUrl, returnType), executor);
+    }
+
+    /**
+     * Execute an asynchronous GET call against the partial URL and deserialize the results.
+     * @param <T> The type parameter used for the return object
+     * @param partialUrl The partial URL to build
+     * @param returnType The expected return type
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @return The future for the return type
+     */
+    public <T> CompletableFuture<Optional<T>> getAsync(String partialUrl, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<T> returnType)
+    {
+        return Deadline.supplyAsync(() -> GET(partialUrl, headers, queryParams, returnType), executor);
+    }
+
+    /**
+     * Execute an asynchronous PUT call against the partial URL.
+     * @param <T> The type parameter used for the return object
+     * @param partialUrl The partial URL to build
+     * @param payload The object to use for the PUT
+     * @param returnType The expected return type
+     * @return The future for the return type
+     */
+    public <T> CompletableFuture<Optional<T>> putAsync(String partialUrl, Object payload, 
+        GenericType<T> returnType)
+    {
+        return Deadline.supplyAsync(() -> PUT(partialUrl, payload, returnType), executor);
+    }
+
+    /**
+     * Execute an asynchronous PUT call against the partial URL.
+     * @param <T> The type parameter used for the return object
+     * @param partialUrl The partial URL to build
+     * @param payload The object to use for the PUT
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The expected return type
+     * @return The future for the return type
+     */
+    public <T> CompletableFuture<Optional<T>> putAsync(String partialUrl, Object payload, 
+        Map<String, Object> headers, List<String> queryParams, GenericType<T> returnType)
+    {
+        return Deadline.supplyAsync(() -> PUT(partialUrl, payload, headers, queryParams, returnType), executor);
+    }
+
+    /**
+     * Execute an asynchronous POST call against the partial URL.
+     * @param <T> The type parameter used for the return object
+     * @param partialUrl The partial URL to build
+     * @param payload The object to use for the POST
+     * @param returnType The expected return type
+     * @return The future for the return type
+     */
+    public <T> CompletableFuture<Optional<T>> postAsync(String partialUrl, Object payload, 
+        GenericType<T> returnType)
+    {
+        return Deadline.supplyAsync(() -> POST(partialUrl, payload, returnType), executor);
+    }
+
+    /**
+     * Execute an asynchronous POST call against the partial URL.
+     * @param <T> The type parameter used for the return object
+     * @param partialUrl The partial URL to build
+     * @param payload The object to use for the POST
+     * @param headers A set of headers to add to the request
+     * @param returnType The expected return type
+     * @return The future for the return type
+     */
+    public <T> CompletableFuture<Optional<T>> postAsync(String partialUrl, Object payload, 
+        Map<String, Object> headers, GenericType<T> returnType)
+    {
+        return Deadline.supplyAsync(() -> POST(partialUrl, payload, headers, returnType), executor);
+    }
+
+    /**
+     * Execute an asynchronous PATCH call against the partial URL.
+     * @param <T> The type parameter used for the return object
+     * @param partialUrl The partial URL to build
+     * @param payload The object to use for the PATCH
+     * @param returnType The expected return type
+     * @return The future for the return type
+     */
+    public <T> CompletableFuture<Optional<T>> patchAsync(String partialUrl, Object payload, 
+        GenericType<T> returnType)
+    {
+        return Deadline.supplyAsync(() -> PATCH(partialUrl, payload, returnType), executor);
+    }
+
+    /**
+     * Execute an asynchronous PATCH call against the partial URL.
+     * @param <T> The type parameter used for the return object
+     * @param partialUrl The partial URL to build
+     * @param payload The object to use for the PATCH
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The expected return type
+     * @return The future for the return type
+     */
+    public <T> CompletableFuture<Optional<T>> patchAsync(String partialUrl, Object payload, 
+        Map<String, Object> headers, List<String> queryParams, GenericType<T> returnType)
+    {
+        return Deadline.supplyAsync(() -> PATCH(partialUrl, payload, headers, queryParams, returnType), executor);
+    }
+
+    /**
+     * Execute an asynchronous DELETE call against the partial URL.
+     * @param partialUrl The partial URL to build
+     * @return The future that completes when the DELETE has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(String partialUrl)
+    {
+        return Deadline.runAsync(() -> DELETE(partialUrl), executor);
+    }
+
+    /**
+     * Execute an asynchronous DELETE call against the partial URL.
+     * @param partialUrl The partial URL to build
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @return The future that completes when the DELETE has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(String partialUrl, Map<String, Object> headers, 
+        List<String> queryParams)
+    {
+        return Deadline.runAsync(() -> DELETE(partialUrl, headers, queryParams), executor);
+    }
+
     /**
      * Execute a GET request and return the result.
      * @param <T> The type parameter used for the return object
@@ -342,14 +674,161 @@ public class HttpContext
     protected <T> Optional<T> executeGetRequest(URI uri, Map<String, Object> headers, 
         List<String> queryParams, GenericType<T> returnType)
     {
-        WebTarget target = this.client.target(uri);
-        target = applyQueryParams(target, queryParams);
+        if(cache == null && coalescer == null)
+            return fetchGetRequest(uri, headers, queryParams, returnType);
+        return share(getRequestKey(uri, headers, queryParams, returnType, false), uri, 
+            () -> fetchGetRequest(uri, headers, queryParams, returnType));
+    }
+
+    /**
+     * Execute a GET request and return the result, without using the cache or coalescing it with identical requests.
+     * @param <T> The type parameter used for the return object
+     * @param uri The URI to call
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The type to marshall the result back into
+     * @return The return type
+     */
+    private <T> Optional<T> fetchGetRequest(URI uri, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<T> returnType)
+    {
+        WebTarget target = target(uri, queryParams);
+        Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
+        applyHeaders(invocation, headers);
+        String key = validators != null ? getRequestKey(uri, headers, queryParams, returnType, false) : null;
+        boolean conditional = validators != null && validators.apply(key, invocation);
+        Response response = invoke("GET", uri, invocation, null);
+        if(conditional && response.getStatus() == 304)
+        {
+            logResponse(uri, response);
+            close(response);
+            Optional<T> ret = validators.getNotModified(key);
+            return ret != null ? ret : fetchGetRequest(uri, headers, queryParams, returnType);
+        }
+        try
+        {
+            handleResponseError("GET", uri, response);
+            logResponse(uri, response);
+            Optional<T> ret = extractEntityFromResponse(response, returnType);
+            if(validators != null)
+                validators.update(key, response, ret);
+            return ret;
+        }
+        finally
+        {
+            close(response);
+        }
+    }
+
+    /**
+     * Execute a GET request and return the page of results.
+     * @param <T> The type parameter used for the entities in the page
+     * @param uri The URI to call
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The type to marshall the result back into
+     * @return The page of results
+     */
+    protected <T> Page<T> executeGetPageRequest(URI uri, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<Collection<T>> returnType)
+    {
+        if(cache == null && coalescer == null)
+            return fetchGetPageRequest(uri, headers, queryParams, returnType);
+        return share(getRequestKey(uri, headers, queryParams, returnType, true), uri, 
+            () -> fetchGetPageRequest(uri, headers, queryParams, returnType));
+    }
+
+    /**
+     * Execute a GET request and return the page of results, without using the cache or coalescing it with identical requests.
+     * @param <T> The type parameter used for the entities in the page
+     * @param uri The URI to call
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The type to marshall the result back into
+     * @return The page of results
+     */
+    private <T> Page<T> fetchGetPageRequest(URI uri, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<Collection<T>> returnType)
+    {
+        WebTarget target = target(uri, queryParams);
+        Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
+        applyHeaders(invocation, headers);
+        String key = validators != null ? getRequestKey(uri, headers, queryParams, returnType, true) : null;
+        boolean conditional = validators != null && validators.apply(key, invocation);
+        Response response = invoke("GET", uri, invocation, null);
+        if(conditional && response.getStatus() == 304)
+        {
+            logResponse(uri, response);
+            close(response);
+            Page<T> ret = validators.getNotModified(key);
+            return ret != null ? ret : fetchGetPageRequest(uri, headers, queryParams, returnType);
+        }
+        try
+        {
+            handleResponseError("GET", uri, response);
+            logResponse(uri, response);
+            Optional<Collection<T>> entities = extractEntityFromResponse(response, returnType);
+            Page<T> ret = new Page<T>(entities.orNull(), response.getStringHeaders());
+            if(validators != null)
+                validators.update(key, response, entities.isPresent() ? ret : null);
+            return ret;
+        }
+        finally
+        {
+            close(response);
+        }
+    }
+
+    /**
+     * Execute a GET request and return the page of results, with the entities read from the response as they are requested.
+     * <P>
+     * If there is no streaming deserializer registered for the return type, the entities are read when the page is returned.
+     * @param <T> The type parameter used for the entities in the page
+     * @param uri The URI to call
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The expected return type
+     * @return The page of results, including the response headers and links to the other pages
+     */
+    protected <T> Page<T> executeGetStreamedPageRequest(URI uri, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<Collection<T>> returnType)
+    {
+        WebTarget target = target(uri, queryParams);
         Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
         applyHeaders(invocation, headers);
-        Response response = invocation.get();
-        handleResponseError("GET", uri, response);
-        logResponse(uri, response);
-        return extractEntityFromResponse(response, returnType);
+        Response response = invoke("GET", uri, invocation, null);
+        MultivaluedMap<String,String> responseHeaders = response.getStringHeaders();
+
+        CollectionDeserializer<T> deserializer = GsonRegistry.getCollectionDeserializer(returnType.getType());
+        if(deserializer == null)
+        {
+            Optional<Collection<T>> entities = processResponse("GET", uri, response, returnType);
+            return new Page<T>(entities.orNull(), responseHeaders);
+        }
+
+        // The response is closed by the iterator once it has been opened
+        CloseableIterator<T> iterator = null;
+        try
+        {
+            handleResponseError("GET", uri, response);
+            logResponse(uri, response);
+            if(response.hasEntity() && (response.getStatus() == 200 || response.getStatus() == 201))
+            {
+                InputStream in = response.readEntity(InputStream.class);
+                iterator = deserializer.iterator(new JsonReader(new InputStreamReader(in, "UTF-8")));
+            }
+        }
+        catch(IOException e)
+        {
+            throw new JsonIOException(e);
+        }
+        finally
+        {
+            if(iterator == null)
+                close(response);
+        }
+
+        return new Page<T>(iterator, responseHeaders);
     }
 
     /**
@@ -372,15 +851,13 @@ public class HttpContext
     protected void executePutRequest(URI uri, Object obj, Map<String, Object> headers, 
         List<String> queryParams)
     {
-        WebTarget target = this.client.target(uri);
-        target = applyQueryParams(target, queryParams);
+        WebTarget target = target(uri, queryParams);
         Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
         applyHeaders(invocation, headers);
         if(obj == null)
             obj = Entity.text("");
-        Response response = invocation.put(Entity.entity(obj, MediaType.APPLICATION_JSON));
-        handleResponseError("PUT", uri, response);
-        logResponse(uri, response);
+        Response response = invoke("PUT", uri, invocation, Entity.entity(obj, MediaType.APPLICATION_JSON));
+        processResponse("PUT", uri, response, null);
     }
 
     /**
@@ -396,16 +873,13 @@ public class HttpContext
     protected <T> Optional<T> executePutRequest(URI uri, Object obj, Map<String, Object> headers, 
         List<String> queryParams, GenericType<T> returnType)
     {
-        WebTarget target = this.client.target(uri);
-        target = applyQueryParams(target, queryParams);
+        WebTarget target = target(uri, queryParams);
         Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
         applyHeaders(invocation, headers);
         if(obj == null)
             obj = Entity.text("");
-        Response response = invocation.put(Entity.entity(obj, MediaType.APPLICATION_JSON));
-        handleResponseError("PUT", uri, response);
-        logResponse(uri, response);
-        return extractEntityFromResponse(response, returnType);
+        Response response = invoke("PUT", uri, invocation, Entity.entity(obj, MediaType.APPLICATION_JSON));
+        return processResponse("PUT", uri, response, returnType);
     }
     
     /**
@@ -428,11 +902,25 @@ public class HttpContext
      */
     protected Optional<Response> executePostRequest(URI uri, Object obj, Map<String, Object> headers)
     {
-        Invocation.Builder invocation = this.client.target(uri).request(MediaType.APPLICATION_JSON);
+        Invocation.Builder invocation = target(uri, null).request(MediaType.APPLICATION_JSON);
         applyHeaders(invocation, headers);
-        Response response = invocation.post(Entity.entity(obj, MediaType.APPLICATION_JSON));
-        handleResponseError("POST", uri, response);
-        logResponse(uri, response);
+        Response response = invoke("POST", uri, invocation, Entity.entity(obj, MediaType.APPLICATION_JSON));
+        try
+        {
+            handleResponseError("POST", uri, response);
+            logResponse(uri, response);
+
+            // Buffer the entity so the connection is released but the caller can still read it
+            response.bufferEntity();
+            Deadline deadline = Deadline.current();
+            if(deadline != null)
+                deadline.unregister(response);
+        }
+        catch(RuntimeException e)
+        {
+            close(response);
+            throw e;
+        }
         return Optional.of(response);
     }
 
@@ -460,12 +948,10 @@ public class HttpContext
      */
     protected <T> Optional<T> executePostRequest(URI uri, Object obj, Map<String, Object> headers, GenericType<T> returnType)
     {
-        Invocation.Builder invocation = this.client.target(uri).request(MediaType.APPLICATION_JSON);
+        Invocation.Builder invocation = target(uri, null).request(MediaType.APPLICATION_JSON);
         applyHeaders(invocation, headers);
-        Response response = invocation.post(Entity.entity(obj, MediaType.APPLICATION_JSON));
-        handleResponseError("POST", uri, response);
-        logResponse(uri, response);
-        return extractEntityFromResponse(response, returnType);
+        Response response = invoke("POST", uri, invocation, Entity.entity(obj, MediaType.APPLICATION_JSON));
+        return processResponse("POST", uri, response, returnType);
     }
 
     /**
@@ -488,15 +974,13 @@ public class HttpContext
     protected void executePatchRequest(URI uri, Object obj, Map<String, Object> headers, 
         List<String> queryParams)
     {
-        WebTarget target = this.client.target(uri);
-        target = applyQueryParams(target, queryParams);
+        WebTarget target = target(uri, queryParams);
         Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
         applyHeaders(invocation, headers);
         if(obj == null)
             obj = Entity.text("");
-        Response response = invocation.method("PATCH", Entity.entity(obj, MediaType.APPLICATION_JSON));
-        handleResponseError("PATCH", uri, response);
-        logResponse(uri, response);
+        Response response = invoke("PATCH", uri, invocation, Entity.entity(obj, MediaType.APPLICATION_JSON));
+        processResponse("PATCH", uri, response, null);
     }
 
     /**
@@ -512,16 +996,13 @@ public class HttpContext
     protected <T> Optional<T> executePatchRequest(URI uri, Object obj, Map<String, Object> headers, 
         List<String> queryParams, GenericType<T> returnType)
     {
-        WebTarget target = this.client.target(uri);
-        target = applyQueryParams(target, queryParams);
+        WebTarget target = target(uri, queryParams);
         Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
         applyHeaders(invocation, headers);
         if(obj == null)
             obj = Entity.text("");
-        Response response = invocation.method("PATCH", Entity.entity(obj, MediaType.APPLICATION_JSON));
-        handleResponseError("PATCH", uri, response);
-        logResponse(uri, response);
-        return extractEntityFromResponse(response, returnType);
+        Response response = invoke("PATCH", uri, invocation, Entity.entity(obj, MediaType.APPLICATION_JSON));
+        return processResponse("PATCH", uri, response, returnType);
     }
 
     /**
@@ -542,29 +1023,502 @@ public class HttpContext
     protected void executeDeleteRequest(URI uri, Map<String, Object> headers, 
         List<String> queryParams)
     {
-        WebTarget target = this.client.target(uri);
-        target = applyQueryParams(target, queryParams);
+        WebTarget target = target(uri, queryParams);
         Invocation.Builder invocation = target.request(MediaType.APPLICATION_JSON);
         applyHeaders(invocation, headers);
-        Response response = invocation.delete();
-        handleResponseError("DELETE", uri, response);
-        logResponse(uri, response);
+        Response response = invoke("DELETE", uri, invocation, null);
+        processResponse("DELETE", uri, response, null);
     }
 
     /**
-     * Extract the entity from the HTTP response.
-     * @param <T> The type parameter used for the return object
-     * @param response The HTTP response to extract the entity from
-     * @param returnType The type to marshall the result back into
-     * @return The extracted entity
+     * Returns the cached response to the given GET request, or executes the request,
+     * sharing it with any identical requests already in flight.
+     * @param <T> The type parameter used for the response
+     * @param key The key identifying identical requests
+     * @param uri The URI to call
+     * @param request The request to execute
+     * @return The response to the request
      */
-    private <T> Optional<T> extractEntityFromResponse(Response response, GenericType<T> returnType)
+    private <T> T share(String key, URI uri, Supplier<T> request)
     {
-        if(response.hasEntity() && (response.getStatus() == 200 || response.getStatus() == 201))
-            return Optional.of(response.readEntity(returnType));
-        return Optional.absent();
-    }
-
+        Supplier<T> coalesced = request;
+        if(coalescer != null)
+        {
+            coalesced = () ->
+            {
+                long started = System.nanoTime();
+                long callTimeout = timeouts != null ? timeouts.getCallTimeout() : 0L;
+                return await(Deadline.current(), callTimeout, started, 
+                    timeout -> coalescer.execute(key, uri.getPath(), request, timeout));
+            };
+        }
+        return cache != null ? cache.get(key, uri.getPath(), coalesced) : coalesced.get();
+    }
+
+    /**
+     * Returns the key identifying identical GET requests.
+     * @param uri The URI to call
+     * @param headers A set of headers to add to the request
+     * @param queryParams A set of query parameters to add to the request
+     * @param returnType The type to marshall the result back into
+     * @param page <CODE>true</CODE> if the result is a page of entities
+     * @return The key identifying identical requests
+     */
+    private static String getRequestKey(URI uri, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<?> returnType, boolean page)
+    {
+        StringBuilder key = new StringBuilder(page ? "PAGE " : "GET ").append(uri);
+        if(queryParams != null)
+            key.append(' ').append(queryParams);
+        if(headers != null && !headers.isEmpty())
+            key.append(' ').append(new TreeMap<String, Object>(headers));
+        key.append(' ').append(returnType.getType());
+        return key.toString();
+    }
+
+    /**
+     * Execute the given request, retrying it according to the retry policy.
+     * <P>
+     * The response of each failed attempt is closed before the request is retried.
+     * @param method The HTTP method type
+     * @param uri The URI to call
+     * @param invocation The request to execute
+     * @param entity The entity to send with the request, or <CODE>null</CODE> if there is no entity
+     * @return The response of the last attempt
+     */
+    private Response invoke(String method, URI uri, Invocation.Builder invocation, Entity<?> entity)
+    {
+        long started = System.nanoTime();
+        int attempt = 0;
+        CircuitBreaker breaker = getCircuitBreaker(uri);
+        Deadline deadline = Deadline.current();
+        long callTimeout = timeouts != null ? timeouts.getCallTimeout() : 0L;
+
+        while(true)
+        {
+            ++attempt;
+            checkDeadline(deadline, callTimeout, started, null);
+
+            // Fail fast if the circuit is open, before waiting on the rate limit
+            long permit = breaker != null ? breaker.acquire() : 0L;
+            long attemptStarted = System.nanoTime();
+            AtomicLong sent = new AtomicLong();
+            Response response = null;
+            ProcessingException error = null;
+
+            try
+            {
+                if(rateLimiter != null)
+                    await(deadline, callTimeout, started, timeout -> rateLimiter.acquire(timeout));
+                attemptStarted = System.nanoTime();
+                response = hedged(method, uri, entity)
+                    ? hedger.execute(uri.getPath(), () -> send(method, invocation, entity, deadline, callTimeout, started, sent), 
+                        () -> rateLimiter == null || rateLimiter.tryAcquire())
+                    : send(method, invocation, entity, deadline, callTimeout, started, sent);
+            }
+            catch(ProcessingException e)
+            {
+                error = e;
+            }
+            finally
+            {
+                // A call that was throttled or cancelled before the request was sent has no outcome for the endpoint
+                if(breaker != null && sent.get() == 0L)
+                    breaker.cancel(permit);
+                else if(breaker != null)
+                    breaker.release(permit, elapsed(sent.get()), response == null || response.getStatus() >= 500);
+            }
+
+            int status = response != null ? response.getStatus() : 0;
+            long delay = retryPolicy.getDelay(method, attempt, status, 
+                response != null ? response.getHeaderString("Retry-After") : null);
+            // A retry that would start after the deadline is not made
+            if(delay >= 0L && delay < getRemaining(deadline, callTimeout, started))
+            {
+                if(retryListener != null)
+                    retryListener.onRetry(method, uri, attempt, status, error, elapsed(attemptStarted), delay);
+                if(logger.isLoggable(Level.FINE))
+                    logger.fine(method+" "+uri+" => "+(error != null ? error.getMessage() : status)
+                        +", retrying in "+delay+"ms");
+
+                if(sleep(delay))
+                {
+                    if(response != null)
+                        response.close();
+                    continue;
+                }
+            }
+
+            // Modifying a resource invalidates any cached responses for it
+            if(cache != null && !method.equals("GET"))
+                cache.invalidate(uri.getPath());
+            if(retryListener != null)
+                retryListener.onComplete(method, uri, attempt, status, elapsed(started));
+            if(error != null)
+            {
+                checkDeadline(deadline, callTimeout, started, error);
+                throw error;
+            }
+
+            // Abort the response if it is still being read when the deadline passes
+            if(deadline != null)
+                deadline.register(response);
+            return response;
+        }
+    }
+
+    /**
+     * Waits using the given operation for no longer than the time remaining until the deadline or the end of the call timeout.
+     * <P>
+     * The waiting thread is interrupted if the deadline is cancelled or passes.
+     * @param <T> The type parameter used for the result
+     * @param deadline The deadline of the call, or <CODE>null</CODE> if there is none
+     * @param callTimeout The call timeout in milliseconds, or 0 if there is none
+     * @param started The start time of the call, from {@link System#nanoTime()}
+     * @param wait The operation that waits
+     * @return The result of the operation
+     */
+    private static <T> T await(Deadline deadline, long callTimeout, long started, Wait<T> wait)
+    {
+        Thread thread = Thread.currentThread();
+        Object lock = new Object();
+        boolean[] waiting = {true};
+        AutoCloseable interrupter = () ->
+        {
+            synchronized(lock)
+            {
+                if(waiting[0])
+                    thread.interrupt();
+            }
+        };
+
+        if(deadline != null)
+            deadline.register(interrupter);
+        try
+        {
+            return wait.await(getRemaining(deadline, callTimeout, started));
+        }
+        catch(TimeoutException e)
+        {
+            checkDeadline(deadline, callTimeout, started, e);
+            throw new DeadlineExceededException(deadline != null && deadline.getTimeout() > 0L 
+                ? deadline.getTimeout() : callTimeout, e);
+        }
+        catch(InterruptedException e)
+        {
+            if(deadline != null && (deadline.isCancelled() || deadline.isExpired()))
+                deadline.check(e);
+            thread.interrupt();
+            throw new ProcessingException(e);
+        }
+        finally
+        {
+            synchronized(lock)
+            {
+                waiting[0] = false;
+            }
+            if(deadline != null)
+            {
+                deadline.unregister(interrupter);
+
+                // Clear an interrupt made by the deadline after the wait had completed
+                if(deadline.isCancelled() || deadline.isExpired())
+                    Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * An operation that waits for no longer than the given time.
+     */
+    private interface Wait<T>
+    {
+        /**
+         * Waits for no longer than the given time.
+         * @param timeout The maximum time to wait in milliseconds
+         * @return The result of the wait
+         * @throws InterruptedException if the thread is interrupted while waiting
+         * @throws TimeoutException if the wait did not complete within the given time
+         */
+        T await(long timeout) throws InterruptedException, TimeoutException;
+    }
+
+    /**
+     * Sets the connect and read timeouts of an attempt, reduced to the time remaining until the deadline.
+     * @param invocation The request to execute
+     * @param remaining The time remaining in milliseconds, or {@link Long#MAX_VALUE} if there is no deadline
+     */
+    private void applyTimeouts(Invocation.Builder invocation, long remaining)
+    {
+        int connectTimeout = timeouts != null ? timeouts.getConnectTimeout() : 0;
+        int readTimeout = timeouts != null ? timeouts.getReadTimeout() : 0;
+        if(remaining != Long.MAX_VALUE)
+        {
+            int limit = (int)Math.min(Math.max(remaining, 1L), Integer.MAX_VALUE);
+            connectTimeout = connectTimeout > 0 ? Math.min(connectTimeout, limit) : limit;
+            readTimeout = readTimeout > 0 ? Math.min(readTimeout, limit) : limit;
+        }
+
+        if(connectTimeout > 0)
+            invocation.property(ClientProperties.CONNECT_TIMEOUT, connectTimeout);
+        if(readTimeout > 0)
+            invocation.property(ClientProperties.READ_TIMEOUT, readTimeout);
+    }
+
+    /**
+     * Returns the time remaining until the deadline or the end of the call timeout, whichever is sooner.
+     * @param deadline The deadline of the call, or <CODE>null</CODE> if there is none
+     * @param callTimeout The call timeout in milliseconds, or 0 if there is none
+     * @param started The start time of the call, from {@link System#nanoTime()}
+     * @return The time remaining in milliseconds, or {@link Long#MAX_VALUE} if there is no time limit
+     */
+    private static long getRemaining(Deadline deadline, long callTimeout, long started)
+    {
+        long ret = deadline != null ? deadline.getRemaining() : Long.MAX_VALUE;
+        if(callTimeout > 0L)
+            ret = Math.min(ret, Math.max(0L, callTimeout-elapsed(started)));
+        return ret;
+    }
+
+    /**
+     * Checks that the call has not been cancelled and that neither the deadline nor the call timeout has passed.
+     * @param deadline The deadline of the call, or <CODE>null</CODE> if there is none
+     * @param callTimeout The call timeout in milliseconds, or 0 if there is none
+     * @param started The start time of the call, from {@link System#nanoTime()}
+     * @param cause The failure of the last attempt, or <CODE>null</CODE>
+     */
+    private static void checkDeadline(Deadline deadline, long callTimeout, long started, Throwable cause)
+    {
+        if(deadline != null)
+            deadline.check(cause);
+        if(callTimeout > 0L && elapsed(started) >= callTimeout)
+            throw new DeadlineExceededException(callTimeout, cause);
+    }
+
+    /**
+     * Returns the circuit breaker for the host and endpoint family of the given URI, creating it if necessary.
+     * @param uri The URI to call
+     * @return The circuit breaker, or <CODE>null</CODE> if circuit breakers are not being used
+     */
+    private CircuitBreaker getCircuitBreaker(URI uri)
+    {
+        CircuitBreakerConfig config = circuitBreaker;
+        if(config == null)
+            return null;
+        String name = hostname+":"+port+getEndpointFamily(uri.getPath());
+        CircuitBreaker ret = circuitBreakers.get(name);
+        if(ret == null)
+        {
+            ret = new CircuitBreaker(name, config);
+            ret.setListener(circuitBreakerListener);
+            CircuitBreaker existing = circuitBreakers.putIfAbsent(name, ret);
+            if(existing != null)
+                ret = existing;
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the endpoint family of the given path, which is the version and resource without any extension,
+     * eg. "/v2/applications" for "/v2/applications/123/hosts.json".
+     * @param path The path of the request
+     * @return The endpoint family of the path
+     */
+    private static String getEndpointFamily(String path)
+    {
+        int pos = path.indexOf('/', 1);
+        if(pos > 0)
+            pos = path.indexOf('/', pos+1);
+        String ret = pos > 0 ? path.substring(0, pos) : path;
+        int dot = ret.lastIndexOf('.');
+        return dot > ret.lastIndexOf('/') ? ret.substring(0, dot) : ret;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given request should be hedged.
+     * @param method The HTTP method type
+     * @param uri The URI to call
+     * @param entity The entity to send with the request, or <CODE>null</CODE> if there is no entity
+     * @return <CODE>true</CODE> if the request should be hedged
+     */
+    private boolean hedged(String method, URI uri, Entity<?> entity)
+    {
+        return hedger != null && entity == null && method.equals("GET") && hedger.isHedged(uri.getPath());
+    }
+
+    /**
+     * Execute a single attempt of the given request, waiting until it is within the concurrency limit.
+     * <P>
+     * The timeouts of the attempt are set once it is within the limit, from the time remaining after waiting.
+     * @param method The HTTP method type
+     * @param invocation The request to execute
+     * @param entity The entity to send with the request, or <CODE>null</CODE> if there is no entity
+     * @param deadline The deadline of the call, or <CODE>null</CODE> if there is none
+     * @param callTimeout The call timeout in milliseconds, or 0 if there is none
+     * @param started The start time of the call, from {@link System#nanoTime()}
+     * @param sent Set to the time the first request of the attempt was sent, from {@link System#nanoTime()}
+     * @return The response
+     */
+    private Response send(String method, Invocation.Builder invocation, Entity<?> entity, 
+        Deadline deadline, long callTimeout, long started, AtomicLong sent)
+    {
+        if(concurrencyLimiter == null)
+            return invoke(build(method, invocation, entity, getRemaining(deadline, callTimeout, started)), sent);
+
+        long acquired = await(deadline, callTimeout, started, 
+            timeout -> concurrencyLimiter.acquire(timeout, TimeUnit.MILLISECONDS));
+        int status = 0;
+        try
+        {
+            Response response = invoke(build(method, invocation, entity, getRemaining(deadline, callTimeout, started)), sent);
+            status = response.getStatus();
+            return response;
+        }
+        finally
+        {
+            concurrencyLimiter.release(acquired, status);
+        }
+    }
+
+    /**
+     * Sends the given request, recording the time it was sent if it is the first request of the attempt.
+     * @param request The request to send
+     * @param sent Set to the time the first request of the attempt was sent, from {@link System#nanoTime()}
+     * @return The response
+     */
+    private static Response invoke(Invocation request, AtomicLong sent)
+    {
+        sent.compareAndSet(0L, System.nanoTime());
+        return request.invoke();
+    }
+
+    /**
+     * Builds a single attempt of the given request with its timeouts.
+     * <P>
+     * The request is built while holding the lock on the builder, as a hedged request can be sent from another thread.
+     * @param method The HTTP method type
+     * @param invocation The request to execute
+     * @param entity The entity to send with the request, or <CODE>null</CODE> if there is no entity
+     * @param remaining The time remaining in milliseconds, or {@link Long#MAX_VALUE} if there is no deadline
+     * @return The attempt of the request
+     */
+    private Invocation build(String method, Invocation.Builder invocation, Entity<?> entity, long remaining)
+    {
+        synchronized(invocation)
+        {
+            applyTimeouts(invocation, remaining);
+            return entity != null ? invocation.build(method, entity) : invocation.build(method);
+        }
+    }
+
+    /**
+     * Returns the time in milliseconds since the given time.
+     * @param started The start time, from {@link System#nanoTime()}
+     * @return The time in milliseconds since the given time
+     */
+    private static long elapsed(long started)
+    {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-started);
+    }
+
+    /**
+     * Waits for the given delay before a retry.
+     * @param delay The time to wait in milliseconds
+     * @return <CODE>true</CODE> if the wait completed, or <CODE>false</CODE> if the thread was interrupted
+     */
+    private static boolean sleep(long delay)
+    {
+        try
+        {
+            Thread.sleep(delay);
+            return true;
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Handle the HTTP response, extracting the entity if there is a return type, and close the response.
+     * <P>
+     * Closing the response consumes any remaining entity and releases the connection.
+     * @param <T> The type parameter used for the return object
+     * @param method The HTTP method type
+     * @param uri The URI used for the HTTP call
+     * @param response The HTTP call response
+     * @param returnType The type to marshall the result back into, or <CODE>null</CODE> if there is no return object
+     * @return The extracted entity
+     */
+    private <T> Optional<T> processResponse(String method, URI uri, Response response, GenericType<T> returnType)
+    {
+        try
+        {
+            handleResponseError(method, uri, response);
+            logResponse(uri, response);
+            return returnType != null ? extractEntityFromResponse(response, returnType) : Optional.<T>absent();
+        }
+        finally
+        {
+            close(response);
+        }
+    }
+
+    /**
+     * Closes the given response, which releases its connection, and unregisters it from the current deadline.
+     * @param response The response to close
+     */
+    private static void close(Response response)
+    {
+        Deadline deadline = Deadline.current();
+        if(deadline != null)
+            deadline.unregister(response);
+        response.close();
+    }
+
+    /**
+     * Returns a new executor with a bounded number of daemon threads and an unbounded queue.
+     * <P>
+     * The threads are only started when they are needed, and stop when they have been idle for a minute.
+     * @param threads The maximum number of threads
+     * @param nameFormat The format of the thread names
+     * @return The new executor
+     */
+    private static ExecutorService newExecutor(int threads, String nameFormat)
+    {
+        ThreadPoolExecutor ret = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build());
+        ret.allowCoreThreadTimeOut(true);
+        return ret;
+    }
+
+    /**
+     * Extract the entity from the HTTP response.
+     * @param <T> The type parameter used for the return object
+     * @param response The HTTP response to extract the entity from
+     * @param returnType The type to marshall the result back into
+     * @return The extracted entity
+     */
+    private <T> Optional<T> extractEntityFromResponse(Response response, GenericType<T> returnType)
+    {
+        try
+        {
+            if(response.hasEntity() && (response.getStatus() == 200 || response.getStatus() == 201))
+                return Optional.of(response.readEntity(returnType));
+            return Optional.absent();
+        }
+        catch(RuntimeException e)
+        {
+            // The response may have been closed because the deadline passed or was cancelled
+            Deadline deadline = Deadline.current();
+            if(deadline != null)
+                deadline.check(e);
+            throw e;
+        }
+    }
+
     /**
      * Add the given set of headers to the web target.
      * @param builder The invocation to add the headers to
@@ -582,22 +1536,28 @@ public class HttpContext
     }
 
     /**
-     * Add the given set of query parameters to the web target.
-     * @param target The web target to add the parameters to
+     * Returns the web target for the given URI with the given set of query parameters.
+     * <P>
+     * The query parameters are encoded into the URI in a single pass,
+     * rather than copying the web target for each parameter.
+     * @param uri The URI to call
      * @param queryParams The query parameters to add
-     * @return The updated target
+     * @return The web target
      */
-    private WebTarget applyQueryParams(WebTarget target, List<String> queryParams)
+    WebTarget target(URI uri, List<String> queryParams)
     {
-        if(queryParams != null)
+        if(queryParams == null || queryParams.isEmpty())
+            return this.client.target(uri);
+
+        String query = QueryParameterList.toQueryString(queryParams);
+        try
         {
-            for(int i = 0; i < queryParams.size(); i += 2)
-            {
-                target = target.queryParam(queryParams.get(i), queryParams.get(i+1));
-            }
+            return this.client.target(new URI(uri.toString()+(uri.getRawQuery() != null ? "&" : "?")+query));
+        }
+        catch (URISyntaxException e)
+        {
+            throw new IllegalArgumentException("Problem adding query parameters to URI: "+uri, e);
         }
-
-        return target;
     }
 
     /**
@@ -609,7 +1569,7 @@ public class HttpContext
     {
         if(logger.isLoggable(Level.FINE))
             logger.fine(uri.toString()+" => "+response.getStatus());
-        if(response.getStatus() > 300)
+        if(response.getStatus() > 300 && response.getStatus() != 304)
             logger.warning(response.toString());
     }
 
@@ -652,6 +1612,319 @@ public class HttpContext
         return throwExceptions;
     }
 
+    /**
+     * Sets the executor used to run asynchronous calls.
+     * <P>
+     * Defaults to a shared pool of {@link #DEFAULT_THREADS} daemon threads.
+     * Each asynchronous call holds a thread of the executor until it completes,
+     * so an executor with more threads is needed to have more calls in flight at once.
+     * @param executor The executor used to run asynchronous calls
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor != null ? executor : DEFAULT_EXECUTOR;
+    }
+
+    /**
+     * Returns the executor used to run asynchronous calls.
+     * @return The executor used to run asynchronous calls
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Sets the policy used to retry failed requests.
+     * <P>
+     * Defaults to a policy that never retries requests.
+     * @param retryPolicy The policy used to retry failed requests
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy)
+    {
+        this.retryPolicy = retryPolicy != null ? retryPolicy : RetryPolicy.NONE;
+    }
+
+    /**
+     * Returns the policy used to retry failed requests.
+     * @return The policy used to retry failed requests
+     */
+    public RetryPolicy getRetryPolicy()
+    {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the listener notified of the attempts made to execute each request.
+     * @param retryListener The listener notified of the attempts made to execute each request
+     */
+    public void setRetryListener(RetryListener retryListener)
+    {
+        this.retryListener = retryListener;
+    }
+
+    /**
+     * Returns the listener notified of the attempts made to execute each request.
+     * @return The listener notified of the attempts made to execute each request, or <CODE>null</CODE> if there is none
+     */
+    public RetryListener getRetryListener()
+    {
+        return retryListener;
+    }
+
+    /**
+     * Sets the default timeouts of the calls.
+     * @param timeouts The timeout configuration, or <CODE>null</CODE> to use the timeouts of the client
+     */
+    public void setTimeouts(TimeoutConfig timeouts)
+    {
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Returns the default timeouts of the calls.
+     * @return The timeout configuration, or <CODE>null</CODE> if the timeouts of the client are used
+     */
+    public TimeoutConfig getTimeouts()
+    {
+        return timeouts;
+    }
+
+    /**
+     * Sets the limiter used to restrict the rate of requests.
+     * @param rateLimiter The limiter used to restrict the rate of requests, or <CODE>null</CODE> if the rate is not limited
+     */
+    public void setRateLimiter(RateLimiter rateLimiter)
+    {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Returns the limiter used to restrict the rate of requests.
+     * @return The limiter used to restrict the rate of requests, or <CODE>null</CODE> if the rate is not limited
+     */
+    public RateLimiter getRateLimiter()
+    {
+        return rateLimiter;
+    }
+
+    /**
+     * Sets the limiter used to adapt the number of concurrent requests to the latency and throttling of the server.
+     * @param concurrencyLimiter The limiter used to restrict the number of concurrent requests, 
+     * or <CODE>null</CODE> if the number of concurrent requests is not limited
+     */
+    public void setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter)
+    {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Returns the limiter used to adapt the number of concurrent requests to the latency and throttling of the server.
+     * @return The limiter used to restrict the number of concurrent requests, 
+     * or <CODE>null</CODE> if the number of concurrent requests is not limited
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter()
+    {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Sets the configuration of the circuit breakers used for each host and endpoint family.
+     * <P>
+     * Any existing circuit breakers are discarded.
+     * @param circuitBreaker The circuit breaker configuration, or <CODE>null</CODE> if circuit breakers should not be used
+     */
+    public void setCircuitBreaker(CircuitBreakerConfig circuitBreaker)
+    {
+        this.circuitBreaker = circuitBreaker;
+        circuitBreakers.clear();
+    }
+
+    /**
+     * Returns the configuration of the circuit breakers used for each host and endpoint family.
+     * @return The circuit breaker configuration, or <CODE>null</CODE> if circuit breakers are not being used
+     */
+    public CircuitBreakerConfig getCircuitBreaker()
+    {
+        return circuitBreaker;
+    }
+
+    /**
+     * Sets the listener notified when the state of a circuit breaker changes.
+     * @param circuitBreakerListener The listener notified when the state of a circuit breaker changes
+     */
+    public void setCircuitBreakerListener(CircuitBreakerListener circuitBreakerListener)
+    {
+        this.circuitBreakerListener = circuitBreakerListener;
+        for(CircuitBreaker breaker : circuitBreakers.values())
+            breaker.setListener(circuitBreakerListener);
+    }
+
+    /**
+     * Returns the listener notified when the state of a circuit breaker changes.
+     * @return The listener notified when the state of a circuit breaker changes, or <CODE>null</CODE> if there is none
+     */
+    public CircuitBreakerListener getCircuitBreakerListener()
+    {
+        return circuitBreakerListener;
+    }
+
+    /**
+     * Returns the circuit breakers for each host and endpoint family that has been called.
+     * @return The circuit breakers, keyed by name
+     */
+    public Map<String,CircuitBreaker> getCircuitBreakers()
+    {
+        return new TreeMap<String,CircuitBreaker>(circuitBreakers);
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if identical GET requests made concurrently should share a single request and its result.
+     * @param coalesceRequests <CODE>true</CODE> if identical concurrent GET requests should be coalesced
+     */
+    public void setCoalesceRequests(boolean coalesceRequests)
+    {
+        if(!coalesceRequests)
+            coalescer = null;
+        else if(coalescer == null)
+            coalescer = new RequestCoalescer();
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if identical GET requests made concurrently should share a single request and its result.
+     * @return <CODE>true</CODE> if identical concurrent GET requests should be coalesced
+     */
+    public boolean coalesceRequests()
+    {
+        return coalescer != null;
+    }
+
+    /**
+     * Returns the object used to coalesce identical concurrent GET requests, which includes the coalesced request counts.
+     * @return The object used to coalesce identical concurrent GET requests, or <CODE>null</CODE> if requests are not coalesced
+     */
+    public RequestCoalescer getRequestCoalescer()
+    {
+        return coalescer;
+    }
+
+    /**
+     * Sets the policy used to hedge GET requests that are slow to respond.
+     * <P>
+     * The requests are sent using an executor that is not bounded, so that a bounded client executor cannot
+     * stop a hedged request from being sent.
+     * @param policy The hedging policy, or <CODE>null</CODE> if requests should not be hedged
+     */
+    public void setHedgingPolicy(HedgingPolicy policy)
+    {
+        this.hedger = policy != null ? new RequestHedger(policy, HEDGING_EXECUTOR) : null;
+    }
+
+    /**
+     * Returns the policy used to hedge GET requests that are slow to respond.
+     * @return The hedging policy, or <CODE>null</CODE> if requests are not hedged
+     */
+    public HedgingPolicy getHedgingPolicy()
+    {
+        return hedger != null ? hedger.getPolicy() : null;
+    }
+
+    /**
+     * Returns the hedger of GET requests, which includes the counts of the hedged requests.
+     * @return The hedger of GET requests, or <CODE>null</CODE> if requests are not hedged
+     */
+    public RequestHedger getRequestHedger()
+    {
+        return hedger;
+    }
+
+    /**
+     * Sets the cache of the decoded responses to GET requests.
+     * @param cache The cache of the decoded responses, or <CODE>null</CODE> if responses should not be cached
+     */
+    public void setResponseCache(ResponseCache cache)
+    {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cache of the decoded responses to GET requests, which includes the hit and miss counts.
+     * @return The cache of the decoded responses, or <CODE>null</CODE> if responses are not cached
+     */
+    public ResponseCache getResponseCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if GET requests should be made conditional using the validators of the previous response.
+     * <P>
+     * If the server replies that the response has not been modified, the decoded response of the previous request is returned.
+     * @param conditionalRequests <CODE>true</CODE> if GET requests should be made conditional
+     */
+    public void setConditionalRequests(boolean conditionalRequests)
+    {
+        if(!conditionalRequests)
+            validators = null;
+        else if(validators == null)
+            validators = new ValidatorCache();
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if GET requests should be made conditional using the validators of the previous response.
+     * @return <CODE>true</CODE> if GET requests should be made conditional
+     */
+    public boolean conditionalRequests()
+    {
+        return validators != null;
+    }
+
+    /**
+     * Returns the validators of the previous responses to GET requests, which includes the count of unmodified responses.
+     * @return The validators of the previous responses, or <CODE>null</CODE> if requests are not conditional
+     */
+    public ValidatorCache getValidatorCache()
+    {
+        return validators;
+    }
+
+    /**
+     * Set to <CODE>true</CODE> if responses that are not closed should be detected and reported.
+     * <P>
+     * The stack of the call that made each request is captured, so this should only be used for debugging.
+     * @param leakDetection <CODE>true</CODE> if responses that are not closed should be detected
+     */
+    public void setLeakDetection(boolean leakDetection)
+    {
+        if(leakDetection && leakDetector == null)
+        {
+            leakDetector = new ResponseLeakDetector();
+            client.register(leakDetector);
+        }
+        else if(leakDetector != null)
+        {
+            leakDetector.setEnabled(leakDetection);
+        }
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if responses that are not closed should be detected and reported.
+     * @return <CODE>true</CODE> if responses that are not closed should be detected
+     */
+    public boolean leakDetection()
+    {
+        return leakDetector != null && leakDetector.isEnabled();
+    }
+
+    /**
+     * Returns the detector of responses that are not closed, which includes the counts of open and leaked responses.
+     * @return The detector of responses that are not closed, or <CODE>null</CODE> if leak detection has never been enabled
+     */
+    public ResponseLeakDetector getLeakDetector()
+    {
+        return leakDetector;
+    }
+
     /**
      * Sets the uri prefix for resources used by the client.
      * @param uriPrefix The uri prefix for the client
@@ -659,6 +1932,7 @@ public class HttpContext
     public void setUriPrefix(String uriPrefix)
     {
         this.uriPrefix = uriPrefix;
+        this.baseUrl = null;
     }
 
     /**
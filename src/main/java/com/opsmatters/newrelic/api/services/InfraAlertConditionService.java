@@ -19,10 +19,12 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.alerts.conditions.InfraAlertCondition;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for infrastructure alert conditions.
@@ -31,6 +33,8 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class InfraAlertConditionService extends BaseFluent
 {
+    private static final UriTemplate CONDITION_PATH = new UriTemplate("/v2/alerts/conditions/{conditionId}");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -51,6 +55,16 @@ public class InfraAlertConditionService extends BaseFluent
         return HTTP.GET("/v2/alerts/conditions", null, queryParams, INFRA_ALERT_CONDITIONS).get();
     }
 
+    /**
+     * Asynchronously returns the set of alert conditions for the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of alert conditions
+     */
+    public CompletableFuture<Collection<InfraAlertCondition>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
     /**
      * Returns the set of alert conditions for the given policy id.
      * @param policyId The id of the alert policy to return the conditions for
@@ -63,6 +77,18 @@ public class InfraAlertConditionService extends BaseFluent
         return list(filters().policyId(policyId).offset(offset).limit(limit).build());
     }
 
+    /**
+     * Asynchronously returns the set of alert conditions for the given policy id.
+     * @param policyId The id of the alert policy to return the conditions for
+     * @param offset The item count offset
+     * @param limit The number of results per page, maximum 50
+     * @return The future for the set of alert conditions
+     */
+    public CompletableFuture<Collection<InfraAlertCondition>> listAsync(long policyId, int offset, int limit)
+    {
+        return async(() -> list(policyId, offset, limit));
+    }
+
     /**
      * Returns the set of alert conditions for the given policy id.
      * @param policyId The id of the alert policy to return the conditions for
@@ -73,6 +99,16 @@ public class InfraAlertConditionService extends BaseFluent
         return list(policyId, 0, -1);
     }
 
+    /**
+     * Asynchronously returns the set of alert conditions for the given policy id.
+     * @param policyId The id of the alert policy to return the conditions for
+     * @return The future for the set of alert conditions
+     */
+    public CompletableFuture<Collection<InfraAlertCondition>> listAsync(long policyId)
+    {
+        return async(() -> list(policyId));
+    }
+
     /**
      * Returns the set of alert conditions for the given policy id and name.
      * @param policyId The id of the alert policy to return the conditions for
@@ -93,6 +129,19 @@ public class InfraAlertConditionService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of alert conditions for the given policy id and name.
+     * @param policyId The id of the alert policy to return the conditions for
+     * @param name The name of the conditions
+     * @param offset The item count offset
+     * @param limit The number of results per page, maximum 50
+     * @return The future for the set of alert conditions
+     */
+    public CompletableFuture<Collection<InfraAlertCondition>> listAsync(long policyId, String name, int offset, int limit)
+    {
+        return async(() -> list(policyId, name, offset, limit));
+    }
+
     /**
      * Returns the set of alert conditions for the given policy id and name.
      * @param policyId The id of the alert policy to return the conditions for
@@ -104,6 +153,17 @@ public class InfraAlertConditionService extends BaseFluent
         return list(policyId, name, 0, -1);
     }
 
+    /**
+     * Asynchronously returns the set of alert conditions for the given policy id and name.
+     * @param policyId The id of the alert policy to return the conditions for
+     * @param name The name of the conditions
+     * @return The future for the set of alert conditions
+     */
+    public CompletableFuture<Collection<InfraAlertCondition>> listAsync(long policyId, String name)
+    {
+        return async(() -> list(policyId, name));
+    }
+
     /**
      * Returns the infrastructure alert condition with the given id.
      * @param conditionId The id of the alert condition to return
@@ -111,7 +171,17 @@ public class InfraAlertConditionService extends BaseFluent
      */
     public Optional<InfraAlertCondition> show(long conditionId)
     {
-        return HTTP.GET(String.format("/v2/alerts/conditions/%d", conditionId), null, null, INFRA_ALERT_CONDITION);
+        return HTTP.GET(CONDITION_PATH.expand(conditionId), null, null, INFRA_ALERT_CONDITION);
+    }
+
+    /**
+     * Asynchronously returns the infrastructure alert condition with the given id.
+     * @param conditionId The id of the alert condition to return
+     * @return The future for the alert condition
+     */
+    public CompletableFuture<Optional<InfraAlertCondition>> showAsync(long conditionId)
+    {
+        return async(() -> show(conditionId));
     }
    
     /**
@@ -124,6 +194,16 @@ public class InfraAlertConditionService extends BaseFluent
         return HTTP.POST("/v2/alerts/conditions", condition, INFRA_ALERT_CONDITION);
     }
 
+    /**
+     * Asynchronously creates the given infrastructure alert condition.
+     * @param condition The alert condition to create
+     * @return The future for the alert condition that was created
+     */
+    public CompletableFuture<Optional<InfraAlertCondition>> createAsync(InfraAlertCondition condition)
+    {
+        return async(() -> create(condition));
+    }
+
     /**
      * Updates the given infrastructure alert condition.
      * @param condition The alert condition to update
@@ -131,7 +211,17 @@ public class InfraAlertConditionService extends BaseFluent
      */
     public Optional<InfraAlertCondition> update(InfraAlertCondition condition)
     {
-        return HTTP.PUT(String.format("/v2/alerts/conditions/%d", condition.getId()), condition, INFRA_ALERT_CONDITION);
+        return HTTP.PUT(CONDITION_PATH.expand(condition.getId()), condition, INFRA_ALERT_CONDITION);
+    }
+
+    /**
+     * Asynchronously updates the given infrastructure alert condition.
+     * @param condition The alert condition to update
+     * @return The future for the alert condition that was updated
+     */
+    public CompletableFuture<Optional<InfraAlertCondition>> updateAsync(InfraAlertCondition condition)
+    {
+        return async(() -> update(condition));
     }
 
     /**
@@ -141,10 +231,20 @@ public class InfraAlertConditionService extends BaseFluent
      */
     public InfraAlertConditionService delete(long conditionId)
     {
-        HTTP.DELETE(String.format("/v2/alerts/conditions/%d", conditionId));       
+        HTTP.DELETE(CONDITION_PATH.expand(conditionId));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the infrastructure alert condition with the given id.
+     * @param conditionId The id of the alert condition to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long conditionId)
+    {
+        return async(() -> { delete(conditionId); });
+    }
+
     /**
      * Returns a builder for the infrastructure alert condition filters.
      * @return The builder instance.
@@ -19,10 +19,13 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.transactions.KeyTransaction;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for key transactions.
@@ -31,6 +34,8 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class KeyTransactionService extends BaseFluent
 {
+    private static final UriTemplate TRANSACTION_PATH = new UriTemplate("/v2/key_transactions/{transactionId}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -51,6 +56,40 @@ public class KeyTransactionService extends BaseFluent
         return HTTP.GET("/v2/key_transactions.json", null, queryParams, KEY_TRANSACTIONS).get();
     }
 
+    /**
+     * Asynchronously returns the set of key transactions with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of key transactions
+     */
+    public CompletableFuture<Collection<KeyTransaction>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of key transactions with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of key transactions, across all pages
+     */
+    public PagedIterable<KeyTransaction> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<KeyTransaction>(HTTP, "/v2/key_transactions.json", null, queryParams, KEY_TRANSACTIONS);
+    }
+
+    /**
+     * Returns an iterator over the set of key transactions, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of key transactions, across all pages
+     */
+    public CloseableIterator<KeyTransaction> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of key transactions.
      * @return The set of key transactions
@@ -61,6 +100,15 @@ public class KeyTransactionService extends BaseFluent
         return list(queryParams);
     }
 
+    /**
+     * Asynchronously returns the set of key transactions.
+     * @return The future for the set of key transactions
+     */
+    public CompletableFuture<Collection<KeyTransaction>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of key transactions for the given name.
      * @param name The name of the transactions
@@ -78,6 +126,16 @@ public class KeyTransactionService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of key transactions for the given name.
+     * @param name The name of the transactions
+     * @return The future for the set of transactions
+     */
+    public CompletableFuture<Collection<KeyTransaction>> listAsync(String name)
+    {
+        return async(() -> list(name));
+    }
+
     /**
      * Returns the key transaction for the given transaction id.
      * @param transactionId The id for the key transaction to return
@@ -85,7 +143,17 @@ public class KeyTransactionService extends BaseFluent
      */
     public Optional<KeyTransaction> show(long transactionId)
     {
-        return HTTP.GET(String.format("/v2/key_transactions/%d.json", transactionId), KEY_TRANSACTION);
+        return HTTP.GET(TRANSACTION_PATH.expand(transactionId), KEY_TRANSACTION);
+    }
+
+    /**
+     * Asynchronously returns the key transaction for the given transaction id.
+     * @param transactionId The id for the key transaction to return
+     * @return The future for the key transaction
+     */
+    public CompletableFuture<Optional<KeyTransaction>> showAsync(long transactionId)
+    {
+        return async(() -> show(transactionId));
     }
 
     /**
@@ -19,10 +19,13 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.labels.Label;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for labels.
@@ -31,6 +34,8 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class LabelService extends BaseFluent
 {
+    private static final UriTemplate LABEL_PATH = new UriTemplate("/v2/labels/{key}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -51,6 +56,40 @@ public class LabelService extends BaseFluent
         return HTTP.GET("/v2/labels.json", null, queryParams, LABELS).get();
     }
 
+    /**
+     * Asynchronously returns the set of labels.
+     * @param queryParams The query parameters
+     * @return The future for the set of labels
+     */
+    public CompletableFuture<Collection<Label>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of labels, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of labels, across all pages
+     */
+    public PagedIterable<Label> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<Label>(HTTP, "/v2/labels.json", null, queryParams, LABELS);
+    }
+
+    /**
+     * Returns an iterator over the set of labels, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of labels, across all pages
+     */
+    public CloseableIterator<Label> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of labels.
      * @return The set of labels
@@ -61,6 +100,15 @@ public class LabelService extends BaseFluent
         return list(queryParams);
     }
 
+    /**
+     * Asynchronously returns the set of labels.
+     * @return The future for the set of labels
+     */
+    public CompletableFuture<Collection<Label>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of labels where the key contains the given (partial) name.
      * @param name The name of the labels to return. Can be a partial key. A null value returns all labels.
@@ -78,6 +126,16 @@ public class LabelService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of labels where the key contains the given (partial) name.
+     * @param name The name of the labels to return. Can be a partial key. A null value returns all labels.
+     * @return The future for the set of labels
+     */
+    public CompletableFuture<Collection<Label>> listAsync(String name)
+    {
+        return async(() -> list(name));
+    }
+
     /**
      * Returns the label with the given key.
      * <P>
@@ -96,6 +154,18 @@ public class LabelService extends BaseFluent
         }
         return ret;
     }
+
+    /**
+     * Asynchronously returns the label with the given key.
+     * <P>
+     * This is needed because the API does not contain an operation to get a label using the key directly.
+     * @param key The key of the label to return
+     * @return The future for the label
+     */
+    public CompletableFuture<Optional<Label>> showAsync(String key)
+    {
+        return async(() -> show(key));
+    }
     
     /**
      * Creates the given label.
@@ -107,6 +177,16 @@ public class LabelService extends BaseFluent
         return HTTP.PUT("/v2/labels.json", label, LABEL);
     }
 
+    /**
+     * Asynchronously creates the given label.
+     * @param label The label to create
+     * @return The future for the label that was created
+     */
+    public CompletableFuture<Optional<Label>> createAsync(Label label)
+    {
+        return async(() -> create(label));
+    }
+
     /**
      * Deletes the label with the given key.
      * @param key The key of the label to delete
@@ -114,10 +194,20 @@ public class LabelService extends BaseFluent
      */
     public LabelService delete(String key)
     {
-        HTTP.DELETE(String.format("/v2/labels/%s.json", encode(key)));       
+        HTTP.DELETE(LABEL_PATH.expand(encode(key)));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the label with the given key.
+     * @param key The key of the label to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(String key)
+    {
+        return async(() -> { delete(key); });
+    }
+
     /**
      * Returns a builder for the label filters.
      * @return The builder instance.
@@ -17,6 +17,7 @@
 package com.opsmatters.newrelic.api.services;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.synthetics.Location;
@@ -46,4 +47,13 @@ public class LocationService extends BaseFluent
     {
         return HTTP.GET("/v1/locations", LOCATIONS).get();
     }
+
+    /**
+     * Asynchronously returns the set of locations.
+     * @return The future for the set of locations
+     */
+    public CompletableFuture<Collection<Location>> listAsync()
+    {
+        return async(() -> list());
+    }
 }
@@ -19,12 +19,15 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.applications.MobileApplication;
 import com.opsmatters.newrelic.api.model.metrics.Metric;
 import com.opsmatters.newrelic.api.model.metrics.MetricData;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for mobile applications.
@@ -33,6 +36,10 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class MobileApplicationService extends BaseFluent
 {
+    private static final UriTemplate APPLICATION_PATH = new UriTemplate("/v2/mobile_applications/{applicationId}.json");
+    private static final UriTemplate METRICS_PATH = new UriTemplate("/v2/mobile_applications/{applicationId}/metrics.json");
+    private static final UriTemplate METRIC_DATA_PATH = new UriTemplate("/v2/mobile_applications/{applicationId}/metrics/data.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -53,6 +60,40 @@ public class MobileApplicationService extends BaseFluent
         return HTTP.GET("/v2/mobile_applications.json", null, queryParams, MOBILE_APPLICATIONS).get();
     }
 
+    /**
+     * Asynchronously returns the set of Mobile applications with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<MobileApplication>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of Mobile applications with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of applications, across all pages
+     */
+    public PagedIterable<MobileApplication> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<MobileApplication>(HTTP, "/v2/mobile_applications.json", null, queryParams, MOBILE_APPLICATIONS);
+    }
+
+    /**
+     * Returns an iterator over the set of applications, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of applications, across all pages
+     */
+    public CloseableIterator<MobileApplication> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of Mobile applications.
      * @return The set of applications
@@ -64,6 +105,15 @@ public class MobileApplicationService extends BaseFluent
 
     }
 
+    /**
+     * Asynchronously returns the set of Mobile applications.
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<MobileApplication>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of Mobile applications for the given name.
      * @param name The name of the applications
@@ -81,6 +131,16 @@ public class MobileApplicationService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of Mobile applications for the given name.
+     * @param name The name of the applications
+     * @return The future for the set of applications
+     */
+    public CompletableFuture<Collection<MobileApplication>> listAsync(String name)
+    {
+        return async(() -> list(name));
+    }
+
     /**
      * Returns the Mobile application for the given application id.
      * @param applicationId The id for the application to return
@@ -88,7 +148,17 @@ public class MobileApplicationService extends BaseFluent
      */
     public Optional<MobileApplication> show(long applicationId)
     {
-        return HTTP.GET(String.format("/v2/mobile_applications/%d.json", applicationId), MOBILE_APPLICATION);
+        return HTTP.GET(APPLICATION_PATH.expand(applicationId), MOBILE_APPLICATION);
+    }
+
+    /**
+     * Asynchronously returns the Mobile application for the given application id.
+     * @param applicationId The id for the application to return
+     * @return The future for the application
+     */
+    public CompletableFuture<Optional<MobileApplication>> showAsync(long applicationId)
+    {
+        return async(() -> show(applicationId));
     }
 
     /**
@@ -102,7 +172,7 @@ public class MobileApplicationService extends BaseFluent
         QueryParameterList queryParams = new QueryParameterList();
         if(name != null && name.length() > 0)
             queryParams.add("name", name);
-        return HTTP.GET(String.format("/v2/mobile_applications/%d/metrics.json", applicationId), null, queryParams, METRICS).get();
+        return HTTP.GET(METRICS_PATH.expand(applicationId), null, queryParams, METRICS).get();
     }
 
     /**
@@ -123,7 +193,7 @@ public class MobileApplicationService extends BaseFluent
      */
     public Optional<MetricData> metricData(long applicationId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/mobile_applications/%d/metrics/data.json", applicationId), null, queryParams, METRIC_DATA);
+        return HTTP.GET(METRIC_DATA_PATH.expand(applicationId), null, queryParams, METRIC_DATA);
     }
 
     /**
@@ -19,6 +19,7 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import javax.ws.rs.core.Response;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
@@ -26,6 +27,7 @@ import com.opsmatters.newrelic.api.model.synthetics.Monitor;
 import com.opsmatters.newrelic.api.model.synthetics.Script;
 import com.opsmatters.newrelic.api.model.labels.Label;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for Synthetics monitors.
@@ -34,6 +36,12 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class MonitorService extends BaseFluent
 {
+    private static final UriTemplate MONITOR_PATH = new UriTemplate("/v3/monitors/{monitorId}");
+    private static final UriTemplate SCRIPT_PATH = new UriTemplate("/v3/monitors/{monitorId}/script");
+    private static final UriTemplate MONITOR_LABELS_PATH = new UriTemplate("/v1/monitors/{monitorId}/labels");
+    private static final UriTemplate MONITOR_LABEL_PATH = new UriTemplate("/v1/monitors/{monitorId}/labels/{label}");
+    private static final UriTemplate LABEL_MONITORS_PATH = new UriTemplate("/v1/monitors/labels/{label}");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -54,6 +62,16 @@ public class MonitorService extends BaseFluent
         return HTTP.GET("/v3/monitors", null, queryParams, MONITORS).get();
     }
 
+    /**
+     * Asynchronously returns the set of monitors.
+     * @param queryParams The query parameters
+     * @return The future for the set of monitors
+     */
+    public CompletableFuture<Collection<Monitor>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
     /**
      * Returns the set of monitors.
      * @param offset The monitor count offset. Defaults to 0.
@@ -65,6 +83,17 @@ public class MonitorService extends BaseFluent
         return list(filters().offset(offset).limit(limit).build());
     }
 
+    /**
+     * Asynchronously returns the set of monitors.
+     * @param offset The monitor count offset. Defaults to 0.
+     * @param limit The number of results per page, maximum 100. Defaults to 20.
+     * @return The future for the set of monitors
+     */
+    public CompletableFuture<Collection<Monitor>> listAsync(int offset, int limit)
+    {
+        return async(() -> list(offset, limit));
+    }
+
     /**
      * Returns the set of monitors.
      * <P> Defaults to page size of 20 monitors with 0 offset.
@@ -75,6 +104,16 @@ public class MonitorService extends BaseFluent
         return list(0, -1);
     }
 
+    /**
+     * Asynchronously returns the set of monitors.
+     * <P> Defaults to page size of 20 monitors with 0 offset.
+     * @return The future for the set of monitors
+     */
+    public CompletableFuture<Collection<Monitor>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of monitors with the given type and where the name contains the given (partial) name.
      * @param name The name of the monitors to return. Can be a partial name. A null value returns all monitors.
@@ -98,6 +137,19 @@ public class MonitorService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of monitors with the given type and where the name contains the given (partial) name.
+     * @param name The name of the monitors to return. Can be a partial name. A null value returns all monitors.
+     * @param type The type of the monitors to return. A null value returns all monitors.
+     * @param offset The monitor count offset. Defaults to 0.
+     * @param limit The number of results per page, maximum 100. Defaults to 20.
+     * @return The future for the set of monitors
+     */
+    public CompletableFuture<Collection<Monitor>> listAsync(String name, String type, int offset, int limit)
+    {
+        return async(() -> list(name, type, offset, limit));
+    }
+
     /**
      * Returns the set of monitors with the given type and where the name contains the given (partial) name.
      * <P> Defaults to page size of 20 monitors with 0 offset.
@@ -110,6 +162,18 @@ public class MonitorService extends BaseFluent
         return list(name, type, 0, -1);
     }
 
+    /**
+     * Asynchronously returns the set of monitors with the given type and where the name contains the given (partial) name.
+     * <P> Defaults to page size of 20 monitors with 0 offset.
+     * @param name The name of the monitors to return. Can be a partial name. A null value returns all monitors.
+     * @param type The type of the monitors to return. A null value returns all monitors.
+     * @return The future for the set of monitors
+     */
+    public CompletableFuture<Collection<Monitor>> listAsync(String name, String type)
+    {
+        return async(() -> list(name, type));
+    }
+
     /**
      * Returns the set of monitors for the given label.
      * @param label The label to use to select the monitors to return
@@ -117,7 +181,17 @@ public class MonitorService extends BaseFluent
      */
     public Collection<Monitor> list(Label label)
     {
-        return HTTP.GET(String.format("/v1/monitors/labels/%s", label.getKey()), MONITORS).get();
+        return HTTP.GET(LABEL_MONITORS_PATH.expand(label.getKey()), MONITORS).get();
+    }
+
+    /**
+     * Asynchronously returns the set of monitors for the given label.
+     * @param label The label to use to select the monitors to return
+     * @return The future for the set of monitors for the given label
+     */
+    public CompletableFuture<Collection<Monitor>> listAsync(Label label)
+    {
+        return async(() -> list(label));
     }
 
     /**
@@ -127,7 +201,17 @@ public class MonitorService extends BaseFluent
      */
     public Optional<Monitor> show(String monitorId)
     {
-        return HTTP.GET(String.format("/v3/monitors/%s", monitorId), MONITOR);
+        return HTTP.GET(MONITOR_PATH.expand(monitorId), MONITOR);
+    }
+
+    /**
+     * Asynchronously returns the monitor for the given monitor id.
+     * @param monitorId The id for the monitor to return
+     * @return The future for the monitor
+     */
+    public CompletableFuture<Optional<Monitor>> showAsync(String monitorId)
+    {
+        return async(() -> show(monitorId));
     }
 
     /**
@@ -137,7 +221,7 @@ public class MonitorService extends BaseFluent
      */
     public Optional<Script> showScript(String monitorId)
     {
-        return HTTP.GET(String.format("/v3/monitors/%s/script", monitorId), SCRIPT);
+        return HTTP.GET(SCRIPT_PATH.expand(monitorId), SCRIPT);
     }
 
     /**
@@ -154,6 +238,16 @@ public class MonitorService extends BaseFluent
         return Optional.of(monitor);
     }
 
+    /**
+     * Asynchronously creates the given monitor.
+     * @param monitor The monitor to create
+     * @return The future for the monitor that was created
+     */
+    public CompletableFuture<Optional<Monitor>> createAsync(Monitor monitor)
+    {
+        return async(() -> create(monitor));
+    }
+
     /**
      * Updates the given monitor.
      * @param monitor The monitor to update
@@ -161,10 +255,20 @@ public class MonitorService extends BaseFluent
      */
     public Optional<Monitor> update(Monitor monitor)
     {
-        HTTP.PUT(String.format("/v3/monitors/%s", monitor.getId()), monitor);
+        HTTP.PUT(MONITOR_PATH.expand(monitor.getId()), monitor);
         return Optional.of(monitor);
     }
 
+    /**
+     * Asynchronously updates the given monitor.
+     * @param monitor The monitor to update
+     * @return The future for the monitor that was updated
+     */
+    public CompletableFuture<Optional<Monitor>> updateAsync(Monitor monitor)
+    {
+        return async(() -> update(monitor));
+    }
+
     /**
      * Updates the given monitor to add a script.
      * @param monitorId The id of the monitor to update
@@ -173,10 +277,21 @@ public class MonitorService extends BaseFluent
      */
     public Optional<Script> updateScript(String monitorId, Script script)
     {
-        HTTP.PUT(String.format("/v3/monitors/%s/script", monitorId), script);
+        HTTP.PUT(SCRIPT_PATH.expand(monitorId), script);
         return Optional.of(script);
     }
 
+    /**
+     * Asynchronously updates the given monitor to add a script.
+     * @param monitorId The id of the monitor to update
+     * @param script The script to add
+     * @return The future for the monitor that was updated
+     */
+    public CompletableFuture<Optional<Script>> updateScriptAsync(String monitorId, Script script)
+    {
+        return async(() -> updateScript(monitorId, script));
+    }
+
     /**
      * Patches the given monitor.
      * @param monitor The monitor to patch
@@ -184,10 +299,20 @@ public class MonitorService extends BaseFluent
      */
     public Optional<Monitor> patch(Monitor monitor)
     {
-        HTTP.PATCH(String.format("/v3/monitors/%s", monitor.getId()), monitor);
+        HTTP.PATCH(MONITOR_PATH.expand(monitor.getId()), monitor);
         return Optional.of(monitor);
     }
 
+    /**
+     * Asynchronously patches the given monitor.
+     * @param monitor The monitor to patch
+     * @return The future for the monitor that was patched
+     */
+    public CompletableFuture<Optional<Monitor>> patchAsync(Monitor monitor)
+    {
+        return async(() -> patch(monitor));
+    }
+
     /**
      * Adds the given label to the monitor with the given id.
      * @param monitorId The id of the monitor to update
@@ -196,10 +321,21 @@ public class MonitorService extends BaseFluent
      */
     public Optional<Label> createLabel(String monitorId, Label label)
     {
-        HTTP.POST(String.format("/v1/monitors/%s/labels", monitorId), label.getKey());
+        HTTP.POST(MONITOR_LABELS_PATH.expand(monitorId), label.getKey());
         return Optional.of(label);
     }
 
+    /**
+     * Asynchronously adds the given label to the monitor with the given id.
+     * @param monitorId The id of the monitor to update
+     * @param label The label to add
+     * @return The future for the label that was added
+     */
+    public CompletableFuture<Optional<Label>> createLabelAsync(String monitorId, Label label)
+    {
+        return async(() -> createLabel(monitorId, label));
+    }
+
     /**
      * Deletes the monitor with the given id.
      * @param monitorId The id of the monitor to delete
@@ -207,10 +343,20 @@ public class MonitorService extends BaseFluent
      */
     public MonitorService delete(String monitorId)
     {
-        HTTP.DELETE(String.format("/v3/monitors/%s", monitorId));       
+        HTTP.DELETE(MONITOR_PATH.expand(monitorId));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the monitor with the given id.
+     * @param monitorId The id of the monitor to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(String monitorId)
+    {
+        return async(() -> { delete(monitorId); });
+    }
+
     /**
      * Deletes the given label from the monitor with the given id.
      * @param monitorId The id of the monitor with the label
@@ -219,10 +365,21 @@ public class MonitorService extends BaseFluent
      */
     public MonitorService deleteLabel(String monitorId, Label label)
     {
-        HTTP.DELETE(String.format("/v1/monitors/%s/labels/%s", monitorId, label.getKey()));
+        HTTP.DELETE(MONITOR_LABEL_PATH.expand(monitorId, label.getKey()));
         return this;
     }
 
+    /**
+     * Asynchronously deletes the given label from the monitor with the given id.
+     * @param monitorId The id of the monitor with the label
+     * @param label The label to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteLabelAsync(String monitorId, Label label)
+    {
+        return async(() -> { deleteLabel(monitorId, label); });
+    }
+
     /**
      * Returns a builder for the monitor filters.
      * @return The builder instance.
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.opsmatters.newrelic.api.services;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+
+/**
+ * Represents a single page of entities returned by a list operation, 
+ * together with the response headers and the links to the other pages.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public class Page<T>
+{
+    /**
+     * The link relation for the next page.
+     */
+    public static final String NEXT = "next";
+
+    /**
+     * The link relation for the previous page.
+     */
+    public static final String PREV = "prev";
+
+    /**
+     * The link relation for the first page.
+     */
+    public static final String FIRST = "first";
+
+    /**
+     * The link relation for the last page.
+     */
+    public static final String LAST = "last";
+
+    private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]*)>([^,<]*)");
+    private static final Pattern REL_PATTERN = Pattern.compile("rel\\s*=\\s*\"?([^\";,]+)\"?");
+    private static final Pattern PAGE_PATTERN = Pattern.compile("(?:^|&)page=(\\d+)");
+
+    private Collection<T> entities;
+    private CloseableIterator<T> iterator;
+    private MultivaluedMap<String,String> headers;
+    private Map<String,URI> links = new LinkedHashMap<String,URI>();
+
+    /**
+     * Constructor that takes the entities and response headers.
+     * @param entities The entities in the page
+     * @param headers The response headers
+     */
+    public Page(Collection<T> entities, MultivaluedMap<String,String> headers)
+    {
+        this.entities = entities != null ? entities : Collections.<T>emptyList();
+        setHeaders(headers);
+    }
+
+    /**
+     * Constructor that takes an iterator that reads the entities from the response, and the response headers.
+     * @param iterator The iterator that reads the entities from the response
+     * @param headers The response headers
+     */
+    public Page(CloseableIterator<T> iterator, MultivaluedMap<String,String> headers)
+    {
+        if(iterator != null)
+            this.iterator = iterator;
+        else
+            this.entities = Collections.<T>emptyList();
+        setHeaders(headers);
+    }
+
+    /**
+     * Sets the response headers and parses the links to the other pages.
+     * @param headers The response headers
+     */
+    private void setHeaders(MultivaluedMap<String,String> headers)
+    {
+        this.headers = headers != null ? headers : new MultivaluedHashMap<String,String>();
+        List<String> values = this.headers.get("Link");
+        if(values != null)
+        {
+            for(String value : values)
+                parseLinks(value);
+        }
+    }
+
+    /**
+     * Returns the entities in the page.
+     * <P>
+     * If the entities are being read from the response, the remaining entities are read into a list.
+     * @return The entities in the page
+     */
+    public Collection<T> getEntities()
+    {
+        if(entities == null)
+        {
+            List<T> list = new ArrayList<T>();
+            try
+            {
+                while(iterator.hasNext())
+                    list.add(iterator.next());
+            }
+            finally
+            {
+                iterator.close();
+            }
+            entities = list;
+        }
+        return entities;
+    }
+
+    /**
+     * Returns an iterator over the entities in the page.
+     * <P>
+     * If the entities are being read from the response, the iterator reads each entity as it is requested
+     * and must be closed if the iteration is abandoned early, to release the connection.
+     * @return The iterator over the entities in the page
+     */
+    public CloseableIterator<T> iterator()
+    {
+        if(entities == null)
+            return iterator;
+
+        return new EntityIterator<T>(entities.iterator());
+    }
+
+    /**
+     * Returns the response headers.
+     * @return The response headers
+     */
+    public MultivaluedMap<String,String> getHeaders()
+    {
+        return headers;
+    }
+
+    /**
+     * Returns the first value of the given response header.
+     * @param name The name of the header
+     * @return The first value of the header, or <CODE>null</CODE> if the header is not present
+     */
+    public String getHeader(String name)
+    {
+        return headers.getFirst(name);
+    }
+
+    /**
+     * Returns the link with the given relation.
+     * @param rel The relation of the link, eg. "next"
+     * @return The link, or <CODE>null</CODE> if the link is not present
+     */
+    public URI getLink(String rel)
+    {
+        return links.get(rel);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if there is a page after this one.
+     * @return <CODE>true</CODE> if there is a page after this one
+     */
+    public boolean hasNext()
+    {
+        return links.containsKey(NEXT);
+    }
+
+    /**
+     * Returns the page number of the link with the given relation.
+     * @param rel The relation of the link, eg. "last"
+     * @return The page number, or -1 if the link is not present or has no page number
+     */
+    public int getPageNumber(String rel)
+    {
+        return getPageNumber(getLink(rel));
+    }
+
+    /**
+     * Returns the page number from the query string of the given link.
+     * @param link The link to the page
+     * @return The page number, or -1 if the link is <CODE>null</CODE> or has no page number
+     */
+    public static int getPageNumber(URI link)
+    {
+        if(link != null && link.getRawQuery() != null)
+        {
+            Matcher m = PAGE_PATTERN.matcher(link.getRawQuery());
+            if(m.find())
+                return Integer.parseInt(m.group(1));
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a copy of the given link with the page number in the query string replaced.
+     * @param link The link to a page
+     * @param page The page number for the new link
+     * @return The link to the given page, or <CODE>null</CODE> if the link has no page number
+     */
+    public static URI getPageLink(URI link, int page)
+    {
+        if(getPageNumber(link) < 0)
+            return null;
+
+        Matcher m = PAGE_PATTERN.matcher(link.getRawQuery());
+        m.find();
+        String query = link.getRawQuery().substring(0, m.start(1))
+            +page+link.getRawQuery().substring(m.end(1));
+        return URI.create(link.getScheme()+"://"+link.getRawAuthority()+link.getRawPath()+"?"+query);
+    }
+
+    /**
+     * Parses the links in the given Link header value.
+     * @param value The value of the Link header
+     */
+    private void parseLinks(String value)
+    {
+        Matcher m = LINK_PATTERN.matcher(value);
+        while(m.find())
+        {
+            Matcher rel = REL_PATTERN.matcher(m.group(2));
+            if(rel.find())
+            {
+                try
+                {
+                    for(String r : rel.group(1).trim().split("\\s+"))
+                        links.put(r, new URI(m.group(1).trim()));
+                }
+                catch(Exception e)
+                {
+                    // Ignore badly formed links
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "Page [entities="+(entities != null ? Integer.toString(entities.size()) : "streamed")
+            +", links="+links
+            +"]";
+    }
+
+    /**
+     * Iterator over the entities that have already been read, which holds no resources.
+     */
+    private static class EntityIterator<T> implements CloseableIterator<T>
+    {
+        private Iterator<T> iterator;
+
+        /**
+         * Constructor that takes the iterator over the entities.
+         * @param iterator The iterator over the entities
+         */
+        EntityIterator(Iterator<T> iterator)
+        {
+            this.iterator = iterator;
+        }
+
+        /**
+         * Returns <CODE>true</CODE> if there is another entity in the page.
+         * @return <CODE>true</CODE> if there is another entity in the page
+         */
+        @Override
+        public boolean hasNext()
+        {
+            return iterator.hasNext();
+        }
+
+        /**
+         * Returns the next entity in the page.
+         * @return The next entity in the page
+         */
+        @Override
+        public T next()
+        {
+            return iterator.next();
+        }
+
+        /**
+         * Does nothing as the iterator holds no resources.
+         */
+        @Override
+        public void close()
+        {
+        }
+    }
+}
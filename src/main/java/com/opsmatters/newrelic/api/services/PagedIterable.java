@@ -0,0 +1,301 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.opsmatters.newrelic.api.services;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.ws.rs.core.GenericType;
+import com.opsmatters.newrelic.api.httpclient.Deadline;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+
+/**
+ * Iterates over the entities returned by a list operation across all the pages of results.
+ * <P>
+ * By default each page is only retrieved when the iteration reaches it, by following the "next" link 
+ * of the previous page, so only a single page is held in memory at a time.
+ * <P>
+ * If a prefetch window has been set and the first page includes a "last" link, 
+ * the remaining pages are retrieved concurrently with up to that many requests in flight, 
+ * while the entities are still returned in page order.
+ * <P>
+ * The pages are retrieved inside the deadline that was current when the iterator was created, if there was one.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public class PagedIterable<T> implements Iterable<T>
+{
+    private HttpContext httpContext;
+    private String partialUrl;
+    private Map<String, Object> headers;
+    private List<String> queryParams;
+    private GenericType<Collection<T>> returnType;
+    private int window = 1;
+
+    /**
+     * Constructor that takes a http context, partial URL, headers, query parameters and return type.
+     * @param httpContext The set of HTTP operations
+     * @param partialUrl The partial URL of the first page
+     * @param headers A set of headers to add to each request
+     * @param queryParams A set of query parameters to add to the request for the first page
+     * @param returnType The expected return type of each page
+     */
+    public PagedIterable(HttpContext httpContext, String partialUrl, Map<String, Object> headers, 
+        List<String> queryParams, GenericType<Collection<T>> returnType)
+    {
+        this.httpContext = httpContext;
+        this.partialUrl = partialUrl;
+        this.headers = headers;
+        this.queryParams = queryParams;
+        this.returnType = returnType;
+    }
+
+    /**
+     * Sets the maximum number of pages to retrieve concurrently when the number of pages is known.
+     * <P>
+     * The requests are run using the executor of the HTTP context.
+     * The default is 1, which retrieves the pages one after another.
+     * @param window The maximum number of pages to retrieve concurrently
+     * @return This object
+     */
+    public PagedIterable<T> prefetch(int window)
+    {
+        if(window < 1)
+            throw new IllegalArgumentException("window < 1");
+        this.window = window;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of pages to retrieve concurrently when the number of pages is known.
+     * @return The maximum number of pages to retrieve concurrently
+     */
+    public int getPrefetchWindow()
+    {
+        return window;
+    }
+
+    /**
+     * Returns a new iterator over the entities, starting at the first page.
+     * @return The iterator over the entities
+     */
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new PageIterator();
+    }
+
+    /**
+     * Returns a new iterator over the entities, starting at the first page, 
+     * that reads each entity from the response as it is requested.
+     * <P>
+     * Each page is retrieved when the iteration reaches it and the prefetch window is not used.
+     * The connection for the current page is held open until its last entity has been read,
+     * so the iterator must be closed if the iteration is abandoned early, eg. using try-with-resources.
+     * @return The iterator over the entities
+     */
+    public CloseableIterator<T> closeableIterator()
+    {
+        return new StreamIterator();
+    }
+
+    /**
+     * Iterator that retrieves each page as it is reached, or prefetches the pages if the last page is known.
+     */
+    private class PageIterator implements Iterator<T>
+    {
+        private Page<T> page;
+        private Iterator<T> entities;
+        private Deque<CompletableFuture<Page<T>>> prefetched;
+        private URI nextLink;
+        private int nextPage;
+        private int lastPage;
+        private Deadline deadline = Deadline.current();
+
+        @Override
+        public boolean hasNext()
+        {
+            while(entities == null || !entities.hasNext())
+            {
+                if(page == null)
+                {
+                    page = Deadline.within(deadline, () -> httpContext.getPage(partialUrl, headers, queryParams, returnType));
+                    startPrefetch();
+                }
+                else if(prefetched != null)
+                {
+                    if(prefetched.isEmpty())
+                        return false;
+                    page = join(prefetched.removeFirst());
+                    submitNext();
+                }
+                else if(page.hasNext())
+                {
+                    URI link = page.getLink(Page.NEXT);
+                    page = Deadline.within(deadline, () -> httpContext.getPage(link, headers, returnType));
+                }
+                else
+                {
+                    return false;
+                }
+
+                // An empty page means there are no more results
+                if(page.getEntities().isEmpty())
+                    return false;
+                entities = page.getEntities().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public T next()
+        {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            return entities.next();
+        }
+
+        /**
+         * Starts retrieving the remaining pages concurrently if the last page is known.
+         */
+        private void startPrefetch()
+        {
+            if(window <= 1 || !page.hasNext())
+                return;
+
+            nextLink = page.getLink(Page.NEXT);
+            nextPage = Page.getPageNumber(nextLink);
+            lastPage = page.getPageNumber(Page.LAST);
+            if(nextPage < 0 || lastPage < nextPage)
+                return;
+
+            prefetched = new ArrayDeque<CompletableFuture<Page<T>>>(window);
+            for(int i = 0; i < window; i++)
+                submitNext();
+        }
+
+        /**
+         * Submits the request for the next page to be prefetched, if any.
+         */
+        private void submitNext()
+        {
+            if(nextPage > lastPage)
+                return;
+
+            URI link = Page.getPageLink(nextLink, nextPage++);
+            prefetched.addLast(Deadline.within(deadline, () -> Deadline.supplyAsync(
+                () -> httpContext.getPage(link, headers, returnType), httpContext.getExecutor())));
+        }
+
+        /**
+         * Waits for the given page to be retrieved.
+         * @param future The future for the page
+         * @return The page
+         */
+        private Page<T> join(CompletableFuture<Page<T>> future)
+        {
+            try
+            {
+                return future.join();
+            }
+            catch(CompletionException e)
+            {
+                if(e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException)e.getCause();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Iterator that retrieves each page as it is reached and reads the entities from the response as they are requested.
+     */
+    private class StreamIterator implements CloseableIterator<T>
+    {
+        private Page<T> page;
+        private CloseableIterator<T> entities;
+        private boolean found = false;
+        private boolean closed = false;
+        private Deadline deadline = Deadline.current();
+
+        /**
+         * Returns <CODE>true</CODE> if there is another entity in the current or a following page.
+         * @return <CODE>true</CODE> if there is another entity in the current or a following page
+         */
+        @Override
+        public boolean hasNext()
+        {
+            while(!closed && (entities == null || !entities.hasNext()))
+            {
+                if(page == null)
+                {
+                    page = Deadline.within(deadline, () -> httpContext.getStreamedPage(partialUrl, headers, queryParams, returnType));
+                }
+                else if(found && page.hasNext())
+                {
+                    URI link = page.getLink(Page.NEXT);
+                    page = Deadline.within(deadline, () -> httpContext.getStreamedPage(link, headers, returnType));
+                }
+                else
+                {
+                    // An empty page means there are no more results
+                    close();
+                    return false;
+                }
+
+                found = false;
+                entities = page.iterator();
+            }
+
+            if(closed)
+                return false;
+            found = true;
+            return true;
+        }
+
+        /**
+         * Returns the next entity.
+         * @return The next entity
+         */
+        @Override
+        public T next()
+        {
+            if(!hasNext())
+                throw new NoSuchElementException();
+            return entities.next();
+        }
+
+        /**
+         * Closes the iterator for the current page, releasing its connection.
+         */
+        @Override
+        public void close()
+        {
+            closed = true;
+            if(entities != null)
+                entities.close();
+        }
+    }
+}
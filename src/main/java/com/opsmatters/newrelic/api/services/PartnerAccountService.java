@@ -17,9 +17,11 @@
 package com.opsmatters.newrelic.api.services;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.accounts.PartnerAccount;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for partner accounts.
@@ -28,6 +30,9 @@ import com.opsmatters.newrelic.api.model.accounts.PartnerAccount;
  */
 public class PartnerAccountService extends BaseFluent
 {
+    private static final UriTemplate ACCOUNTS_PATH = new UriTemplate("/v2/partners/{partnerId}/accounts");
+    private static final UriTemplate ACCOUNT_PATH = new UriTemplate("/v2/partners/{partnerId}/accounts/{accountId}");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -45,7 +50,17 @@ public class PartnerAccountService extends BaseFluent
      */
     public Collection<PartnerAccount> list(long partnerId)
     {
-        return HTTP.GET(String.format("/v2/partners/%d/accounts", partnerId), PARTNER_ACCOUNTS).get();
+        return HTTP.GET(ACCOUNTS_PATH.expand(partnerId), PARTNER_ACCOUNTS).get();
+    }
+
+    /**
+     * Asynchronously returns the set of accounts.
+     * @param partnerId The id of the partner for the accounts
+     * @return The future for the set of accounts
+     */
+    public CompletableFuture<Collection<PartnerAccount>> listAsync(long partnerId)
+    {
+        return async(() -> list(partnerId));
     }
 
     /**
@@ -56,7 +71,18 @@ public class PartnerAccountService extends BaseFluent
      */
     public Optional<PartnerAccount> show(long partnerId, long accountId)
     {
-        return HTTP.GET(String.format("/v2/partners/%d/accounts/%d", partnerId, accountId), PARTNER_ACCOUNT);
+        return HTTP.GET(ACCOUNT_PATH.expand(partnerId, accountId), PARTNER_ACCOUNT);
+    }
+
+    /**
+     * Asynchronously returns the account with the given id.
+     * @param partnerId The id of the partner the account belongs to
+     * @param accountId The id of the account to return
+     * @return The future for the account
+     */
+    public CompletableFuture<Optional<PartnerAccount>> showAsync(long partnerId, long accountId)
+    {
+        return async(() -> show(partnerId, accountId));
     }
     
     /**
@@ -67,7 +93,18 @@ public class PartnerAccountService extends BaseFluent
      */
     public Optional<PartnerAccount> create(long partnerId, PartnerAccount account)
     {
-        return HTTP.POST(String.format("/v2/partners/%d/accounts", partnerId), account, PARTNER_ACCOUNT);
+        return HTTP.POST(ACCOUNTS_PATH.expand(partnerId), account, PARTNER_ACCOUNT);
+    }
+
+    /**
+     * Asynchronously creates the given account.
+     * @param partnerId The id of the partner the account belongs to
+     * @param account The account to create
+     * @return The future for the account that was created
+     */
+    public CompletableFuture<Optional<PartnerAccount>> createAsync(long partnerId, PartnerAccount account)
+    {
+        return async(() -> create(partnerId, account));
     }
 
     /**
@@ -78,7 +115,18 @@ public class PartnerAccountService extends BaseFluent
      */
     public Optional<PartnerAccount> update(long partnerId, PartnerAccount account)
     {
-        return HTTP.PUT(String.format("/v2/partners/%d/accounts/%d", partnerId, account.getId()), account, PARTNER_ACCOUNT);
+        return HTTP.PUT(ACCOUNT_PATH.expand(partnerId, account.getId()), account, PARTNER_ACCOUNT);
+    }
+
+    /**
+     * Asynchronously updates the given account.
+     * @param partnerId The id of the partner the account belongs to
+     * @param account The account to update
+     * @return The future for the account that was updated
+     */
+    public CompletableFuture<Optional<PartnerAccount>> updateAsync(long partnerId, PartnerAccount account)
+    {
+        return async(() -> update(partnerId, account));
     }
 
     /**
@@ -89,7 +137,18 @@ public class PartnerAccountService extends BaseFluent
      */
     public PartnerAccountService delete(long partnerId, long accountId)
     {
-        HTTP.DELETE(String.format("/v2/partners/%d/accounts/%d", partnerId, accountId));       
+        HTTP.DELETE(ACCOUNT_PATH.expand(partnerId, accountId));       
         return this;
     }
+
+    /**
+     * Asynchronously deletes the account with the given id.
+     * @param partnerId The id of the partner the account belongs to
+     * @param accountId The id of the account to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long partnerId, long accountId)
+    {
+        return async(() -> { delete(partnerId, accountId); });
+    }
 }
@@ -18,10 +18,12 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.accounts.PartnerSubscription;
 import com.opsmatters.newrelic.api.model.accounts.ProductSubscription;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for partner subscriptions.
@@ -30,6 +32,9 @@ import com.opsmatters.newrelic.api.model.accounts.ProductSubscription;
  */
 public class PartnerSubscriptionService extends BaseFluent
 {
+    private static final UriTemplate SUBSCRIPTIONS_PATH = new UriTemplate("/v2/partners/{partnerId}/accounts/{accountId}/subscriptions");
+    private static final UriTemplate SUBSCRIPTION_PATH = new UriTemplate("/v2/partners/{partnerId}/accounts/{accountId}/subscriptions/{subscriptionId}");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -48,7 +53,18 @@ public class PartnerSubscriptionService extends BaseFluent
      */
     public Collection<PartnerSubscription> list(long partnerId, long accountId)
     {
-        return HTTP.GET(String.format("/v2/partners/%d/accounts/%d/subscriptions", partnerId, accountId), PARTNER_SUBSCRIPTIONS).get();
+        return HTTP.GET(SUBSCRIPTIONS_PATH.expand(partnerId, accountId), PARTNER_SUBSCRIPTIONS).get();
+    }
+
+    /**
+     * Asynchronously returns the set of subscriptions.
+     * @param partnerId The id of the partner for the subscriptions
+     * @param accountId The id of the account for the subscriptions
+     * @return The future for the set of subscriptions
+     */
+    public CompletableFuture<Collection<PartnerSubscription>> listAsync(long partnerId, long accountId)
+    {
+        return async(() -> list(partnerId, accountId));
     }
 
     /**
@@ -60,7 +76,19 @@ public class PartnerSubscriptionService extends BaseFluent
      */
     public Optional<PartnerSubscription> show(long partnerId, long accountId, long subscriptionId)
     {
-        return HTTP.GET(String.format("/v2/partners/%d/accounts/%d/subscriptions/%d", partnerId, accountId, subscriptionId), PARTNER_SUBSCRIPTION);
+        return HTTP.GET(SUBSCRIPTION_PATH.expand(partnerId, accountId, subscriptionId), PARTNER_SUBSCRIPTION);
+    }
+
+    /**
+     * Asynchronously returns the subscription with the given id.
+     * @param partnerId The id of the partner the subscription belongs to
+     * @param accountId The id of the account for the subscription
+     * @param subscriptionId The id of the subscription to return
+     * @return The future for the subscription
+     */
+    public CompletableFuture<Optional<PartnerSubscription>> showAsync(long partnerId, long accountId, long subscriptionId)
+    {
+        return async(() -> show(partnerId, accountId, subscriptionId));
     }
 
     /**
@@ -72,6 +100,18 @@ public class PartnerSubscriptionService extends BaseFluent
      */
     public Optional<PartnerSubscription> create(long partnerId, long accountId, List<ProductSubscription> subscriptions)
     {
-        return HTTP.POST(String.format("/v2/partners/%d/accounts/%d/subscriptions", partnerId, accountId), subscriptions, PARTNER_SUBSCRIPTION);
+        return HTTP.POST(SUBSCRIPTIONS_PATH.expand(partnerId, accountId), subscriptions, PARTNER_SUBSCRIPTION);
+    }
+
+    /**
+     * Asynchronously raplaces the subscriptions on the account with the given subscriptions.
+     * @param partnerId The id of the partner the subscriptions belongs to
+     * @param accountId The id of the account for the subscriptions
+     * @param subscriptions The subscriptions to create
+     * @return The future for the subscription that was created
+     */
+    public CompletableFuture<Optional<PartnerSubscription>> createAsync(long partnerId, long accountId, List<ProductSubscription> subscriptions)
+    {
+        return async(() -> create(partnerId, accountId, subscriptions));
     }
 }
@@ -17,9 +17,11 @@
 package com.opsmatters.newrelic.api.services;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.accounts.PartnerUser;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for partner users.
@@ -28,6 +30,9 @@ import com.opsmatters.newrelic.api.model.accounts.PartnerUser;
  */
 public class PartnerUserService extends BaseFluent
 {
+    private static final UriTemplate USERS_PATH = new UriTemplate("/v2/partners/{partnerId}/accounts/{accountId}/users");
+    private static final UriTemplate USER_PATH = new UriTemplate("/v2/partners/{partnerId}/accounts/{accountId}/users/{userId}");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -46,7 +51,18 @@ public class PartnerUserService extends BaseFluent
      */
     public Collection<PartnerUser> list(long partnerId, long accountId)
     {
-        return HTTP.GET(String.format("/v2/partners/%d/accounts/%d/users", partnerId, accountId), PARTNER_USERS).get();
+        return HTTP.GET(USERS_PATH.expand(partnerId, accountId), PARTNER_USERS).get();
+    }
+
+    /**
+     * Asynchronously returns the set of users.
+     * @param partnerId The id of the partner for the users
+     * @param accountId The id of the account for the users
+     * @return The future for the set of users
+     */
+    public CompletableFuture<Collection<PartnerUser>> listAsync(long partnerId, long accountId)
+    {
+        return async(() -> list(partnerId, accountId));
     }
 
     /**
@@ -58,7 +74,19 @@ public class PartnerUserService extends BaseFluent
      */
     public Optional<PartnerUser> create(long partnerId, long accountId, PartnerUser user)
     {
-        return Optional.of(HTTP.POST(String.format("/v2/partners/%d/accounts/%d/users", partnerId, accountId), user, PARTNER_USERS).get().iterator().next());
+        return Optional.of(HTTP.POST(USERS_PATH.expand(partnerId, accountId), user, PARTNER_USERS).get().iterator().next());
+    }
+
+    /**
+     * Asynchronously creates the given user.
+     * @param partnerId The id of the partner the user belongs to
+     * @param accountId The id of the account for the user
+     * @param user The user to create
+     * @return The future for the user that was created
+     */
+    public CompletableFuture<Optional<PartnerUser>> createAsync(long partnerId, long accountId, PartnerUser user)
+    {
+        return async(() -> create(partnerId, accountId, user));
     }
 
     /**
@@ -70,7 +98,19 @@ public class PartnerUserService extends BaseFluent
      */
     public Optional<PartnerUser> update(long partnerId, long accountId, PartnerUser user)
     {
-        return Optional.of(HTTP.PUT(String.format("/v2/partners/%d/accounts/%d/users", partnerId, accountId), user, PARTNER_USERS).get().iterator().next());
+        return Optional.of(HTTP.PUT(USERS_PATH.expand(partnerId, accountId), user, PARTNER_USERS).get().iterator().next());
+    }
+
+    /**
+     * Asynchronously updates the given user.
+     * @param partnerId The id of the partner the user belongs to
+     * @param accountId The id of the account for the user
+     * @param user The user to update
+     * @return The future for the user that was updated
+     */
+    public CompletableFuture<Optional<PartnerUser>> updateAsync(long partnerId, long accountId, PartnerUser user)
+    {
+        return async(() -> update(partnerId, accountId, user));
     }
 
     /**
@@ -82,7 +122,19 @@ public class PartnerUserService extends BaseFluent
      */
     public PartnerUserService delete(long partnerId, long accountId, long userId)
     {
-        HTTP.DELETE(String.format("/v2/partners/%d/accounts/%d/users/%d", partnerId, accountId, userId));       
+        HTTP.DELETE(USER_PATH.expand(partnerId, accountId, userId));       
         return this;
     }
+
+    /**
+     * Asynchronously deletes the user with the given id.
+     * @param partnerId The id of the partner the user belongs to
+     * @param accountId The id of the account for the user
+     * @param userId The id of the user to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long partnerId, long accountId, long userId)
+    {
+        return async(() -> { delete(partnerId, accountId, userId); });
+    }
 }
@@ -18,12 +18,15 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.List;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.plugins.PluginComponent;
 import com.opsmatters.newrelic.api.model.metrics.Metric;
 import com.opsmatters.newrelic.api.model.metrics.MetricData;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for plugin components.
@@ -32,6 +35,10 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class PluginComponentService extends BaseFluent
 {
+    private static final UriTemplate COMPONENT_PATH = new UriTemplate("/v2/components/{componentId}.json");
+    private static final UriTemplate METRICS_PATH = new UriTemplate("/v2/components/{componentId}/metrics.json");
+    private static final UriTemplate METRIC_DATA_PATH = new UriTemplate("/v2/components/{componentId}/metrics/data.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -52,6 +59,40 @@ public class PluginComponentService extends BaseFluent
         return HTTP.GET("/v2/components.json", null, queryParams, PLUGIN_COMPONENTS).get();
     }
 
+    /**
+     * Asynchronously returns the set of plugin components with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of plugin components
+     */
+    public CompletableFuture<Collection<PluginComponent>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of plugin components with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of plugin components, across all pages
+     */
+    public PagedIterable<PluginComponent> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<PluginComponent>(HTTP, "/v2/components.json", null, queryParams, PLUGIN_COMPONENTS);
+    }
+
+    /**
+     * Returns an iterator over the set of plugin components, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of plugin components, across all pages
+     */
+    public CloseableIterator<PluginComponent> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of plugin components.
      * @return The set of plugin components
@@ -61,6 +102,15 @@ public class PluginComponentService extends BaseFluent
         return list(null);
     }
 
+    /**
+     * Asynchronously returns the set of plugin components.
+     * @return The future for the set of plugin components
+     */
+    public CompletableFuture<Collection<PluginComponent>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the plugin component for the given id.
      * @param componentId The plugin component id
@@ -68,7 +118,17 @@ public class PluginComponentService extends BaseFluent
      */
     public Optional<PluginComponent> show(long componentId)
     {
-        return HTTP.GET(String.format("/v2/components/%d.json", componentId), PLUGIN_COMPONENT);
+        return HTTP.GET(COMPONENT_PATH.expand(componentId), PLUGIN_COMPONENT);
+    }
+
+    /**
+     * Asynchronously returns the plugin component for the given id.
+     * @param componentId The plugin component id
+     * @return The future for the plugin component
+     */
+    public CompletableFuture<Optional<PluginComponent>> showAsync(long componentId)
+    {
+        return async(() -> show(componentId));
     }
 
     /**
@@ -82,7 +142,7 @@ public class PluginComponentService extends BaseFluent
         QueryParameterList queryParams = new QueryParameterList();
         if(name != null && name.length() > 0)
             queryParams.add("name", name);
-        return HTTP.GET(String.format("/v2/components/%d/metrics.json", componentId), null, queryParams, METRICS).get();
+        return HTTP.GET(METRICS_PATH.expand(componentId), null, queryParams, METRICS).get();
     }
 
     /**
@@ -103,7 +163,7 @@ public class PluginComponentService extends BaseFluent
      */
     public Optional<MetricData> metricData(long componentId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/components/%d/metrics/data.json", componentId), null, queryParams, METRIC_DATA);
+        return HTTP.GET(METRIC_DATA_PATH.expand(componentId), null, queryParams, METRIC_DATA);
     }
 
     /**
@@ -16,6 +16,7 @@
 
 package com.opsmatters.newrelic.api.services;
 
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.plugins.PluginData;
@@ -47,4 +48,14 @@ public class PluginMetricService extends BaseFluent
     {
         return HTTP.POST("/v1/metrics", data, STATUS);
     }
+
+    /**
+     * Asynchronously sends the given metric plugin data to New Relic.
+     * @param data The metric data to send
+     * @return The future for the status returned by the server
+     */
+    public CompletableFuture<Optional<Status>> metricDataAsync(PluginData data)
+    {
+        return async(() -> metricData(data));
+    }
 }
@@ -19,10 +19,13 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.plugins.Plugin;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for plugins.
@@ -31,6 +34,8 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class PluginService extends BaseFluent
 {
+    private static final UriTemplate PLUGIN_PATH = new UriTemplate("/v2/plugins/{pluginId}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -51,6 +56,40 @@ public class PluginService extends BaseFluent
         return HTTP.GET("/v2/plugins.json", null, queryParams, PLUGINS).get();
     }
 
+    /**
+     * Asynchronously returns the set of plugins with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of plugins
+     */
+    public CompletableFuture<Collection<Plugin>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of plugins with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of plugins, across all pages
+     */
+    public PagedIterable<Plugin> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<Plugin>(HTTP, "/v2/plugins.json", null, queryParams, PLUGINS);
+    }
+
+    /**
+     * Returns an iterator over the set of plugins, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of plugins, across all pages
+     */
+    public CloseableIterator<Plugin> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of plugins.
      * @param detailed <CODE>true</CODE> if the details of the plugin should be included
@@ -61,6 +100,16 @@ public class PluginService extends BaseFluent
         return list(filters().detailed(detailed).build());
     }
 
+    /**
+     * Asynchronously returns the set of plugins.
+     * @param detailed <CODE>true</CODE> if the details of the plugin should be included
+     * @return The future for the set of plugins
+     */
+    public CompletableFuture<Collection<Plugin>> listAsync(boolean detailed)
+    {
+        return async(() -> list(detailed));
+    }
+
     /**
      * Returns the set of plugins for the given name.
      * @param name The name of the plugins
@@ -79,6 +128,17 @@ public class PluginService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of plugins for the given name.
+     * @param name The name of the plugins
+     * @param detailed <CODE>true</CODE> if the details of the plugin should be included
+     * @return The future for the set of plugins
+     */
+    public CompletableFuture<Collection<Plugin>> listAsync(String name, boolean detailed)
+    {
+        return async(() -> list(name, detailed));
+    }
+
     /**
      * Returns the plugin for the given plugin id.
      * @param pluginId The id for the plugin to return
@@ -89,7 +149,18 @@ public class PluginService extends BaseFluent
     {
         QueryParameterList queryParams = new QueryParameterList();
         queryParams.add("detailed", Boolean.toString(detailed));
-        return HTTP.GET(String.format("/v2/plugins/%d.json", pluginId), null, queryParams, PLUGIN);
+        return HTTP.GET(PLUGIN_PATH.expand(pluginId), null, queryParams, PLUGIN);
+    }
+
+    /**
+     * Asynchronously returns the plugin for the given plugin id.
+     * @param pluginId The id for the plugin to return
+     * @param detailed <CODE>true</CODE> if the details of the plugin should be included
+     * @return The future for the plugin
+     */
+    public CompletableFuture<Optional<Plugin>> showAsync(long pluginId, boolean detailed)
+    {
+        return async(() -> show(pluginId, detailed));
     }
 
     /**
@@ -17,10 +17,12 @@
 package com.opsmatters.newrelic.api.services;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.insights.QueryData;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for Insights queries.
@@ -29,6 +31,8 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class QueryService extends BaseFluent
 {
+    private static final UriTemplate QUERY_PATH = new UriTemplate("/v1/accounts/{accountId}/query");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -49,6 +53,17 @@ public class QueryService extends BaseFluent
     {
         QueryParameterList queryParams = new QueryParameterList();
         queryParams.add("nrql", encode(query));
-        return HTTP.GET(String.format("/v1/accounts/%d/query", accountId), null, queryParams, QUERY_DATA);
+        return HTTP.GET(QUERY_PATH.expand(accountId), null, queryParams, QUERY_DATA);
+    }
+
+    /**
+     * Asynchronously returns the set of data for a query.
+     * @param accountId The id of the account to query
+     * @param query The NRQL query to execute
+     * @return The future for the query data
+     */
+    public CompletableFuture<Optional<QueryData>> listAsync(long accountId, String query)
+    {
+        return async(() -> list(accountId, query));
     }
 }
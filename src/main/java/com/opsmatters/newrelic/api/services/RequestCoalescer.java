@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shares the result of a request with the identical requests made while it is in flight.
+ * <P>
+ * The first caller for a key executes the request, and any callers with the same key that arrive
+ * before it completes wait for it and receive the same result, or the same exception.
+ * A caller can limit the time it waits for the request in flight, so that the call still ends by its deadline.
+ * Because the decoded result is shared, the callers should not modify it.
+ * <P>
+ * The number of requests that were coalesced is counted for each endpoint,
+ * where the numeric ids in the path of the endpoint are replaced by "{id}".
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RequestCoalescer
+{
+    private ConcurrentMap<String,CompletableFuture<Object>> inFlight = new ConcurrentHashMap<String,CompletableFuture<Object>>();
+    private ConcurrentMap<String,AtomicLong> coalesced = new ConcurrentHashMap<String,AtomicLong>();
+
+    /**
+     * Executes the given request, or waits for the identical request already in flight.
+     * @param <T> The type parameter used for the result
+     * @param key The key identifying identical requests
+     * @param endpoint The path of the endpoint, used to count the coalesced requests
+     * @param request The request to execute
+     * @return The result of the request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String endpoint, Supplier<T> request)
+    {
+        CompletableFuture<Object> future = new CompletableFuture<Object>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if(existing != null)
+        {
+            coalesced.computeIfAbsent(getEndpoint(endpoint), k -> new AtomicLong()).incrementAndGet();
+            return (T)join(existing);
+        }
+
+        return execute(key, future, request);
+    }
+
+    /**
+     * Executes the given request, or waits for no longer than the given time for the identical request already in flight.
+     * @param <T> The type parameter used for the result
+     * @param key The key identifying identical requests
+     * @param endpoint The path of the endpoint, used to count the coalesced requests
+     * @param request The request to execute
+     * @param timeout The maximum time to wait for the request in flight in milliseconds
+     * @return The result of the request
+     * @throws InterruptedException if the thread is interrupted while waiting for the request in flight
+     * @throws TimeoutException if the request in flight did not complete within the given time
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String endpoint, Supplier<T> request, long timeout) 
+        throws InterruptedException, TimeoutException
+    {
+        CompletableFuture<Object> future = new CompletableFuture<Object>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if(existing != null)
+        {
+            coalesced.computeIfAbsent(getEndpoint(endpoint), k -> new AtomicLong()).incrementAndGet();
+            return (T)get(existing, timeout);
+        }
+
+        return execute(key, future, request);
+    }
+
+    /**
+     * Executes the given request, completing the future shared with the identical requests.
+     * @param <T> The type parameter used for the result
+     * @param key The key identifying identical requests
+     * @param future The future shared with the identical requests
+     * @param request The request to execute
+     * @return The result of the request
+     */
+    private <T> T execute(String key, CompletableFuture<Object> future, Supplier<T> request)
+    {
+        try
+        {
+            T ret = request.get();
+            future.complete(ret);
+            return ret;
+        }
+        catch(RuntimeException | Error e)
+        {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally
+        {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Returns the number of requests that were coalesced for each endpoint.
+     * @return The number of requests that were coalesced for each endpoint
+     */
+    public Map<String,Long> getCoalescedRequests()
+    {
+        Map<String,Long> ret = new TreeMap<String,Long>();
+        for(Map.Entry<String,AtomicLong> entry : coalesced.entrySet())
+            ret.put(entry.getKey(), entry.getValue().get());
+        return ret;
+    }
+
+    /**
+     * Returns the number of requests that were coalesced for the given endpoint.
+     * @param endpoint The path of the endpoint
+     * @return The number of requests that were coalesced for the endpoint
+     */
+    public long getCoalescedRequests(String endpoint)
+    {
+        AtomicLong count = coalesced.get(getEndpoint(endpoint));
+        return count != null ? count.get() : 0L;
+    }
+
+    /**
+     * Returns the number of requests currently in flight.
+     * @return The number of requests currently in flight
+     */
+    public int getInFlight()
+    {
+        return inFlight.size();
+    }
+
+    /**
+     * Clears the number of requests that were coalesced for each endpoint.
+     */
+    public void reset()
+    {
+        coalesced.clear();
+    }
+
+    /**
+     * Returns the endpoint for the given path, with the numeric ids replaced by "{id}".
+     * @param path The path of the endpoint
+     * @return The endpoint for the path
+     */
+    private static String getEndpoint(String path)
+    {
+        return path.replaceAll("/\\d+(?=[/.]|$)", "/{id}");
+    }
+
+    /**
+     * Waits for the result of the given request.
+     * @param future The future for the request
+     * @return The result of the request
+     */
+    private static Object join(CompletableFuture<Object> future)
+    {
+        try
+        {
+            return future.join();
+        }
+        catch(CompletionException e)
+        {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            if(e.getCause() instanceof Error)
+                throw (Error)e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for no longer than the given time for the result of the given request.
+     * @param future The future for the request
+     * @param timeout The maximum time to wait in milliseconds
+     * @return The result of the request
+     * @throws InterruptedException if the thread is interrupted while waiting
+     * @throws TimeoutException if the request did not complete within the given time
+     */
+    private static Object get(CompletableFuture<Object> future, long timeout) 
+        throws InterruptedException, TimeoutException
+    {
+        try
+        {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        }
+        catch(ExecutionException e)
+        {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            if(e.getCause() instanceof Error)
+                throw (Error)e.getCause();
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "RequestCoalescer [inFlight="+getInFlight()
+            +", coalesced="+getCoalescedRequests()
+            +"]";
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Response;
+import com.opsmatters.newrelic.api.httpclient.HedgingPolicy;
+
+/**
+ * Sends a second identical GET request if the first has not responded within the hedging delay,
+ * and uses the first of the two to respond.
+ * <P>
+ * A response with a 5xx status is only used if the other request also fails. The response of the
+ * request that was not used is closed as soon as it arrives, which releases its connection.
+ * <P>
+ * The latencies and hedged requests are recorded for each endpoint,
+ * where the numeric ids in the path of the endpoint are replaced by "{id}".
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RequestHedger
+{
+    private static final Logger logger = Logger.getLogger(RequestHedger.class.getName());
+
+    private HedgingPolicy policy;
+    private Executor executor;
+    private ConcurrentMap<String,LatencyWindow> latencies = new ConcurrentHashMap<String,LatencyWindow>();
+    private ConcurrentMap<String,AtomicLong> hedged = new ConcurrentHashMap<String,AtomicLong>();
+    private AtomicLong requests = new AtomicLong();
+    private AtomicLong hedges = new AtomicLong();
+    private AtomicLong hedgeWins = new AtomicLong();
+    private AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * Constructor that takes the hedging policy and the executor used to send the requests.
+     * @param policy The hedging policy
+     * @param executor The executor used to send the requests, which should not have a bounded number of threads
+     */
+    public RequestHedger(HedgingPolicy policy, Executor executor)
+    {
+        this.policy = policy;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the hedging policy.
+     * @return The hedging policy
+     */
+    public HedgingPolicy getPolicy()
+    {
+        return policy;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if GET requests for the given path are hedged.
+     * @param path The path of the request
+     * @return <CODE>true</CODE> if GET requests for the path are hedged
+     */
+    public boolean isHedged(String path)
+    {
+        return policy.isHedged(path);
+    }
+
+    /**
+     * Executes the given request, sending it again if there is no response within the hedging delay.
+     * @param path The path of the request
+     * @param request The request to execute
+     * @param permit Returns <CODE>true</CODE> if the second request can be sent within the rate limit
+     * @return The first successful response, or the last response if both failed
+     */
+    public Response execute(String path, Supplier<Response> request, BooleanSupplier permit)
+    {
+        String endpoint = getEndpoint(path);
+        requests.incrementAndGet();
+        long delay = getDelay(endpoint);
+
+        CompletableFuture<Response> primary = submit(endpoint, request);
+        try
+        {
+            return primary.get(delay, TimeUnit.MILLISECONDS);
+        }
+        catch(TimeoutException e)
+        {
+            // No response within the delay, so send the request again
+        }
+        catch(ExecutionException e)
+        {
+            throw unwrap(e.getCause());
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            discard(primary);
+            throw new ProcessingException(e);
+        }
+
+        // A hedge that would have to wait for the rate limit would only add to the load
+        if(!permit.getAsBoolean())
+        {
+            suppressed.incrementAndGet();
+            return await(primary);
+        }
+
+        hedges.incrementAndGet();
+        hedged.computeIfAbsent(endpoint, k -> new AtomicLong()).incrementAndGet();
+        if(logger.isLoggable(Level.FINE))
+            logger.fine("GET "+path+" => no response in "+delay+"ms, hedging");
+
+        CompletableFuture<Response> hedge = submit(endpoint, request);
+        CompletableFuture<CompletableFuture<Response>> first = new CompletableFuture<CompletableFuture<Response>>();
+        primary.whenComplete((r, e) -> choose(first, primary, hedge));
+        hedge.whenComplete((r, e) -> choose(first, hedge, primary));
+
+        CompletableFuture<Response> winner;
+        try
+        {
+            winner = first.get();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            discard(primary);
+            discard(hedge);
+            throw new ProcessingException(e);
+        }
+        catch(ExecutionException e)
+        {
+            throw unwrap(e.getCause());
+        }
+
+        if(winner == hedge)
+            hedgeWins.incrementAndGet();
+        discard(winner == primary ? hedge : primary);
+        return await(winner);
+    }
+
+    /**
+     * Sends the given request using the executor, recording its latency if it succeeds.
+     * <P>
+     * Only the latencies of 2xx responses are recorded, as errors such as 429 are often returned
+     * without doing the work of the request and would otherwise shorten the hedging delay.
+     * @param endpoint The endpoint of the request
+     * @param request The request to execute
+     * @return The future for the response
+     */
+    private CompletableFuture<Response> submit(String endpoint, Supplier<Response> request)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            long started = System.nanoTime();
+            Response response = request.get();
+            if(response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL)
+                record(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-started));
+            return response;
+        }, executor);
+    }
+
+    /**
+     * Selects the given request as the first to respond if it succeeded, or if the other request has also completed.
+     * @param first The future for the first request to respond
+     * @param done The request that has completed
+     * @param other The other request
+     */
+    private static void choose(CompletableFuture<CompletableFuture<Response>> first,
+        CompletableFuture<Response> done, CompletableFuture<Response> other)
+    {
+        if(isSuccessful(done) || other.isDone())
+            first.complete(done);
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given completed request received a response without a 5xx status.
+     * @param future The completed request
+     * @return <CODE>true</CODE> if the request received a response without a 5xx status
+     */
+    private static boolean isSuccessful(CompletableFuture<Response> future)
+    {
+        return !future.isCompletedExceptionally() && future.join().getStatus() < 500;
+    }
+
+    /**
+     * Closes the response of the given request once it arrives.
+     * @param future The request that is not being used
+     */
+    private static void discard(CompletableFuture<Response> future)
+    {
+        future.thenAccept(response -> response.close());
+    }
+
+    /**
+     * Waits for the response of the given request.
+     * @param future The request
+     * @return The response of the request
+     */
+    private static Response await(CompletableFuture<Response> future)
+    {
+        try
+        {
+            return future.get();
+        }
+        catch(ExecutionException e)
+        {
+            throw unwrap(e.getCause());
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            discard(future);
+            throw new ProcessingException(e);
+        }
+    }
+
+    /**
+     * Returns the exception thrown by a request, so that it can be rethrown by the caller.
+     * @param e The exception thrown by the request
+     * @return The exception to rethrow
+     */
+    private static RuntimeException unwrap(Throwable e)
+    {
+        if(e instanceof RuntimeException)
+            return (RuntimeException)e;
+        if(e instanceof Error)
+            throw (Error)e;
+        return new ProcessingException(e);
+    }
+
+    /**
+     * Records the latency of a request with a 2xx response.
+     * @param endpoint The endpoint of the request
+     * @param latency The latency of the request in milliseconds
+     */
+    private void record(String endpoint, long latency)
+    {
+        latencies.computeIfAbsent(endpoint, k -> new LatencyWindow(policy.getWindowSize())).add(latency);
+    }
+
+    /**
+     * Returns the hedging delay for the given endpoint.
+     * @param endpoint The endpoint of the request
+     * @return The hedging delay in milliseconds
+     */
+    private long getDelay(String endpoint)
+    {
+        LatencyWindow window = latencies.get(endpoint);
+        long ret = policy.getInitialDelay();
+        if(window != null && window.size() >= policy.getMinimumSamples())
+            ret = window.getPercentile(policy.getPercentile());
+        return Math.max(ret, policy.getMinDelay());
+    }
+
+    /**
+     * Returns the current hedging delay for the given path.
+     * @param path The path of the request
+     * @return The hedging delay in milliseconds
+     */
+    public long getHedgingDelay(String path)
+    {
+        return getDelay(getEndpoint(path));
+    }
+
+    /**
+     * Returns the number of requests executed by the hedger.
+     * @return The number of requests executed
+     */
+    public long getRequests()
+    {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of second requests that were sent.
+     * @return The number of second requests that were sent
+     */
+    public long getHedges()
+    {
+        return hedges.get();
+    }
+
+    /**
+     * Returns the number of second requests that responded first.
+     * @return The number of second requests that responded first
+     */
+    public long getHedgeWins()
+    {
+        return hedgeWins.get();
+    }
+
+    /**
+     * Returns the number of second requests that were not sent because of the rate limit.
+     * @return The number of second requests that were not sent
+     */
+    public long getSuppressedHedges()
+    {
+        return suppressed.get();
+    }
+
+    /**
+     * Returns the number of second requests that were sent for each endpoint.
+     * @return The number of second requests that were sent for each endpoint
+     */
+    public Map<String,Long> getHedgedRequests()
+    {
+        Map<String,Long> ret = new TreeMap<String,Long>();
+        for(Map.Entry<String,AtomicLong> entry : hedged.entrySet())
+            ret.put(entry.getKey(), entry.getValue().get());
+        return ret;
+    }
+
+    /**
+     * Clears the latencies and counts of the hedged requests.
+     */
+    public void reset()
+    {
+        latencies.clear();
+        hedged.clear();
+        requests.set(0L);
+        hedges.set(0L);
+        hedgeWins.set(0L);
+        suppressed.set(0L);
+    }
+
+    /**
+     * Returns the endpoint for the given path, with the numeric ids replaced by "{id}".
+     * @param path The path of the endpoint
+     * @return The endpoint for the path
+     */
+    private static String getEndpoint(String path)
+    {
+        return path.replaceAll("/\\d+(?=[/.]|$)", "/{id}");
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "RequestHedger [requests="+requests
+            +", hedges="+hedges
+            +", hedgeWins="+hedgeWins
+            +", suppressed="+suppressed
+            +", hedged="+getHedgedRequests()
+            +"]";
+    }
+
+    /**
+     * The most recent latencies of an endpoint.
+     */
+    private static class LatencyWindow
+    {
+        private long[] values;
+        private int position;
+        private int size;
+
+        /**
+         * Constructor that takes the number of latencies to keep.
+         * @param windowSize The number of latencies to keep
+         */
+        LatencyWindow(int windowSize)
+        {
+            values = new long[windowSize];
+        }
+
+        /**
+         * Adds the given latency, replacing the oldest if the window is full.
+         * @param latency The latency in milliseconds
+         */
+        synchronized void add(long latency)
+        {
+            values[position] = latency;
+            position = (position+1)%values.length;
+            if(size < values.length)
+                ++size;
+        }
+
+        /**
+         * Returns the number of latencies in the window.
+         * @return The number of latencies in the window
+         */
+        synchronized int size()
+        {
+            return size;
+        }
+
+        /**
+         * Returns the given percentile of the latencies in the window.
+         * @param percentile The percentile, between 0 and 1
+         * @return The percentile of the latencies
+         */
+        synchronized long getPercentile(double percentile)
+        {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int index = (int)Math.ceil(percentile*size)-1;
+            return sorted[Math.max(index, 0)];
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import com.opsmatters.newrelic.api.httpclient.Deadline;
+import com.opsmatters.newrelic.api.httpclient.ResponseCacheConfig;
+
+/**
+ * Caches the decoded responses to GET requests, keyed by the URI, query parameters and headers of the request.
+ * <P>
+ * Each response expires after the time-to-live configured for its path, and the least recently used
+ * responses are evicted once the total weight exceeds the maximum. A PUT, POST, PATCH or DELETE request
+ * invalidates the cached responses for the same resource family, eg. a request to "/v2/alerts_conditions/policies/123.json"
+ * invalidates the responses for "/v2/alerts_conditions.json" and all the paths under "/v2/alerts_conditions/".
+ * <P>
+ * Because the cached responses are shared, they should not be modified by the callers.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ResponseCache
+{
+    /**
+     * The other resources whose responses include a resource, which are also invalidated when the resource is modified.
+     */
+    private static final SetMultimap<String,String> RELATED = ImmutableSetMultimap.<String,String>builder()
+        .putAll("alerts_policy_channels", "alerts_channels", "alerts_policies")
+        .putAll("alerts_policies", "alerts_channels", "alerts_conditions", "alerts_nrql_conditions",
+            "alerts_external_service_conditions", "alerts_synthetics_conditions", "alerts_plugins_conditions")
+        .putAll("alerts_entity_conditions", "alerts_conditions")
+        .putAll("alerts_conditions", "alerts_entity_conditions")
+        .build();
+
+    private ResponseCacheConfig config;
+    private Cache<String,Entry> cache;
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong version = new AtomicLong();
+
+    /**
+     * Constructor that takes the response cache configuration.
+     * @param config The response cache configuration
+     */
+    public ResponseCache(ResponseCacheConfig config)
+    {
+        this.config = config;
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(config.getMaximumWeight())
+            .weigher(new Weigher<String,Entry>()
+            {
+                @Override
+                public int weigh(String key, Entry entry)
+                {
+                    return entry.weight;
+                }
+            })
+            .expireAfterWrite(Math.max(config.getMaxTtl(), 1L), TimeUnit.MILLISECONDS)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns the configuration of the cache.
+     * @return The configuration of the cache
+     */
+    public ResponseCacheConfig getConfig()
+    {
+        return config;
+    }
+
+    /**
+     * Returns the cached response for the given request, or executes the request and caches its response.
+     * <P>
+     * The cache is not used if the response for the path has a time-to-live of 0,
+     * or if the request is made inside {@link #bypass(Supplier)}. Absent responses are not cached.
+     * <P>
+     * A response is not cached if the cache was invalidated while the request was in flight,
+     * as it may have been read before the resource was modified.
+     * @param <T> The type parameter used for the response
+     * @param key The key identifying the request
+     * @param path The path of the request
+     * @param request The request to execute if there is no cached response
+     * @return The response to the request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, String path, Supplier<T> request)
+    {
+        long ttl = config.getTtl(path);
+        Deadline deadline = Deadline.current();
+        if(ttl <= 0L || (deadline != null && deadline.isUncached()))
+            return request.get();
+
+        Entry entry = cache.getIfPresent(key);
+        if(entry != null && entry.expires - System.nanoTime() > 0L)
+        {
+            hits.incrementAndGet();
+            return (T)entry.value;
+        }
+
+        misses.incrementAndGet();
+        long started = version.get();
+        T ret = request.get();
+        if(ret != null && !(ret instanceof Optional && !((Optional<?>)ret).isPresent()) && version.get() == started)
+        {
+            entry = new Entry(path, ret, ttl);
+            cache.put(key, entry);
+
+            // Remove the response again if an invalidation started while it was being added
+            if(version.get() != started)
+                cache.asMap().remove(key, entry);
+        }
+        return ret;
+    }
+
+    /**
+     * Executes the given operation without using the cache for any requests it makes.
+     * <P>
+     * The bypass is carried by the deadline of the operation, so it also applies to the asynchronous
+     * operations, bulk operations and pagination started inside it. The responses to the requests are not cached.
+     * @param <T> The type parameter used for the result
+     * @param operation The operation to execute
+     * @return The result of the operation
+     */
+    public static <T> T bypass(Supplier<T> operation)
+    {
+        return Deadline.uncached().run(operation);
+    }
+
+    /**
+     * Invalidates the cached responses for the resource family of the given path.
+     * <P>
+     * The resource family is the version and resource of the path, eg. "/v2/alerts_conditions" for
+     * "/v2/alerts_conditions/policies/123.json", and all the cached responses in the family are invalidated,
+     * including the lists of the resource. The cached responses of the families that include the modified
+     * resource are also invalidated, eg. the channels when the channels of a policy are updated.
+     * @param path The path of the modified resource
+     */
+    public void invalidate(String path)
+    {
+        version.incrementAndGet();
+        Set<String> families = getFamilies(path);
+        Iterator<Entry> entries = cache.asMap().values().iterator();
+        while(entries.hasNext())
+        {
+            if(families.contains(getFamily(entries.next().path)))
+                entries.remove();
+        }
+    }
+
+    /**
+     * Invalidates all the cached responses.
+     */
+    public void invalidateAll()
+    {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of requests that were answered from the cache.
+     * @return The number of requests that were answered from the cache
+     */
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of requests that were not answered from the cache.
+     * @return The number of requests that were not answered from the cache
+     */
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Returns the ratio of the requests that were answered from the cache.
+     * @return The ratio of the requests that were answered from the cache
+     */
+    public double getHitRate()
+    {
+        long requests = hits.get()+misses.get();
+        return requests > 0L ? (double)hits.get()/requests : 1.0d;
+    }
+
+    /**
+     * Returns the number of responses evicted from the cache because of their weight or age.
+     * @return The number of responses evicted from the cache
+     */
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Returns the number of responses in the cache.
+     * @return The number of responses in the cache
+     */
+    public long size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Returns the resource family of the given path and the families that include the resource.
+     * @param path The path of the modified resource
+     * @return The resource families to invalidate
+     */
+    private static Set<String> getFamilies(String path)
+    {
+        Set<String> ret = new HashSet<String>();
+        String family = getFamily(path);
+        ret.add(family);
+        int pos = family.lastIndexOf('/');
+        for(String resource : RELATED.get(family.substring(pos+1)))
+            ret.add(family.substring(0, pos+1)+resource);
+        return ret;
+    }
+
+    /**
+     * Returns the resource family of the given path, which is the path up to the resource after the version
+     * without any extension, eg. "/v2/labels" for "/v2/labels/Environment:Production.json".
+     * <P>
+     * Any prefix of the client before the version is kept, eg. "/synthetics/api/v3/monitors".
+     * @param path The path of the request
+     * @return The resource family of the path
+     */
+    private static String getFamily(String path)
+    {
+        String[] segments = path.split("/");
+        StringBuilder ret = new StringBuilder();
+        boolean versioned = false;
+        for(int i = 1; i < segments.length; i++)
+        {
+            String segment = segments[i];
+            int pos = segment.lastIndexOf('.');
+            if(pos >= 0)
+                segment = segment.substring(0, pos);
+            ret.append('/').append(segment);
+            if(versioned || (i == segments.length-1))
+                break;
+            versioned = segment.matches("v\\d+");
+        }
+        return ret.toString();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "ResponseCache [size="+size()
+            +", hits="+hits
+            +", misses="+misses
+            +", evictions="+getEvictionCount()
+            +"]";
+    }
+
+    /**
+     * A cached response with the path of the request and the time it expires.
+     */
+    private static class Entry
+    {
+        private String path;
+        private Object value;
+        private long expires;
+        private int weight;
+
+        /**
+         * Constructor that takes the path of the request, the response and its time-to-live.
+         * @param path The path of the request
+         * @param value The response
+         * @param ttl The time-to-live of the response in milliseconds
+         */
+        Entry(String path, Object value, long ttl)
+        {
+            this.path = path;
+            this.value = value;
+            this.expires = System.nanoTime()+TimeUnit.MILLISECONDS.toNanos(ttl);
+            this.weight = getWeight(value);
+        }
+
+        /**
+         * Returns the weight of the given response, which is the number of entities it contains.
+         * @param value The response
+         * @return The weight of the response
+         */
+        private static int getWeight(Object value)
+        {
+            if(value instanceof Optional)
+                value = ((Optional<?>)value).orNull();
+            if(value instanceof Page)
+                value = ((Page<?>)value).getEntities();
+            if(value instanceof Collection)
+                return Math.max(((Collection<?>)value).size(), 1);
+            if(value instanceof Map)
+                return Math.max(((Map<?,?>)value).size(), 1);
+            return 1;
+        }
+    }
+}
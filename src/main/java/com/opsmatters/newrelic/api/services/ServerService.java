@@ -20,6 +20,7 @@ import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.google.common.collect.Maps;
 import com.opsmatters.newrelic.api.NewRelicClient;
@@ -27,6 +28,8 @@ import com.opsmatters.newrelic.api.model.servers.Server;
 import com.opsmatters.newrelic.api.model.metrics.Metric;
 import com.opsmatters.newrelic.api.model.metrics.MetricData;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for servers.
@@ -35,6 +38,10 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class ServerService extends BaseFluent
 {
+    private static final UriTemplate SERVER_PATH = new UriTemplate("/v2/servers/{serverId}.json");
+    private static final UriTemplate METRICS_PATH = new UriTemplate("/v2/servers/{serverId}/metrics.json");
+    private static final UriTemplate METRIC_DATA_PATH = new UriTemplate("/v2/servers/{serverId}/metrics/data.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -55,6 +62,40 @@ public class ServerService extends BaseFluent
         return HTTP.GET("/v2/servers.json", null, queryParams, SERVERS).get();
     }
 
+    /**
+     * Asynchronously returns the set of servers with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of servers
+     */
+    public CompletableFuture<Collection<Server>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of servers with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of servers, across all pages
+     */
+    public PagedIterable<Server> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<Server>(HTTP, "/v2/servers.json", null, queryParams, SERVERS);
+    }
+
+    /**
+     * Returns an iterator over the set of servers, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of servers, across all pages
+     */
+    public CloseableIterator<Server> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of servers.
      * @return The set of servers
@@ -65,6 +106,15 @@ public class ServerService extends BaseFluent
         return list(queryParams);
     }
 
+    /**
+     * Asynchronously returns the set of servers.
+     * @return The future for the set of servers
+     */
+    public CompletableFuture<Collection<Server>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of servers for the given name.
      * @param name The name of the servers
@@ -82,6 +132,16 @@ public class ServerService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of servers for the given name.
+     * @param name The name of the servers
+     * @return The future for the set of servers
+     */
+    public CompletableFuture<Collection<Server>> listAsync(String name)
+    {
+        return async(() -> list(name));
+    }
+
     /**
      * Returns the server for the given server id.
      * @param serverId The id for the server to return
@@ -89,7 +149,17 @@ public class ServerService extends BaseFluent
      */
     public Optional<Server> show(long serverId)
     {
-        return HTTP.GET(String.format("/v2/servers/%d.json", serverId), SERVER);
+        return HTTP.GET(SERVER_PATH.expand(serverId), SERVER);
+    }
+
+    /**
+     * Asynchronously returns the server for the given server id.
+     * @param serverId The id for the server to return
+     * @return The future for the server
+     */
+    public CompletableFuture<Optional<Server>> showAsync(long serverId)
+    {
+        return async(() -> show(serverId));
     }
 
     /**
@@ -99,7 +169,17 @@ public class ServerService extends BaseFluent
      */
     public Optional<Server> update(Server server)
     {
-        return HTTP.PUT(String.format("/v2/servers/%d.json", server.getId()), server, SERVER);
+        return HTTP.PUT(SERVER_PATH.expand(server.getId()), server, SERVER);
+    }
+
+    /**
+     * Asynchronously updates the given server.
+     * @param server The server to update
+     * @return The future for the server that was updated
+     */
+    public CompletableFuture<Optional<Server>> updateAsync(Server server)
+    {
+        return async(() -> update(server));
     }
 
     /**
@@ -109,10 +189,20 @@ public class ServerService extends BaseFluent
      */
     public ServerService delete(long serverId)
     {
-        HTTP.DELETE(String.format("/v2/servers/%d.json", serverId));       
+        HTTP.DELETE(SERVER_PATH.expand(serverId));       
         return this;
     }
 
+    /**
+     * Asynchronously deletes the given server.
+     * @param serverId The id of the server to delete
+     * @return The future that completes when the delete has been executed
+     */
+    public CompletableFuture<Void> deleteAsync(long serverId)
+    {
+        return async(() -> { delete(serverId); });
+    }
+
     /**
      * Returns the set of metrics for the given server.
      * @param serverId The id of the server to return metrics for
@@ -124,7 +214,7 @@ public class ServerService extends BaseFluent
         QueryParameterList queryParams = new QueryParameterList();
         if(name != null && name.length() > 0)
             queryParams.add("name", name);
-        return HTTP.GET(String.format("/v2/servers/%d/metrics.json", serverId), null, queryParams, METRICS).get();
+        return HTTP.GET(METRICS_PATH.expand(serverId), null, queryParams, METRICS).get();
     }
 
     /**
@@ -145,7 +235,7 @@ public class ServerService extends BaseFluent
      */
     public Optional<MetricData> metricData(long serverId, List<String> queryParams)
     {
-        return HTTP.GET(String.format("/v2/servers/%d/metrics/data.json", serverId), null, queryParams, METRIC_DATA);
+        return HTTP.GET(METRIC_DATA_PATH.expand(serverId), null, queryParams, METRIC_DATA);
     }
 
     /**
@@ -18,11 +18,13 @@ package com.opsmatters.newrelic.api.services;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.accounts.UsageData;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
 import com.opsmatters.newrelic.api.util.Utils;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for usages.
@@ -31,6 +33,8 @@ import com.opsmatters.newrelic.api.util.Utils;
  */
 public class UsageService extends BaseFluent
 {
+    private static final UriTemplate USAGE_PATH = new UriTemplate("/v2/usages/{product}.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -57,6 +61,19 @@ public class UsageService extends BaseFluent
             includeSubaccounts);
     }
 
+    /**
+     * Asynchronously returns the set of usages with the given parameters.
+     * @param product The product for the usages
+     * @param startDate The start date for the usages (in milliseconds)
+     * @param endDate The start date for the usages (in milliseconds)
+     * @param includeSubaccounts <CODE>true</CODE> if sub-accounts should be included in the usages
+     * @return The future for the set of usages
+     */
+    public CompletableFuture<Optional<UsageData>> listAsync(String product, long startDate, long endDate, boolean includeSubaccounts)
+    {
+        return async(() -> list(product, startDate, endDate, includeSubaccounts));
+    }
+
     /**
      * Returns the set of usages with the given parameters.
      * @param product The product for the usages
@@ -73,6 +90,19 @@ public class UsageService extends BaseFluent
         if(endDate != null)
             queryParams.add("end_date", endDate);
         queryParams.add("include_subaccounts", includeSubaccounts);
-        return HTTP.GET(String.format("/v2/usages/%s.json", product), null, queryParams, USAGE_DATA);
+        return HTTP.GET(USAGE_PATH.expand(product), null, queryParams, USAGE_DATA);
+    }
+
+    /**
+     * Asynchronously returns the set of usages with the given parameters.
+     * @param product The product for the usages
+     * @param startDate The start date for the usages (YYYY-MM-DD)
+     * @param endDate The start date for the usages (YYYY-MM-DD)
+     * @param includeSubaccounts <CODE>true</CODE> if sub-accounts should be included in the usages
+     * @return The future for the set of usages
+     */
+    public CompletableFuture<Optional<UsageData>> listAsync(String product, String startDate, String endDate, boolean includeSubaccounts)
+    {
+        return async(() -> list(product, startDate, endDate, includeSubaccounts));
     }
 }
@@ -19,10 +19,13 @@ package com.opsmatters.newrelic.api.services;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import com.google.common.base.Optional;
 import com.opsmatters.newrelic.api.NewRelicClient;
 import com.opsmatters.newrelic.api.model.accounts.User;
 import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+import com.opsmatters.newrelic.api.util.UriTemplate;
 
 /**
  * The set of operations used for users.
@@ -31,6 +34,9 @@ import com.opsmatters.newrelic.api.util.QueryParameterList;
  */
 public class UserService extends BaseFluent
 {
+    private static final UriTemplate USER_PATH = new UriTemplate("/v2/users/{userId}.json");
+    private static final UriTemplate RESET_PASSWORD_PATH = new UriTemplate("/v2/users/{userId}/reset_password.json");
+
     /**
      * Constructor that takes a http context and API client.
      * @param httpContext The set of HTTP operations
@@ -51,6 +57,40 @@ public class UserService extends BaseFluent
         return HTTP.GET("/v2/users.json", null, queryParams, USERS).get();
     }
 
+    /**
+     * Asynchronously returns the set of users with the given query parameters.
+     * @param queryParams The query parameters
+     * @return The future for the set of users
+     */
+    public CompletableFuture<Collection<User>> listAsync(List<String> queryParams)
+    {
+        return async(() -> list(queryParams));
+    }
+
+    /**
+     * Returns the set of users with the given query parameters, across all pages.
+     * <P>
+     * Each page is retrieved as the iteration reaches it, by following the "next" link of the previous page.
+     * @param queryParams The query parameters
+     * @return The set of users, across all pages
+     */
+    public PagedIterable<User> listAll(List<String> queryParams)
+    {
+        return new PagedIterable<User>(HTTP, "/v2/users.json", null, queryParams, USERS);
+    }
+
+    /**
+     * Returns an iterator over the set of users, across all pages, that reads each entity from the response as it is requested.
+     * <P>
+     * The iterator must be closed if the iteration is abandoned early, to release the connection.
+     * @param queryParams The query parameters
+     * @return The iterator over the set of users, across all pages
+     */
+    public CloseableIterator<User> iterator(List<String> queryParams)
+    {
+        return listAll(queryParams).closeableIterator();
+    }
+
     /**
      * Returns the set of users.
      * @return The set of users
@@ -60,6 +100,15 @@ public class UserService extends BaseFluent
         return list(null);
     }
 
+    /**
+     * Asynchronously returns the set of users.
+     * @return The future for the set of users
+     */
+    public CompletableFuture<Collection<User>> listAsync()
+    {
+        return async(() -> list());
+    }
+
     /**
      * Returns the set of users with the given role and where the first or last name contains the given (partial) name.
      * @param name The name of the users to return. Can be a partial first or last name. A null value returns all users.
@@ -81,6 +130,17 @@ public class UserService extends BaseFluent
         return ret;
     }
 
+    /**
+     * Asynchronously returns the set of users with the given role and where the first or last name contains the given (partial) name.
+     * @param name The name of the users to return. Can be a partial first or last name. A null value returns all users.
+     * @param role The role of the users to return. A null value returns all roles.
+     * @return The future for the set of users
+     */
+    public CompletableFuture<Collection<User>> listAsync(String name, String role)
+    {
+        return async(() -> list(name, role));
+    }
+
     /**
      * Returns the user for the given user id.
      * @param userId The id for the user to return
@@ -88,7 +148,17 @@ public class UserService extends BaseFluent
      */
     public Optional<User> show(long userId)
     {
-        return HTTP.GET(String.format("/v2/users/%d.json", userId), USER);
+        return HTTP.GET(USER_PATH.expand(userId), USER);
+    }
+
+    /**
+     * Asynchronously returns the user for the given user id.
+     * @param userId The id for the user to return
+     * @return The future for the user
+     */
+    public CompletableFuture<Optional<User>> showAsync(long userId)
+    {
+        return async(() -> show(userId));
     }
     
     /**
@@ -98,7 +168,17 @@ public class UserService extends BaseFluent
      */
     public Optional<User> resetPassword(long userId)
     {
-        return HTTP.POST(String.format("/v2/users/%d/reset_password.json", userId), null, USER);
+        return HTTP.POST(RESET_PASSWORD_PATH.expand(userId), null, USER);
+    }
+
+    /**
+     * Asynchronously resets the password for the given user.
+     * @param userId The id of the user to reset the password for
+     * @return The future for the user that was reset
+     */
+    public CompletableFuture<Optional<User>> resetPasswordAsync(long userId)
+    {
+        return async(() -> resetPassword(userId));
     }
 
     /**
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Remembers the "ETag" and "Last-Modified" validators of the responses to GET requests,
+ * together with the decoded responses, so that the requests can be made conditional.
+ * <P>
+ * When a request is repeated, the validators are sent in "If-None-Match" and "If-Modified-Since" headers.
+ * If the server replies with a 304 status, the decoded response from the previous request is returned
+ * without transferring or deserializing the entity again.
+ * <P>
+ * Because the decoded responses are shared, they should not be modified by the callers.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ValidatorCache
+{
+    /**
+     * The default maximum number of requests whose validators are remembered.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 1000L;
+
+    private Cache<String,Validator> cache;
+    private AtomicLong notModified = new AtomicLong();
+
+    /**
+     * Default constructor.
+     */
+    public ValidatorCache()
+    {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Constructor that takes the maximum number of requests whose validators are remembered.
+     * @param maximumSize The maximum number of requests whose validators are remembered
+     */
+    public ValidatorCache(long maximumSize)
+    {
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .build();
+    }
+
+    /**
+     * Adds the validators of the previous response to the given request as conditional headers.
+     * @param key The key identifying the request
+     * @param invocation The request to add the headers to
+     * @return <CODE>true</CODE> if the request was made conditional
+     */
+    public boolean apply(String key, Invocation.Builder invocation)
+    {
+        Validator validator = cache.getIfPresent(key);
+        if(validator == null)
+            return false;
+        if(validator.etag != null)
+            invocation.header(HttpHeaders.IF_NONE_MATCH, validator.etag);
+        if(validator.lastModified != null)
+            invocation.header(HttpHeaders.IF_MODIFIED_SINCE, validator.lastModified);
+        return true;
+    }
+
+    /**
+     * Returns the decoded response of the previous request, after the server has replied that it has not been modified.
+     * @param <T> The type parameter used for the response
+     * @param key The key identifying the request
+     * @return The decoded response of the previous request, or <CODE>null</CODE> if it is no longer remembered
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getNotModified(String key)
+    {
+        Validator validator = cache.getIfPresent(key);
+        if(validator == null)
+            return null;
+        notModified.incrementAndGet();
+        return (T)validator.value;
+    }
+
+    /**
+     * Remembers the validators of the given response along with its decoded entity.
+     * <P>
+     * If the response has no validators or the entity is absent, any previous validators for the request are forgotten.
+     * @param key The key identifying the request
+     * @param response The response to the request
+     * @param value The decoded response
+     */
+    public void update(String key, Response response, Object value)
+    {
+        String etag = response.getHeaderString(HttpHeaders.ETAG);
+        String lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+        boolean present = value != null && !(value instanceof Optional && !((Optional<?>)value).isPresent());
+        if(present && (etag != null || lastModified != null))
+            cache.put(key, new Validator(etag, lastModified, value));
+        else
+            cache.invalidate(key);
+    }
+
+    /**
+     * Forgets all the validators.
+     */
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of requests for which the server replied that the response had not been modified.
+     * @return The number of requests for which the response had not been modified
+     */
+    public long getNotModifiedCount()
+    {
+        return notModified.get();
+    }
+
+    /**
+     * Returns the number of requests whose validators are remembered.
+     * @return The number of requests whose validators are remembered
+     */
+    public long size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "ValidatorCache [size="+size()
+            +", notModified="+notModified
+            +"]";
+    }
+
+    /**
+     * The validators of a response together with the decoded response.
+     */
+    private static class Validator
+    {
+        private String etag;
+        private String lastModified;
+        private Object value;
+
+        /**
+         * Constructor that takes the validators and the decoded response.
+         * @param etag The value of the "ETag" header
+         * @param lastModified The value of the "Last-Modified" header
+         * @param value The decoded response
+         */
+        Validator(String etag, String lastModified, Object value)
+        {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.util;
+
+import java.util.Iterator;
+
+/**
+ * Represents an iterator that holds resources, such as an open connection, until it is closed.
+ * <P>
+ * The iterator is closed automatically when the last element has been returned,
+ * but should always be closed if the iteration is abandoned early, eg. using try-with-resources.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable
+{
+    /**
+     * Closes the iterator and releases any resources it holds.
+     * <P>
+     * Calling this method more than once has no effect.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.opsmatters.newrelic.api.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Represents the kinds of threads used to run bulk operations.
+ * 
+ * @author Gerald Curley (opsmatters)
+ */
+public enum ExecutionMode
+{
+    /**
+     * Bulk operations run on the platform threads of the client executor.
+     */
+    PLATFORM_THREADS,
+
+    /**
+     * Bulk operations run on a new virtual thread per task.
+     * <P>
+     * Requires a Java runtime with virtual threads (Java 21 or later), 
+     * otherwise the tasks run on a shared pool of daemon platform threads instead.
+     */
+    VIRTUAL_THREADS;
+
+    private static final Logger logger = Logger.getLogger(ExecutionMode.class.getName());
+
+    /**
+     * Returns the executor used to run the tasks of a bulk operation.
+     * <P>
+     * The executor for virtual threads is created the first time it is used and shared by all the clients,
+     * so it should not be shut down by the caller.
+     * @param clientExecutor The executor of the client
+     * @return The executor used to run the tasks
+     */
+    public Executor getExecutor(Executor clientExecutor)
+    {
+        return this == VIRTUAL_THREADS ? VirtualThreads.EXECUTOR : clientExecutor;
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the Java runtime supports virtual threads.
+     * @return <CODE>true</CODE> if the Java runtime supports virtual threads
+     */
+    public static boolean virtualThreadsSupported()
+    {
+        try
+        {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        }
+        catch(NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Holds the executor for virtual threads, which is resolved once when it is first used.
+     */
+    private static class VirtualThreads
+    {
+        private static final ExecutorService EXECUTOR = newExecutor();
+
+        /**
+         * Returns a new executor that starts a virtual thread for each task,
+         * or a pool of daemon platform threads if virtual threads are not supported.
+         * @return The new executor
+         */
+        private static ExecutorService newExecutor()
+        {
+            try
+            {
+                // Looked up by name as the library is compiled for Java 8
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService)method.invoke(null);
+            }
+            catch(ReflectiveOperationException e)
+            {
+                logger.warning("Virtual threads not supported, using platform threads: "+e.getClass().getName());
+            }
+
+            return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("newrelic-api-bulk-%d").setDaemon(true).build());
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.opsmatters.newrelic.api.util;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Implementation of a list of URL query parameters.
@@ -26,6 +27,25 @@ import java.util.ArrayList;
  */
 public class QueryParameterList extends ArrayList<String>
 {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * The ASCII characters that are not encoded in the names and values of the parameters.
+     */
+    private static final boolean[] UNENCODED = new boolean[128];
+
+    static
+    {
+        for(char c = 'a'; c <= 'z'; c++)
+            UNENCODED[c] = true;
+        for(char c = 'A'; c <= 'Z'; c++)
+            UNENCODED[c] = true;
+        for(char c = '0'; c <= '9'; c++)
+            UNENCODED[c] = true;
+        for(char c : "-._~".toCharArray())
+            UNENCODED[c] = true;
+    }
+
     /**
      * Adds the given query parameter name and value.
      * @param name The name of the parameter
@@ -40,4 +60,83 @@ public class QueryParameterList extends ArrayList<String>
         add(value.toString());
         return true;
     }
+
+    /**
+     * Returns the encoded query string for the parameters, eg. "filter%5Bname%5D=my+app&amp;page=2".
+     * @return The encoded query string for the parameters
+     */
+    public String toQueryString()
+    {
+        return toQueryString(this);
+    }
+
+    /**
+     * Returns the encoded query string for the given list of parameter names and values.
+     * <P>
+     * The names and values are percent-encoded as UTF-8 in a single pass, with spaces encoded as "+".
+     * Any percent-encoded characters already in the names and values are left as they are.
+     * @param queryParams The list of parameter names and values
+     * @return The encoded query string for the parameters
+     */
+    public static String toQueryString(List<String> queryParams)
+    {
+        StringBuilder builder = new StringBuilder(queryParams.size()*12);
+        for(int i = 0; i < queryParams.size(); i += 2)
+        {
+            String value = queryParams.get(i+1);
+            if(value == null)
+                throw new NullPointerException("value == null");
+            if(i > 0)
+                builder.append('&');
+            encode(builder, queryParams.get(i));
+            builder.append('=');
+            encode(builder, value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Appends the given string to the builder, percent-encoding the characters that are not allowed in a query.
+     * @param builder The builder to append the string to
+     * @param str The string to encode
+     */
+    private static void encode(StringBuilder builder, String str)
+    {
+        for(int i = 0; i < str.length(); i++)
+        {
+            char c = str.charAt(i);
+            if(c < 128 && UNENCODED[c])
+            {
+                builder.append(c);
+            }
+            else if(c == ' ')
+            {
+                builder.append('+');
+            }
+            else if(c == '%' && i+2 < str.length() && isHex(str.charAt(i+1)) && isHex(str.charAt(i+2)))
+            {
+                builder.append(str, i, i+3);
+                i += 2;
+            }
+            else
+            {
+                int end = i+1;
+                if(Character.isHighSurrogate(c) && end < str.length() && Character.isLowSurrogate(str.charAt(end)))
+                    ++end;
+                for(byte b : str.substring(i, end).getBytes(StandardCharsets.UTF_8))
+                    builder.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                i = end-1;
+            }
+        }
+    }
+
+    /**
+     * Returns <CODE>true</CODE> if the given character is a hexadecimal digit.
+     * @param c The character to check
+     * @return <CODE>true</CODE> if the character is a hexadecimal digit
+     */
+    private static boolean isHex(char c)
+    {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F') || (c >= 'a' && c <= 'f');
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.util;
+
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Represents a precompiled template for the path of an endpoint, eg. "/v2/applications/{id}.json".
+ * <P>
+ * The template is split into its literal parts once, so that expanding it only
+ * appends the literal parts and the values of the variables in order.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class UriTemplate
+{
+    private String template;
+    private String[] literals;
+    private int length;
+
+    /**
+     * Constructor that takes the template.
+     * @param template The template, with each variable enclosed in braces
+     */
+    public UriTemplate(String template)
+    {
+        if(template == null)
+            throw new NullPointerException("template == null");
+        this.template = template;
+
+        List<String> parts = new ArrayList<String>();
+        int start = 0;
+        int pos;
+        while((pos = template.indexOf('{', start)) >= 0)
+        {
+            int end = template.indexOf('}', pos);
+            if(end < 0)
+                throw new IllegalArgumentException("unclosed variable in template: "+template);
+            parts.add(template.substring(start, pos));
+            length += pos-start;
+            start = end+1;
+        }
+        parts.add(template.substring(start));
+        length += template.length()-start;
+        this.literals = parts.toArray(new String[parts.size()]);
+    }
+
+    /**
+     * Returns the template.
+     * @return The template
+     */
+    public String getTemplate()
+    {
+        return template;
+    }
+
+    /**
+     * Returns the number of variables in the template.
+     * @return The number of variables in the template
+     */
+    public int getVariableCount()
+    {
+        return literals.length-1;
+    }
+
+    /**
+     * Returns the path with the variables of the template replaced by the given values in order.
+     * @param values The values of the variables
+     * @return The expanded path
+     */
+    public String expand(Object... values)
+    {
+        if(values.length != literals.length-1)
+            throw new IllegalArgumentException("expected "+(literals.length-1)
+                +" values for template "+template+" but got "+values.length);
+
+        StringBuilder builder = new StringBuilder(length+(values.length*12));
+        builder.append(literals[0]);
+        for(int i = 0; i < values.length; i++)
+            builder.append(values[i]).append(literals[i+1]);
+        return builder.toString();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "UriTemplate [template="+template+"]";
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import javax.ws.rs.ProcessingException;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.Statuses;
+
+/**
+ * Jersey connector that sends the requests using a java.net.http client.
+ * <P>
+ * The request entity is written by the Jersey message body writers before the request is sent,
+ * and the response body is streamed, so that closing the response cancels the exchange.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+class Http2Connector implements Connector
+{
+    /**
+     * The headers that are set by the java.net.http client, and cannot be set on a request.
+     */
+    private static final Set<String> RESTRICTED_HEADERS = new HashSet<String>(Arrays.asList(
+        "connection", "content-length", "date", "expect", "from", "host", "upgrade", "via", "warning"));
+
+    private HttpClient client;
+
+    /**
+     * Constructor that takes the client used to send the requests.
+     * @param client The client used to send the requests
+     */
+    Http2Connector(HttpClient client)
+    {
+        this.client = client;
+    }
+
+    /**
+     * Sends the given request and waits for the response.
+     * @param request The request to send
+     * @return The response, with the body still to be read
+     */
+    @Override
+    public ClientResponse apply(ClientRequest request)
+    {
+        try
+        {
+            HttpResponse<InputStream> response = client.send(getRequest(request), HttpResponse.BodyHandlers.ofInputStream());
+            return getResponse(request, response);
+        }
+        catch(IOException e)
+        {
+            throw new ProcessingException(e);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(e);
+        }
+    }
+
+    /**
+     * Sends the given request without waiting for the response.
+     * @param request The request to send
+     * @param callback The callback invoked when the response arrives or the request fails
+     * @return The future for the response
+     */
+    @Override
+    public Future<?> apply(ClientRequest request, AsyncConnectorCallback callback)
+    {
+        HttpRequest httpRequest;
+        try
+        {
+            httpRequest = getRequest(request);
+        }
+        catch(ProcessingException e)
+        {
+            callback.failure(e);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream())
+            .whenComplete((response, e) ->
+            {
+                if(e == null)
+                    callback.response(getResponse(request, response));
+                else
+                    callback.failure(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            });
+    }
+
+    /**
+     * Returns the java.net.http request for the given Jersey request, writing the entity if there is one.
+     * @param request The Jersey request
+     * @return The java.net.http request
+     */
+    private HttpRequest getRequest(ClientRequest request)
+    {
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+        if(request.hasEntity())
+        {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            request.setStreamProvider(contentLength -> stream);
+            try
+            {
+                request.writeEntity();
+            }
+            catch(IOException e)
+            {
+                throw new ProcessingException(e);
+            }
+            body = HttpRequest.BodyPublishers.ofByteArray(stream.toByteArray());
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri())
+            .method(request.getMethod(), body);
+
+        // The headers are read after the entity has been written, as the writers can change them
+        for(Map.Entry<String,List<String>> header : request.getStringHeaders().entrySet())
+        {
+            if(RESTRICTED_HEADERS.contains(header.getKey().toLowerCase()))
+                continue;
+            for(String value : header.getValue())
+                builder.header(header.getKey(), value);
+        }
+
+        int connectTimeout = request.resolveProperty(ClientProperties.CONNECT_TIMEOUT, 0);
+        int readTimeout = request.resolveProperty(ClientProperties.READ_TIMEOUT, 0);
+        if(readTimeout > 0)
+            builder.timeout(Duration.ofMillis((long)connectTimeout+readTimeout));
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the Jersey response for the given java.net.http response.
+     * @param request The Jersey request
+     * @param response The java.net.http response
+     * @return The Jersey response
+     */
+    private ClientResponse getResponse(ClientRequest request, HttpResponse<InputStream> response)
+    {
+        ClientResponse ret = new ClientResponse(Statuses.from(response.statusCode()), request);
+        ret.setResolvedRequestUri(response.uri());
+        for(Map.Entry<String,List<String>> header : response.headers().map().entrySet())
+        {
+            // Skip the HTTP/2 pseudo-headers
+            if(!header.getKey().startsWith(":"))
+                ret.getHeaders().addAll(header.getKey(), header.getValue());
+        }
+        ret.setEntityStream(response.body());
+        return ret;
+    }
+
+    /**
+     * Returns the name of the connector.
+     * @return The name of the connector
+     */
+    @Override
+    public String getName()
+    {
+        return "java.net.http "+client.version();
+    }
+
+    /**
+     * Closes the connector.
+     * <P>
+     * The connections of the client are closed once they are idle.
+     */
+    @Override
+    public void close()
+    {
+    }
+}
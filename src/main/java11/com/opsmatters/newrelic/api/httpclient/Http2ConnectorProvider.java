@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+/**
+ * Connector provider for a transport built on the java.net.http client, which requires Java 11.
+ * <P>
+ * The client negotiates HTTP/2 where the server supports it, which multiplexes the concurrent requests
+ * to a host over a single connection, and falls back to HTTP/1.1 otherwise. Asynchronous requests are
+ * sent without blocking a thread while waiting for the response. The connector is used underneath the
+ * Jersey client, so the filters used to attach the keys, the Gson message body handler and the other
+ * client options are unchanged.
+ * <P>
+ * The connect timeout of the client is taken from the configuration of the Jersey client.
+ * The connect and read timeouts of each request are added together to give the time allowed
+ * for the response headers to arrive.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class Http2ConnectorProvider implements ConnectorProvider
+{
+    private static final Logger logger = Logger.getLogger(Http2ConnectorProvider.class.getName());
+
+    private HttpClient.Version version = HttpClient.Version.HTTP_2;
+    private Executor executor;
+
+    /**
+     * Default constructor.
+     */
+    public Http2ConnectorProvider()
+    {
+    }
+
+    /**
+     * Sets the preferred HTTP version of the client.
+     * <P>
+     * The default version is HTTP/2.
+     * @param version The preferred HTTP version
+     */
+    public void setVersion(HttpClient.Version version)
+    {
+        if(version == null)
+            throw new IllegalArgumentException("null version");
+        this.version = version;
+    }
+
+    /**
+     * Returns the preferred HTTP version of the client.
+     * @return The preferred HTTP version
+     */
+    public HttpClient.Version getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Sets the executor used by the client for asynchronous tasks.
+     * @param executor The executor, or <CODE>null</CODE> to use the default executor of the client
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the executor used by the client for asynchronous tasks.
+     * @return The executor, or <CODE>null</CODE> if the default executor of the client is used
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Returns a connector for the given Jersey client.
+     * @param client The Jersey client
+     * @param config The runtime configuration of the client
+     * @return The connector
+     */
+    @Override
+    public Connector getConnector(Client client, Configuration config)
+    {
+        HttpClient.Builder builder = HttpClient.newBuilder().version(version);
+
+        int connectTimeout = ClientProperties.getValue(config.getProperties(), ClientProperties.CONNECT_TIMEOUT, 0);
+        if(connectTimeout > 0)
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+
+        boolean followRedirects = ClientProperties.getValue(config.getProperties(), ClientProperties.FOLLOW_REDIRECTS, true);
+        builder.followRedirects(followRedirects ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER);
+
+        if(client.getSslContext() != null)
+            builder.sslContext(client.getSslContext());
+        if(executor != null)
+            builder.executor(executor);
+
+        if(logger.isLoggable(Level.FINE))
+            logger.fine("Using java.net.http connector: version="+version);
+        return new Http2Connector(builder.build());
+    }
+
+    /**
+     * Returns a string representation of the object.
+     */
+    @Override
+    public String toString()
+    {
+        return "Http2ConnectorProvider [version="+version
+            +", executor="+executor
+            +"]";
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.common.base.Optional;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.model.applications.Application;
+import com.opsmatters.newrelic.api.util.ExecutionMode;
+
+/**
+ * Tests the bulk operations of the client against a local stub server,
+ * including the cancellation of the remaining operations when one fails.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class BulkOperationTest
+{
+    private static final Logger logger = Logger.getLogger(BulkOperationTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":%s,\"name\":\"test-application\"}}";
+
+    private static final int INPUTS = 100;
+    private static final int MAX_CONCURRENCY = 4;
+    private static final long FAILED_ID = 4L;
+
+    @Test(timeout=60000)
+    public void testBulk() throws Exception
+    {
+        String testName = "Bulk";
+        logger.info("Starting test: "+testName);
+
+        final AtomicInteger requests = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = startServer(requests, release, false);
+        NewRelicApi api = getApi(server);
+
+        try
+        {
+            for(ExecutionMode mode : ExecutionMode.values())
+            {
+                api.setExecutionMode(mode);
+                List<Long> ids = getIds(INPUTS);
+                List<Optional<Application>> applications = api.bulk(ids, id -> api.applications().show(id));
+                Assert.assertEquals(INPUTS, applications.size());
+                for(int i = 0; i < INPUTS; i++)
+                    Assert.assertEquals(ids.get(i), applications.get(i).get().getId());
+            }
+            Assert.assertEquals(INPUTS*ExecutionMode.values().length, requests.get());
+        }
+        finally
+        {
+            server.stop(0);
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=60000)
+    public void testFailure() throws Exception
+    {
+        String testName = "Failure";
+        logger.info("Starting test: "+testName);
+
+        // The stub holds every request until it is released
+        final AtomicInteger requests = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = startServer(requests, release, true);
+        NewRelicApi api = getApi(server);
+        api.setMaxConcurrency(MAX_CONCURRENCY);
+
+        try
+        {
+            long started = System.nanoTime();
+            try
+            {
+                api.bulk(getIds(INPUTS), id ->
+                {
+                    // Fail once the other operations are held in the stub
+                    if(id == FAILED_ID)
+                    {
+                        while(requests.get() < MAX_CONCURRENCY-1)
+                            sleep(10L);
+                        throw new IllegalStateException("failed: "+id);
+                    }
+                    return api.applications().show(id);
+                });
+                Assert.fail("expected the operation to fail");
+            }
+            catch(IllegalStateException e)
+            {
+                Assert.assertEquals("failed: "+FAILED_ID, e.getMessage());
+            }
+
+            // The failure is thrown without waiting for the operations that were running,
+            // and no more operations are started
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-started);
+            logger.info("Failed after "+elapsed+"ms with "+requests+" requests");
+            Assert.assertTrue("waited for the running operations: "+elapsed+"ms", elapsed < 5000L);
+            Assert.assertEquals(MAX_CONCURRENCY-1, requests.get());
+        }
+        finally
+        {
+            release.countDown();
+            server.stop(0);
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test
+    public void testExecutionMode() throws Exception
+    {
+        String testName = "ExecutionMode";
+        logger.info("Starting test: "+testName);
+
+        Executor clientExecutor = Executors.newSingleThreadExecutor();
+        Assert.assertSame(clientExecutor, ExecutionMode.PLATFORM_THREADS.getExecutor(clientExecutor));
+
+        // The executor for virtual threads is resolved once and shared
+        Executor executor = ExecutionMode.VIRTUAL_THREADS.getExecutor(clientExecutor);
+        Assert.assertSame(executor, ExecutionMode.VIRTUAL_THREADS.getExecutor(clientExecutor));
+
+        // Its threads do not keep the JVM running
+        Assert.assertTrue(CompletableFuture.supplyAsync(() -> Thread.currentThread().isDaemon(), executor).get());
+        logger.info("Virtual threads supported: "+ExecutionMode.virtualThreadsSupported());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Returns the ids of the given number of applications.
+     */
+    private static List<Long> getIds(int count)
+    {
+        List<Long> ret = new ArrayList<Long>(count);
+        for(long id = 1L; id <= count; id++)
+            ret.add(id);
+        return ret;
+    }
+
+    /**
+     * Waits for the given time.
+     */
+    private static void sleep(long delay)
+    {
+        try
+        {
+            Thread.sleep(delay);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts a stub server that returns an application for each request.
+     */
+    private static HttpServer startServer(final AtomicInteger requests, final CountDownLatch release,
+        final boolean hold) throws IOException
+    {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                requests.incrementAndGet();
+                if(hold)
+                {
+                    try
+                    {
+                        release.await(30L, TimeUnit.SECONDS);
+                    }
+                    catch(InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                String path = exchange.getRequestURI().getPath();
+                String id = path.substring(path.lastIndexOf('/')+1, path.lastIndexOf('.'));
+                byte[] bytes = String.format(APPLICATION, id).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(bytes);
+                out.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return server;
+    }
+
+    /**
+     * Returns a client for the given stub server.
+     */
+    private static NewRelicApi getApi(HttpServer server)
+    {
+        NewRelicApi api = NewRelicApi.builder()
+            .hostname("127.0.0.1")
+            .port(server.getAddress().getPort())
+            .build();
+        api.setHttpClientProvider(new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        });
+        api.initialize();
+        return api;
+    }
+}
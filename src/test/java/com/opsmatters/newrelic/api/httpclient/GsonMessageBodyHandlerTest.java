@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+import javax.ws.rs.core.MediaType;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.exceptions.ErrorResponseException;
+import com.opsmatters.newrelic.api.model.ErrorResponse;
+import com.opsmatters.newrelic.api.model.applications.Application;
+
+/**
+ * Tests the reading of incoming entities, including empty entities and error responses without an entity.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class GsonMessageBodyHandlerTest
+{
+    private static final Logger logger = Logger.getLogger(GsonMessageBodyHandlerTest.class.getName());
+
+    private static final String APPLICATION = "{\"id\":1,\"name\":\"test-application\"}";
+
+    @Test
+    public void testEmptyEntity() throws Exception
+    {
+        String testName = "EmptyEntity";
+        logger.info("Starting test: "+testName);
+
+        // Empty and whitespace-only entities are decoded as null
+        Assert.assertNull(read("", Application.class));
+        Assert.assertNull(read("  \n", Application.class));
+        Assert.assertNull(read("", ErrorResponse.class));
+        Assert.assertNull(read("  \n", ErrorResponse.class));
+
+        Application application = (Application)read(APPLICATION+"\n", Application.class);
+        Assert.assertEquals("test-application", application.getName());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test
+    public void testEntityIsDrained() throws Exception
+    {
+        String testName = "EntityIsDrained";
+        logger.info("Starting test: "+testName);
+
+        // The trailing whitespace after the document is read, so that a pooled connection can be reused
+        ByteArrayInputStream in = new ByteArrayInputStream((APPLICATION+"  \n").getBytes(StandardCharsets.UTF_8));
+        Assert.assertNotNull(read(in, Application.class));
+        Assert.assertEquals(0, in.available());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test
+    public void testEmptyErrorEntity() throws Exception
+    {
+        String testName = "EmptyErrorEntity";
+        logger.info("Starting test: "+testName);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                // Application 1 has a whitespace-only entity, other applications an empty chunked entity
+                byte[] bytes = exchange.getRequestURI().getPath().endsWith("/1.json")
+                    ? "  \n".getBytes(StandardCharsets.UTF_8) : new byte[0];
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(404, bytes.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(bytes);
+                out.close();
+            }
+        });
+        server.start();
+
+        try
+        {
+            NewRelicApi api = new NewRelicApi("127.0.0.1", server.getAddress().getPort(), new ApiKeyHttpClientProvider("test-key")
+            {
+                @Override
+                public boolean useSsl()
+                {
+                    return false;
+                }
+            });
+            api.initialize();
+
+            for(long id = 1L; id <= 2L; id++)
+            {
+                try
+                {
+                    api.applications().show(id);
+                    Assert.fail("expected an error response for application "+id);
+                }
+                catch(ErrorResponseException e)
+                {
+                    Assert.assertEquals(404, e.getStatus());
+                    Assert.assertNull(e.getErrorResponse());
+                }
+            }
+        }
+        finally
+        {
+            server.stop(0);
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Reads the given entity as the given type.
+     */
+    private static Object read(String entity, Class<?> type) throws IOException
+    {
+        return read(new ByteArrayInputStream(entity.getBytes(StandardCharsets.UTF_8)), type);
+    }
+
+    /**
+     * Reads the entity in the given stream as the given type.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object read(InputStream in, Class<?> type) throws IOException
+    {
+        return new GsonMessageBodyHandler().readFrom((Class<Object>)type, type, null, MediaType.APPLICATION_JSON_TYPE, null, in);
+    }
+}
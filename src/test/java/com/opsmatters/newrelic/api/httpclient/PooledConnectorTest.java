@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import javax.ws.rs.client.Client;
+import org.junit.Test;
+import junit.framework.Assert;
+
+/**
+ * Tests the pooled keep-alive connector with and without its optional dependency.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class PooledConnectorTest
+{
+    private static final Logger logger = Logger.getLogger(PooledConnectorTest.class.getName());
+
+    @Test
+    public void testPooledConnector()
+    {
+        String testName = "PooledConnector";
+        logger.info("Starting test: "+testName);
+
+        ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("test-key");
+        provider.setConnectionPool(ConnectionPoolConfig.builder().build());
+        Client client = provider.getClient();
+        Assert.assertNotNull(client);
+        client.close();
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test
+    public void testMissingDependency() throws Exception
+    {
+        String testName = "MissingDependency";
+        logger.info("Starting test: "+testName);
+
+        // Load the provider without the jersey-apache-connector and Apache HttpClient jars
+        List<URL> urls = new ArrayList<URL>();
+        for(String entry : System.getProperty("java.class.path").split(File.pathSeparator))
+        {
+            String name = new File(entry).getName();
+            if(!name.startsWith("jersey-apache-connector") && !name.startsWith("httpclient") && !name.startsWith("httpcore"))
+                urls.add(new File(entry).toURI().toURL());
+        }
+
+        URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+        ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(loader); // Used to find the JAX-RS implementation
+        try
+        {
+            Class<?> providerClass = loader.loadClass(ApiKeyHttpClientProvider.class.getName());
+            Class<?> configClass = loader.loadClass(ConnectionPoolConfig.class.getName());
+            Object provider = providerClass.getConstructor(String.class).newInstance("test-key");
+
+            // The default connector does not need the optional dependency
+            Object client = providerClass.getMethod("getClient").invoke(provider);
+            client.getClass().getMethod("close").invoke(client);
+
+            providerClass.getMethod("setConnectionPool", configClass).invoke(provider, configClass.newInstance());
+            try
+            {
+                providerClass.getMethod("getClient").invoke(provider);
+                Assert.fail("expected an IllegalStateException");
+            }
+            catch(InvocationTargetException e)
+            {
+                Throwable cause = e.getCause();
+                logger.info("Missing dependency: "+cause);
+                Assert.assertEquals(IllegalStateException.class, cause.getClass());
+                Assert.assertTrue(cause.getMessage().contains("jersey-apache-connector"));
+            }
+        }
+        finally
+        {
+            Thread.currentThread().setContextClassLoader(contextLoader);
+            loader.close();
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.util.logging.Logger;
+import org.junit.Test;
+import junit.framework.Assert;
+
+/**
+ * Tests the sharing of rate limiters between the clients that use the same key with the same host.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RateLimiterTest
+{
+    private static final Logger logger = Logger.getLogger(RateLimiterTest.class.getName());
+
+    private static final String KEY = "test-rate-limiter-key";
+
+    @Test
+    public void testSharedLimiter()
+    {
+        String testName = "SharedLimiter";
+        logger.info("Starting test: "+testName);
+
+        String keyId = new ApiKeyHttpClientProvider(KEY).getKeyId();
+        Assert.assertNotNull(keyId);
+        Assert.assertFalse(keyId.contains(KEY));
+        Assert.assertEquals(keyId, new ApiKeyHttpClientProvider(KEY).getKeyId());
+        Assert.assertFalse(keyId.equals(new ApiKeyHttpClientProvider(KEY+"2").getKeyId()));
+
+        RateLimitConfig config = RateLimitConfig.builder().rate(5.0d).burst(10).build();
+        RateLimiter limiter = RateLimiter.getInstance(keyId, "localhost", 8080, config);
+        Assert.assertSame(limiter, RateLimiter.getInstance(keyId, "localhost", 8080,
+            RateLimitConfig.builder().rate(5.0d).burst(10).build()));
+        Assert.assertNotSame(limiter, RateLimiter.getInstance(keyId, "localhost", 8081, config));
+
+        // A provider without a key id has a limiter of its own
+        Assert.assertNotSame(RateLimiter.getInstance(null, "localhost", 8080, config),
+            RateLimiter.getInstance(null, "localhost", 8080, config));
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test
+    public void testDifferentConfig()
+    {
+        String testName = "DifferentConfig";
+        logger.info("Starting test: "+testName);
+
+        String keyId = new LicenseKeyHttpClientProvider(KEY).getKeyId();
+        RateLimiter.getInstance(keyId, "localhost", 8080, RateLimitConfig.builder().rate(5.0d).burst(10).build());
+        try
+        {
+            RateLimiter.getInstance(keyId, "localhost", 8080, RateLimitConfig.builder().rate(20.0d).burst(10).build());
+            Assert.fail("expected the different configuration to be rejected");
+        }
+        catch(IllegalArgumentException e)
+        {
+            Assert.assertFalse(e.getMessage().contains(KEY));
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+}
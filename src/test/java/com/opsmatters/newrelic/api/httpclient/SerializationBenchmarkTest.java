@@ -0,0 +1,362 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import javax.ws.rs.core.MediaType;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.NewRelicPluginsApi;
+import com.opsmatters.newrelic.api.model.alerts.conditions.Nrql;
+import com.opsmatters.newrelic.api.model.alerts.conditions.NrqlAlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.Term;
+import com.opsmatters.newrelic.api.model.insights.Dashboard;
+import com.opsmatters.newrelic.api.model.insights.widgets.EventChart;
+import com.opsmatters.newrelic.api.model.insights.widgets.Markdown;
+import com.opsmatters.newrelic.api.model.insights.widgets.Widget;
+import com.opsmatters.newrelic.api.model.plugins.Component;
+import com.opsmatters.newrelic.api.model.plugins.MetricTimeslice;
+import com.opsmatters.newrelic.api.model.plugins.PluginData;
+
+/**
+ * Microbenchmark of the serialization of outgoing payloads, comparing the time and allocation of
+ * serializing each payload twice (once to a string for the debug log and once to the stream)
+ * with the single pass into a reusable buffer made by the message body handler.
+ * <P>
+ * The payloads are also posted through the clients to a local stub server that echoes them back,
+ * to measure the requests per second and the allocation of each call.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class SerializationBenchmarkTest
+{
+    private static final Logger logger = Logger.getLogger(SerializationBenchmarkTest.class.getName());
+
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 50000;
+    private static final int REQUESTS = 2000;
+
+    static
+    {
+        // Otherwise the stub server delays each response waiting for an acknowledgement
+        // (only takes effect before the first server is created)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    public void testSerialization() throws Exception
+    {
+        String testName = "SerializationBenchmarkTest";
+        logger.info("Starting test: "+testName);
+
+        GsonMessageBodyHandler handler = new GsonMessageBodyHandler();
+        Gson gson = GsonRegistry.getGson();
+
+        for(Object payload : Arrays.asList(getDashboard(), getNrqlCondition(), getPluginData()))
+        {
+            // Both ways of serializing the payload should produce the same entity
+            byte[] before = writeTwice(gson, payload);
+            byte[] after = writeOnce(handler, payload);
+            Assert.assertTrue(Arrays.equals(before, after));
+
+            for(int i = 0; i < WARMUP; i++)
+            {
+                writeTwice(gson, payload);
+                writeOnce(handler, payload);
+            }
+
+            long allocated = getAllocatedBytes();
+            long started = System.nanoTime();
+            for(int i = 0; i < ITERATIONS; i++)
+                writeTwice(gson, payload);
+            long twice = (System.nanoTime()-started)/ITERATIONS;
+            long twiceAllocated = (getAllocatedBytes()-allocated)/ITERATIONS;
+
+            allocated = getAllocatedBytes();
+            started = System.nanoTime();
+            for(int i = 0; i < ITERATIONS; i++)
+                writeOnce(handler, payload);
+            long once = (System.nanoTime()-started)/ITERATIONS;
+            long onceAllocated = (getAllocatedBytes()-allocated)/ITERATIONS;
+
+            String name = payload.getClass().getSimpleName()+" ("+after.length+" bytes)";
+            logger.info(name+" serialized twice: "+twice+"ns/op, "+twiceAllocated+" bytes/op");
+            logger.info(name+" serialized once: "+once+"ns/op, "+onceAllocated+" bytes/op");
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=120000)
+    public void testRequests() throws Exception
+    {
+        String testName = "SerializationRequestBenchmarkTest";
+        logger.info("Starting test: "+testName);
+
+        // The stub echoes each entity back, except for plugin data which returns a status
+        final AtomicReference<byte[]> received = new AtomicReference<byte[]>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                ByteArrayOutputStream entity = new ByteArrayOutputStream();
+                InputStream in = exchange.getRequestBody();
+                byte[] buffer = new byte[1024];
+                for(int n = in.read(buffer); n >= 0; n = in.read(buffer))
+                    entity.write(buffer, 0, n);
+                received.set(entity.toByteArray());
+
+                byte[] bytes = entity.toByteArray();
+                if(exchange.getRequestURI().getPath().endsWith("/v1/metrics"))
+                    bytes = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(bytes);
+                out.close();
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+
+        try
+        {
+            int port = server.getAddress().getPort();
+            NewRelicApi api = new NewRelicApi("127.0.0.1", port, new ApiKeyHttpClientProvider("test-key")
+            {
+                @Override
+                public boolean useSsl()
+                {
+                    return false;
+                }
+            });
+            api.initialize();
+            NewRelicPluginsApi pluginsApi = new NewRelicPluginsApi("127.0.0.1", port, new LicenseKeyHttpClientProvider("test-key")
+            {
+                @Override
+                public boolean useSsl()
+                {
+                    return false;
+                }
+            });
+            pluginsApi.initialize();
+
+            GsonMessageBodyHandler handler = new GsonMessageBodyHandler();
+            for(Object payload : Arrays.asList(getDashboard(), getNrqlCondition(), getPluginData()))
+            {
+                // The server should receive the entity written by the message body handler
+                post(api, pluginsApi, payload);
+                Assert.assertTrue(Arrays.equals(writeOnce(handler, payload), received.get()));
+
+                for(int i = 0; i < WARMUP/100; i++)
+                    post(api, pluginsApi, payload);
+
+                long allocated = getAllocatedBytes();
+                long started = System.nanoTime();
+                for(int i = 0; i < REQUESTS; i++)
+                    post(api, pluginsApi, payload);
+                long elapsed = System.nanoTime()-started;
+                allocated = getAllocatedBytes()-allocated;
+
+                logger.info(payload.getClass().getSimpleName()+" posted: "+(REQUESTS*1000000000L/elapsed)
+                    +" requests/sec, "+(allocated/REQUESTS)+" bytes/op");
+            }
+        }
+        finally
+        {
+            server.stop(0);
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Posts the payload to the stub server using the client for its type, failing if the response is not as expected.
+     */
+    private static void post(NewRelicApi api, NewRelicPluginsApi pluginsApi, Object payload)
+    {
+        if(payload instanceof Dashboard)
+        {
+            Dashboard dashboard = (Dashboard)payload;
+            Assert.assertEquals(dashboard.getTitle(), api.dashboards().create(dashboard).get().getTitle());
+        }
+        else if(payload instanceof NrqlAlertCondition)
+        {
+            NrqlAlertCondition condition = (NrqlAlertCondition)payload;
+            Assert.assertEquals(condition.getName(), api.nrqlAlertConditions().create(1L, condition).get().getName());
+        }
+        else if(payload instanceof PluginData)
+        {
+            Assert.assertEquals("ok", pluginsApi.metrics().metricData((PluginData)payload).get().getStatus());
+        }
+    }
+
+    /**
+     * Serializes the payload the way it was done before the single pass,
+     * to a string for the debug log and then again to the stream.
+     */
+    private byte[] writeTwice(Gson gson, Object payload) throws IOException
+    {
+        out.reset();
+        String json = gson.toJson(payload, payload.getClass());
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        gson.toJson(payload, payload.getClass(), writer);
+        writer.flush();
+        return json.length() > 0 ? out.toByteArray() : null;
+    }
+
+    /**
+     * Serializes the payload using the message body handler.
+     */
+    private byte[] writeOnce(GsonMessageBodyHandler handler, Object payload) throws IOException
+    {
+        out.reset();
+        handler.writeTo(payload, payload.getClass(), payload.getClass(), null, MediaType.APPLICATION_JSON_TYPE, null, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread, or 0 if the JVM does not measure it.
+     */
+    private long getAllocatedBytes()
+    {
+        if(threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return 0L;
+    }
+
+    /**
+     * Returns a dashboard with widgets.
+     */
+    private static Dashboard getDashboard()
+    {
+        return Dashboard.builder()
+            .title("test-dashboard")
+            .version(1)
+            .icon(Dashboard.Icon.BAR_CHART)
+            .allVisibility()
+            .ownerEditable()
+            .addFilter("ProcessSample", "commandName")
+            .widgets(Arrays.<Widget>asList(Markdown.builder()
+                .accountId(1L)
+                .title("markdown-title")
+                .notes("markdown notes")
+                .position(1,2)
+                .size(2,1)
+                .addSourceData("# Dashboard Notes\n\nHere are some notes")
+                .build(),
+                EventChart.builder()
+                .visualization(EventChart.Visualization.HISTOGRAM)
+                .accountId(1L)
+                .title("event-title")
+                .notes("event notes")
+                .position(1,1)
+                .size(1,1)
+                .addNrqlData("SELECT histogram(threadCount,10,20) from ProcessSample SINCE yesterday")
+                .build()))
+            .build();
+    }
+
+    /**
+     * Returns a NRQL alert condition.
+     */
+    private static NrqlAlertCondition getNrqlCondition()
+    {
+        Term term = Term.builder()
+            .duration(Term.Duration.MINUTES_10)
+            .criticalPriority()
+            .aboveOperator()
+            .allTimeFunction()
+            .threshold(1)
+            .build();
+
+        Nrql nrql = Nrql.builder()
+            .query("SELECT average(cpuPercent) from ProcessSample WHERE hostname like 'ip-%'")
+            .sinceValue(3)
+            .build();
+
+        return NrqlAlertCondition.builder()
+            .name("test-condition")
+            .singleValueFunction()
+            .addTerm(term)
+            .nrql(nrql)
+            .enabled(true)
+            .build();
+    }
+
+    /**
+     * Returns the plugin data for a component with each kind of metric.
+     */
+    private static PluginData getPluginData()
+    {
+        MetricTimeslice<Integer> timeslice1 = MetricTimeslice.<Integer> builder()
+            .total(50)
+            .count(4)
+            .min(10)
+            .max(15)
+            .sumOfSquares(325)
+            .build();
+
+        MetricTimeslice<Double> timeslice2 = MetricTimeslice.<Double> builder()
+            .total(50.1)
+            .count(4.1)
+            .min(10.1)
+            .max(15.1)
+            .sumOfSquares(325.1)
+            .build();
+
+        Component component = Component.builder()
+            .name("my-component")
+            .guid("com.test.my-plugin")
+            .duration(60)
+            .addMetric("Component/Database[Queries/First]", 100)
+            .addMetric("Component/Database[Queries/Second]", new int[] {25, 2, 10, 15, 325})
+            .addMetric("Component/Database[Queries/Third]", timeslice1)
+            .addMetric("Component/Database[Queries/Fourth]", timeslice2)
+            .build();
+
+        return PluginData.builder()
+            .host("test-host")
+            .pid(12345)
+            .version("1.0")
+            .addComponent(component)
+            .build();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.model.alerts.channels.AlertChannel;
+import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
+import com.opsmatters.newrelic.api.model.applications.Application;
+import com.opsmatters.newrelic.api.model.insights.Dashboard;
+import com.opsmatters.newrelic.api.model.servers.Server;
+import com.opsmatters.newrelic.api.model.synthetics.Monitor;
+
+/**
+ * Measures the first decode of a mixed set of responses on a cold registry, with and without the warm-up
+ * enabled on the client, each in a class loader of its own.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class WarmUpTest
+{
+    private static final Logger logger = Logger.getLogger(WarmUpTest.class.getName());
+
+    private static final int RUNS = 3;
+
+    @Test
+    public void testWarmUp() throws Exception
+    {
+        String testName = "WarmUp";
+        logger.info("Starting test: "+testName);
+
+        long cold = Long.MAX_VALUE, warm = Long.MAX_VALUE;
+        for(int i = 0; i < RUNS; i++)
+        {
+            // The warm-up is only run when it is enabled on the client
+            long[] result = run(false);
+            Assert.assertEquals(0L, result[0]);
+            cold = Math.min(cold, result[1]);
+
+            result = run(true);
+            Assert.assertEquals(1L, result[0]);
+            warm = Math.min(warm, result[1]);
+        }
+
+        logger.info("First decode: cold="+TimeUnit.NANOSECONDS.toMillis(cold)
+            +"ms, warm="+TimeUnit.NANOSECONDS.toMillis(warm)+"ms");
+        Assert.assertTrue("warm-up did not reduce the first decode: cold="+cold+"ns, warm="+warm+"ns", warm < cold);
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Runs the probe in a new class loader, so that the registry and its adapters are created from scratch.
+     * @return The result of the probe
+     */
+    private static long[] run(boolean warmUp) throws Exception
+    {
+        List<URL> urls = new ArrayList<URL>();
+        for(String entry : System.getProperty("java.class.path").split(File.pathSeparator))
+            urls.add(new File(entry).toURI().toURL());
+
+        // The parent of the system class loader only provides the JDK classes
+        ClassLoader parent = ClassLoader.getSystemClassLoader().getParent();
+        URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), parent);
+        ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(loader); // Used to find the JAX-RS implementation
+        try
+        {
+            Class<?> probe = loader.loadClass(Probe.class.getName());
+            return (long[])probe.getMethod("run", boolean.class).invoke(null, warmUp);
+        }
+        finally
+        {
+            Thread.currentThread().setContextClassLoader(contextLoader);
+            loader.close();
+        }
+    }
+
+    /**
+     * Initializes a client and then decodes the responses, in the class loader of the test run.
+     */
+    public static class Probe
+    {
+        private static final String APPLICATIONS = "{\"applications\":[{\"id\":1,\"name\":\"test-application\","
+            +"\"application_summary\":{\"response_time\":1.5,\"throughput\":10.0,\"apdex_score\":0.9},"
+            +"\"links\":{\"servers\":[1],\"application_hosts\":[2]}}]}";
+        private static final String SERVERS = "{\"servers\":[{\"id\":1,\"name\":\"test-server\","
+            +"\"summary\":{\"cpu\":10.0,\"memory\":20.0}}]}";
+        private static final String CHANNELS = "{\"channels\":[{\"id\":1,\"name\":\"test-email\",\"type\":\"email\","
+            +"\"configuration\":{\"recipients\":\"test@test.com\"}},{\"id\":2,\"name\":\"test-webhook\",\"type\":\"webhook\","
+            +"\"configuration\":{\"base_url\":\"http://test.com\",\"headers\":{\"X-Header\":\"value\"}}}]}";
+        private static final String CONDITIONS = "{\"conditions\":[{\"id\":1,\"type\":\"apm_app_metric\",\"name\":\"test-condition\","
+            +"\"entities\":[\"1\"],\"metric\":\"apdex\",\"terms\":[{\"duration\":\"5\",\"operator\":\"above\","
+            +"\"priority\":\"critical\",\"threshold\":\"1\",\"time_function\":\"all\"}]}]}";
+        private static final String MONITORS = "{\"monitors\":[{\"id\":\"1\",\"name\":\"test-monitor\",\"type\":\"SIMPLE\","
+            +"\"frequency\":10,\"uri\":\"http://test.com\",\"locations\":[\"AWS_US_WEST_1\"],\"status\":\"ENABLED\"}]}";
+        private static final String DASHBOARD = "{\"dashboard\":{\"id\":1,\"title\":\"test-dashboard\",\"widgets\":[{\"visualization\":\"inventory\","
+            +"\"account_id\":1,\"data\":[{\"sources\":[\"config/apache\"],\"filters\":{\"name\":\"test\"}}],"
+            +"\"layout\":{\"width\":1,\"height\":1,\"row\":1,\"column\":1},\"presentation\":{\"title\":\"test-widget\"}}]}}";
+
+        /**
+         * Initializes a client with or without the warm-up, then decodes the responses.
+         * @param warmUp <CODE>true</CODE> if the warm-up should be enabled on the client
+         * @return 1 if the registry was warmed up (otherwise 0), and the time taken to decode the responses in nanoseconds
+         */
+        public static long[] run(boolean warmUp)
+        {
+            NewRelicApi.builder().apiKey("test-key").warmUp(warmUp).build().initialize();
+            long warmedUp = GsonRegistry.isWarmedUp() ? 1L : 0L;
+
+            Gson gson = GsonRegistry.getGson();
+            long started = System.nanoTime();
+            decode(gson, APPLICATIONS, new TypeToken<Collection<Application>>(){}.getType());
+            decode(gson, SERVERS, new TypeToken<Collection<Server>>(){}.getType());
+            decode(gson, CHANNELS, new TypeToken<Collection<AlertChannel>>(){}.getType());
+            decode(gson, CONDITIONS, new TypeToken<Collection<AlertCondition>>(){}.getType());
+            decode(gson, MONITORS, new TypeToken<Collection<Monitor>>(){}.getType());
+            Assert.assertEquals(1, gson.fromJson(DASHBOARD, Dashboard.class).getWidgets().size());
+            return new long[]{warmedUp, System.nanoTime()-started};
+        }
+
+        /**
+         * Decodes the given collection response.
+         */
+        private static void decode(Gson gson, String json, Type type)
+        {
+            Collection<?> items = gson.fromJson(json, type);
+            Assert.assertFalse(items.isEmpty());
+        }
+    }
+}
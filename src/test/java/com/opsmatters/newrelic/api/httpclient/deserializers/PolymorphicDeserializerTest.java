@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.httpclient.deserializers;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.logging.Logger;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.gson.reflect.TypeToken;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.model.alerts.channels.AlertChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.EmailChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.WebhookChannel;
+import com.opsmatters.newrelic.api.model.alerts.channels.WebhookConfiguration;
+import com.opsmatters.newrelic.api.model.insights.Dashboard;
+import com.opsmatters.newrelic.api.model.insights.widgets.InventoryChart;
+import com.opsmatters.newrelic.api.model.insights.widgets.InventoryData;
+import com.opsmatters.newrelic.api.model.insights.widgets.Widget;
+
+/**
+ * Tests the deserialization of polymorphic types with fields that are maps,
+ * and with the discriminator before, among or after the other attributes.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class PolymorphicDeserializerTest
+{
+    private static final Logger logger = Logger.getLogger(PolymorphicDeserializerTest.class.getName());
+
+    private static final Type CHANNELS = new TypeToken<Collection<AlertChannel>>(){}.getType();
+
+    private static final String WEBHOOK_CONFIGURATION = "\"configuration\":{\"base_url\":\"http://test.com\","
+        +"\"payload_type\":\"application/json\",\"payload\":{\"account\":\"test\",\"count\":2},\"headers\":{\"X-Header\":\"value\"}}";
+
+    @Test
+    public void testWebhookChannel()
+    {
+        String testName = "WebhookChannel";
+        logger.info("Starting test: "+testName);
+
+        // The discriminator can come before or after the configuration
+        checkWebhookChannel("{\"channels\":[{\"id\":1,\"name\":\"test-webhook\",\"type\":\"webhook\","+WEBHOOK_CONFIGURATION+"}]}");
+        checkWebhookChannel("{\"channels\":[{\"id\":1,\"name\":\"test-webhook\","+WEBHOOK_CONFIGURATION+",\"type\":\"webhook\"}]}");
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test
+    public void testDiscriminatorFirst()
+    {
+        String testName = "DiscriminatorFirst";
+        logger.info("Starting test: "+testName);
+
+        // The objects are bound directly from the stream, and the channels after them are still read
+        String json = "{\"channels\":[{\"type\":\"webhook\",\"id\":1,\"name\":\"test-webhook\","+WEBHOOK_CONFIGURATION+"},"
+            +"{\"type\":\"email\",\"id\":2,\"name\":\"test-email\",\"configuration\":{\"recipients\":\"test@test.com\"},"
+            +"\"links\":{\"policy_ids\":[4]}}]}";
+
+        Collection<AlertChannel> channels = GsonRegistry.getGson().fromJson(json, CHANNELS);
+        Assert.assertEquals(2, channels.size());
+        Iterator<AlertChannel> iterator = channels.iterator();
+
+        AlertChannel channel = iterator.next();
+        Assert.assertTrue(channel instanceof WebhookChannel);
+        Assert.assertEquals(1L, channel.getId().longValue());
+        Assert.assertEquals("test-webhook", channel.getName());
+        Assert.assertEquals("webhook", channel.getType());
+        WebhookConfiguration configuration = ((WebhookChannel)channel).getConfiguration();
+        Assert.assertEquals("http://test.com", configuration.getBaseUrl());
+        Assert.assertEquals("value", configuration.getHeaders().get("X-Header"));
+
+        channel = iterator.next();
+        Assert.assertTrue(channel instanceof EmailChannel);
+        Assert.assertEquals(2L, channel.getId().longValue());
+        Assert.assertEquals("test-email", channel.getName());
+        Assert.assertEquals("test@test.com", ((EmailChannel)channel).getConfiguration().getRecipients());
+        Assert.assertEquals(4L, channel.getLinks().getPolicyIds().get(0).longValue());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Checks that the given channels include a webhook channel with the payload and headers.
+     */
+    private void checkWebhookChannel(String json)
+    {
+        Collection<AlertChannel> channels = GsonRegistry.getGson().fromJson(json, CHANNELS);
+        Assert.assertEquals(1, channels.size());
+        AlertChannel channel = channels.iterator().next();
+        Assert.assertTrue(channel instanceof WebhookChannel);
+        Assert.assertEquals("test-webhook", channel.getName());
+
+        WebhookConfiguration configuration = ((WebhookChannel)channel).getConfiguration();
+        Assert.assertEquals("http://test.com", configuration.getBaseUrl());
+        Assert.assertEquals("test", configuration.getPayload().get("account"));
+        Assert.assertEquals(2.0d, configuration.getPayload().get("count"));
+        Assert.assertEquals("value", configuration.getHeaders().get("X-Header"));
+    }
+
+    @Test
+    public void testInventoryWidget()
+    {
+        String testName = "InventoryWidget";
+        logger.info("Starting test: "+testName);
+
+        String json = "{\"dashboard\":{\"id\":1,\"title\":\"test-dashboard\",\"widgets\":[{\"visualization\":\"inventory\","
+            +"\"account_id\":1,\"data\":[{\"sources\":[\"config/apache\"],\"filters\":{\"name\":\"test\",\"version\":\"2.4\"}}],"
+            +"\"layout\":{\"width\":1,\"height\":1,\"row\":1,\"column\":1},\"presentation\":{\"title\":\"test-widget\"}}]}}";
+
+        Dashboard dashboard = GsonRegistry.getGson().fromJson(json, Dashboard.class);
+        Assert.assertEquals(1, dashboard.getWidgets().size());
+        Widget widget = dashboard.getWidgets().get(0);
+        Assert.assertTrue(widget instanceof InventoryChart);
+        Assert.assertEquals(1, widget.getData().size());
+
+        InventoryData data = (InventoryData)widget.getData().get(0);
+        Assert.assertEquals("config/apache", data.getSources().get(0));
+        Assert.assertEquals("test", data.getFilters().get("name"));
+        Assert.assertEquals("2.4", data.getFilters().get("version"));
+
+        logger.info("Completed test: "+testName);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.common.base.Optional;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.model.alerts.policies.AlertPolicy;
+import com.opsmatters.newrelic.api.model.applications.Application;
+
+/**
+ * Tests the asynchronous calls of the services, using a local stub server
+ * that holds the slow requests until it is released.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class AsyncTest
+{
+    private static final Logger logger = Logger.getLogger(AsyncTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":1,\"name\":\"test-application\"}}";
+    private static final String POLICY = "{\"policy\":{\"id\":1,\"name\":\"test-policy\",\"incident_preference\":\"PER_POLICY\"}}";
+
+    private HttpServer server;
+    private NewRelicApi api;
+    private CountDownLatch release;
+    private AtomicInteger inFlight = new AtomicInteger();
+    private AtomicInteger maxInFlight = new AtomicInteger();
+    private List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+
+    @Before
+    public void setUp() throws Exception
+    {
+        release = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                String path = exchange.getRequestURI().getPath();
+                requests.add(exchange.getRequestMethod()+" "+path);
+                if(path.startsWith("/v2/applications"))
+                {
+                    int count = inFlight.incrementAndGet();
+                    maxInFlight.accumulateAndGet(count, Math::max);
+                    try
+                    {
+                        release.await(10L, TimeUnit.SECONDS);
+                    }
+                    catch(InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                    inFlight.decrementAndGet();
+                    send(exchange, APPLICATION);
+                }
+                else
+                {
+                    send(exchange, POLICY);
+                }
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        api = new NewRelicApi("127.0.0.1", server.getAddress().getPort(), new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        });
+        api.initialize();
+    }
+
+    @After
+    public void tearDown()
+    {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test(timeout=30000)
+    public void testDefaultExecutorIsBounded() throws Exception
+    {
+        String testName = "DefaultExecutorIsBounded";
+        logger.info("Starting test: "+testName);
+
+        // The calls beyond the size of the default pool wait for a thread rather than starting a new one
+        int calls = HttpContext.DEFAULT_THREADS+20;
+        List<CompletableFuture<Optional<Application>>> futures = new ArrayList<CompletableFuture<Optional<Application>>>();
+        for(int i = 0; i < calls; i++)
+            futures.add(api.applications().showAsync(1L));
+
+        long started = System.nanoTime();
+        while(inFlight.get() < HttpContext.DEFAULT_THREADS && System.nanoTime()-started < TimeUnit.SECONDS.toNanos(10L))
+            Thread.sleep(10L);
+        Thread.sleep(200L);
+        logger.info("Calls in flight: "+inFlight.get());
+        Assert.assertEquals(HttpContext.DEFAULT_THREADS, inFlight.get());
+
+        release.countDown();
+        for(CompletableFuture<Optional<Application>> future : futures)
+            Assert.assertEquals("test-application", future.get(10L, TimeUnit.SECONDS).get().getName());
+        Assert.assertEquals(HttpContext.DEFAULT_THREADS, maxInFlight.get());
+        Assert.assertEquals(calls, requests.size());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=30000)
+    public void testCreateUpdateDelete() throws Exception
+    {
+        String testName = "CreateUpdateDelete";
+        logger.info("Starting test: "+testName);
+
+        AlertPolicy policy = AlertPolicy.builder().name("test-policy").perPolicyIncidentPreference().build();
+        AlertPolicy created = api.alertPolicies().createAsync(policy).get(10L, TimeUnit.SECONDS).get();
+        Assert.assertEquals(1L, created.getId().longValue());
+        Assert.assertEquals("test-policy", api.alertPolicies().updateAsync(created).get(10L, TimeUnit.SECONDS).get().getName());
+        Assert.assertNull(api.alertPolicies().deleteAsync(created.getId()).get(10L, TimeUnit.SECONDS));
+
+        Assert.assertEquals("POST /v2/alerts_policies.json", requests.get(0));
+        Assert.assertEquals("PUT /v2/alerts_policies/1.json", requests.get(1));
+        Assert.assertEquals("DELETE /v2/alerts_policies/1.json", requests.get(2));
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Sends the given response from the stub server.
+     */
+    private static void send(HttpExchange exchange, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.common.base.Optional;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.model.applications.Application;
+import com.opsmatters.newrelic.api.util.ExecutionMode;
+
+/**
+ * Benchmark of the throughput of a bulk operation in each execution mode, compared with making
+ * the same calls one after another, against a local stub server that takes a fixed time to respond.
+ * <P>
+ * The number of calls can be set using the "bulk.benchmark.inputs" system property.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class BulkBenchmarkTest
+{
+    private static final Logger logger = Logger.getLogger(BulkBenchmarkTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":%s,\"name\":\"test-application\"}}";
+
+    private static final long LATENCY = 20L;
+    private static final int INPUTS = Integer.getInteger("bulk.benchmark.inputs", 10000);
+    private static final int MAX_CONCURRENCY = 25;
+
+    // The sequential calls are timed for a sample of the inputs, as making all of them takes minutes
+    private static final int SAMPLE = Math.min(INPUTS, 200);
+
+    private static HttpServer server;
+    private static NewRelicApi api;
+    private static List<Long> ids;
+    private static long sequential;
+
+    static
+    {
+        // Otherwise the stub server delays each response waiting for an acknowledgement
+        // (only takes effect before the first server is created)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @BeforeClass
+    public static void setUp() throws Exception
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                sleep(LATENCY);
+                String path = exchange.getRequestURI().getPath();
+                String id = path.substring(path.lastIndexOf('/')+1, path.lastIndexOf('.'));
+                byte[] bytes = String.format(APPLICATION, id).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(bytes);
+                out.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        api = NewRelicApi.builder()
+            .hostname("127.0.0.1")
+            .port(server.getAddress().getPort())
+            .build();
+        api.setHttpClientProvider(new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        });
+        api.setMaxConcurrency(MAX_CONCURRENCY);
+        api.initialize();
+
+        ids = new ArrayList<Long>(INPUTS);
+        for(long id = 1L; id <= INPUTS; id++)
+            ids.add(id);
+
+        // Warm up the client before measuring
+        api.bulk(ids.subList(0, SAMPLE), id -> api.applications().show(id));
+
+        long started = System.nanoTime();
+        for(Long id : ids.subList(0, SAMPLE))
+            Assert.assertTrue(api.applications().show(id).isPresent());
+        sequential = (System.nanoTime()-started)*INPUTS/SAMPLE;
+        log("Sequential calls (estimated from "+SAMPLE+" calls)", sequential);
+    }
+
+    @AfterClass
+    public static void tearDown()
+    {
+        if(server != null)
+            server.stop(0);
+    }
+
+    @Test(timeout=120000)
+    public void testPlatformThreads() throws Exception
+    {
+        String testName = "BulkBenchmarkTest.PlatformThreads";
+        logger.info("Starting test: "+testName);
+
+        bulk(ExecutionMode.PLATFORM_THREADS);
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=120000)
+    public void testVirtualThreads() throws Exception
+    {
+        Assume.assumeTrue("virtual threads are not supported by this runtime", ExecutionMode.virtualThreadsSupported());
+
+        String testName = "BulkBenchmarkTest.VirtualThreads";
+        logger.info("Starting test: "+testName);
+
+        bulk(ExecutionMode.VIRTUAL_THREADS);
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Runs the bulk operation in the given execution mode and checks that it is faster than sequential calls.
+     */
+    private static void bulk(ExecutionMode mode)
+    {
+        api.setExecutionMode(mode);
+        long started = System.nanoTime();
+        List<Optional<Application>> applications = api.bulk(ids, id -> api.applications().show(id));
+        long elapsed = System.nanoTime()-started;
+        log("Bulk with "+mode, elapsed);
+
+        Assert.assertEquals(INPUTS, applications.size());
+        for(int i = 0; i < INPUTS; i++)
+            Assert.assertEquals(ids.get(i), applications.get(i).get().getId());
+        Assert.assertTrue("bulk was not faster than sequential calls", elapsed < sequential);
+    }
+
+    /**
+     * Logs the time taken and the throughput of the calls.
+     */
+    private static void log(String name, long nanos)
+    {
+        logger.info(name+": "+TimeUnit.NANOSECONDS.toMillis(nanos)+"ms, "+(INPUTS*1000000000L/nanos)+" calls/sec");
+    }
+
+    /**
+     * Waits for the given time in the stub server.
+     */
+    private static void sleep(long delay)
+    {
+        try
+        {
+            Thread.sleep(delay);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
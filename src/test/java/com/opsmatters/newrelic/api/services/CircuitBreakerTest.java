@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.exceptions.DeadlineExceededException;
+import com.opsmatters.newrelic.api.exceptions.ErrorResponseException;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreaker;
+import com.opsmatters.newrelic.api.httpclient.CircuitBreakerConfig;
+import com.opsmatters.newrelic.api.httpclient.RateLimitConfig;
+import com.opsmatters.newrelic.api.httpclient.TimeoutConfig;
+
+/**
+ * Tests that calls throttled by the client before a request is sent are not recorded as failures
+ * by the circuit breaker, using a local stub server.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class CircuitBreakerTest
+{
+    private static final Logger logger = Logger.getLogger(CircuitBreakerTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":1,\"name\":\"test-application\"}}";
+
+    private static final double RATE = 0.5d;
+    private static final long CALL_TIMEOUT = 1000L;
+    private static final long OPEN_DURATION = 300L;
+
+    private HttpServer server;
+    private AtomicInteger requests = new AtomicInteger();
+    private AtomicBoolean failing = new AtomicBoolean(false);
+
+    @Before
+    public void setUp() throws Exception
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                requests.incrementAndGet();
+                byte[] bytes = APPLICATION.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(failing.get() ? 500 : 200, bytes.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(bytes);
+                out.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown()
+    {
+        server.stop(0);
+    }
+
+    @Test(timeout=30000)
+    public void testRateLimitDoesNotTrip() throws Exception
+    {
+        String testName = "RateLimitDoesNotTrip";
+        logger.info("Starting test: "+testName);
+
+        NewRelicApi api = getApi("rate-limit-key", true);
+
+        // Only the first call gets a token, the others give up waiting before a request is sent
+        int throttled = 0;
+        for(int i = 0; i < 10; i++)
+        {
+            try
+            {
+                Assert.assertTrue(api.applications().show(1L).isPresent());
+            }
+            catch(DeadlineExceededException e)
+            {
+                ++throttled;
+            }
+        }
+
+        CircuitBreaker breaker = getBreaker(api);
+        logger.info("Throttled calls: "+throttled+", requests: "+requests+", "+breaker);
+        Assert.assertEquals(9, throttled);
+        Assert.assertEquals(1, requests.get());
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        Assert.assertEquals(0.0d, breaker.getFailureRate());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=30000)
+    public void testThrottledTrialCall() throws Exception
+    {
+        String testName = "ThrottledTrialCall";
+        logger.info("Starting test: "+testName);
+
+        // The two clients share the rate limit of the key
+        NewRelicApi api = getApi("trial-key", true);
+        NewRelicApi other = getApi("trial-key", false);
+
+        // Open the circuit with failed requests
+        failing.set(true);
+        for(int i = 0; i < 2; i++)
+        {
+            try
+            {
+                api.applications().show(1L);
+                Assert.fail("expected an error response");
+            }
+            catch(ErrorResponseException e)
+            {
+                Assert.assertEquals(500, e.getStatus());
+            }
+            Thread.sleep(Math.round(1000L/RATE)+100L);
+        }
+        CircuitBreaker breaker = getBreaker(api);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        failing.set(false);
+
+        // The other client takes the token, so the trial call gives up before a request is sent
+        Thread.sleep(OPEN_DURATION);
+        Assert.assertTrue(other.applications().show(1L).isPresent());
+        try
+        {
+            api.applications().show(1L);
+            Assert.fail("expected the call to be throttled");
+        }
+        catch(DeadlineExceededException e)
+        {
+        }
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // The trial call is made once a token is available
+        Thread.sleep(Math.round(1000L/RATE)+100L);
+        Assert.assertTrue(api.applications().show(1L).isPresent());
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Returns a client for the stub server with a tight rate limit, and a short call timeout and circuit breaker if requested.
+     */
+    private NewRelicApi getApi(String key, boolean breaker)
+    {
+        NewRelicApi.Builder builder = NewRelicApi.builder()
+            .hostname("127.0.0.1")
+            .port(server.getAddress().getPort())
+            .apiKey(key)
+            .rateLimit(RateLimitConfig.builder().rate(RATE).burst(1).build());
+        if(breaker)
+        {
+            builder.timeouts(TimeoutConfig.builder().callTimeout(CALL_TIMEOUT).build())
+                .circuitBreaker(CircuitBreakerConfig.builder()
+                    .minimumCalls(2)
+                    .windowSize(2)
+                    .failureRateThreshold(0.5d)
+                    .openDuration(OPEN_DURATION)
+                    .halfOpenCalls(1)
+                    .build());
+        }
+
+        NewRelicApi ret = builder.build();
+        ret.setHttpClientProvider(new ApiKeyHttpClientProvider(key)
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        });
+        ret.initialize();
+        return ret;
+    }
+
+    /**
+     * Returns the only circuit breaker of the given client.
+     */
+    private static CircuitBreaker getBreaker(NewRelicApi api)
+    {
+        Assert.assertEquals(1, api.getCircuitBreakers().size());
+        return api.getCircuitBreakers().values().iterator().next();
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import javax.ws.rs.client.Client;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.ConcurrencyLimitConfig;
+import com.opsmatters.newrelic.api.httpclient.ConcurrencyLimiter;
+import com.opsmatters.newrelic.api.httpclient.TimeoutConfig;
+
+/**
+ * Tests the adaptive concurrency limit against a local stub server that can be switched
+ * between responding normally, throttling the requests with a 429 status, and responding too slowly.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ConcurrencyLimiterTest
+{
+    private static final Logger logger = Logger.getLogger(ConcurrencyLimiterTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":1,\"name\":\"test-application\"}}";
+    private static final String ERROR = "{\"error\":{\"title\":\"Too many requests\"}}";
+
+    private static final String OK = "ok";
+    private static final String THROTTLED = "throttled";
+    private static final String SLOW = "slow";
+
+    private static final int INITIAL_LIMIT = 4;
+    private static final int MIN_LIMIT = 2;
+    private static final int MAX_LIMIT = 20;
+
+    private static final int THREADS = 16;
+    private static final int CALLS = 25;
+
+    @Test(timeout=120000)
+    public void testAdaptiveLimit() throws Exception
+    {
+        String testName = "AdaptiveLimit";
+        logger.info("Starting test: "+testName);
+
+        final AtomicReference<String> mode = new AtomicReference<String>(OK);
+        final AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                requests.incrementAndGet();
+                String current = mode.get();
+                if(current.equals(THROTTLED))
+                {
+                    send(exchange, 429, ERROR);
+                    return;
+                }
+
+                sleep(current.equals(SLOW) ? 500L : 5L);
+                send(exchange, 200, APPLICATION);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        };
+        Client client = provider.getClient();
+        HttpContext httpContext = new HttpContext(client, "http", "127.0.0.1", server.getAddress().getPort());
+        httpContext.setThrowExceptions(true);
+
+        // The latency tolerance is set high so that only the failures cause the limit to back off
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitConfig.builder()
+            .initialLimit(INITIAL_LIMIT)
+            .minLimit(MIN_LIMIT)
+            .maxLimit(MAX_LIMIT)
+            .backoffRatio(0.5d)
+            .latencyTolerance(1000.0d)
+            .build());
+        httpContext.setConcurrencyLimiter(limiter);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try
+        {
+            // The limit grows while the concurrent requests succeed
+            Assert.assertEquals(INITIAL_LIMIT, limiter.getLimit());
+            Assert.assertEquals(0, call(httpContext, executor, THREADS, CALLS));
+            int increased = limiter.getLimit();
+            logger.info("Limit after successes: "+limiter);
+            Assert.assertTrue("limit did not increase: "+increased, increased > INITIAL_LIMIT);
+            Assert.assertTrue(increased <= MAX_LIMIT);
+
+            // A 429 response halves the limit
+            mode.set(THROTTLED);
+            Assert.assertEquals(1, call(httpContext, executor, 1, 1));
+            int throttled = limiter.getLimit();
+            logger.info("Limit after a 429 response: "+limiter);
+            Assert.assertEquals(Math.max(MIN_LIMIT, (int)(increased*0.5d)), throttled);
+
+            // Repeated 429 responses take the limit down to the minimum and no further
+            Assert.assertEquals(THREADS*CALLS, call(httpContext, executor, THREADS, CALLS));
+            logger.info("Limit after repeated 429 responses: "+limiter);
+            Assert.assertEquals(MIN_LIMIT, limiter.getLimit());
+
+            // The limit recovers once the requests succeed again
+            mode.set(OK);
+            Assert.assertEquals(0, call(httpContext, executor, THREADS, CALLS));
+            int recovered = limiter.getLimit();
+            logger.info("Limit after recovering: "+limiter);
+            Assert.assertTrue("limit did not recover: "+recovered, recovered > MIN_LIMIT);
+
+            // A request that times out also halves the limit
+            httpContext.setTimeouts(TimeoutConfig.builder().readTimeout(100).build());
+            mode.set(SLOW);
+            Assert.assertEquals(1, call(httpContext, executor, 1, 1));
+            logger.info("Limit after a timeout: "+limiter);
+            Assert.assertEquals(Math.max(MIN_LIMIT, (int)(recovered*0.5d)), limiter.getLimit());
+
+            // Repeated timeouts take the limit down to the minimum and no further
+            Assert.assertEquals(THREADS*2, call(httpContext, executor, THREADS, 2));
+            logger.info("Limit after repeated timeouts: "+limiter);
+            Assert.assertEquals(MIN_LIMIT, limiter.getLimit());
+            Assert.assertEquals(0, limiter.getInFlight());
+            logger.info("Requests: "+requests);
+        }
+        finally
+        {
+            executor.shutdownNow();
+            client.close();
+            server.stop(0);
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Makes the given number of calls on each of the given number of threads.
+     * @return The number of calls that failed
+     */
+    private static int call(final HttpContext httpContext, ExecutorService executor, int threads, final int calls)
+        throws Exception
+    {
+        final AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for(int i = 0; i < threads; i++)
+        {
+            futures.add(executor.submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for(int j = 0; j < calls; j++)
+                    {
+                        try
+                        {
+                            httpContext.GET("/v2/applications/1.json", BaseFluent.APPLICATION);
+                        }
+                        catch(RuntimeException e)
+                        {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+
+        for(Future<?> future : futures)
+            future.get();
+        return failures.get();
+    }
+
+    /**
+     * Waits for the given time in the stub server.
+     */
+    private static void sleep(long delay)
+    {
+        try
+        {
+            Thread.sleep(delay);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends the given response from the stub server.
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        try
+        {
+            out.write(bytes);
+            out.close();
+        }
+        catch(IOException e)
+        {
+            // The client may have timed out and closed the connection
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.ws.rs.client.Client;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.common.base.Optional;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.exceptions.DeadlineExceededException;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.ConcurrencyLimitConfig;
+import com.opsmatters.newrelic.api.httpclient.ConcurrencyLimiter;
+import com.opsmatters.newrelic.api.httpclient.Deadline;
+import com.opsmatters.newrelic.api.httpclient.RateLimitConfig;
+import com.opsmatters.newrelic.api.httpclient.RateLimiter;
+import com.opsmatters.newrelic.api.model.applications.Application;
+
+/**
+ * Tests that the waits for the limiters and for coalesced requests end when the deadline of a call passes
+ * or the call is cancelled, using a local stub server that holds the slow requests until it is released.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class DeadlineLimiterTest
+{
+    private static final Logger logger = Logger.getLogger(DeadlineLimiterTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":1,\"name\":\"test-application\"}}";
+
+    private static final long DEADLINE = 300L;
+
+    private HttpServer server;
+    private Client client;
+    private HttpContext httpContext;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        release = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                if(exchange.getRequestURI().getPath().contains("/slow"))
+                {
+                    try
+                    {
+                        release.await(10L, TimeUnit.SECONDS);
+                    }
+                    catch(InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                send(exchange, 200, APPLICATION);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        };
+        client = provider.getClient();
+        httpContext = new HttpContext(client, "http", "127.0.0.1", server.getAddress().getPort());
+        httpContext.setThrowExceptions(true);
+    }
+
+    @After
+    public void tearDown()
+    {
+        release.countDown();
+        client.close();
+        server.stop(0);
+    }
+
+    @Test(timeout=30000)
+    public void testSaturatedConcurrencyLimiter() throws Exception
+    {
+        String testName = "SaturatedConcurrencyLimiter";
+        logger.info("Starting test: "+testName);
+
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitConfig.builder()
+            .initialLimit(1).minLimit(1).maxLimit(1).build());
+        httpContext.setConcurrencyLimiter(limiter);
+
+        // Hold the only permit with a slow request
+        CompletableFuture<Optional<Application>> slow = httpContext.getAsync("/v2/slow/1.json", BaseFluent.APPLICATION);
+        waitFor(() -> limiter.getInFlight() == 1);
+
+        long started = System.nanoTime();
+        try
+        {
+            Deadline.after(DEADLINE).run(() -> httpContext.GET("/v2/applications/1.json", BaseFluent.APPLICATION));
+            Assert.fail("expected the deadline to pass");
+        }
+        catch(DeadlineExceededException e)
+        {
+        }
+        long elapsed = elapsed(started);
+        logger.info("Queued call failed after "+elapsed+"ms");
+        Assert.assertTrue("deadline not applied to the queue: "+elapsed+"ms", elapsed < DEADLINE+1000L);
+        Assert.assertEquals(0, limiter.getQueueLength());
+
+        // The slow request still completes and releases its permit
+        release.countDown();
+        Assert.assertTrue(slow.get(10L, TimeUnit.SECONDS).isPresent());
+        Assert.assertEquals(0, limiter.getInFlight());
+        Assert.assertTrue(httpContext.GET("/v2/applications/1.json", BaseFluent.APPLICATION).isPresent());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=30000)
+    public void testCancelQueuedCall() throws Exception
+    {
+        String testName = "CancelQueuedCall";
+        logger.info("Starting test: "+testName);
+
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(ConcurrencyLimitConfig.builder()
+            .initialLimit(1).minLimit(1).maxLimit(1).build());
+        httpContext.setConcurrencyLimiter(limiter);
+
+        CompletableFuture<Optional<Application>> slow = httpContext.getAsync("/v2/slow/1.json", BaseFluent.APPLICATION);
+        waitFor(() -> limiter.getInFlight() == 1);
+        CompletableFuture<Optional<Application>> queued = httpContext.getAsync("/v2/applications/1.json", BaseFluent.APPLICATION);
+        waitFor(() -> limiter.getQueueLength() == 1);
+
+        // Cancelling the future interrupts the wait for the limiter
+        Assert.assertTrue(queued.cancel(true));
+        waitFor(() -> limiter.getQueueLength() == 0);
+        Assert.assertEquals(1, limiter.getInFlight());
+
+        release.countDown();
+        Assert.assertTrue(slow.get(10L, TimeUnit.SECONDS).isPresent());
+        Assert.assertEquals(0, limiter.getInFlight());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=30000)
+    public void testRateLimiter() throws Exception
+    {
+        String testName = "RateLimiter";
+        logger.info("Starting test: "+testName);
+
+        RateLimiter limiter = new RateLimiter("test", RateLimitConfig.builder().rate(0.5d).burst(1).build());
+        httpContext.setRateLimiter(limiter);
+        Assert.assertTrue(httpContext.GET("/v2/applications/1.json", BaseFluent.APPLICATION).isPresent());
+
+        // The next token is not due for 2s, so the call fails without waiting
+        long started = System.nanoTime();
+        try
+        {
+            Deadline.after(DEADLINE).run(() -> httpContext.GET("/v2/applications/1.json", BaseFluent.APPLICATION));
+            Assert.fail("expected the deadline to pass");
+        }
+        catch(DeadlineExceededException e)
+        {
+        }
+        long elapsed = elapsed(started);
+        logger.info("Rate limited call failed after "+elapsed+"ms: "+limiter);
+        Assert.assertTrue("deadline not applied to the rate limit: "+elapsed+"ms", elapsed < DEADLINE);
+        Assert.assertEquals(0, limiter.getQueueLength());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=30000)
+    public void testCoalescedCall() throws Exception
+    {
+        String testName = "CoalescedCall";
+        logger.info("Starting test: "+testName);
+
+        httpContext.setCoalesceRequests(true);
+        CompletableFuture<Optional<Application>> slow = httpContext.getAsync("/v2/slow/1.json", BaseFluent.APPLICATION);
+        waitFor(() -> httpContext.getRequestCoalescer().getInFlight() == 1);
+
+        // The identical request waits for the one in flight only until its deadline
+        long started = System.nanoTime();
+        try
+        {
+            Deadline.after(DEADLINE).run(() -> httpContext.GET("/v2/slow/1.json", BaseFluent.APPLICATION));
+            Assert.fail("expected the deadline to pass");
+        }
+        catch(DeadlineExceededException e)
+        {
+        }
+        long elapsed = elapsed(started);
+        logger.info("Coalesced call failed after "+elapsed+"ms");
+        Assert.assertTrue("deadline not applied to the coalesced call: "+elapsed+"ms", elapsed < DEADLINE+1000L);
+        Assert.assertFalse(slow.isDone());
+
+        release.countDown();
+        Assert.assertTrue(slow.get(10L, TimeUnit.SECONDS).isPresent());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Waits until the given condition is true.
+     */
+    private static void waitFor(Condition condition) throws InterruptedException
+    {
+        long started = System.nanoTime();
+        while(!condition.isTrue())
+        {
+            if(elapsed(started) > 10000L)
+                Assert.fail("timed out waiting for condition");
+            Thread.sleep(10L);
+        }
+    }
+
+    /**
+     * Returns the time in milliseconds since the given time.
+     */
+    private static long elapsed(long started)
+    {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-started);
+    }
+
+    /**
+     * Sends the given response from the stub server.
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+
+    /**
+     * A condition to wait for.
+     */
+    private interface Condition
+    {
+        boolean isTrue();
+    }
+}
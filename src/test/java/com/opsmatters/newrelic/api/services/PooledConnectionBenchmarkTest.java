@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.ConnectionPoolConfig;
+
+/**
+ * Benchmark of the requests per second made with and without the pooled keep-alive connector
+ * against a local stub server, also counting the connections opened to the server.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class PooledConnectionBenchmarkTest
+{
+    private static final Logger logger = Logger.getLogger(PooledConnectionBenchmarkTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":1,\"name\":\"test-application\"}}";
+
+    private static final int THREADS = 16;
+    private static final int WARMUP = 20;
+    private static final int CALLS = 200;
+
+    static
+    {
+        // Otherwise the stub server delays each response waiting for an acknowledgement,
+        // which hides the cost of the connections (only takes effect before the first server is created)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @Test(timeout=120000)
+    public void testPooledConnections() throws Exception
+    {
+        String testName = "PooledConnectionBenchmarkTest";
+        logger.info("Starting test: "+testName);
+
+        final Set<String> connections = ConcurrentHashMap.newKeySet();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                connections.add(exchange.getRemoteAddress().toString());
+                byte[] bytes = APPLICATION.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(bytes);
+                out.close();
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(THREADS));
+        server.start();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try
+        {
+            int port = server.getAddress().getPort();
+            for(ConnectionPoolConfig pool : new ConnectionPoolConfig[]{null, ConnectionPoolConfig.builder().maxPerHost(THREADS).build()})
+            {
+                NewRelicApi api = getApi(port, pool);
+                call(api, executor, WARMUP);
+
+                connections.clear();
+                long started = System.nanoTime();
+                call(api, executor, CALLS);
+                long elapsed = System.nanoTime()-started;
+
+                String name = pool != null ? "Pooled connector" : "Default connector";
+                logger.info(name+": "+(THREADS*CALLS*1000000000L/elapsed)+" requests/sec, "+connections.size()+" connections");
+
+                // The pool reuses its connections to the host
+                if(pool != null)
+                    Assert.assertTrue("too many connections: "+connections.size(), connections.size() <= THREADS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+            server.stop(0);
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Makes the given number of calls on each thread, failing if any of the calls fail.
+     */
+    private static void call(final NewRelicApi api, ExecutorService executor, final int calls) throws Exception
+    {
+        final AtomicInteger applications = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for(int i = 0; i < THREADS; i++)
+        {
+            futures.add(executor.submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for(int j = 0; j < calls; j++)
+                    {
+                        if(api.applications().show(1L).isPresent())
+                            applications.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        for(Future<?> future : futures)
+            future.get();
+        Assert.assertEquals(THREADS*calls, applications.get());
+    }
+
+    /**
+     * Returns a client for the stub server, with the given connection pool.
+     */
+    private static NewRelicApi getApi(int port, ConnectionPoolConfig pool)
+    {
+        ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        };
+        provider.setConnectionPool(pool);
+        NewRelicApi api = new NewRelicApi("127.0.0.1", port, provider);
+        api.initialize();
+        return api;
+    }
+}
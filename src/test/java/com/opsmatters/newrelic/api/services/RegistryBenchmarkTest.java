@@ -0,0 +1,248 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.ws.rs.core.MediaType;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.GsonMessageBodyHandler;
+import com.opsmatters.newrelic.api.httpclient.GsonRegistry;
+import com.opsmatters.newrelic.api.model.applications.Application;
+
+/**
+ * Benchmark of the startup of the shared Gson registry, measuring the time taken and the heap retained to build it,
+ * the heap retained by each message body handler that uses it, and the latency of the first requests
+ * made to a local stub server, each run in a JVM of its own.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RegistryBenchmarkTest
+{
+    private static final Logger logger = Logger.getLogger(RegistryBenchmarkTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":1,\"name\":\"test-application\"}}";
+
+    private static final int RUNS = 3;
+
+    static
+    {
+        // Otherwise the stub server delays each response waiting for an acknowledgement
+        // (only takes effect before the first server is created)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @Test(timeout=120000)
+    public void testRegistry() throws Exception
+    {
+        String testName = "RegistryBenchmarkTest";
+        logger.info("Starting test: "+testName);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                byte[] bytes = APPLICATION.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(bytes);
+                out.close();
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+
+        long[] result = new long[]{Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        try
+        {
+            for(int i = 0; i < RUNS; i++)
+            {
+                long[] run = run(server.getAddress().getPort());
+                for(int j = 0; j < result.length; j++)
+                    result[j] = Math.min(result[j], run[j]);
+            }
+        }
+        finally
+        {
+            server.stop(0);
+        }
+
+        logger.info("Registry: built in "+TimeUnit.NANOSECONDS.toMillis(result[0])+"ms, "+(result[1]/1024L)+"KB retained");
+        logger.info("Message body handler: "+result[2]+" bytes retained");
+        logger.info("First request: "+TimeUnit.NANOSECONDS.toMillis(result[3])+"ms, second request: "
+            +TimeUnit.NANOSECONDS.toMicros(result[4])+"us");
+
+        // The handlers use the shared registry rather than building their own
+        Assert.assertTrue("registry retained no heap: "+result[1], result[1] > 0L);
+        Assert.assertTrue("handler retained "+result[2]+" bytes, registry "+result[1]+" bytes", result[2]*10L < result[1]);
+        Assert.assertTrue("first request was not slower than the second", result[4] < result[3]);
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Runs the probe in a new JVM, so that the registry and the client are created from scratch
+     * and the heap is not affected by the other tests.
+     * @return The result of the probe
+     */
+    private static long[] run(int port) throws Exception
+    {
+        String java = System.getProperty("java.home")+File.separator+"bin"+File.separator+"java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+            Probe.class.getName(), Integer.toString(port));
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+
+        String result = null;
+        StringBuilder output = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        for(String line = reader.readLine(); line != null; line = reader.readLine())
+        {
+            output.append(line).append("\n");
+            if(line.startsWith(Probe.RESULT))
+                result = line.substring(Probe.RESULT.length());
+        }
+        Assert.assertEquals("probe failed: "+output, 0, process.waitFor());
+        Assert.assertNotNull("probe returned no result: "+output, result);
+
+        String[] values = result.split(",");
+        long[] ret = new long[values.length];
+        for(int i = 0; i < values.length; i++)
+            ret[i] = Long.parseLong(values[i]);
+        return ret;
+    }
+
+    /**
+     * Builds the registry, the handlers and a client, in the JVM of the test run.
+     */
+    public static class Probe
+    {
+        static final String RESULT = "RESULT:";
+        private static final int HANDLERS = 1000;
+
+        /**
+         * Runs the probe and prints the result.
+         * @param args The port of the stub server
+         * @throws IOException if a request fails
+         */
+        public static void main(String[] args) throws IOException
+        {
+            long[] result = run(Integer.parseInt(args[0]));
+            StringBuilder str = new StringBuilder(RESULT);
+            for(int i = 0; i < result.length; i++)
+                str.append(i > 0 ? "," : "").append(result[i]);
+            System.out.println(str);
+            System.exit(0);
+        }
+
+        /**
+         * Builds the registry and the handlers, then makes two requests to the stub server.
+         * @param port The port of the stub server
+         * @return The time taken to build the registry in nanoseconds, the heap retained by the registry and by each handler in bytes,
+         *         and the time taken by the first and second requests in nanoseconds
+         */
+        public static long[] run(int port) throws IOException
+        {
+            long used = getUsedHeap();
+            long started = System.nanoTime();
+            Gson gson = GsonRegistry.getGson();
+            long built = System.nanoTime()-started;
+            long registry = getUsedHeap()-used;
+
+            // Each handler serializes an entity, which would build its adapters if it did not use the registry
+            Application application = gson.fromJson("{\"id\":1,\"name\":\"test-application\"}", Application.class);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            List<GsonMessageBodyHandler> handlers = new ArrayList<GsonMessageBodyHandler>(HANDLERS);
+
+            // Load the classes used to write an entity and create the buffer of the thread before measuring
+            new GsonMessageBodyHandler().writeTo(application, Application.class, Application.class, null, MediaType.APPLICATION_JSON_TYPE, null, out);
+            used = getUsedHeap();
+            for(int i = 0; i < HANDLERS; i++)
+            {
+                GsonMessageBodyHandler handler = new GsonMessageBodyHandler();
+                out.reset();
+                handler.writeTo(application, Application.class, Application.class, null, MediaType.APPLICATION_JSON_TYPE, null, out);
+                handlers.add(handler);
+            }
+            long handler = (getUsedHeap()-used)/HANDLERS;
+            Assert.assertEquals(HANDLERS, handlers.size());
+            Assert.assertSame(gson, GsonRegistry.getGson());
+
+            NewRelicApi api = new NewRelicApi("127.0.0.1", port, new ApiKeyHttpClientProvider("test-key")
+            {
+                @Override
+                public boolean useSsl()
+                {
+                    return false;
+                }
+            });
+            api.initialize();
+
+            started = System.nanoTime();
+            Assert.assertEquals("test-application", api.applications().show(1L).get().getName());
+            long first = System.nanoTime()-started;
+
+            started = System.nanoTime();
+            Assert.assertEquals("test-application", api.applications().show(1L).get().getName());
+            long second = System.nanoTime()-started;
+
+            return new long[]{built, registry, Math.max(handler, 0L), first, second};
+        }
+
+        /**
+         * Returns the heap in use after a garbage collection.
+         */
+        private static long getUsedHeap()
+        {
+            Runtime runtime = Runtime.getRuntime();
+            for(int i = 0; i < 3; i++)
+            {
+                System.gc();
+                try
+                {
+                    Thread.sleep(50L);
+                }
+                catch(InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return runtime.totalMemory()-runtime.freeMemory();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.net.URI;
+import java.util.List;
+import java.util.logging.Logger;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.opsmatters.newrelic.api.util.QueryParameterList;
+import com.opsmatters.newrelic.api.util.UriTemplate;
+
+/**
+ * Microbenchmark of the request building hot path, comparing the per-call String.format and
+ * chained query parameters with the precompiled templates and single-pass query encoding.
+ * <P>
+ * No requests are sent to the server.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RequestBuildingBenchmarkTest
+{
+    private static final Logger logger = Logger.getLogger(RequestBuildingBenchmarkTest.class.getName());
+
+    private static final UriTemplate METRIC_DATA_PATH = new UriTemplate("/v2/applications/{applicationId}/metrics/data.json");
+
+    private static final int WARMUP = 20000;
+    private static final int ITERATIONS = 100000;
+
+    private long applicationId = 123456789L;
+
+    @Test
+    public void testRequestBuilding() throws Exception
+    {
+        String testName = "RequestBuildingBenchmarkTest";
+        logger.info("Starting test: "+testName);
+
+        Client client = ClientBuilder.newClient();
+        HttpContext httpContext = new HttpContext(client, "https", "api.newrelic.com", 443);
+        QueryParameterList queryParams = new QueryParameterList();
+        queryParams.add("names[]", "HttpDispatcher");
+        queryParams.add("values[]", "average_call_time");
+        queryParams.add("from", "2018-01-01T00:00:00+00:00");
+        queryParams.add("summarize", true);
+
+        try
+        {
+            // Both ways of building the request should produce the same URI
+            URI before = buildFormatted(client, queryParams, applicationId).getUri();
+            URI after = buildPrecompiled(httpContext, queryParams, applicationId).getUri();
+            Assert.assertEquals(before, after);
+
+            for(int i = 0; i < WARMUP; i++)
+            {
+                buildFormatted(client, queryParams, i);
+                buildPrecompiled(httpContext, queryParams, i);
+            }
+
+            long started = System.nanoTime();
+            for(int i = 0; i < ITERATIONS; i++)
+                buildFormatted(client, queryParams, i);
+            long formatted = (System.nanoTime()-started)/ITERATIONS;
+
+            started = System.nanoTime();
+            for(int i = 0; i < ITERATIONS; i++)
+                buildPrecompiled(httpContext, queryParams, i);
+            long precompiled = (System.nanoTime()-started)/ITERATIONS;
+
+            logger.info("String.format and chained query parameters: "+formatted+"ns/op");
+            logger.info("Precompiled template and encoded query: "+precompiled+"ns/op");
+        }
+        finally
+        {
+            client.close();
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Builds the request target the way it was built before the templates were precompiled.
+     */
+    private WebTarget buildFormatted(Client client, List<String> queryParams, long id) throws Exception
+    {
+        String path = String.format("/v2/applications/%d/metrics/data.json", id);
+        URI uri = new URI(String.format("%s://%s:%s%s%s", "https", "api.newrelic.com", 443, "", path));
+        WebTarget target = client.target(uri);
+        for(int i = 0; i < queryParams.size(); i += 2)
+            target = target.queryParam(queryParams.get(i), queryParams.get(i+1));
+        return target;
+    }
+
+    /**
+     * Builds the request target using a precompiled template and single-pass query encoding.
+     */
+    private WebTarget buildPrecompiled(HttpContext httpContext, List<String> queryParams, long id)
+    {
+        URI uri = httpContext.buildUri(METRIC_DATA_PATH.expand(id));
+        return httpContext.target(uri, queryParams);
+    }
+}
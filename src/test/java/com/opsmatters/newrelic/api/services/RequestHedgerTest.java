@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import javax.ws.rs.core.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.opsmatters.newrelic.api.httpclient.HedgingPolicy;
+
+/**
+ * Tests that the hedging delay of an endpoint is only taken from the latencies of successful requests.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class RequestHedgerTest
+{
+    private static final Logger logger = Logger.getLogger(RequestHedgerTest.class.getName());
+
+    private static final String PATH = "/v2/applications/1.json";
+    private static final long LATENCY = 50L;
+    private static final int SAMPLES = 20;
+
+    private ExecutorService executor;
+    private RequestHedger hedger;
+
+    @Before
+    public void setUp()
+    {
+        executor = Executors.newCachedThreadPool();
+        hedger = new RequestHedger(HedgingPolicy.builder()
+            .percentile(0.5d)
+            .minDelay(1L)
+            .windowSize(SAMPLES)
+            .minimumSamples(SAMPLES/2)
+            .build(), executor);
+    }
+
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test(timeout=30000)
+    public void testRateLimitedBurst() throws Exception
+    {
+        String testName = "RateLimitedBurst";
+        logger.info("Starting test: "+testName);
+
+        // The hedging delay follows the latency of the successful requests
+        for(int i = 0; i < SAMPLES; i++)
+            execute(200, LATENCY);
+        long delay = hedger.getHedgingDelay(PATH);
+        logger.info("Hedging delay after successful requests: "+delay+"ms");
+        Assert.assertTrue("hedging delay was "+delay+"ms", delay >= LATENCY);
+
+        // A burst of fast 429 responses leaves the hedging delay unchanged
+        for(int i = 0; i < SAMPLES; i++)
+            execute(429, 0L);
+        Assert.assertEquals(delay, hedger.getHedgingDelay(PATH));
+
+        // As do other errors
+        for(int i = 0; i < SAMPLES; i++)
+            execute(404, 0L);
+        Assert.assertEquals(delay, hedger.getHedgingDelay(PATH));
+        Assert.assertEquals(3*SAMPLES, hedger.getRequests());
+        Assert.assertEquals(0L, hedger.getHedges());
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Executes a request using the hedger that returns the given status after the given latency, without sending a hedge.
+     */
+    private void execute(int status, long latency)
+    {
+        Response response = hedger.execute(PATH, () ->
+        {
+            sleep(latency);
+            return Response.status(status).build();
+        }, () -> false);
+        Assert.assertEquals(status, response.getStatus());
+    }
+
+    /**
+     * Waits for the given time in the request.
+     */
+    private static void sleep(long delay)
+    {
+        try
+        {
+            Thread.sleep(delay);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.ResponseCacheConfig;
+import com.opsmatters.newrelic.api.model.alerts.channels.AlertChannel;
+import com.opsmatters.newrelic.api.model.alerts.conditions.AlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.ApmAppAlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.Nrql;
+import com.opsmatters.newrelic.api.model.alerts.conditions.NrqlAlertCondition;
+import com.opsmatters.newrelic.api.model.alerts.conditions.Term;
+import com.opsmatters.newrelic.api.model.labels.Label;
+
+/**
+ * Tests that creating, deleting or updating a resource invalidates the cached lists of the resource
+ * and of the resources that include it, when the path of the modification differs from the path of the list,
+ * using a local stub server.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ResponseCacheInvalidationTest
+{
+    private static final Logger logger = Logger.getLogger(ResponseCacheInvalidationTest.class.getName());
+
+    private static final String CONDITION = "{\"id\":1,\"type\":\"apm_app_metric\",\"name\":\"condition-1\","
+        +"\"entities\":[\"1\"],\"metric\":\"apdex\",\"condition_scope\":\"application\",\"terms\":[{\"duration\":\"5\","
+        +"\"operator\":\"above\",\"priority\":\"critical\",\"threshold\":\"1\",\"time_function\":\"all\"}]}";
+    private static final String LABEL = "{\"key\":\"Environment:Production\",\"category\":\"Environment\",\"name\":\"Production\","
+        +"\"links\":{\"applications\":[],\"servers\":[]}}";
+    private static final String CHANNEL = "{\"id\":1,\"name\":\"test-email\",\"type\":\"email\","
+        +"\"configuration\":{\"recipients\":\"test@test.com\"},\"links\":{\"policy_ids\":[]}}";
+
+    private HttpServer server;
+    private NewRelicApi api;
+    private ConcurrentMap<String,AtomicInteger> requests = new ConcurrentHashMap<String,AtomicInteger>();
+    private ConcurrentMap<String,JsonArray> resources = new ConcurrentHashMap<String,JsonArray>();
+    private AtomicLong ids = new AtomicLong(100L);
+    private JsonParser parser = new JsonParser();
+
+    @Before
+    public void setUp() throws Exception
+    {
+        resources.put("conditions", array(CONDITION));
+        resources.put("nrql_conditions", new JsonArray());
+        resources.put("labels", array(LABEL));
+        resources.put("channels", array(CHANNEL));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                handleRequest(exchange);
+            }
+        });
+        server.start();
+
+        api = NewRelicApi.builder()
+            .hostname("127.0.0.1")
+            .port(server.getAddress().getPort())
+            .responseCache(ResponseCacheConfig.builder().defaultTtl(60000L).build())
+            .build();
+        api.setHttpClientProvider(new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        });
+        api.initialize();
+    }
+
+    @After
+    public void tearDown()
+    {
+        server.stop(0);
+    }
+
+    @Test(timeout=30000)
+    public void testCreateThenList() throws Exception
+    {
+        String testName = "CreateThenList";
+        logger.info("Starting test: "+testName);
+
+        // The lists are cached
+        Assert.assertEquals(1, api.alertConditions().list(1L).size());
+        Assert.assertEquals(1, api.alertConditions().list(1L).size());
+        Assert.assertEquals(0, api.nrqlAlertConditions().list(1L).size());
+        Assert.assertEquals(0, api.nrqlAlertConditions().list(1L).size());
+        Assert.assertEquals(1, api.labels().list().size());
+        Assert.assertEquals(1, getRequests("/v2/alerts_conditions.json"));
+        Assert.assertEquals(1, getRequests("/v2/alerts_nrql_conditions.json"));
+
+        // Creating a condition for a policy invalidates the list of the conditions
+        Assert.assertTrue(api.alertConditions().create(1L, getApmCondition()).isPresent());
+        Collection<AlertCondition> conditions = api.alertConditions().list(1L);
+        Assert.assertEquals(2, conditions.size());
+        Assert.assertEquals(2, getRequests("/v2/alerts_conditions.json"));
+
+        Assert.assertTrue(api.nrqlAlertConditions().create(1L, getNrqlCondition()).isPresent());
+        Assert.assertEquals(1, api.nrqlAlertConditions().list(1L).size());
+        Assert.assertEquals(2, getRequests("/v2/alerts_nrql_conditions.json"));
+
+        // The lists of other resources are still cached
+        Assert.assertEquals(1, api.labels().list().size());
+        Assert.assertEquals(1, getRequests("/v2/labels.json"));
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=30000)
+    public void testDeleteThenList() throws Exception
+    {
+        String testName = "DeleteThenList";
+        logger.info("Starting test: "+testName);
+
+        // Deleting a label by its key invalidates the list of the labels
+        Collection<Label> labels = api.labels().list();
+        Assert.assertEquals(1, labels.size());
+        Assert.assertEquals(1, api.labels().list().size());
+        Assert.assertEquals(1, getRequests("/v2/labels.json"));
+
+        api.labels().delete(labels.iterator().next().getKey());
+        Assert.assertEquals(0, api.labels().list().size());
+        Assert.assertEquals(2, getRequests("/v2/labels.json"));
+
+        // Deleting a condition invalidates the list of the conditions
+        Assert.assertEquals(1, api.alertConditions().list(1L).size());
+        api.alertConditions().delete(1L);
+        Assert.assertEquals(0, api.alertConditions().list(1L).size());
+        Assert.assertEquals(2, getRequests("/v2/alerts_conditions.json"));
+
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=30000)
+    public void testUpdatePolicyChannels() throws Exception
+    {
+        String testName = "UpdatePolicyChannels";
+        logger.info("Starting test: "+testName);
+
+        // Adding a channel to a policy invalidates the list of the channels, which includes the policies of each channel
+        Assert.assertEquals(0, api.alertChannels().list(1L).size());
+        Assert.assertEquals(0, api.alertChannels().list(1L).size());
+        Assert.assertEquals(1, getRequests("/v2/alerts_channels.json"));
+
+        Assert.assertTrue(api.alertPolicyChannels().update(1L, 1L).isPresent());
+        Collection<AlertChannel> channels = api.alertChannels().list(1L);
+        Assert.assertEquals(1, channels.size());
+        Assert.assertEquals(2, getRequests("/v2/alerts_channels.json"));
+
+        api.alertPolicyChannels().delete(1L, 1L);
+        Assert.assertEquals(0, api.alertChannels().list(1L).size());
+        Assert.assertEquals(3, getRequests("/v2/alerts_channels.json"));
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Handles a request to the stub server, keeping the resources that have been created, deleted or updated.
+     */
+    private void handleRequest(HttpExchange exchange) throws IOException
+    {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        if(method.equals("GET"))
+            requests.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+
+        String resource = path.startsWith("/v2/alerts_nrql_conditions") ? "nrql_conditions"
+            : path.startsWith("/v2/alerts_conditions") ? "conditions"
+            : path.startsWith("/v2/labels") ? "labels"
+            : path.startsWith("/v2/alerts_channels") ? "channels" : null;
+        if(method.equals("GET") && resource != null)
+        {
+            JsonObject ret = new JsonObject();
+            ret.add(resource, resources.get(resource));
+            send(exchange, ret.toString());
+        }
+        else if(method.equals("POST") && resource != null)
+        {
+            // Add the entity to the resources with a new id
+            JsonObject entity = parser.parse(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)).getAsJsonObject();
+            String name = entity.entrySet().iterator().next().getKey();
+            JsonObject obj = entity.getAsJsonObject(name);
+            obj.addProperty("id", ids.incrementAndGet());
+            resources.get(resource).add(obj);
+            send(exchange, entity.toString());
+        }
+        else if(method.equals("DELETE") && resource != null)
+        {
+            // Remove the entity with the id or key at the end of the path
+            String id = path.substring(path.lastIndexOf('/')+1, path.lastIndexOf('.'));
+            JsonArray array = resources.get(resource);
+            for(int i = 0; i < array.size(); i++)
+            {
+                JsonObject obj = array.get(i).getAsJsonObject();
+                if(id.equals(obj.has("key") ? obj.get("key").getAsString() : obj.get("id").getAsString()))
+                    array.remove(i--);
+            }
+            send(exchange, "{}");
+        }
+        else if(path.equals("/v2/alerts_policy_channels.json"))
+        {
+            // Add or remove the policy in the links of the channel
+            long policyId = Long.parseLong(getParameter(query, "policy_id"));
+            JsonObject channel = resources.get("channels").get(0).getAsJsonObject();
+            JsonArray policyIds = channel.getAsJsonObject("links").getAsJsonArray("policy_ids");
+            policyIds.remove(parser.parse(Long.toString(policyId)));
+            if(method.equals("PUT"))
+                policyIds.add(policyId);
+            send(exchange, "{\"policy\":{\"id\":"+policyId+",\"channel_ids\":[1]}}");
+        }
+        else
+        {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        }
+    }
+
+    /**
+     * Returns the number of GET requests received for the given path.
+     */
+    private int getRequests(String path)
+    {
+        AtomicInteger count = requests.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Returns the value of the given parameter in the query.
+     */
+    private static String getParameter(String query, String name)
+    {
+        for(String parameter : query.split("&"))
+        {
+            if(parameter.startsWith(name+"="))
+                return parameter.substring(name.length()+1);
+        }
+        return null;
+    }
+
+    /**
+     * Returns an array containing the given object.
+     */
+    private JsonArray array(String json)
+    {
+        JsonArray ret = new JsonArray();
+        JsonElement element = parser.parse(json);
+        ret.add(element);
+        return ret;
+    }
+
+    /**
+     * Returns an APM condition to create.
+     */
+    private static ApmAppAlertCondition getApmCondition()
+    {
+        return ApmAppAlertCondition.builder()
+            .name("condition-2")
+            .metric(ApmAppAlertCondition.Metric.APDEX)
+            .applicationConditionScope()
+            .addTerm(getTerm())
+            .enabled(true)
+            .build();
+    }
+
+    /**
+     * Returns a NRQL condition to create.
+     */
+    private static NrqlAlertCondition getNrqlCondition()
+    {
+        return NrqlAlertCondition.builder()
+            .name("nrql-condition")
+            .singleValueFunction()
+            .addTerm(getTerm())
+            .nrql(Nrql.builder().query("SELECT count(*) FROM Transaction").sinceValue(3).build())
+            .enabled(true)
+            .build();
+    }
+
+    /**
+     * Returns the term of a condition.
+     */
+    private static Term getTerm()
+    {
+        return Term.builder()
+            .duration(Term.Duration.MINUTES_10)
+            .criticalPriority()
+            .aboveOperator()
+            .allTimeFunction()
+            .threshold(1)
+            .build();
+    }
+
+    /**
+     * Sends the given response from the stub server.
+     */
+    private static void send(HttpExchange exchange, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
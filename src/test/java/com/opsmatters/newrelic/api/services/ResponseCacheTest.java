@@ -0,0 +1,266 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.common.base.Optional;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.ResponseCacheConfig;
+import com.opsmatters.newrelic.api.model.applications.Application;
+
+/**
+ * Tests that the response cache is bypassed by the calls made on other threads inside
+ * {@link NewRelicApi#uncached}, and that a response read before its resource was modified
+ * is not cached, using a local stub server.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ResponseCacheTest
+{
+    private static final Logger logger = Logger.getLogger(ResponseCacheTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":%d,\"name\":\"%s\"}}";
+    private static final String APPLICATIONS = "{\"applications\":[{\"id\":%d,\"name\":\"a\"}]}";
+
+    private static final int PAGES = 4;
+
+    private HttpServer server;
+    private NewRelicApi api;
+    private ConcurrentMap<String,AtomicInteger> requests = new ConcurrentHashMap<String,AtomicInteger>();
+    private AtomicReference<String> name = new AtomicReference<String>("old");
+    private AtomicReference<CountDownLatch> blocked = new AtomicReference<CountDownLatch>();
+    private CountDownLatch reading = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                String path = exchange.getRequestURI().getPath();
+                String query = exchange.getRequestURI().getQuery();
+                if(exchange.getRequestMethod().equals("GET"))
+                    requests.computeIfAbsent(path+(query != null ? "?"+query : ""), k -> new AtomicInteger()).incrementAndGet();
+
+                if(path.endsWith("/applications.json"))
+                {
+                    int page = query != null && query.startsWith("page=") ? Integer.parseInt(query.substring(5)) : 1;
+                    String base = "http://127.0.0.1:"+server.getAddress().getPort()+path+"?page=";
+                    if(page < PAGES)
+                        exchange.getResponseHeaders().add("Link", "<"+base+(page+1)+">; rel=\"next\", <"+base+PAGES+">; rel=\"last\"");
+                    send(exchange, String.format(APPLICATIONS, page));
+                }
+                else if(exchange.getRequestMethod().equals("PUT"))
+                {
+                    name.set("new");
+                    send(exchange, String.format(APPLICATION, 1, name.get()));
+                }
+                else
+                {
+                    // Read the resource, then hold the response if requested
+                    String body = String.format(APPLICATION, getId(path), name.get());
+                    CountDownLatch latch = blocked.getAndSet(null);
+                    if(latch != null)
+                    {
+                        reading.countDown();
+                        await(latch);
+                    }
+                    send(exchange, body);
+                }
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        api = NewRelicApi.builder()
+            .hostname("127.0.0.1")
+            .port(server.getAddress().getPort())
+            .responseCache(ResponseCacheConfig.builder().defaultTtl(60000L).build())
+            .build();
+        api.setHttpClientProvider(new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        });
+        api.initialize();
+    }
+
+    @After
+    public void tearDown()
+    {
+        server.stop(0);
+    }
+
+    @Test(timeout=30000)
+    public void testBypass() throws Exception
+    {
+        String testName = "Bypass";
+        logger.info("Starting test: "+testName);
+
+        ResponseCache cache = api.getResponseCache();
+
+        // The same request is answered from the cache
+        Assert.assertTrue(api.applications().show(1L).isPresent());
+        Assert.assertTrue(api.applications().show(1L).isPresent());
+        Assert.assertEquals(1, getRequests("/v2/applications/1.json"));
+        cache.invalidateAll();
+
+        // An async call started inside the bypass does not use the cache
+        CompletableFuture<Optional<Application>> future = api.uncached(() -> api.applications().showAsync(2L));
+        Assert.assertTrue(future.get(10L, TimeUnit.SECONDS).isPresent());
+        future = api.uncached(() -> api.applications().showAsync(2L));
+        Assert.assertTrue(future.get(10L, TimeUnit.SECONDS).isPresent());
+        Assert.assertEquals(2, getRequests("/v2/applications/2.json"));
+        Assert.assertEquals(0L, cache.size());
+
+        // Nor does a bulk operation
+        List<Long> ids = Arrays.asList(3L, 4L, 5L);
+        for(int i = 0; i < 2; i++)
+        {
+            List<Optional<Application>> applications = api.uncached(() -> api.bulk(ids, id -> api.applications().show(id)));
+            Assert.assertEquals(ids.size(), applications.size());
+        }
+        for(Long id : ids)
+            Assert.assertEquals(2, getRequests("/v2/applications/"+id+".json"));
+        Assert.assertEquals(0L, cache.size());
+
+        // Nor do the pages prefetched by an iterator created inside the bypass
+        HttpContext httpContext = api.getHttpContext();
+        PagedIterable<Application> pages = new PagedIterable<Application>(httpContext, "/v2/applications.json",
+            null, null, BaseFluent.APPLICATIONS).prefetch(PAGES);
+        for(int i = 0; i < 2; i++)
+        {
+            List<Application> applications = new ArrayList<Application>();
+            api.uncached(() -> pages.iterator()).forEachRemaining(applications::add);
+            Assert.assertEquals(PAGES, applications.size());
+        }
+        Assert.assertEquals(2, getRequests("/v2/applications.json"));
+        for(int page = 2; page <= PAGES; page++)
+            Assert.assertEquals(2, getRequests("/v2/applications.json?page="+page));
+        Assert.assertEquals(0L, cache.size());
+
+        logger.info("Requests: "+requests+", "+cache);
+        logger.info("Completed test: "+testName);
+    }
+
+    @Test(timeout=30000)
+    public void testInvalidationDuringRequest() throws Exception
+    {
+        String testName = "InvalidationDuringRequest";
+        logger.info("Starting test: "+testName);
+
+        ResponseCache cache = api.getResponseCache();
+        Application application = new Application();
+        application.setId(1L);
+        application.setName("new");
+
+        // Hold a GET after it has read the old version of the application
+        CountDownLatch latch = new CountDownLatch(1);
+        blocked.set(latch);
+        CompletableFuture<Optional<Application>> stale = api.applications().showAsync(1L);
+        Assert.assertTrue(reading.await(10L, TimeUnit.SECONDS));
+
+        // Update the application while the GET is in flight
+        Assert.assertTrue(api.applications().update(application).isPresent());
+        latch.countDown();
+        Assert.assertEquals("old", stale.get(10L, TimeUnit.SECONDS).get().getName());
+
+        // The old version was not cached
+        Assert.assertEquals(0L, cache.size());
+        Assert.assertEquals("new", api.applications().show(1L).get().getName());
+        Assert.assertEquals("new", api.applications().show(1L).get().getName());
+        Assert.assertEquals(2, getRequests("/v2/applications/1.json"));
+
+        logger.info("Requests: "+requests+", "+cache);
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Returns the number of GET requests received for the given path and query.
+     */
+    private int getRequests(String path)
+    {
+        AtomicInteger count = requests.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Returns the id at the end of the given path.
+     */
+    private static long getId(String path)
+    {
+        String id = path.substring(path.lastIndexOf('/')+1);
+        return Long.parseLong(id.substring(0, id.indexOf('.')));
+    }
+
+    /**
+     * Waits for the given latch to be released.
+     */
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await(10L, TimeUnit.SECONDS);
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends the given response from the stub server.
+     */
+    private static void send(HttpExchange exchange, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
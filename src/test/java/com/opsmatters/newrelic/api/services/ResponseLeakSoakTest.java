@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Response;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.google.common.base.Optional;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.exceptions.ErrorResponseException;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.httpclient.ConnectionPoolConfig;
+import com.opsmatters.newrelic.api.httpclient.filters.ResponseLeakDetector;
+import com.opsmatters.newrelic.api.model.applications.Application;
+import com.opsmatters.newrelic.api.util.CloseableIterator;
+
+/**
+ * Soak test that checks that every response is closed, using a local stub server
+ * and a connection pool small enough to be exhausted by a single leaked connection.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class ResponseLeakSoakTest
+{
+    private static final Logger logger = Logger.getLogger(ResponseLeakSoakTest.class.getName());
+
+    private static final String APPLICATION = "{\"application\":{\"id\":1,\"name\":\"test-application\"}}";
+    private static final String APPLICATIONS = "{\"applications\":[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}]}";
+    private static final String ERROR = "{\"error\":{\"title\":\"Not found\"}}";
+
+    private static final int ITERATIONS = 200;
+
+    @Test(timeout=120000)
+    public void testResponseClosing() throws Exception
+    {
+        String testName = "ResponseLeakSoakTest";
+        logger.info("Starting test: "+testName);
+
+        final AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler()
+        {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException
+            {
+                requests.incrementAndGet();
+                String path = exchange.getRequestURI().getPath();
+                if(path.contains("/missing"))
+                    send(exchange, 404, ERROR);
+                else if(path.endsWith("/applications.json"))
+                    send(exchange, 200, APPLICATIONS);
+                else
+                    send(exchange, exchange.getRequestMethod().equals("POST") ? 201 : 200, APPLICATION);
+            }
+        });
+        server.start();
+
+        ApiKeyHttpClientProvider provider = new ApiKeyHttpClientProvider("test-key")
+        {
+            @Override
+            public boolean useSsl()
+            {
+                return false;
+            }
+        };
+        provider.setConnectionPool(ConnectionPoolConfig.builder().maxTotal(2).maxPerHost(2).build());
+        Client client = provider.getClient();
+        HttpContext httpContext = new HttpContext(client, "http", "127.0.0.1", server.getAddress().getPort());
+        httpContext.setThrowExceptions(true);
+        httpContext.setLeakDetection(true);
+        Application application = new Application();
+        application.setId(1L);
+
+        try
+        {
+            for(int i = 0; i < ITERATIONS; i++)
+            {
+                Assert.assertTrue(httpContext.GET("/v2/applications/1.json", BaseFluent.APPLICATION).isPresent());
+                Assert.assertTrue(httpContext.PUT("/v2/applications/1.json", application, BaseFluent.APPLICATION).isPresent());
+                httpContext.PUT("/v2/applications/1.json", application);
+                httpContext.PATCH("/v2/applications/1.json", application);
+                httpContext.DELETE("/v2/applications/1.json");
+                Assert.assertTrue(httpContext.POST("/v2/applications.json", application, BaseFluent.APPLICATION).isPresent());
+
+                // The raw response can still be read after the connection has been released
+                Optional<Response> response = httpContext.POST("/v2/applications/1.json", application);
+                Assert.assertTrue(response.get().readEntity(String.class).contains("test-application"));
+
+                try
+                {
+                    httpContext.GET("/v2/missing/1.json", BaseFluent.APPLICATION);
+                    Assert.fail("expected an error response");
+                }
+                catch(ErrorResponseException e)
+                {
+                }
+
+                try
+                {
+                    httpContext.DELETE("/v2/missing/1.json");
+                    Assert.fail("expected an error response");
+                }
+                catch(ErrorResponseException e)
+                {
+                }
+
+                // Stop streaming the page part of the way through
+                Page<Application> page = httpContext.getStreamedPage("/v2/applications.json", null, null, BaseFluent.APPLICATIONS);
+                CloseableIterator<Application> it = page.iterator();
+                Assert.assertTrue(it.hasNext());
+                it.next();
+                it.close();
+            }
+
+            System.gc();
+            ResponseLeakDetector detector = httpContext.getLeakDetector();
+            logger.info("Requests: "+requests+", "+detector);
+            Assert.assertEquals(0, detector.report());
+            Assert.assertEquals(0L, detector.getLeakCount());
+        }
+        finally
+        {
+            client.close();
+            server.stop(0);
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Sends the given response from the stub server.
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2018 Gerald Curley
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.opsmatters.newrelic.api.services;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.logging.Logger;
+import org.junit.Test;
+import junit.framework.Assert;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.opsmatters.newrelic.api.NewRelicApi;
+import com.opsmatters.newrelic.api.httpclient.ApiKeyHttpClientProvider;
+import com.opsmatters.newrelic.api.model.applications.Application;
+
+/**
+ * Benchmark of the startup cost of a short-lived job, measuring the time to the first
+ * ApplicationService.list() against a local stub server in a new JVM.
+ * <P>
+ * Each run is made in a separate JVM so that none of the classes are already loaded.
+ * The time, loaded classes and metaspace are logged for each phase.
+ *
+ * @author Gerald Curley (opsmatters)
+ */
+public class StartupBenchmarkTest
+{
+    private static final Logger logger = Logger.getLogger(StartupBenchmarkTest.class.getName());
+
+    private static final String APPLICATIONS = "{\"applications\":[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}]}";
+
+    private static final String RESULT = "startup:";
+
+    private static final int RUNS = 3;
+
+    @Test(timeout=120000)
+    public void testStartup() throws Exception
+    {
+        String testName = "StartupBenchmarkTest";
+        logger.info("Starting test: "+testName);
+
+        String java = System.getProperty("java.home")+File.separator+"bin"+File.separator+"java";
+        for(int i = 0; i < RUNS; i++)
+        {
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), FirstCall.class.getName());
+            builder.redirectErrorStream(true);
+            Process process = builder.start();
+
+            String result = null;
+            StringBuilder output = new StringBuilder();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            try
+            {
+                String line;
+                while((line = reader.readLine()) != null)
+                {
+                    if(line.startsWith(RESULT))
+                        result = line.substring(RESULT.length()).trim();
+                    else
+                        output.append(line).append(System.lineSeparator());
+                }
+            }
+            finally
+            {
+                reader.close();
+            }
+
+            Assert.assertEquals(output.toString(), 0, process.waitFor());
+            Assert.assertNotNull(output.toString(), result);
+            logger.info("Run "+(i+1)+": "+result);
+        }
+
+        logger.info("Completed test: "+testName);
+    }
+
+    /**
+     * Makes the first call to ApplicationService.list() in a new JVM and prints the cost of each phase.
+     */
+    public static class FirstCall
+    {
+        /**
+         * Starts a stub server, lists the applications and prints the results.
+         * @param args The arguments, which are not used
+         * @throws Exception if the call fails
+         */
+        public static void main(String[] args) throws Exception
+        {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", new HttpHandler()
+            {
+                @Override
+                public void handle(HttpExchange exchange) throws IOException
+                {
+                    byte[] bytes = APPLICATIONS.getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, bytes.length);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(bytes);
+                    out.close();
+                }
+            });
+            server.start();
+
+            try
+            {
+                StringBuilder result = new StringBuilder(RESULT);
+                long started = System.nanoTime();
+
+                NewRelicApi api = NewRelicApi.builder()
+                    .hostname("127.0.0.1")
+                    .port(server.getAddress().getPort())
+                    .build();
+                api.setHttpClientProvider(new ApiKeyHttpClientProvider("test-key")
+                {
+                    @Override
+                    public boolean useSsl()
+                    {
+                        return false;
+                    }
+                });
+                long built = System.nanoTime();
+                append(result, "build", built-started);
+
+                api.initialize();
+                long initialized = System.nanoTime();
+                append(result, "initialize", initialized-built);
+
+                Collection<Application> applications = api.applications().list();
+                long listed = System.nanoTime();
+                append(result, "firstList", listed-initialized);
+                if(applications.size() != 2)
+                    throw new IllegalStateException("expected 2 applications: "+applications);
+
+                api.applications().list();
+                append(result, "secondList", System.nanoTime()-listed);
+                append(result, "total", listed-started);
+
+                result.append(" classes=").append(ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+                for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+                {
+                    if(pool.getName().equals("Metaspace"))
+                        result.append(" metaspace=").append(pool.getUsage().getUsed()/1024L).append("KB");
+                }
+
+                System.out.println(result);
+            }
+            finally
+            {
+                server.stop(0);
+            }
+
+            // The client threads would otherwise keep the JVM running
+            System.exit(0);
+        }
+
+        /**
+         * Appends the given time in milliseconds to the result.
+         */
+        private static void append(StringBuilder result, String name, long nanos)
+        {
+            result.append(" ").append(name).append("=").append(nanos/1000000L).append("ms");
+        }
+    }
+}